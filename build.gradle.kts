@@ -4,6 +4,7 @@ plugins {
     id("io.spring.dependency-management") version "1.1.7"
     id("com.netflix.dgs.codegen") version "7.0.3"
     id("org.liquibase.gradle") version "2.2.0" // Add Liquibase Gradle plugin
+    id("me.champeau.jmh") version "0.7.3"       // JMH benchmarks in src/jmh
 }
 
 group = "com.acoustic"
@@ -25,6 +26,15 @@ repositories {
     mavenCentral()
 }
 
+// Repository performance harness, run on demand with ./gradlew perfTest
+val perfTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations["perfTestImplementation"].extendsFrom(configurations.implementation.get())
+configurations["perfTestRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
 extra["netflixDgsVersion"] = "10.2.1"
 
 val mapstructVersion = "1.5.5.Final"
@@ -34,11 +44,17 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")         // JPA support
     implementation("org.springframework.boot:spring-boot-starter-validation")       // Bean validation
     implementation("org.springframework.boot:spring-boot-starter-web")              // Web support
+    implementation("org.springframework.boot:spring-boot-starter-websocket")        // GraphQL subscriptions
 
     // --- Netflix DGS (GraphQL) ---
     implementation("com.netflix.graphql.dgs:graphql-dgs-spring-graphql-starter")    // DGS GraphQL starter
     implementation("com.netflix.graphql.dgs:graphql-dgs-extended-scalars")          // DGS extended scalars
 
+    // --- Caching & Metrics ---
+    implementation("org.springframework.boot:spring-boot-starter-actuator")        // Actuator + Micrometer
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")                    // Prometheus scrape endpoint
+    implementation("com.github.ben-manes.caffeine:caffeine")                       // In-process caches
+
     // --- MapStruct (Mapping) ---
     implementation("org.mapstruct:mapstruct:${mapstructVersion}")
 
@@ -63,6 +79,13 @@ dependencies {
     testImplementation("com.netflix.graphql.dgs:graphql-dgs-spring-graphql-starter-test") // DGS test starter
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")                  // JUnit platform launcher
 
+    // --- Performance Harness ---
+    "perfTestImplementation"("org.springframework.boot:spring-boot-starter-test")  // JUnit + AssertJ
+    "perfTestImplementation"("io.zonky.test:embedded-postgres:2.1.0")               // PostgreSQL binaries, no Docker
+    "perfTestImplementation"(enforcedPlatform("io.zonky.test.postgres:embedded-postgres-binaries-bom:16.2.0"))
+    "perfTestImplementation"("org.postgresql:postgresql")                           // COPY for bulk seeding
+    "perfTestRuntimeOnly"("org.junit.platform:junit-platform-launcher")
+
     // --- Liquibase CLI Runtime ---
     liquibaseRuntime("org.liquibase:liquibase-core")                               // Liquibase CLI
     liquibaseRuntime("org.postgresql:postgresql")                                  // PostgreSQL for Liquibase
@@ -84,6 +107,32 @@ tasks.withType<Test> {
     useJUnitPlatform()
 }
 
+tasks.register<Test>("perfTest") {
+    description = "Measures repository query latencies and plans against an embedded PostgreSQL."
+    group = "verification"
+    testClassesDirs = perfTest.output.classesDirs
+    classpath = perfTest.runtimeClasspath
+    maxHeapSize = "2g"
+    shouldRunAfter(tasks.test)
+    outputs.upToDateWhen { false }
+
+    // Scale and iterations can be overridden with -Dperf.employees=..., -Dperf.weeks=..., -Dperf.iterations=...
+    systemProperty("perf.reportDir", layout.buildDirectory.dir("reports/perf").get().asFile.absolutePath)
+    System.getProperties()
+        .filterKeys { it.toString().startsWith("perf.") }
+        .forEach { (key, value) -> systemProperty(key.toString(), value) }
+}
+
+// Run with ./gradlew jmh, optionally narrowed with -Pjmh.includes=<regex>; results go to build/results/jmh
+jmh {
+    jmhVersion = "1.37"
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    resultFormat = "JSON"
+    (findProperty("jmh.includes") as String?)?.let { includes = listOf(it) }
+}
+
 liquibase {
     activities.register("main") {
         arguments = mapOf(
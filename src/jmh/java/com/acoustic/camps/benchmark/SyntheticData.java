@@ -0,0 +1,101 @@
+package com.acoustic.camps.benchmark;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.model.TeamModel;
+import com.acoustic.camps.model.TeamTrendDataModel;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic synthetic organisations for benchmarks.
+ * The same team count and history length always produce the same data, so runs are comparable.
+ */
+public final class SyntheticData {
+
+    public static final int EMPLOYEES_PER_TEAM = 8;
+    public static final OffsetDateTime WEEK_END = OffsetDateTime.of(2025, 6, 29, 23, 59, 59, 0, ZoneOffset.UTC);
+
+    private static final CampsCategory[] CATEGORIES = CampsCategory.values();
+
+    private final Random random;
+    private final List<UUID> teamIds = new ArrayList<>();
+    private final List<List<UUID>> employeeIds = new ArrayList<>();
+
+    public SyntheticData(int teamCount, long seed) {
+        this.random = new Random(seed);
+        for (int t = 0; t < teamCount; t++) {
+            teamIds.add(new UUID(seed, t));
+            List<UUID> members = new ArrayList<>(EMPLOYEES_PER_TEAM);
+            for (int e = 0; e < EMPLOYEES_PER_TEAM; e++) {
+                members.add(new UUID(seed + 1, (long) t * EMPLOYEES_PER_TEAM + e));
+            }
+            employeeIds.add(members);
+        }
+    }
+
+    public List<UUID> teamIds() {
+        return teamIds;
+    }
+
+    public List<UUID> employeeIds(int teamIndex) {
+        return employeeIds.get(teamIndex);
+    }
+
+    public static CampsCategory[] categories() {
+        return CATEGORIES;
+    }
+
+    /**
+     * @return A rating on the 1-10 scale
+     */
+    public int rating() {
+        return 1 + random.nextInt(10);
+    }
+
+    /**
+     * @return An average rating between 1 and 10
+     */
+    public double average() {
+        return 1 + random.nextDouble() * 9;
+    }
+
+    /**
+     * One team trend row per team, category and week, oldest week first
+     *
+     * @param weeks Number of weeks of history
+     */
+    public List<TeamTrendDataModel> teamTrendHistory(int weeks) {
+        List<TeamTrendDataModel> rows = new ArrayList<>(teamIds.size() * CATEGORIES.length * weeks);
+        for (int t = 0; t < teamIds.size(); t++) {
+            TeamModel team = TeamModel.builder()
+                    .id(teamIds.get(t))
+                    .name("Team " + t)
+                    .build();
+
+            for (int w = weeks - 1; w >= 0; w--) {
+                for (CampsCategory category : CATEGORIES) {
+                    double average = average();
+                    double previous = average();
+                    rows.add(TeamTrendDataModel.builder()
+                            .id(UUID.randomUUID())
+                            .team(team)
+                            .recordDate(WEEK_END.minusWeeks(w))
+                            .category(category)
+                            .averageRating(average)
+                            .previousAverageRating(previous)
+                            .weekOverWeekChange(average - previous)
+                            .employeeCount(EMPLOYEES_PER_TEAM)
+                            .dataPoints(EMPLOYEES_PER_TEAM)
+                            .createdAt(WEEK_END)
+                            .build());
+                }
+            }
+        }
+        return rows;
+    }
+}
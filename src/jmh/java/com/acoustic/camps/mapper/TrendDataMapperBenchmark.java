@@ -0,0 +1,62 @@
+package com.acoustic.camps.mapper;
+
+import com.acoustic.camps.benchmark.SyntheticData;
+import com.acoustic.camps.codegen.types.TeamTrendData;
+import com.acoustic.camps.codegen.types.TrendData;
+import com.acoustic.camps.model.TeamTrendDataModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct mapping of team trend history to GraphQL DTOs, as returned by the team trend queries.
+ * The generated mapper is wired by a minimal Spring context holding only the mappers it uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrendDataMapperBenchmark {
+
+    @Param({"10", "100"})
+    private int teamCount;
+
+    @Param({"4", "52", "156"})
+    private int historyWeeks;
+
+    private AnnotationConfigApplicationContext context;
+    private TeamTrendDataMapper mapper;
+    private List<TeamTrendDataModel> history;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(
+                TeamTrendDataMapperImpl.class, CommonTypeMapper.class, BasicTeamMapper.class);
+        mapper = context.getBean(TeamTrendDataMapper.class);
+        history = new SyntheticData(teamCount, 42).teamTrendHistory(historyWeeks);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TeamTrendData> toTeamTrendDataList() {
+        return mapper.toTeamTrendDataList(history);
+    }
+
+    @Benchmark
+    public List<TrendData> toTrendDataList() {
+        return mapper.toTrendDataList(history);
+    }
+}
@@ -0,0 +1,62 @@
+package com.acoustic.camps.service;
+
+import com.acoustic.camps.benchmark.SyntheticData;
+import com.acoustic.camps.codegen.types.CampsCategory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of the team averages query rows to CategoryAverage DTOs, once per team as a dashboard of all teams does
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategoryAverageMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int teamCount;
+
+    private List<List<Object[]>> rowsPerTeam;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(teamCount, 42);
+        rowsPerTeam = new ArrayList<>(teamCount);
+
+        for (int t = 0; t < teamCount; t++) {
+            List<Object[]> rows = new ArrayList<>();
+            for (CampsCategory category : SyntheticData.categories()) {
+                // Leave some categories unrated or without a previous average, as real teams do
+                if (t % 7 == 0 && category == CampsCategory.MEANING) {
+                    continue;
+                }
+                Double previous = t % 5 == 0 ? null : data.average();
+                double current = data.average();
+                long count = SyntheticData.EMPLOYEES_PER_TEAM;
+                long sum = Math.round(current * count);
+                // A spread of about one rating point around the average
+                long sumSquares = Math.round((current * current + 1) * count);
+                rows.add(new Object[]{category.name(), current, previous, count, sum, sumSquares});
+            }
+            rowsPerTeam.add(rows);
+        }
+    }
+
+    @Benchmark
+    public void toCategoryAverages(Blackhole blackhole) {
+        for (List<Object[]> rows : rowsPerTeam) {
+            blackhole.consume(AnalyticsService.toCategoryAverages(rows));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.benchmark.SyntheticData;
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.model.EmployeeModel;
+import com.acoustic.camps.model.TeamModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Weekly trend aggregation for a whole organisation, as done by each weekly trend run, and the change math
+ * applied to every trend row
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WeeklyTrendAggregatorBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int teamCount;
+
+    @Param({"4", "52"})
+    private int historyWeeks;
+
+    private final WeeklyTrendAggregator aggregator = new WeeklyTrendAggregator();
+    private final Function<UUID, TeamModel> teamRef = id -> TeamModel.builder().id(id).build();
+    private final Function<UUID, EmployeeModel> employeeRef = id -> EmployeeModel.builder().id(id).build();
+
+    private List<LatestRating> ratings;
+    private TrendHistory history;
+    private double[] currents;
+    private Double[] previous;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(teamCount, 42);
+        LocalDate ratingDay = SyntheticData.WEEK_END.toLocalDate();
+
+        ratings = new ArrayList<>();
+        history = new TrendHistory();
+        for (int t = 0; t < teamCount; t++) {
+            UUID teamId = data.teamIds().get(t);
+            for (CampsCategory category : SyntheticData.categories()) {
+                // Later weeks overwrite earlier ones, as when the loader replays history in date order
+                for (int w = 0; w < historyWeeks; w++) {
+                    ComparisonWindow window = ComparisonWindow.values()[w % ComparisonWindow.values().length];
+                    history.putTeamAverage(teamId, category, window, data.average());
+                }
+                for (UUID employeeId : data.employeeIds(t)) {
+                    ratings.add(new LatestRating(employeeId, teamId, category, data.rating(), ratingDay));
+                    for (ComparisonWindow window : ComparisonWindow.values()) {
+                        history.putEmployeeRating(employeeId, category, window, (double) data.rating());
+                    }
+                }
+            }
+        }
+
+        currents = new double[ratings.size()];
+        previous = new Double[ratings.size()];
+        for (int i = 0; i < ratings.size(); i++) {
+            currents[i] = data.average();
+            previous[i] = i % 10 == 0 ? null : data.average();
+        }
+    }
+
+    @Benchmark
+    public WeeklyTrendAggregator.WeeklyTrendResult aggregate() {
+        return aggregator.aggregate(ratings, history, SyntheticData.WEEK_END, teamRef, employeeRef);
+    }
+
+    @Benchmark
+    public void changeMath(Blackhole blackhole) {
+        for (int i = 0; i < currents.length; i++) {
+            blackhole.consume(WeeklyTrendAggregator.change(currents[i], previous[i]));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.acoustic.camps.util.time;
+
+import com.acoustic.camps.benchmark.SyntheticData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.OffsetDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interval selection for the team stats queries over a mix of range lengths up to the history length
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateIntervalBenchmark {
+
+    private static final int RANGES = 1024;
+
+    @Param({"4", "52", "156"})
+    private int historyWeeks;
+
+    private final OffsetDateTime[] fromDates = new OffsetDateTime[RANGES];
+    private final OffsetDateTime[] toDates = new OffsetDateTime[RANGES];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < RANGES; i++) {
+            toDates[i] = SyntheticData.WEEK_END.minusDays(random.nextInt(7));
+            fromDates[i] = toDates[i].minusDays(1 + random.nextInt(historyWeeks * 7));
+        }
+    }
+
+    @Benchmark
+    public void determineInterval(Blackhole blackhole) {
+        for (int i = 0; i < RANGES; i++) {
+            blackhole.consume(DateInterval.determineInterval(fromDates[i], toDates[i]));
+        }
+    }
+}
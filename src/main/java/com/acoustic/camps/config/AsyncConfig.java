@@ -1,11 +1,73 @@
 package com.acoustic.camps.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 @EnableAsync
 @EnableScheduling
 public class AsyncConfig {
+
+    /**
+     * Default executor for {@code @Async} methods. Declared explicitly because defining any other
+     * executor bean makes Spring Boot back off from its auto-configured one.
+     */
+    @Bean(name = {"taskExecutor", "applicationTaskExecutor"})
+    @Primary
+    public ThreadPoolTaskExecutor taskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Virtual-thread executor for long-running analytics jobs started with {@code @Async("analyticsTaskExecutor")}.
+     * Jobs mostly wait on their worker tasks, so they are not bounded here.
+     */
+    @Bean("analyticsTaskExecutor")
+    public SimpleAsyncTaskExecutor analyticsTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("analytics-job-");
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(60_000);
+        return executor;
+    }
+
+    /**
+     * Virtual-thread executor for the per-team tasks of analytics jobs.
+     * Each task holds a database connection while it runs, so concurrency is capped by a semaphore
+     * sized to the connection pool rather than by a fixed number of platform threads. The connections the jobs hold
+     * outside their tasks, such as cluster locks and the backfill's streaming read, are reserved first, so a task
+     * holding a permit always finds a free connection.
+     * The number of running and waiting tasks is published as gauges, the waiting count being the job queue depth.
+     */
+    @Bean("analyticsWorkerExecutor")
+    public SimpleAsyncTaskExecutor analyticsWorkerExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${analytics.jobs.reserved-connections:5}") int reservedConnections) {
+        if (poolSize <= reservedConnections) {
+            throw new IllegalStateException("The connection pool of " + poolSize
+                    + " leaves no connection for worker tasks beside the " + reservedConnections + " reserved ones");
+        }
+        ConnectionBoundTaskDecorator permits = new ConnectionBoundTaskDecorator(poolSize - reservedConnections);
+        Gauge.builder("camps.analytics.worker.active", permits, ConnectionBoundTaskDecorator::activeTasks)
+                .description("Analytics worker tasks currently running")
+                .register(meterRegistry);
+        Gauge.builder("camps.analytics.worker.queued", permits, ConnectionBoundTaskDecorator::queuedTasks)
+                .description("Analytics worker tasks waiting for a database connection permit")
+                .register(meterRegistry);
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("analytics-worker-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(permits);
+        executor.setTaskTerminationTimeout(60_000);
+        return executor;
+    }
 }
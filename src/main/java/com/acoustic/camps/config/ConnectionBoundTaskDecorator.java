@@ -0,0 +1,55 @@
+package com.acoustic.camps.config;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits how many decorated tasks run at once.
+ * Virtual threads are cheap but database connections are not, so tasks wait here for a permit
+ * instead of piling up inside the connection pool and timing out there.
+ */
+public class ConnectionBoundTaskDecorator implements TaskDecorator {
+
+    private final int maxConcurrentTasks;
+    private final Semaphore permits;
+
+    public ConnectionBoundTaskDecorator(int maxConcurrentTasks) {
+        if (maxConcurrentTasks < 1) {
+            throw new IllegalArgumentException("Max concurrent tasks must be at least 1");
+        }
+        this.maxConcurrentTasks = maxConcurrentTasks;
+        this.permits = new Semaphore(maxConcurrentTasks, true);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return () -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a task permit", e);
+            }
+            try {
+                runnable.run();
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    /**
+     * @return Number of tasks currently holding a permit
+     */
+    public int activeTasks() {
+        return maxConcurrentTasks - permits.availablePermits();
+    }
+
+    /**
+     * @return Estimated number of tasks waiting for a permit
+     */
+    public int queuedTasks() {
+        return permits.getQueueLength();
+    }
+}
@@ -0,0 +1,24 @@
+package com.acoustic.camps.config;
+
+import com.acoustic.camps.metrics.StatementCounter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the application metrics that need hooks outside of Micrometer
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Register the statement counter with Hibernate so statements can be counted per GraphQL request
+     *
+     * @return Customizer adding the statement inspector
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+}
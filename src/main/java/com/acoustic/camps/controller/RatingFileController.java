@@ -0,0 +1,81 @@
+package com.acoustic.camps.controller;
+
+import com.acoustic.camps.codegen.types.RatingImportResult;
+import com.acoustic.camps.service.rating.RatingExportFormat;
+import com.acoustic.camps.service.rating.RatingExportService;
+import com.acoustic.camps.service.rating.RatingImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.OffsetDateTime;
+
+/**
+ * HTTP import and export of rating files. Exports are streamed so ranges of any size can be downloaded.
+ */
+@RestController
+@RequestMapping("/api/ratings")
+@RequiredArgsConstructor
+@Slf4j
+public class RatingFileController {
+
+    private final RatingExportService ratingExportService;
+    private final RatingImportService ratingImportService;
+
+    /**
+     * Download all ratings within a date range, oldest first
+     *
+     * @param fromDate Start date (inclusive), ISO-8601
+     * @param toDate   End date (inclusive), ISO-8601
+     * @param format   NDJSON (default) or CSV
+     * @return The ratings, written to the response as they are read
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRatings(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime toDate,
+            @RequestParam(defaultValue = "NDJSON") RatingExportFormat format) {
+
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("fromDate must not be after toDate");
+        }
+
+        log.info("Exporting ratings between {} and {} as {}", fromDate, toDate, format);
+        StreamingResponseBody body = output -> ratingExportService.exportRatings(fromDate, toDate, format, output);
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("ratings." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Upload a CSV file of ratings, see {@link com.acoustic.camps.service.rating.RatingCsvReader} for the format
+     *
+     * @param file The CSV file
+     * @return The number of imported ratings and refreshed teams
+     */
+    @PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public RatingImportResult importRatings(@RequestParam("file") MultipartFile file) throws IOException {
+        log.info("Importing ratings from {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        try (InputStream input = file.getInputStream()) {
+            return ratingImportService.importCsv(input);
+        }
+    }
+}
@@ -1,17 +1,29 @@
 // src/main/java/com/acoustic/camps/graphql/AdminDataFetcher.java
 package com.acoustic.camps.graphql;
 
+import com.acoustic.camps.codegen.types.CalculationJob;
 import com.acoustic.camps.codegen.types.CalculationResult;
+import com.acoustic.camps.codegen.types.DateRangeInput;
+import com.acoustic.camps.codegen.types.TeamCalculationStatus;
+import com.acoustic.camps.service.AnalyticsService;
+import com.acoustic.camps.service.TeamService;
+import com.acoustic.camps.service.TrendBackfillService;
 import com.acoustic.camps.service.TrendCalculationService;
+import com.acoustic.camps.service.job.CalculationJobRegistry;
+import com.acoustic.camps.service.job.CalculationJobRegistry.RegisteredJob;
 import com.netflix.graphql.dgs.DgsComponent;
 import com.netflix.graphql.dgs.DgsMutation;
+import com.netflix.graphql.dgs.DgsQuery;
+import com.netflix.graphql.dgs.DgsSubscription;
 import com.netflix.graphql.dgs.InputArgument;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * GraphQL fetchers for admin operations
@@ -22,6 +34,32 @@ import java.util.concurrent.CompletableFuture;
 public class AdminDataFetcher {
 
     private final TrendCalculationService trendCalculationService;
+    private final TrendBackfillService trendBackfillService;
+    private final AnalyticsService analyticsService;
+    private final TeamService teamService;
+    private final CalculationJobRegistry jobRegistry;
+
+    @DgsQuery
+    public List<TeamCalculationStatus> trendCalculationStatus() {
+        Map<UUID, OffsetDateTime> lastCalculated = analyticsService.getLastTrendCalculationDates();
+
+        return teamService.getAllTeams().stream()
+                .map(team -> TeamCalculationStatus.newBuilder()
+                        .team(team)
+                        .lastCalculatedAt(lastCalculated.get(UUID.fromString(team.getId())))
+                        .build())
+                .toList();
+    }
+
+    @DgsQuery
+    public CalculationJob calculationJob(@InputArgument String id) {
+        return jobRegistry.getJob(UUID.fromString(id)).orElse(null);
+    }
+
+    @DgsSubscription
+    public Publisher<CalculationJob> calculationJobProgress(@InputArgument String id) {
+        return jobRegistry.watch(UUID.fromString(id));
+    }
 
     @DgsMutation
     public CalculationResult recalculateWeeklyTrends(@InputArgument String teamId) {
@@ -45,19 +83,21 @@ public class AdminDataFetcher {
 
                 // Trigger calculation for specific team
                 log.info("Starting trend calculation for team: {}", teamUUID);
-                CompletableFuture<Boolean> future = trendCalculationService.calculateTeamTrendsAsync(teamUUID);
+                RegisteredJob job = trendCalculationService.startTeamTrends(teamUUID);
 
                 result.setSuccess(true);
                 result.setMessage("Trend calculation started for team ID: " + teamId);
-                result.setCalculatedRecords(1); // One team being processed
+                result.setCalculatedRecords(job.partitions().size());
+                result.setJobId(job.id().toString());
             } else {
                 // Trigger calculation for all teams
                 log.info("Starting trend calculation for all teams");
-                CompletableFuture<Boolean> future = trendCalculationService.calculateAllTeamTrendsAsync();
+                RegisteredJob job = trendCalculationService.startAllTeamTrends();
 
                 result.setSuccess(true);
                 result.setMessage("Trend calculation started for all teams");
-                result.setCalculatedRecords(null); // Will be determined during execution
+                result.setCalculatedRecords(job.partitions().size()); // Teams being processed
+                result.setJobId(job.id().toString());
             }
         } catch (IllegalArgumentException e) {
             log.error("Invalid argument for trend calculation: {}", e.getMessage(), e);
@@ -73,4 +113,55 @@ public class AdminDataFetcher {
 
         return result;
     }
-}
\ No newline at end of file
+
+    @DgsMutation
+    public CalculationResult backfillWeeklyTrends(@InputArgument DateRangeInput dateRange) {
+        log.info("Admin request to backfill weekly trends from {} to {}", dateRange.getFromDate(), dateRange.getToDate());
+
+        try {
+            RegisteredJob job = trendBackfillService.startBackfill(dateRange.getFromDate(), dateRange.getToDate());
+            return jobStarted(job, "Weekly trend backfill started for " + job.partitions().size() + " weeks");
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid argument for weekly trend backfill: {}", e.getMessage());
+            return failed("Invalid input: " + e.getMessage(), e.getMessage());
+        } catch (Exception e) {
+            log.error("Error triggering weekly trend backfill: {}", e.getMessage(), e);
+            return failed("Failed to trigger weekly trend backfill: " + e.getMessage(),
+                    "Internal server error: " + e.getMessage());
+        }
+    }
+
+    @DgsMutation
+    public CalculationResult resumeBackfill(@InputArgument String jobId) {
+        log.info("Admin request to resume weekly trend backfill {}", jobId);
+
+        try {
+            RegisteredJob job = trendBackfillService.resumeBackfill(UUID.fromString(jobId));
+            return jobStarted(job, "Weekly trend backfill resumed with " + job.partitions().size() + " weeks left");
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid argument for resuming weekly trend backfill: {}", e.getMessage());
+            return failed("Invalid input: " + e.getMessage(), e.getMessage());
+        } catch (Exception e) {
+            log.error("Error resuming weekly trend backfill: {}", e.getMessage(), e);
+            return failed("Failed to resume weekly trend backfill: " + e.getMessage(),
+                    "Internal server error: " + e.getMessage());
+        }
+    }
+
+    private static CalculationResult jobStarted(RegisteredJob job, String message) {
+        CalculationResult result = new CalculationResult();
+        result.setSuccess(true);
+        result.setMessage(message);
+        result.setCalculatedRecords(job.partitions().size());
+        result.setJobId(job.id().toString());
+        return result;
+    }
+
+    private static CalculationResult failed(String message, String error) {
+        CalculationResult result = new CalculationResult();
+        result.setSuccess(false);
+        result.setMessage(message);
+        result.setErrors(List.of(error));
+        return result;
+    }
+}
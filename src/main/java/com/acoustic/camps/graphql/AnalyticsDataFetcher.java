@@ -1,14 +1,18 @@
 package com.acoustic.camps.graphql;
 
+import com.acoustic.camps.codegen.types.AggregationPeriod;
 import com.acoustic.camps.codegen.types.CampsCategory;
 import com.acoustic.camps.codegen.types.CategoryAverage;
 import com.acoustic.camps.codegen.types.DateRangeInput;
 import com.acoustic.camps.codegen.types.EmployeeTrendData;
+import com.acoustic.camps.codegen.types.SignificantChange;
+import com.acoustic.camps.codegen.types.TeamSignificantChanges;
 import com.acoustic.camps.codegen.types.TeamStats;
 import com.acoustic.camps.codegen.types.TeamTrendData;
 import com.acoustic.camps.codegen.types.TimePeriod;
 import com.acoustic.camps.codegen.types.TrendAnalysisInput;
 import com.acoustic.camps.codegen.types.TrendData;
+import com.acoustic.camps.mapper.BasicTeamMapper;
 import com.acoustic.camps.mapper.EmployeeTrendDataMapper;
 import com.acoustic.camps.mapper.TeamTrendDataMapper;
 import com.acoustic.camps.model.EmployeeModel;
@@ -20,6 +24,8 @@ import com.acoustic.camps.repository.EmployeeTrendDataRepository;
 import com.acoustic.camps.repository.TeamRepository;
 import com.acoustic.camps.repository.TeamTrendDataRepository;
 import com.acoustic.camps.service.AnalyticsService;
+import com.acoustic.camps.service.SignificantChangeService;
+import com.acoustic.camps.service.cache.TeamAveragesCache;
 import com.netflix.graphql.dgs.DgsComponent;
 import com.netflix.graphql.dgs.DgsQuery;
 import com.netflix.graphql.dgs.InputArgument;
@@ -39,12 +45,15 @@ import java.util.UUID;
 public class AnalyticsDataFetcher {
 
     private final AnalyticsService analyticsService;
+    private final TeamAveragesCache teamAveragesCache;
     private final EmployeeTrendDataRepository employeeTrendDataRepository;
     private final EmployeeRepository employeeRepository;
     private final EmployeeTrendDataMapper employeeTrendDataMapper;
     private final TeamTrendDataRepository teamTrendDataRepository;
     private final TeamRepository teamRepository;
     private final TeamTrendDataMapper teamTrendDataMapper;
+    private final SignificantChangeService significantChangeService;
+    private final BasicTeamMapper basicTeamMapper;
 
     @DgsQuery
     public List<CategoryAverage> teamAverages(
@@ -56,7 +65,9 @@ public class AnalyticsDataFetcher {
             throw new IllegalArgumentException("Team id must be provided");
         }
 
-        return analyticsService.getTeamAveragesWithComparison(UUID.fromString(teamId), date);
+        UUID teamUuid = UUID.fromString(teamId);
+        return teamAveragesCache.get(teamUuid, date,
+                () -> analyticsService.getTeamAveragesWithComparison(teamUuid, date));
 
         /*
         OffsetDateTime targetDate = (date != null) ? date : OffsetDateTime.now();
@@ -79,14 +90,15 @@ public class AnalyticsDataFetcher {
     @DgsQuery
     public List<TeamStats> teamStats(
             @InputArgument String teamId,
-            @InputArgument DateRangeInput dateRange) {
+            @InputArgument DateRangeInput dateRange,
+            @InputArgument AggregationPeriod aggregationPeriod) {
 
         if (teamId == null || dateRange == null) {
             throw new IllegalArgumentException("Team name and date range must be provided");
         }
 
         return analyticsService.getTeamStatsByDateRange(
-                UUID.fromString(teamId), dateRange.getFromDate(), dateRange.getToDate());
+                UUID.fromString(teamId), dateRange.getFromDate(), dateRange.getToDate(), aggregationPeriod);
     }
 
     @DgsQuery
@@ -277,4 +289,46 @@ public class AnalyticsDataFetcher {
             throw new RuntimeException("Error retrieving team trends: " + e.getMessage(), e);
         }
     }
+
+    @DgsQuery
+    public List<SignificantChange> significantChanges(
+            @InputArgument String teamId,
+            @InputArgument TimePeriod timePeriod,
+            @InputArgument Double minimumSignificanceLevel) {
+
+        if (teamId == null || timePeriod == null) {
+            throw new IllegalArgumentException("teamId and timePeriod must be provided");
+        }
+
+        return significantChangeService.findSignificantChanges(
+                UUID.fromString(teamId), timePeriod, significanceLevel(minimumSignificanceLevel));
+    }
+
+    @DgsQuery
+    public List<TeamSignificantChanges> organizationSignificantChanges(
+            @InputArgument TimePeriod timePeriod,
+            @InputArgument Double minimumSignificanceLevel) {
+
+        if (timePeriod == null) {
+            throw new IllegalArgumentException("timePeriod must be provided");
+        }
+
+        return significantChangeService
+                .findSignificantChangesForAllTeams(timePeriod, significanceLevel(minimumSignificanceLevel)).stream()
+                .map(teamChanges -> TeamSignificantChanges.newBuilder()
+                        .team(basicTeamMapper.toBasicTeam(teamChanges.team()))
+                        .changes(teamChanges.changes())
+                        .build())
+                .toList();
+    }
+
+    private static double significanceLevel(Double minimumSignificanceLevel) {
+        if (minimumSignificanceLevel == null) {
+            return 0.05;
+        }
+        if (minimumSignificanceLevel <= 0 || minimumSignificanceLevel >= 1) {
+            throw new IllegalArgumentException("minimumSignificanceLevel must be between 0 and 1");
+        }
+        return minimumSignificanceLevel;
+    }
 }
\ No newline at end of file
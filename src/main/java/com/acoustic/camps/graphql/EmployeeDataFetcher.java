@@ -4,9 +4,11 @@ import com.acoustic.camps.codegen.types.ActionItem;
 import com.acoustic.camps.codegen.types.Employee;
 import com.acoustic.camps.codegen.types.EmployeeInput;
 import com.acoustic.camps.codegen.types.EngagementRating;
+import com.acoustic.camps.graphql.dataloader.ActionItemsDataLoader;
+import com.acoustic.camps.graphql.dataloader.CurrentRatingsDataLoader;
+import com.acoustic.camps.graphql.dataloader.DirectReportsDataLoader;
 import com.acoustic.camps.model.EmployeeModel;
 import com.acoustic.camps.model.TeamModel;
-import com.acoustic.camps.service.ActionItemService;
 import com.acoustic.camps.service.EmployeeService;
 import com.acoustic.camps.service.EngagementRatingService;
 import com.acoustic.camps.service.TeamService;
@@ -17,9 +19,11 @@ import com.netflix.graphql.dgs.DgsMutation;
 import com.netflix.graphql.dgs.DgsQuery;
 import com.netflix.graphql.dgs.InputArgument;
 import lombok.RequiredArgsConstructor;
+import org.dataloader.DataLoader;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * GraphQL fetchers for Employee queries and mutations
@@ -31,7 +35,6 @@ public class EmployeeDataFetcher {
     private final EmployeeService employeeService;
     private final TeamService teamService;
     private final EngagementRatingService ratingService;
-    private final ActionItemService actionItemService;
 
     @DgsQuery
     public List<Employee> employees(@InputArgument String teamId) {
@@ -48,10 +51,11 @@ public class EmployeeDataFetcher {
     }
 
     @DgsData(parentType = "Employee", field = "currentRatings")
-    public List<EngagementRating> getCurrentRatings(DgsDataFetchingEnvironment dfe) {
+    public CompletableFuture<List<EngagementRating>> getCurrentRatings(DgsDataFetchingEnvironment dfe) {
         Employee employee = dfe.getSource();
         assert employee != null;
-        return employeeService.getCurrentRatings(UUID.fromString(employee.getId()));
+        DataLoader<String, List<EngagementRating>> loader = dfe.getDataLoader(CurrentRatingsDataLoader.class);
+        return loader.load(employee.getId());
     }
 
     @DgsData(parentType = "Employee", field = "ratingHistory")
@@ -62,17 +66,19 @@ public class EmployeeDataFetcher {
     }
 
     @DgsData(parentType = "Employee", field = "actionItems")
-    public List<ActionItem> getActionItems(DgsDataFetchingEnvironment dfe) {
+    public CompletableFuture<List<ActionItem>> getActionItems(DgsDataFetchingEnvironment dfe) {
         Employee employeeModel = dfe.getSource();
         assert employeeModel != null;
-        return actionItemService.getActionItemsByEmployeeId(UUID.fromString(employeeModel.getId()));
+        DataLoader<String, List<ActionItem>> loader = dfe.getDataLoader(ActionItemsDataLoader.class);
+        return loader.load(employeeModel.getId());
     }
 
     @DgsData(parentType = "Employee", field = "directReports")
-    public List<Employee> getDirectReports(DgsDataFetchingEnvironment dfe) {
+    public CompletableFuture<List<Employee>> getDirectReports(DgsDataFetchingEnvironment dfe) {
         Employee manager = dfe.getSource();
         assert manager != null;
-        return employeeService.getDirectReports(UUID.fromString(manager.getId()));
+        DataLoader<String, List<Employee>> loader = dfe.getDataLoader(DirectReportsDataLoader.class);
+        return loader.load(manager.getId());
     }
 
     @DgsMutation
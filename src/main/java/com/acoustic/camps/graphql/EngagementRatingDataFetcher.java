@@ -5,8 +5,11 @@ import com.acoustic.camps.codegen.types.DateRangeInput;
 import com.acoustic.camps.codegen.types.Employee;
 import com.acoustic.camps.codegen.types.EngagementRating;
 import com.acoustic.camps.codegen.types.EngagementRatingInput;
+import com.acoustic.camps.codegen.types.RatingConnection;
+import com.acoustic.camps.codegen.types.RatingImportResult;
 import com.acoustic.camps.service.EmployeeService;
 import com.acoustic.camps.service.EngagementRatingService;
+import com.acoustic.camps.service.rating.RatingImportService;
 import com.netflix.graphql.dgs.DgsComponent;
 import com.netflix.graphql.dgs.DgsMutation;
 import com.netflix.graphql.dgs.DgsQuery;
@@ -22,6 +25,7 @@ public class EngagementRatingDataFetcher {
 
     private final EngagementRatingService ratingService;
     private final EmployeeService employeeService;
+    private final RatingImportService ratingImportService;
 
     @DgsQuery
     public List<EngagementRating> ratings(
@@ -45,6 +49,16 @@ public class EngagementRatingDataFetcher {
         throw new IllegalArgumentException("At least one filter must be provided");
     }
 
+    @DgsQuery
+    public RatingConnection ratingsConnection(
+            @InputArgument DateRangeInput dateRange,
+            @InputArgument Integer first,
+            @InputArgument String after) {
+
+        return ratingService.getRatingsPage(dateRange.getFromDate(), dateRange.getToDate(),
+                first != null ? first : 100, after);
+    }
+
     @DgsQuery
     public List<EngagementRating> currentRatings(@InputArgument String employeeId) {
         if (employeeId == null) {
@@ -69,6 +83,11 @@ public class EngagementRatingDataFetcher {
         return ratingService.addRating(rating);
     }
 
+    @DgsMutation
+    public RatingImportResult addRatings(@InputArgument List<EngagementRatingInput> inputs) {
+        return ratingImportService.importRatings(inputs);
+    }
+
     private Employee getEmployee(EngagementRatingInput input) {
         return employeeService.getEmployeeById(UUID.fromString(input.getEmployeeId()))
                 .orElseThrow(() -> new IllegalArgumentException("Employee not found"));
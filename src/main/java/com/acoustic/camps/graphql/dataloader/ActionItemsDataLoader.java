@@ -0,0 +1,34 @@
+package com.acoustic.camps.graphql.dataloader;
+
+import com.acoustic.camps.codegen.types.ActionItem;
+import com.acoustic.camps.service.ActionItemService;
+import com.netflix.graphql.dgs.DgsDataLoader;
+import lombok.RequiredArgsConstructor;
+import org.dataloader.MappedBatchLoader;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * Batches Employee.actionItems into one query per request
+ */
+@DgsDataLoader(name = "actionItems")
+@RequiredArgsConstructor
+public class ActionItemsDataLoader implements MappedBatchLoader<String, List<ActionItem>> {
+
+    private final ActionItemService actionItemService;
+
+    @Override
+    public CompletionStage<Map<String, List<ActionItem>>> load(Set<String> employeeIds) {
+        Map<UUID, List<ActionItem>> actionItems = actionItemService.getActionItemsByEmployeeIds(
+                employeeIds.stream().map(UUID::fromString).toList());
+
+        return CompletableFuture.completedFuture(actionItems.entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().toString(), Map.Entry::getValue)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.acoustic.camps.graphql.dataloader;
+
+import com.acoustic.camps.codegen.types.EngagementRating;
+import com.acoustic.camps.service.EmployeeService;
+import com.netflix.graphql.dgs.DgsDataLoader;
+import lombok.RequiredArgsConstructor;
+import org.dataloader.MappedBatchLoader;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * Batches Employee.currentRatings into one query per request
+ */
+@DgsDataLoader(name = "currentRatings")
+@RequiredArgsConstructor
+public class CurrentRatingsDataLoader implements MappedBatchLoader<String, List<EngagementRating>> {
+
+    private final EmployeeService employeeService;
+
+    @Override
+    public CompletionStage<Map<String, List<EngagementRating>>> load(Set<String> employeeIds) {
+        Map<UUID, List<EngagementRating>> ratings = employeeService.getCurrentRatingsByEmployeeIds(
+                employeeIds.stream().map(UUID::fromString).toList());
+
+        return CompletableFuture.completedFuture(ratings.entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().toString(), Map.Entry::getValue)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.acoustic.camps.graphql.dataloader;
+
+import com.acoustic.camps.codegen.types.Employee;
+import com.acoustic.camps.service.EmployeeService;
+import com.netflix.graphql.dgs.DgsDataLoader;
+import lombok.RequiredArgsConstructor;
+import org.dataloader.MappedBatchLoader;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * Batches Employee.directReports into one query per request
+ */
+@DgsDataLoader(name = "directReports")
+@RequiredArgsConstructor
+public class DirectReportsDataLoader implements MappedBatchLoader<String, List<Employee>> {
+
+    private final EmployeeService employeeService;
+
+    @Override
+    public CompletionStage<Map<String, List<Employee>>> load(Set<String> managerIds) {
+        Map<UUID, List<Employee>> reports = employeeService.getDirectReportsByManagerIds(
+                managerIds.stream().map(UUID::fromString).toList());
+
+        return CompletableFuture.completedFuture(reports.entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().toString(), Map.Entry::getValue)));
+    }
+}
@@ -25,14 +25,17 @@ public class ApplicationStartupListener {
             return;
         }
         
-        log.info("Application is ready. Starting trend calculation...");
-        
-        try {
-            trendCalculationService.checkAndCalculateOnStartup();
-            log.info("Startup trend calculation completed successfully.");
-        } catch (Exception e) {
-            log.error("Failed to complete startup trend calculation: {}", e.getMessage(), e);
-            log.info("Application will continue despite trend calculation failure.");
-        }
+        log.info("Application is ready. Starting trend calculation in the background...");
+
+        // Readiness is reported as soon as this listener returns, not when the calculation ends
+        trendCalculationService.checkAndCalculateOnStartup().whenComplete((success, e) -> {
+            if (e != null) {
+                log.error("Failed to complete startup trend calculation: {}", e.getMessage(), e);
+            } else if (success) {
+                log.info("Startup trend calculation completed successfully.");
+            } else {
+                log.info("Startup trend calculation did not complete here; it failed or another instance ran it.");
+            }
+        });
     }
 }
@@ -1,9 +1,13 @@
 package com.acoustic.camps.mapper;
 
 import com.acoustic.camps.codegen.types.EmployeeTrendData;
+import com.acoustic.camps.codegen.types.RollingAverages;
 import com.acoustic.camps.codegen.types.TrendData;
+import com.acoustic.camps.codegen.types.VolatilityIndicators;
 import com.acoustic.camps.model.EmployeeTrendDataModel;
+import com.acoustic.camps.model.TrendSeriesStatistics;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 
 import java.util.List;
@@ -38,6 +42,8 @@ public interface EmployeeTrendDataMapper {
      * @param trendData The model entity
      * @return The EmployeeTrendData DTO
      */
+    @Mapping(target = "rollingAverages", source = ".")
+    @Mapping(target = "volatilityIndicators", source = "seriesStatistics")
     EmployeeTrendData toEmployeeTrendData(EmployeeTrendDataModel trendData);
 
     /**
@@ -47,4 +53,41 @@ public interface EmployeeTrendDataMapper {
      * @return List of EmployeeTrendData DTOs
      */
     List<EmployeeTrendData> toEmployeeTrendDataList(List<EmployeeTrendDataModel> trendDataList);
+
+    /**
+     * Collect the stored rolling averages of a trend row
+     *
+     * @param trendData The model entity
+     * @return The rolling averages, or null if the row has none
+     */
+    default RollingAverages toRollingAverages(EmployeeTrendDataModel trendData) {
+        if (trendData.getFourWeekAverage() == null
+                && trendData.getTwelveWeekAverage() == null
+                && trendData.getSixMonthAverage() == null) {
+            return null;
+        }
+        return RollingAverages.newBuilder()
+                .fourWeekAverage(trendData.getFourWeekAverage())
+                .twelveWeekAverage(trendData.getTwelveWeekAverage())
+                .sixMonthAverage(trendData.getSixMonthAverage())
+                .build();
+    }
+
+    /**
+     * Collect the stored volatility indicators of a trend row
+     *
+     * @param statistics The row's series statistics
+     * @return The volatility indicators, or null if the row has none
+     */
+    default VolatilityIndicators toVolatilityIndicators(TrendSeriesStatistics statistics) {
+        if (statistics == null || statistics.getVolatilityScore() == null) {
+            return null;
+        }
+        return VolatilityIndicators.newBuilder()
+                .volatilityScore(statistics.getVolatilityScore())
+                .stabilityRating(statistics.getStabilityRating())
+                .trendDirection(statistics.getTrendDirection())
+                .seasonalityDetected(Boolean.TRUE.equals(statistics.getSeasonalityDetected()))
+                .build();
+    }
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.acoustic.camps.mapper;
 
+import com.acoustic.camps.codegen.types.RollingAverages;
+import com.acoustic.camps.codegen.types.StatisticalContext;
 import com.acoustic.camps.codegen.types.TeamTrendData;
 import com.acoustic.camps.codegen.types.TrendData;
+import com.acoustic.camps.codegen.types.VolatilityIndicators;
 import com.acoustic.camps.model.TeamTrendDataModel;
+import com.acoustic.camps.model.TrendSeriesStatistics;
+import com.acoustic.camps.service.stats.RatingStatistics;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 
 import java.util.List;
@@ -38,6 +44,9 @@ public interface TeamTrendDataMapper {
      * @param trendData The model entity
      * @return The TeamTrendData DTO
      */
+    @Mapping(target = "rollingAverages", source = ".")
+    @Mapping(target = "volatilityIndicators", source = "seriesStatistics")
+    @Mapping(target = "statisticalContext", source = ".")
     TeamTrendData toTeamTrendData(TeamTrendDataModel trendData);
 
     /**
@@ -47,4 +56,54 @@ public interface TeamTrendDataMapper {
      * @return List of TeamTrendData DTOs
      */
     List<TeamTrendData> toTeamTrendDataList(List<TeamTrendDataModel> trendDataList);
+
+    /**
+     * Collect the stored rolling averages of a trend row
+     *
+     * @param trendData The model entity
+     * @return The rolling averages, or null if the row has none
+     */
+    default RollingAverages toRollingAverages(TeamTrendDataModel trendData) {
+        if (trendData.getFourWeekAverage() == null
+                && trendData.getTwelveWeekAverage() == null
+                && trendData.getSixMonthAverage() == null) {
+            return null;
+        }
+        return RollingAverages.newBuilder()
+                .fourWeekAverage(trendData.getFourWeekAverage())
+                .twelveWeekAverage(trendData.getTwelveWeekAverage())
+                .sixMonthAverage(trendData.getSixMonthAverage())
+                .build();
+    }
+
+    /**
+     * Collect the stored volatility indicators of a trend row
+     *
+     * @param statistics The row's series statistics
+     * @return The volatility indicators, or null if the row has none
+     */
+    default VolatilityIndicators toVolatilityIndicators(TrendSeriesStatistics statistics) {
+        if (statistics == null || statistics.getVolatilityScore() == null) {
+            return null;
+        }
+        return VolatilityIndicators.newBuilder()
+                .volatilityScore(statistics.getVolatilityScore())
+                .stabilityRating(statistics.getStabilityRating())
+                .trendDirection(statistics.getTrendDirection())
+                .seasonalityDetected(Boolean.TRUE.equals(statistics.getSeasonalityDetected()))
+                .build();
+    }
+
+    /**
+     * Derive the statistical context of a trend row from the ratings totals it keeps
+     *
+     * @param trendData The model entity
+     * @return The statistical context of the latest ratings behind the row's average; monthly rows keep no sum of
+     * squares, so their spread is left empty
+     */
+    default StatisticalContext toStatisticalContext(TeamTrendDataModel trendData) {
+        Long sumSquares = trendData.getRatingSumSquares();
+        return RatingStatistics.contextOf(trendData.getRatingCount(), trendData.getRatingSum(),
+                sumSquares != null ? sumSquares.doubleValue() : null);
+    }
 }
\ No newline at end of file
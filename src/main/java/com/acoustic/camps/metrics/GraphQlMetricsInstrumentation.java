@@ -0,0 +1,139 @@
+package com.acoustic.camps.metrics;
+
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Times every non-trivial GraphQL resolver and counts the SQL statements each operation runs.
+ * Statements are attributed through {@link StatementCounter}: the counter is bound around every resolver,
+ * trivial property fetchers included since they can trigger lazy loading, and restored on the same thread.
+ * <p>
+ * Only statements Hibernate prepares inside a resolver call are counted. DataLoader batch functions are dispatched
+ * outside any resolver, and {@code JdbcTemplate} bypasses Hibernate, so their statements are not included.
+ * <p>
+ * Operation names are chosen by clients, so only the first {@code analytics.metrics.graphql-operation-limit}
+ * distinct names seen are tagged by name; every later name is tagged {@value #OTHER_OPERATION} to keep the tag's
+ * cardinality bounded.
+ */
+@Component
+@RequiredArgsConstructor
+public class GraphQlMetricsInstrumentation extends SimplePerformantInstrumentation {
+
+    private static final String ANONYMOUS_OPERATION = "anonymous";
+    private static final String OTHER_OPERATION = "other";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> taggedOperations = ConcurrentHashMap.newKeySet();
+
+    @Value("${analytics.metrics.graphql-operation-limit:50}")
+    private int operationLimit;
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new RequestState();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters,
+                                                                  InstrumentationState state) {
+        AtomicInteger statements = ((RequestState) state).statements;
+        String operation = operationTag(parameters.getOperation());
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) ->
+                DistributionSummary.builder("camps.graphql.request.statements")
+                        .description("SQL statements run by a GraphQL operation")
+                        .tag("operation", operation)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(statements.get()));
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        AtomicInteger statements = ((RequestState) state).statements;
+        if (parameters.isTrivialDataFetcher()) {
+            return environment -> {
+                AtomicInteger previous = StatementCounter.bind(statements);
+                try {
+                    return dataFetcher.get(environment);
+                } finally {
+                    StatementCounter.restore(previous);
+                }
+            };
+        }
+
+        String parentType = parameters.getExecutionStepInfo().getObjectType().getName();
+        String field = parameters.getExecutionStepInfo().getFieldDefinition().getName();
+
+        return environment -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicInteger previous = StatementCounter.bind(statements);
+            try {
+                Object result = dataFetcher.get(environment);
+                if (result instanceof CompletionStage<?> stage) {
+                    stage.whenComplete((value, throwable) -> stop(sample, parentType, field, throwable == null));
+                } else {
+                    stop(sample, parentType, field, true);
+                }
+                return result;
+            } catch (Exception e) {
+                stop(sample, parentType, field, false);
+                throw e;
+            } finally {
+                StatementCounter.restore(previous);
+            }
+        };
+    }
+
+    private String operationTag(String operation) {
+        if (operation == null) {
+            return ANONYMOUS_OPERATION;
+        }
+        if (taggedOperations.contains(operation)) {
+            return operation;
+        }
+        if (taggedOperations.size() >= operationLimit) {
+            return OTHER_OPERATION;
+        }
+        synchronized (taggedOperations) {
+            if (taggedOperations.size() < operationLimit) {
+                taggedOperations.add(operation);
+                return operation;
+            }
+        }
+        return OTHER_OPERATION;
+    }
+
+    private void stop(Timer.Sample sample, String parentType, String field, boolean success) {
+        sample.stop(Timer.builder("camps.graphql.resolver")
+                .description("Duration of a GraphQL resolver")
+                .tag("parent", parentType)
+                .tag("field", field)
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry));
+    }
+
+    private static class RequestState implements InstrumentationState {
+        private final AtomicInteger statements = new AtomicInteger();
+    }
+}
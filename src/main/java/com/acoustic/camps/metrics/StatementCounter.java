@@ -0,0 +1,50 @@
+package com.acoustic.camps.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a counter is bound.
+ * Used to attribute statements to the GraphQL request that caused them, so N+1 regressions show up
+ * as a jump in statements per operation. Statements run through {@code JdbcTemplate}, or on a thread the
+ * counter was never bound to, are not counted.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Bind a counter to the current thread
+     *
+     * @param counter The counter to increment for each statement
+     * @return The previously bound counter, to pass to {@link #restore}
+     */
+    public static AtomicInteger bind(AtomicInteger counter) {
+        AtomicInteger previous = CURRENT.get();
+        CURRENT.set(counter);
+        return previous;
+    }
+
+    /**
+     * Restore the counter that was bound before the last {@link #bind}
+     *
+     * @param previous The previously bound counter, or null
+     */
+    public static void restore(AtomicInteger previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger counter = CURRENT.get();
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+        return sql;
+    }
+}
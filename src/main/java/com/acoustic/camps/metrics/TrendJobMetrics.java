@@ -0,0 +1,138 @@
+package com.acoustic.camps.metrics;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters of the trend calculation jobs.
+ * Latencies are tagged by job, category and outcome only; team IDs are deliberately left out of the tags
+ * so the number of series does not grow with the organization.
+ */
+@Component
+public class TrendJobMetrics {
+
+    public static final String JOB_TEAM = "team";
+    public static final String JOB_ALL_TEAMS = "all-teams";
+    public static final String JOB_WEEKLY = "weekly";
+    public static final String JOB_BACKFILL = "backfill";
+
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_FAILURE = "failure";
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger activeJobs = new AtomicInteger();
+
+    public TrendJobMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("camps.trends.jobs.active", activeJobs, AtomicInteger::get)
+                .description("Trend calculation jobs currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start timing a team or category calculation
+     *
+     * @return Sample to pass to {@link #teamCalculated} or {@link #categoryCalculated}
+     */
+    public Timer.Sample startSample() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Mark the start of a job
+     *
+     * @return Sample to pass to {@link #jobFinished}
+     */
+    public Timer.Sample jobStarted() {
+        activeJobs.incrementAndGet();
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Record the duration and outcome of a job started with {@link #jobStarted}
+     *
+     * @param sample  The sample returned when the job started
+     * @param job     The job name
+     * @param success Whether the job succeeded
+     */
+    public void jobFinished(Timer.Sample sample, String job, boolean success) {
+        activeJobs.decrementAndGet();
+        sample.stop(Timer.builder("camps.trends.job.duration")
+                .description("Duration of a whole trend calculation job")
+                .tag("job", job)
+                .tag("outcome", outcome(success))
+                .register(meterRegistry));
+    }
+
+    /**
+     * Record the duration and outcome of the calculation of one team
+     *
+     * @param sample  Sample started before the team was calculated
+     * @param job     The job name
+     * @param success Whether the team was calculated without errors
+     */
+    public void teamCalculated(Timer.Sample sample, String job, boolean success) {
+        sample.stop(Timer.builder("camps.trends.team.duration")
+                .description("Duration of the trend calculation of a single team")
+                .tag("job", job)
+                .tag("outcome", outcome(success))
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        if (!success) {
+            failure(job, "team");
+        }
+    }
+
+    /**
+     * Record the duration and outcome of the calculation of one team category
+     *
+     * @param sample   Sample started before the category was calculated
+     * @param job      The job name
+     * @param category The CAMPS category
+     * @param success  Whether the category was calculated without errors
+     */
+    public void categoryCalculated(Timer.Sample sample, String job, CampsCategory category, boolean success) {
+        sample.stop(Timer.builder("camps.trends.category.duration")
+                .description("Duration of the trend calculation of a single team category")
+                .tag("job", job)
+                .tag("category", category.name())
+                .tag("outcome", outcome(success))
+                .register(meterRegistry));
+        if (!success) {
+            failure(job, "category");
+        }
+    }
+
+    /**
+     * Count the trend rows written by a job
+     *
+     * @param job  The job name
+     * @param rows Number of rows written
+     */
+    public void rowsWritten(String job, int rows) {
+        Counter.builder("camps.trends.rows.written")
+                .description("Trend rows written")
+                .tag("job", job)
+                .register(meterRegistry)
+                .increment(rows);
+    }
+
+    private void failure(String job, String scope) {
+        Counter.builder("camps.trends.failures")
+                .description("Failed trend calculations")
+                .tag("job", job)
+                .tag("scope", scope)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String outcome(boolean success) {
+        return success ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+    }
+}
@@ -1,5 +1,6 @@
 package com.acoustic.camps.model;
 
+import com.acoustic.camps.model.enums.ProcessingJobType;
 import com.acoustic.camps.model.enums.ProcessingStatus;
 import com.acoustic.camps.model.enums.SnapshotType;
 import jakarta.persistence.Column;
@@ -41,6 +42,11 @@ public class AnalyticsProcessingLogModel {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false)
+    @Builder.Default
+    private ProcessingJobType jobType = ProcessingJobType.WEEKLY_TRENDS;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "snapshot_type", nullable = false)
     private SnapshotType snapshotType;
@@ -64,9 +70,28 @@ public class AnalyticsProcessingLogModel {
     @Column(name = "created_at")
     private OffsetDateTime createdAt;
 
+    @Column(name = "started_at")
+    private OffsetDateTime startedAt;
+
     @Column(name = "completed_at")
     private OffsetDateTime completedAt;
 
+    @Column(name = "total_partitions", nullable = false)
+    @Builder.Default
+    private Integer totalPartitions = 0;
+
+    @Column(name = "completed_partitions", nullable = false)
+    @Builder.Default
+    private Integer completedPartitions = 0;
+
+    @Column(name = "failed_partitions", nullable = false)
+    @Builder.Default
+    private Integer failedPartitions = 0;
+
+    @Column(name = "rows_written", nullable = false)
+    @Builder.Default
+    private Integer rowsWritten = 0;
+
     @Version
     private Long version;
 
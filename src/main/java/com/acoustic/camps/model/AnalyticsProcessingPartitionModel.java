@@ -0,0 +1,100 @@
+package com.acoustic.camps.model;
+
+import com.acoustic.camps.model.enums.ProcessingStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Tracks one partition of an analytics processing job.
+ * Most jobs have one partition per team, where a null team ID stands for the employees that are not assigned
+ * to any team. Backfill jobs have one partition per week instead, identified by its period.
+ */
+@Entity
+@Table(name = "analytics_processing_partition")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsProcessingPartitionModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "processing_log_id", nullable = false)
+    private UUID processingLogId;
+
+    @Column(name = "team_id")
+    private UUID teamId;
+
+    @Column(name = "period_start")
+    private OffsetDateTime periodStart;
+
+    @Column(name = "period_end")
+    private OffsetDateTime periodEnd;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ProcessingStatus status;
+
+    @Column(name = "rows_written", nullable = false)
+    @Builder.Default
+    private Integer rowsWritten = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "started_at")
+    private OffsetDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now();
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy hp ? hp.getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy hp ? hp.getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        AnalyticsProcessingPartitionModel that = (AnalyticsProcessingPartitionModel) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy hp ? hp.getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
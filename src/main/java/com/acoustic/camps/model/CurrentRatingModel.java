@@ -0,0 +1,92 @@
+package com.acoustic.camps.model;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Projection of the latest rating per employee and category.
+ * Written with an upsert on every rating insert so current-state reads never scan the rating history.
+ */
+@Entity
+@Table(name = "current_ratings")
+@IdClass(CurrentRatingModel.CurrentRatingId.class)
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrentRatingModel {
+
+    @Id
+    @Column(name = "employee_id")
+    private UUID employeeId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CampsCategory category;
+
+    @Column(name = "rating_id", nullable = false)
+    private UUID ratingId;
+
+    @Column(nullable = false)
+    private Integer rating;
+
+    @Column(name = "rating_date", nullable = false)
+    private OffsetDateTime ratingDate;
+
+    @Column(name = "team_id")
+    private UUID teamId;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy hp ? hp.getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy hp ? hp.getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        CurrentRatingModel that = (CurrentRatingModel) o;
+        return getEmployeeId() != null && Objects.equals(getEmployeeId(), that.getEmployeeId())
+                && Objects.equals(getCategory(), that.getCategory());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(employeeId, category);
+    }
+
+    /**
+     * Composite key of the projection
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class CurrentRatingId implements Serializable {
+        private UUID employeeId;
+        private CampsCategory category;
+    }
+}
@@ -1,7 +1,9 @@
 package com.acoustic.camps.model;
 
+import com.acoustic.camps.codegen.types.AggregationPeriod;
 import com.acoustic.camps.codegen.types.CampsCategory;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -59,6 +61,14 @@ public class EmployeeTrendDataModel {
     @Column(nullable = false)
     private CampsCategory category;
 
+    /**
+     * Period the row aggregates; one row per (employee, category, record date, period)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregation_period", nullable = false)
+    @Builder.Default
+    private AggregationPeriod aggregationPeriod = AggregationPeriod.WEEKLY;
+
     @Column(nullable = false)
     private Double rating;
 
@@ -72,6 +82,27 @@ public class EmployeeTrendDataModel {
 
     private Double yearOverYearChange;
 
+    /**
+     * Averages of the weekly ratings over the last 4, 12 and 26 weeks, this week included
+     */
+    private Double fourWeekAverage;
+
+    private Double twelveWeekAverage;
+
+    private Double sixMonthAverage;
+
+    /**
+     * Streaming statistics and volatility indicators of the weekly series as of this week
+     */
+    @Embedded
+    private TrendSeriesStatistics seriesStatistics;
+
+    /**
+     * Date of the rating this row currently reflects, used to ignore older ratings arriving later in the week
+     */
+    @Column(name = "latest_rating_date")
+    private OffsetDateTime latestRatingDate;
+
     @Column(name = "created_at")
     private OffsetDateTime createdAt;
 
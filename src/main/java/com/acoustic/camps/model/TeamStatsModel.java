@@ -61,6 +61,17 @@ public class TeamStatsModel {
 
     private Integer employeeCount;
 
+    /**
+     * Sum and count of the latest rating per employee, kept so the average can be updated incrementally
+     */
+    @Column(name = "rating_sum", nullable = false)
+    @Builder.Default
+    private Long ratingSum = 0L;
+
+    @Column(name = "rating_count", nullable = false)
+    @Builder.Default
+    private Integer ratingCount = 0;
+
     @Column(name = "created_at")
     private OffsetDateTime createdAt;
 
@@ -0,0 +1,99 @@
+package com.acoustic.camps.model;
+
+import com.acoustic.camps.codegen.types.AggregationPeriod;
+import com.acoustic.camps.codegen.types.CampsCategory;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Rating totals of a team and category over one day, week, month, quarter or year.
+ * Rows are written by {@code TeamStatsRollupRepository} upserts only; the totals merge by addition,
+ * except the rater count which is counted per period.
+ */
+@Entity
+@Table(name = "team_stats_rollup")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamStatsRollupModel {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "team_id", nullable = false)
+    private UUID teamId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CampsCategory category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregation_period", nullable = false)
+    private AggregationPeriod aggregationPeriod;
+
+    /**
+     * First day of the period
+     */
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private Integer ratingCount;
+
+    @Column(name = "rating_sum_squares", nullable = false)
+    private Long ratingSumSquares;
+
+    /**
+     * Distinct employees rated in the category during the period
+     */
+    @Column(name = "rater_count", nullable = false)
+    private Integer raterCount;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    /**
+     * @return Mean rating of the period, or null if nothing was rated
+     */
+    public Double getAverageRating() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : null;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy hp ? hp.getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy hp ? hp.getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        TeamStatsRollupModel that = (TeamStatsRollupModel) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy hp ? hp.getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
@@ -1,7 +1,9 @@
 package com.acoustic.camps.model;
 
+import com.acoustic.camps.codegen.types.AggregationPeriod;
 import com.acoustic.camps.codegen.types.CampsCategory;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -54,6 +56,14 @@ public class TeamTrendDataModel {
     @Column(nullable = false)
     private CampsCategory category;
 
+    /**
+     * Period the row aggregates; one row per (team, category, record date, period)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregation_period", nullable = false)
+    @Builder.Default
+    private AggregationPeriod aggregationPeriod = AggregationPeriod.WEEKLY;
+
     @Column(nullable = false)
     private Double averageRating;
 
@@ -67,10 +77,42 @@ public class TeamTrendDataModel {
 
     private Double yearOverYearChange;
 
+    /**
+     * Averages of the weekly averages over the last 4, 12 and 26 weeks, this week included
+     */
+    private Double fourWeekAverage;
+
+    private Double twelveWeekAverage;
+
+    private Double sixMonthAverage;
+
+    /**
+     * Streaming statistics and volatility indicators of the weekly series as of this week
+     */
+    @Embedded
+    private TrendSeriesStatistics seriesStatistics;
+
     private Integer employeeCount;
 
     private Integer dataPoints;
 
+    /**
+     * Sum and count of the latest rating per employee, kept so the average can be updated incrementally
+     */
+    @Column(name = "rating_sum", nullable = false)
+    @Builder.Default
+    private Long ratingSum = 0L;
+
+    @Column(name = "rating_count", nullable = false)
+    @Builder.Default
+    private Integer ratingCount = 0;
+
+    /**
+     * Sum of the squared latest ratings, for the spread of the average; null on rows written before it was kept
+     */
+    @Column(name = "rating_sum_squares")
+    private Long ratingSumSquares;
+
     @Column(name = "created_at")
     private OffsetDateTime createdAt;
 
@@ -0,0 +1,85 @@
+package com.acoustic.camps.model;
+
+import com.acoustic.camps.codegen.types.StabilityRating;
+import com.acoustic.camps.codegen.types.TrendDirection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Streaming statistics of a weekly trend series as of one week, and the volatility indicators derived from them.
+ * Each week's values are computed from the previous week's and the new value only, so the full history is never
+ * read again; see {@code TrendSeriesCalculator}.
+ */
+@Embeddable
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendSeriesStatistics {
+
+    /**
+     * Welford running count, mean and sum of squared deviations over the whole series
+     */
+    @Column(name = "series_count")
+    private Integer count;
+
+    @Column(name = "series_mean")
+    private Double mean;
+
+    @Column(name = "series_m2")
+    private Double m2;
+
+    /**
+     * Exponentially weighted mean and variance, following recent weeks
+     */
+    @Column(name = "ewma")
+    private Double ewma;
+
+    @Column(name = "ewm_variance")
+    private Double ewmVariance;
+
+    /**
+     * Exponentially weighted least-squares sums, with the latest week at x = 0 and earlier weeks at negative x
+     */
+    @Column(name = "slope_weight")
+    private Double slopeWeight;
+
+    @Column(name = "slope_sum_x")
+    private Double slopeSumX;
+
+    @Column(name = "slope_sum_xx")
+    private Double slopeSumXx;
+
+    @Column(name = "slope_sum_y")
+    private Double slopeSumY;
+
+    @Column(name = "slope_sum_xy")
+    private Double slopeSumXy;
+
+    /**
+     * Recent volatility on a 0-1 scale, 1 being most volatile
+     */
+    @Column(name = "volatility_score")
+    private Double volatilityScore;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stability_rating")
+    private StabilityRating stabilityRating;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "trend_direction")
+    private TrendDirection trendDirection;
+
+    @Column(name = "seasonality_detected")
+    private Boolean seasonalityDetected;
+}
@@ -0,0 +1,7 @@
+package com.acoustic.camps.model.enums;
+
+public enum ProcessingJobType {
+    WEEKLY_TRENDS,
+    TEAM_TRENDS,
+    BACKFILL_TRENDS
+}
@@ -2,6 +2,7 @@ package com.acoustic.camps.model.enums;
 
 public enum ProcessingStatus {
     PENDING,
+    RUNNING,
     COMPLETED,
     FAILED
 }
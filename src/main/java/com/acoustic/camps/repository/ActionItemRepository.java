@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -106,4 +107,17 @@ public interface ActionItemRepository extends JpaRepository<ActionItemModel, UUI
      * @return List of ActionItemModel objects
      */
     List<ActionItemModel> findByCreatedDateBetweenOrderByCreatedDateDesc(OffsetDateTime fromDate, OffsetDateTime toDate);
-}
\ No newline at end of file
+
+    /**
+     * Find the action items of several employees at once, ordered by created date in descending order
+     *
+     * @param employeeIds The employees' IDs
+     * @return List of ActionItemModel objects with their employee and author loaded
+     */
+    @Query("SELECT ai FROM ActionItemModel ai " +
+            "JOIN FETCH ai.employee " +
+            "LEFT JOIN FETCH ai.createdBy " +
+            "WHERE ai.employee.id IN :employeeIds " +
+            "ORDER BY ai.createdDate DESC")
+    List<ActionItemModel> findByEmployeeIdsOrderByCreatedDateDesc(@Param("employeeIds") Collection<UUID> employeeIds);
+}
@@ -1,10 +1,15 @@
 package com.acoustic.camps.repository;
 
 import com.acoustic.camps.model.AnalyticsProcessingLogModel;
+import com.acoustic.camps.model.enums.ProcessingJobType;
 import com.acoustic.camps.model.enums.ProcessingStatus;
 import com.acoustic.camps.model.enums.SnapshotType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -54,4 +59,76 @@ public interface AnalyticsProcessingLogRepository extends JpaRepository<Analytic
      * @return List of pending jobs
      */
     List<AnalyticsProcessingLogModel> findByStatusOrderByProcessingDateAsc(ProcessingStatus status);
-}
\ No newline at end of file
+
+    /**
+     * Find the most recent processing log of a kind of job for an exact period
+     *
+     * @param jobType   The kind of job
+     * @param startDate Start of the processed period
+     * @param endDate   End of the processed period
+     * @return The most recent log entry for that period
+     */
+    Optional<AnalyticsProcessingLogModel> findTopByJobTypeAndStartDateAndEndDateOrderByProcessingDateDesc(
+            ProcessingJobType jobType, OffsetDateTime startDate, OffsetDateTime endDate);
+
+    /**
+     * Find the start of every period a kind of job processed in a given status, within a date range
+     *
+     * @param jobType  The kind of job
+     * @param status   The processing status
+     * @param fromDate Earliest period start (inclusive)
+     * @param toDate   Latest period start (inclusive)
+     * @return The period starts
+     */
+    @Query("SELECT l.startDate FROM AnalyticsProcessingLogModel l " +
+            "WHERE l.jobType = :jobType AND l.status = :status AND l.startDate BETWEEN :fromDate AND :toDate")
+    List<OffsetDateTime> findStartDates(
+            @Param("jobType") ProcessingJobType jobType,
+            @Param("status") ProcessingStatus status,
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate);
+
+    /**
+     * Check whether a kind of job has a log in a given status
+     *
+     * @param jobType The kind of job
+     * @param status  The processing status
+     * @return true if such a log exists
+     */
+    boolean existsByJobTypeAndStatus(ProcessingJobType jobType, ProcessingStatus status);
+
+    /**
+     * Atomically record a completed partition, so concurrent partitions never overwrite each other's progress
+     *
+     * @param id          The processing log ID
+     * @param rowsWritten Number of rows the partition wrote
+     * @return Number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AnalyticsProcessingLogModel l SET l.completedPartitions = l.completedPartitions + 1, " +
+            "l.rowsWritten = l.rowsWritten + :rowsWritten WHERE l.id = :id")
+    int incrementCompletedPartitions(@Param("id") UUID id, @Param("rowsWritten") int rowsWritten);
+
+    /**
+     * Atomically record a failed partition
+     *
+     * @param id The processing log ID
+     * @return Number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AnalyticsProcessingLogModel l SET l.failedPartitions = l.failedPartitions + 1 WHERE l.id = :id")
+    int incrementFailedPartitions(@Param("id") UUID id);
+
+    /**
+     * Reset the failed partition count before failed partitions are retried
+     *
+     * @param id The processing log ID
+     * @return Number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AnalyticsProcessingLogModel l SET l.failedPartitions = 0 WHERE l.id = :id")
+    int resetFailedPartitions(@Param("id") UUID id);
+}
@@ -0,0 +1,64 @@
+package com.acoustic.camps.repository;
+
+import com.acoustic.camps.model.AnalyticsProcessingPartitionModel;
+import com.acoustic.camps.model.enums.ProcessingJobType;
+import com.acoustic.camps.model.enums.ProcessingStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the team partitions of analytics processing jobs
+ */
+@Repository
+public interface AnalyticsProcessingPartitionRepository extends JpaRepository<AnalyticsProcessingPartitionModel, UUID> {
+
+    /**
+     * Find all partitions of a processing job
+     *
+     * @param processingLogId The processing log ID
+     * @return List of partitions
+     */
+    List<AnalyticsProcessingPartitionModel> findByProcessingLogId(UUID processingLogId);
+
+    /**
+     * Find the partitions of a processing job with a given status
+     *
+     * @param processingLogId The processing log ID
+     * @param status          The partition status
+     * @return List of partitions
+     */
+    List<AnalyticsProcessingPartitionModel> findByProcessingLogIdAndStatus(UUID processingLogId, ProcessingStatus status);
+
+    /**
+     * Find the partitions of a processing job without a given status
+     *
+     * @param processingLogId The processing log ID
+     * @param status          The partition status to exclude
+     * @return List of partitions
+     */
+    List<AnalyticsProcessingPartitionModel> findByProcessingLogIdAndStatusNot(UUID processingLogId, ProcessingStatus status);
+
+    /**
+     * Find the period start of every partition of a kind of job in a given status, within a date range
+     *
+     * @param jobType  The kind of job the partitions belong to
+     * @param status   The partition status
+     * @param fromDate Earliest period start (inclusive)
+     * @param toDate   Latest period start (inclusive)
+     * @return The period starts
+     */
+    @Query("SELECT p.periodStart FROM AnalyticsProcessingPartitionModel p, AnalyticsProcessingLogModel l " +
+            "WHERE p.processingLogId = l.id AND l.jobType = :jobType AND p.status = :status " +
+            "AND p.periodStart BETWEEN :fromDate AND :toDate")
+    List<OffsetDateTime> findPeriodStarts(
+            @Param("jobType") ProcessingJobType jobType,
+            @Param("status") ProcessingStatus status,
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate);
+}
@@ -0,0 +1,128 @@
+package com.acoustic.camps.repository;
+
+import com.acoustic.camps.model.CurrentRatingModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the latest rating per employee and category
+ */
+@Repository
+public interface CurrentRatingRepository extends JpaRepository<CurrentRatingModel, CurrentRatingModel.CurrentRatingId> {
+
+    /**
+     * Record a new rating as the current one, unless a rating from a later day is already current
+     *
+     * @param employeeId The employee's ID
+     * @param category   The category name
+     * @param ratingId   The rating's ID
+     * @param rating     The rating value
+     * @param ratingDate The rating date
+     * @param teamId     The employee's team, may be null
+     * @return Number of inserted or updated rows
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "INSERT INTO current_ratings (employee_id, category, rating_id, rating, rating_date, team_id, updated_at) " +
+                    "VALUES (:employeeId, :category, :ratingId, :rating, :ratingDate, CAST(:teamId AS uuid), CURRENT_TIMESTAMP) " +
+                    "ON CONFLICT (employee_id, category) DO UPDATE SET " +
+                    "  rating_id = EXCLUDED.rating_id, " +
+                    "  rating = EXCLUDED.rating, " +
+                    "  rating_date = EXCLUDED.rating_date, " +
+                    "  team_id = EXCLUDED.team_id, " +
+                    "  updated_at = EXCLUDED.updated_at " +
+                    "WHERE current_ratings.rating_date <= EXCLUDED.rating_date")
+    int upsert(
+            @Param("employeeId") UUID employeeId,
+            @Param("category") String category,
+            @Param("ratingId") UUID ratingId,
+            @Param("rating") int rating,
+            @Param("ratingDate") OffsetDateTime ratingDate,
+            @Param("teamId") UUID teamId);
+
+    /**
+     * Recompute the current ratings of several employees from their rating history, used after bulk imports
+     *
+     * @param employeeIds The employees' IDs
+     * @return Number of inserted or updated rows
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "INSERT INTO current_ratings (employee_id, category, rating_id, rating, rating_date, team_id, updated_at) " +
+                    "SELECT DISTINCT ON (er.employee_id, er.category) " +
+                    "       er.employee_id, er.category, er.id, er.rating, er.rating_date, e.team_id, CURRENT_TIMESTAMP " +
+                    "FROM engagement_ratings er " +
+                    "JOIN employees e ON e.id = er.employee_id " +
+                    "WHERE er.employee_id IN (:employeeIds) " +
+                    "ORDER BY er.employee_id, er.category, er.rating_date DESC, er.created_at DESC " +
+                    "ON CONFLICT (employee_id, category) DO UPDATE SET " +
+                    "  rating_id = EXCLUDED.rating_id, " +
+                    "  rating = EXCLUDED.rating, " +
+                    "  rating_date = EXCLUDED.rating_date, " +
+                    "  team_id = EXCLUDED.team_id, " +
+                    "  updated_at = EXCLUDED.updated_at " +
+                    "WHERE current_ratings.rating_date <= EXCLUDED.rating_date")
+    int refreshForEmployees(@Param("employeeIds") Collection<UUID> employeeIds);
+
+    /**
+     * Move an employee's current ratings to another team
+     *
+     * @param employeeId The employee's ID
+     * @param teamId     The new team, may be null
+     * @return Number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE CurrentRatingModel cr SET cr.teamId = :teamId WHERE cr.employeeId = :employeeId")
+    int updateTeamForEmployee(@Param("employeeId") UUID employeeId, @Param("teamId") UUID teamId);
+
+    /**
+     * Calculate the current average rating of a team, grouped by category
+     *
+     * @param teamId The team's ID
+     * @return List of category, average rating and employee count rows
+     */
+    @Query("SELECT cr.category, AVG(cr.rating), COUNT(cr) " +
+            "FROM CurrentRatingModel cr " +
+            "WHERE cr.teamId = :teamId " +
+            "GROUP BY cr.category")
+    List<Object[]> calculateTeamAveragesByCategory(@Param("teamId") UUID teamId);
+
+    /**
+     * Calculate the current average rating of a team per category, with the same employees' averages as of a previous date
+     *
+     * @param teamId       The team's ID
+     * @param previousDate The reference date for previous ratings
+     * @return List of category, current average, previous average, and the count, sum and sum of squares
+     * of the current ratings, one per employee
+     */
+    @Query(nativeQuery = true, value =
+            "WITH previous_ratings AS (" +
+                    "  SELECT DISTINCT ON (er.employee_id, er.category) er.employee_id, er.category, er.rating " +
+                    "  FROM engagement_ratings er " +
+                    "  JOIN current_ratings c ON c.employee_id = er.employee_id AND c.category = er.category " +
+                    "  WHERE c.team_id = :teamId " +
+                    "  AND er.rating_date <= :previousDate " +
+                    "  ORDER BY er.employee_id, er.category, er.rating_date DESC, er.created_at DESC" +
+                    ") " +
+                    "SELECT cr.category, " +
+                    "       AVG(cr.rating) as current_avg, " +
+                    "       AVG(pr.rating) as previous_avg, " +
+                    "       COUNT(*) as employee_count, " +
+                    "       SUM(cr.rating) as rating_sum, " +
+                    "       SUM(cr.rating * cr.rating) as rating_sum_squares " +
+                    "FROM current_ratings cr " +
+                    "LEFT JOIN previous_ratings pr ON cr.employee_id = pr.employee_id AND cr.category = pr.category " +
+                    "WHERE cr.team_id = :teamId " +
+                    "GROUP BY cr.category")
+    List<Object[]> calculateTeamAveragesWithPrevious(
+            @Param("teamId") UUID teamId,
+            @Param("previousDate") OffsetDateTime previousDate);
+}
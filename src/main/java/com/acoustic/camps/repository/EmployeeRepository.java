@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -75,4 +76,25 @@ public interface EmployeeRepository extends JpaRepository<EmployeeModel, UUID> {
      */
     @Query("SELECT e.team, COUNT(e) FROM EmployeeModel e GROUP BY e.team")
     List<Object[]> countByTeam();
-}
\ No newline at end of file
+
+    /**
+     * Find the direct reports of several managers at once
+     *
+     * @param managerIds The managers' IDs
+     * @return List of employees with their manager and team loaded
+     */
+    @Query("SELECT e FROM EmployeeModel e " +
+            "JOIN FETCH e.manager " +
+            "LEFT JOIN FETCH e.team " +
+            "WHERE e.manager.id IN :managerIds")
+    List<EmployeeModel> findByManagerIdIn(@Param("managerIds") Collection<UUID> managerIds);
+
+    /**
+     * Find the teams of several employees at once, without loading the employees
+     *
+     * @param ids The employees' IDs
+     * @return List of employee ID and team ID rows; the team ID is null for employees without a team
+     */
+    @Query("SELECT e.id, t.id FROM EmployeeModel e LEFT JOIN e.team t WHERE e.id IN :ids")
+    List<Object[]> findTeamIdsByIds(@Param("ids") Collection<UUID> ids);
+}
@@ -1,5 +1,6 @@
 package com.acoustic.camps.repository;
 
+import com.acoustic.camps.codegen.types.AggregationPeriod;
 import com.acoustic.camps.codegen.types.CampsCategory;
 import com.acoustic.camps.model.EmployeeModel;
 import com.acoustic.camps.model.EmployeeTrendDataModel;
@@ -10,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -63,6 +65,41 @@ public interface EmployeeTrendDataRepository extends JpaRepository<EmployeeTrend
     List<EmployeeTrendDataModel> findByTeamAndRecordDateBetweenOrderByEmployeeAscRecordDateAsc(
             TeamModel team, OffsetDateTime fromDate, OffsetDateTime toDate);
 
+    /**
+     * Load the weekly ratings of a set of employees over the comparison and rolling-average lookback of a week
+     *
+     * @param employeeIds The employees' IDs
+     * @param fromDate    Start date (inclusive)
+     * @param toDate      End date (inclusive)
+     * @return Employee ID, category, record date, rating and series statistics rows ordered by record date ascending
+     */
+    @Query("SELECT e.employee.id, e.category, e.recordDate, e.rating, e.seriesStatistics " +
+            "FROM EmployeeTrendDataModel e " +
+            "WHERE e.employee.id IN :employeeIds " +
+            "AND e.aggregationPeriod = com.acoustic.camps.codegen.types.AggregationPeriod.WEEKLY " +
+            "AND e.recordDate BETWEEN :fromDate AND :toDate " +
+            "ORDER BY e.recordDate ASC, e.createdAt ASC")
+    List<Object[]> findHistoryRatings(
+            @Param("employeeIds") Collection<UUID> employeeIds,
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate);
+
+    /**
+     * Load the weekly ratings of every employee within a date range, used to seed the comparison window of a backfill
+     *
+     * @param fromDate Start date (inclusive)
+     * @param toDate   End date (inclusive)
+     * @return Employee ID, category, record date, rating and series statistics rows ordered by record date ascending
+     */
+    @Query("SELECT e.employee.id, e.category, e.recordDate, e.rating, e.seriesStatistics " +
+            "FROM EmployeeTrendDataModel e " +
+            "WHERE e.recordDate BETWEEN :fromDate AND :toDate " +
+            "AND e.aggregationPeriod = com.acoustic.camps.codegen.types.AggregationPeriod.WEEKLY " +
+            "ORDER BY e.recordDate ASC, e.createdAt ASC")
+    List<Object[]> findRatingsByRecordDateBetween(
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate);
+
     /**
      * Find weekly trend data for an employee
      *
@@ -103,4 +140,41 @@ public interface EmployeeTrendDataRepository extends JpaRepository<EmployeeTrend
             @Param("teamId") UUID teamId,
             @Param("fromDate") OffsetDateTime fromDate,
             @Param("toDate") OffsetDateTime toDate);
-}
\ No newline at end of file
+
+    /**
+     * Find the trend row of an employee, category and aggregation period within a week
+     *
+     * @param employeeId        The employee's ID
+     * @param category          The CAMPS category
+     * @param aggregationPeriod The aggregation period
+     * @param fromDate          Start of the week (inclusive)
+     * @param toDate            End of the week (inclusive)
+     * @return The most recently created trend row for that week, if any
+     */
+    Optional<EmployeeTrendDataModel> findTopByEmployeeIdAndCategoryAndAggregationPeriodAndRecordDateBetweenOrderByCreatedAtDesc(
+            UUID employeeId, CampsCategory category, AggregationPeriod aggregationPeriod,
+            OffsetDateTime fromDate, OffsetDateTime toDate);
+
+    /**
+     * Find the trend rows of an employee, category and aggregation period from a date onwards
+     *
+     * @param employeeId        The employee's ID
+     * @param category          The CAMPS category
+     * @param aggregationPeriod The aggregation period
+     * @param fromDate          Start date (inclusive)
+     * @return List of trend data ordered by date ascending
+     */
+    List<EmployeeTrendDataModel> findByEmployeeIdAndCategoryAndAggregationPeriodAndRecordDateGreaterThanEqualOrderByRecordDateAsc(
+            UUID employeeId, CampsCategory category, AggregationPeriod aggregationPeriod, OffsetDateTime fromDate);
+
+    /**
+     * Find the trend rows of several employees and an aggregation period in every category from a date onwards
+     *
+     * @param employeeIds       The employees' IDs
+     * @param aggregationPeriod The aggregation period
+     * @param fromDate          Start date (inclusive)
+     * @return List of trend data ordered by date ascending
+     */
+    List<EmployeeTrendDataModel> findByEmployeeIdInAndAggregationPeriodAndRecordDateGreaterThanEqualOrderByRecordDateAsc(
+            Collection<UUID> employeeIds, AggregationPeriod aggregationPeriod, OffsetDateTime fromDate);
+}
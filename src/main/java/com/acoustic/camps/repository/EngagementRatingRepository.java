@@ -2,15 +2,21 @@ package com.acoustic.camps.repository;
 
 import com.acoustic.camps.codegen.types.CampsCategory;
 import com.acoustic.camps.model.EngagementRatingModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository for EngagementRating entity
@@ -26,6 +32,22 @@ public interface EngagementRatingRepository extends JpaRepository<EngagementRati
      */
     List<EngagementRatingModel> findByEmployeeIdOrderByRatingDateDesc(UUID employeeId);
 
+    /**
+     * Find an employee's earliest rating
+     *
+     * @param employeeId The employee's ID
+     * @return Optional EngagementRatingModel object
+     */
+    Optional<EngagementRatingModel> findFirstByEmployeeIdOrderByRatingDateAsc(UUID employeeId);
+
+    /**
+     * Find an employee's latest rating
+     *
+     * @param employeeId The employee's ID
+     * @return Optional EngagementRatingModel object
+     */
+    Optional<EngagementRatingModel> findFirstByEmployeeIdOrderByRatingDateDesc(UUID employeeId);
+
     /**
      * Find all ratings for a specific employee and category, ordered by rating date in descending order
      *
@@ -58,6 +80,16 @@ public interface EngagementRatingRepository extends JpaRepository<EngagementRati
     Optional<EngagementRatingModel> findTopByEmployeeIdAndCategoryOrderByRatingDateDesc(
             UUID employeeId, CampsCategory category);
 
+    /**
+     * Find the current rating of an employee in every category, through the current ratings projection
+     *
+     * @param employeeId The employee's ID
+     * @return List of EngagementRatingModel objects
+     */
+    @Query("SELECT er FROM EngagementRatingModel er " +
+            "WHERE er.id IN (SELECT cr.ratingId FROM CurrentRatingModel cr WHERE cr.employeeId = :employeeId)")
+    List<EngagementRatingModel> findCurrentRatingsByEmployeeId(@Param("employeeId") UUID employeeId);
+
     /**
      * Find the most recent rating for a specific employee and category before or on a given date
      *
@@ -81,14 +113,88 @@ public interface EngagementRatingRepository extends JpaRepository<EngagementRati
             UUID employeeId, CampsCategory category, OffsetDateTime ratingDate);
 
     /**
-     * Find all ratings within a specific date range, ordered by rating date in descending order
+     * Find the most recent rating for an employee and category on or before a date, ignoring one rating
+     *
+     * @param employeeId The employee's ID
+     * @param category   The category to filter by
+     * @param maxDate    The maximum date for the rating
+     * @param excludedId The rating to ignore, typically the one just added
+     * @return Optional EngagementRatingModel object
+     */
+    Optional<EngagementRatingModel> findTopByEmployeeIdAndCategoryAndRatingDateLessThanEqualAndIdNotOrderByRatingDateDescCreatedAtDesc(
+            UUID employeeId, CampsCategory category, OffsetDateTime maxDate, UUID excludedId);
+
+    /**
+     * Find the most recent rating per employee and category within a date range, for all members of a team
      *
+     * @param teamId   The team's ID
      * @param fromDate Start date (inclusive)
      * @param toDate   End date (inclusive)
-     * @return List of EngagementRatingModel objects
+     * @return List of employee ID, team ID, category, rating and rating date rows
+     */
+    @Query(nativeQuery = true, value =
+            "SELECT r.employee_id, r.team_id, r.category, r.rating, r.rating_date " +
+                    "FROM (" +
+                    "  SELECT er.employee_id, emp.team_id, er.category, er.rating, er.rating_date, " +
+                    "         ROW_NUMBER() OVER (PARTITION BY er.employee_id, er.category " +
+                    "                            ORDER BY er.rating_date DESC, er.created_at DESC) as rn " +
+                    "  FROM engagement_ratings er " +
+                    "  JOIN employees emp ON er.employee_id = emp.id " +
+                    "  WHERE emp.team_id = :teamId " +
+                    "  AND er.rating_date BETWEEN :fromDate AND :toDate " +
+                    ") r " +
+                    "WHERE r.rn = 1")
+    List<Object[]> findLatestRatingsPerEmployeeAndCategoryForTeam(
+            @Param("teamId") UUID teamId,
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate);
+
+    /**
+     * Find the most recent rating per employee and category within a date range, for employees without a team
+     *
+     * @param fromDate Start date (inclusive)
+     * @param toDate   End date (inclusive)
+     * @return List of employee ID, team ID (always null), category, rating and rating date rows
+     */
+    @Query(nativeQuery = true, value =
+            "SELECT r.employee_id, r.team_id, r.category, r.rating, r.rating_date " +
+                    "FROM (" +
+                    "  SELECT er.employee_id, emp.team_id, er.category, er.rating, er.rating_date, " +
+                    "         ROW_NUMBER() OVER (PARTITION BY er.employee_id, er.category " +
+                    "                            ORDER BY er.rating_date DESC, er.created_at DESC) as rn " +
+                    "  FROM engagement_ratings er " +
+                    "  JOIN employees emp ON er.employee_id = emp.id " +
+                    "  WHERE emp.team_id IS NULL " +
+                    "  AND er.rating_date BETWEEN :fromDate AND :toDate " +
+                    ") r " +
+                    "WHERE r.rn = 1")
+    List<Object[]> findLatestRatingsPerEmployeeAndCategoryWithoutTeam(
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate);
+
+    /**
+     * Sum and count the latest rating of every team member in a category as of a date
+     *
+     * @param teamId   The team's ID
+     * @param category The category name
+     * @param asOfDate The reference date (inclusive)
+     * @return A single row with the rating sum and the number of rated employees
      */
-    List<EngagementRatingModel> findByRatingDateBetweenOrderByRatingDateDesc(
-            OffsetDateTime fromDate, OffsetDateTime toDate);
+    @Query(nativeQuery = true, value =
+            "SELECT COALESCE(SUM(r.rating), 0), COUNT(*) " +
+                    "FROM (" +
+                    "  SELECT DISTINCT ON (er.employee_id) er.rating " +
+                    "  FROM engagement_ratings er " +
+                    "  JOIN employees emp ON er.employee_id = emp.id " +
+                    "  WHERE emp.team_id = :teamId " +
+                    "  AND er.category = :category " +
+                    "  AND er.rating_date <= :asOfDate " +
+                    "  ORDER BY er.employee_id, er.rating_date DESC, er.created_at DESC" +
+                    ") r")
+    List<Object[]> sumLatestRatingsForTeam(
+            @Param("teamId") UUID teamId,
+            @Param("category") String category,
+            @Param("asOfDate") OffsetDateTime asOfDate);
 
     /**
      * Calculate the average ratings for a team, grouped by category
@@ -120,7 +226,8 @@ public interface EngagementRatingRepository extends JpaRepository<EngagementRati
      * @param teamId       The team's ID
      * @param currentDate  The reference date for current ratings
      * @param previousDate The reference date for previous ratings
-     * @return List of category, current average, and previous average pairs
+     * @return List of category, current average, previous average, and the count, sum and sum of squares
+     * of the current ratings
      */
     @Query(nativeQuery = true, value =
             "WITH current_ratings AS (" +
@@ -151,7 +258,10 @@ public interface EngagementRatingRepository extends JpaRepository<EngagementRati
                     ") " +
                     "SELECT cr.category, " +
                     "       AVG(cr.rating) as current_avg, " +
-                    "       AVG(pr.rating) as previous_avg " +
+                    "       AVG(pr.rating) as previous_avg, " +
+                    "       COUNT(*) as rating_count, " +
+                    "       SUM(cr.rating) as rating_sum, " +
+                    "       SUM(cr.rating * cr.rating) as rating_sum_squares " +
                     "FROM current_ratings cr " +
                     "LEFT JOIN previous_ratings pr ON cr.employee_id = pr.employee_id AND cr.category = pr.category " +
                     "GROUP BY cr.category")
@@ -162,130 +272,184 @@ public interface EngagementRatingRepository extends JpaRepository<EngagementRati
 
 
     /**
-     * Calculate the average rating for a specific category within a team
+     * Find ratings for a specific employee and date
      *
-     * @param teamId   The team's ID
-     * @param category The category to filter by
-     * @param asOfDate The reference date
-     * @return The average rating for the specified category
+     * @param employeeId The employee's ID
+     * @param ratingDate The date of the rating
+     * @return List of EngagementRatingModel objects
      */
-    @Query("SELECT AVG(er.rating) " +
-            "FROM EngagementRatingModel er " +
-            "WHERE er.employee.team.id = :teamId " +
-            "AND er.category = :category " +
-            "AND er.ratingDate <= :asOfDate " +
-            "AND er.ratingDate = (" +
-            "    SELECT MAX(er2.ratingDate) " +
-            "    FROM EngagementRatingModel er2 " +
-            "    WHERE er2.employee = er.employee " +
-            "    AND er2.category = er.category " +
-            "    AND er2.ratingDate <= :asOfDate" +
-            ")")
-    Double calculateTeamAverageForCategory(
-            @Param("teamId") UUID teamId,
-            @Param("category") CampsCategory category,
-            @Param("asOfDate") OffsetDateTime asOfDate);
+    @Query("SELECT er FROM EngagementRatingModel er " +
+            "WHERE er.employee.id = :employeeId AND er.ratingDate = :ratingDate")
+    List<EngagementRatingModel> findByEmployeeIdAndRatingDate(
+            @Param("employeeId") UUID employeeId,
+            @Param("ratingDate") OffsetDateTime ratingDate);
 
     /**
-     * Count the number of employees with ratings for a specific category
+     * Find the current ratings of several employees at once, through the current ratings projection
      *
-     * @param teamId   The team's ID
-     * @param category The category to filter by
-     * @param asOfDate The reference date
-     * @return The number of employees with ratings for the specified category
+     * @param employeeIds The employees' IDs
+     * @return List of EngagementRatingModel objects with their employee and author loaded
      */
-    @Query("SELECT COUNT(DISTINCT er.employee.id) " +
-            "FROM EngagementRatingModel er " +
-            "WHERE er.employee.team.id = :teamId " +
-            "AND er.category = :category " +
-            "AND er.ratingDate <= :asOfDate")
-    Integer countEmployeesWithRatings(
-            @Param("teamId") UUID teamId,
-            @Param("category") CampsCategory category,
-            @Param("asOfDate") OffsetDateTime asOfDate);
+    @Query("SELECT er FROM EngagementRatingModel er " +
+            "JOIN FETCH er.employee " +
+            "LEFT JOIN FETCH er.createdBy " +
+            "WHERE er.id IN (SELECT cr.ratingId FROM CurrentRatingModel cr WHERE cr.employeeId IN :employeeIds)")
+    List<EngagementRatingModel> findCurrentRatingsByEmployeeIds(@Param("employeeIds") Collection<UUID> employeeIds);
 
     /**
-     * Calculate the ratings for a specific team and category as of a certain date
+     * Stream every rating within a date range in chronological order, for single-pass backfills.
+     * Must be consumed inside a transaction; rows are fetched from the database in chunks.
      *
-     * @param teamId   The team's ID
-     * @param category The category to filter by
-     * @param asOfDate The reference date
-     * @return List of EngagementRatingModel objects
+     * @param fromDate Start date (inclusive)
+     * @param toDate   End date (inclusive)
+     * @return Stream of employee ID, current team ID, category, rating and rating date rows,
+     * oldest first and in creation order within a day
      */
-    @Query("SELECT er FROM EngagementRatingModel er " +
-            "JOIN er.employee e " +
-            "WHERE er.employee.team.id = :teamId " +
-            "AND er.category = :category AND " +
-            "er.ratingDate = (" +
-            "    SELECT MAX(er2.ratingDate) " +
-            "    FROM EngagementRatingModel er2 " +
-            "    WHERE er2.employee = er.employee " +
-            "    AND er2.category = :category " +
-            "    AND er2.ratingDate <= :asOfDate" +
-            ")")
-    List<EngagementRatingModel> calculateCurrentTeamRatingsByCategory(
-            @Param("teamId") UUID teamId,
-            @Param("category") CampsCategory category,
-            @Param("asOfDate") OffsetDateTime asOfDate);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(nativeQuery = true, value =
+            "SELECT er.employee_id, emp.team_id, er.category, er.rating, er.rating_date " +
+                    "FROM engagement_ratings er " +
+                    "JOIN employees emp ON er.employee_id = emp.id " +
+                    "WHERE er.rating_date BETWEEN :fromDate AND :toDate " +
+                    "ORDER BY er.rating_date ASC, er.created_at ASC")
+    Stream<Object[]> streamRatingsInChronologicalOrder(
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate);
 
     /**
-     * Find ratings for a specific employee and date
+     * Find the most improved category of every employee between two dates in a single pass over the ratings.
+     * An employee's rating in a category at a date is their latest rating on or before it; categories without a
+     * rating at the start date, or whose latest rating did not change after it, are ignored.
+     * Must be consumed inside a transaction; rows are fetched from the database in chunks.
      *
-     * @param employeeId The employee's ID
-     * @param ratingDate The date of the rating
-     * @return List of EngagementRatingModel objects
+     * @param fromDate Start date of the comparison
+     * @param toDate   End date of the comparison
+     * @return Stream of employee ID, employee name, team ID, category, start rating, end rating and improvement rows,
+     * at most one per employee and only for positive improvements
      */
-    @Query("SELECT er FROM EngagementRatingModel er " +
-            "WHERE er.employee.id = :employeeId AND er.ratingDate = :ratingDate")
-    List<EngagementRatingModel> findByEmployeeIdAndRatingDate(
-            @Param("employeeId") UUID employeeId,
-            @Param("ratingDate") OffsetDateTime ratingDate);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(nativeQuery = true, value =
+            "SELECT i.employee_id, emp.name, emp.team_id, i.category, i.start_rating, i.end_rating, i.improvement " +
+                    "FROM (" +
+                    "  SELECT c.employee_id, c.category, c.start_rating, c.end_rating, " +
+                    "         c.end_rating - c.start_rating as improvement, " +
+                    "         ROW_NUMBER() OVER (PARTITION BY c.employee_id " +
+                    "                            ORDER BY c.end_rating - c.start_rating DESC, c.category) as rn " +
+                    "  FROM (" +
+                    "    SELECT r.employee_id, r.category, " +
+                    "           MAX(r.rating) FILTER (WHERE r.start_rn = 1 AND r.rating_date <= :fromDate) as start_rating, " +
+                    "           MAX(r.rating_date) FILTER (WHERE r.rating_date <= :fromDate) as start_date, " +
+                    "           MAX(r.rating) FILTER (WHERE r.end_rn = 1) as end_rating, " +
+                    "           MAX(r.rating_date) as end_date " +
+                    "    FROM (" +
+                    "      SELECT er.employee_id, er.category, er.rating, er.rating_date, " +
+                    "             ROW_NUMBER() OVER (PARTITION BY er.employee_id, er.category " +
+                    "                                ORDER BY er.rating_date DESC, er.created_at DESC) as end_rn, " +
+                    "             ROW_NUMBER() OVER (PARTITION BY er.employee_id, er.category, er.rating_date <= :fromDate " +
+                    "                                ORDER BY er.rating_date DESC, er.created_at DESC) as start_rn " +
+                    "      FROM engagement_ratings er " +
+                    "      WHERE er.rating_date <= :toDate" +
+                    "    ) r " +
+                    "    GROUP BY r.employee_id, r.category" +
+                    "  ) c " +
+                    "  WHERE c.start_date IS NOT NULL AND c.end_date <> c.start_date" +
+                    ") i " +
+                    "JOIN employees emp ON emp.id = i.employee_id " +
+                    "WHERE i.rn = 1 AND i.improvement > 0")
+    Stream<Object[]> streamMostImprovedCategoryPerEmployee(
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate);
 
     /**
-     * Calculate team stats aggregated by interval
+     * Find the current and previous rating of every rater in a set of teams, per category, in a single pass over
+     * the ratings. The current rating is the rater's latest within the period, the previous one their latest on or
+     * before its start; raters with only one of them have the other null.
      *
-     * @param teamId   The team ID
-     * @param fromDate Start date of the range
-     * @param toDate   End date of the range
-     * @param interval Interval type (daily, weekly, monthly)
-     * @return List of objects containing date, category, average rating, and employee count
+     * @param teamIds  The teams' IDs
+     * @param fromDate Start of the period (exclusive), and the reference date for previous ratings
+     * @param toDate   End of the period (inclusive)
+     * @return List of team ID, category, employee ID, current rating and previous rating rows ordered by team
+     * and category
      */
     @Query(nativeQuery = true, value =
-            "SELECT " +
-                    "   CASE " +
-                    "     WHEN :interval = 'DAILY' THEN DATE_TRUNC('day', er.rating_date) " +
-                    "     WHEN :interval = 'WEEKLY' THEN DATE_TRUNC('week', er.rating_date) " +
-                    "     WHEN :interval = 'MONTHLY' THEN DATE_TRUNC('month', er.rating_date) " +
-                    "   END as interval_date, " +
-                    "   er.category, " +
-                    "   AVG(er.rating) as avg_rating, " +
-                    "   COUNT(DISTINCT er.employee_id) as employee_count " +
-                    "FROM " +
-                    "   (SELECT e.id as employee_id, " +
-                    "           cat.category, " +
-                    "           (SELECT er.rating FROM engagement_ratings er " +
-                    "            WHERE er.employee_id = e.id " +
-                    "              AND er.category = cat.category " +
-                    "              AND er.rating_date BETWEEN :fromDate AND :toDate " +
-                    "            ORDER BY er.rating_date DESC " +
-                    "            LIMIT 1) as rating, " +
-                    "           (SELECT er.rating_date FROM engagement_ratings er " +
-                    "            WHERE er.employee_id = e.id " +
-                    "              AND er.category = cat.category " +
-                    "              AND er.rating_date BETWEEN :fromDate AND :toDate " +
-                    "            ORDER BY er.rating_date DESC " +
-                    "            LIMIT 1) as rating_date " +
-                    "    FROM employees e " +
-                    "    CROSS JOIN (VALUES ('CERTAINTY'), ('AUTONOMY'), ('MEANING'), ('PROGRESS'), ('SOCIAL_INCLUSION')) " +
-                    "              AS cat(category) " +
-                    "    WHERE e.team_id = :teamId) as er " +
-                    "WHERE er.rating IS NOT NULL " +
-                    "GROUP BY interval_date, er.category " +
-                    "ORDER BY interval_date, er.category")
-    List<Object[]> calculateTeamStatsByInterval(
-            @Param("teamId") UUID teamId,
+            "SELECT r.team_id, r.category, r.employee_id, " +
+                    "       MAX(r.rating) FILTER (WHERE r.rating_date > :fromDate) as current_rating, " +
+                    "       MAX(r.rating) FILTER (WHERE r.rating_date <= :fromDate) as previous_rating " +
+                    "FROM (" +
+                    "  SELECT emp.team_id, er.employee_id, er.category, er.rating, er.rating_date, " +
+                    "         ROW_NUMBER() OVER (PARTITION BY er.employee_id, er.category, er.rating_date <= :fromDate " +
+                    "                            ORDER BY er.rating_date DESC, er.created_at DESC) as rn " +
+                    "  FROM engagement_ratings er " +
+                    "  JOIN employees emp ON er.employee_id = emp.id " +
+                    "  WHERE emp.team_id IN (:teamIds) " +
+                    "  AND er.rating_date <= :toDate" +
+                    ") r " +
+                    "WHERE r.rn = 1 " +
+                    "GROUP BY r.team_id, r.category, r.employee_id " +
+                    "ORDER BY r.team_id, r.category")
+    List<Object[]> findCurrentAndPreviousRatingsForTeams(
+            @Param("teamIds") Collection<UUID> teamIds,
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate);
+
+    /**
+     * Find the first page of ratings within a date range, newest first
+     *
+     * @param fromDate Start date (inclusive)
+     * @param toDate   End date (inclusive)
+     * @param limit    Maximum number of ratings to return
+     * @return List of EngagementRatingModel objects with their employee and author loaded
+     */
+    @Query("SELECT er FROM EngagementRatingModel er " +
+            "JOIN FETCH er.employee " +
+            "LEFT JOIN FETCH er.createdBy " +
+            "WHERE er.ratingDate BETWEEN :fromDate AND :toDate " +
+            "ORDER BY er.ratingDate DESC, er.id DESC")
+    List<EngagementRatingModel> findPageByRatingDateBetween(
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate,
+            Limit limit);
+
+    /**
+     * Find the next page of ratings within a date range, newest first, continuing after a given rating.
+     * Seeks on (rating_date, id) so every page costs the same however deep it is.
+     *
+     * @param fromDate  Start date (inclusive)
+     * @param toDate    End date (inclusive)
+     * @param afterDate Rating date of the last rating of the previous page
+     * @param afterId   ID of the last rating of the previous page
+     * @param limit     Maximum number of ratings to return
+     * @return List of EngagementRatingModel objects with their employee and author loaded
+     */
+    @Query("SELECT er FROM EngagementRatingModel er " +
+            "JOIN FETCH er.employee " +
+            "LEFT JOIN FETCH er.createdBy " +
+            "WHERE er.ratingDate BETWEEN :fromDate AND :toDate " +
+            "AND (er.ratingDate < :afterDate OR (er.ratingDate = :afterDate AND er.id < :afterId)) " +
+            "ORDER BY er.ratingDate DESC, er.id DESC")
+    List<EngagementRatingModel> findPageByRatingDateBetweenAfter(
             @Param("fromDate") OffsetDateTime fromDate,
             @Param("toDate") OffsetDateTime toDate,
-            @Param("interval") String interval);
+            @Param("afterDate") OffsetDateTime afterDate,
+            @Param("afterId") UUID afterId,
+            Limit limit);
 
+    /**
+     * Stream all ratings within a date range, oldest first.
+     * Must be consumed inside a transaction; rows are fetched from the database in chunks and loaded read-only.
+     *
+     * @param fromDate Start date (inclusive)
+     * @param toDate   End date (inclusive)
+     * @return Stream of EngagementRatingModel objects, with their employee not loaded
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT er FROM EngagementRatingModel er " +
+            "WHERE er.ratingDate BETWEEN :fromDate AND :toDate " +
+            "ORDER BY er.ratingDate ASC, er.id ASC")
+    Stream<EngagementRatingModel> streamByRatingDateBetween(
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate);
 }
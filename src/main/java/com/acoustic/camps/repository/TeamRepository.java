@@ -1,7 +1,9 @@
 package com.acoustic.camps.repository;
 
 import com.acoustic.camps.model.TeamModel;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -38,4 +40,22 @@ public interface TeamRepository extends JpaRepository<TeamModel, UUID> {
      * @return True if the team exists
      */
     boolean existsByName(String name);
+
+    /**
+     * Find the IDs of all teams without loading the entities
+     *
+     * @return List of team IDs
+     */
+    @Query("SELECT t.id FROM TeamModel t")
+    List<UUID> findAllIds();
+
+    /**
+     * Load a team and lock its row until the end of the transaction, serialising incremental trend updates
+     *
+     * @param id The team's ID
+     * @return The locked team
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TeamModel t WHERE t.id = :id")
+    Optional<TeamModel> findByIdForUpdate(@Param("id") UUID id);
 }
@@ -108,4 +108,13 @@ public interface TeamStatsRepository extends JpaRepository<TeamStatsModel, UUID>
 
     Optional<Object> findTopByTeamAndCategoryAndRecordDateLessThanOrderByRecordDateDesc(
             TeamModel team, CampsCategory category, OffsetDateTime date);
-}
\ No newline at end of file
+
+    /**
+     * Find the most recent team statistics record for a team and category
+     *
+     * @param teamId   The team's ID
+     * @param category The CAMPS category
+     * @return The most recent TeamStats record, if found
+     */
+    Optional<TeamStatsModel> findTopByTeamIdAndCategoryOrderByRecordDateDesc(UUID teamId, CampsCategory category);
+}
@@ -0,0 +1,212 @@
+package com.acoustic.camps.repository;
+
+import com.acoustic.camps.codegen.types.AggregationPeriod;
+import com.acoustic.camps.model.TeamStatsRollupModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the multi-granularity team stats rollups
+ */
+@Repository
+public interface TeamStatsRollupRepository extends JpaRepository<TeamStatsRollupModel, UUID> {
+
+    /**
+     * Find the rollups of a team at one granularity, served by the unique (team, period, start, category) index
+     *
+     * @param teamId            The team's ID
+     * @param aggregationPeriod The granularity
+     * @param fromDate          First period start (inclusive)
+     * @param toDate            Last period start (inclusive)
+     * @return Rollups ordered by period start and category
+     */
+    List<TeamStatsRollupModel> findByTeamIdAndAggregationPeriodAndPeriodStartBetweenOrderByPeriodStartAscCategoryAsc(
+            UUID teamId, AggregationPeriod aggregationPeriod, LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * Rebuild the daily rollups of a team from its ratings
+     *
+     * @param teamId   The team's ID
+     * @param fromDate First day (inclusive)
+     * @param toDate   Last day (inclusive)
+     * @return Number of upserted rows
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "INSERT INTO team_stats_rollup (id, team_id, category, aggregation_period, period_start, " +
+                    "rating_sum, rating_count, rating_sum_squares, rater_count, updated_at) " +
+                    "SELECT gen_random_uuid(), e.team_id, er.category, 'DAILY', er.rating_date, " +
+                    "SUM(er.rating), COUNT(*), SUM(er.rating * er.rating), COUNT(DISTINCT er.employee_id), CURRENT_TIMESTAMP " +
+                    "FROM engagement_ratings er " +
+                    "JOIN employees e ON er.employee_id = e.id " +
+                    "WHERE e.team_id = :teamId " +
+                    "AND er.rating_date BETWEEN :fromDate AND :toDate " +
+                    "GROUP BY e.team_id, er.category, er.rating_date " +
+                    "ON CONFLICT (team_id, aggregation_period, period_start, category) DO UPDATE SET " +
+                    "rating_sum = EXCLUDED.rating_sum, " +
+                    "rating_count = EXCLUDED.rating_count, " +
+                    "rating_sum_squares = EXCLUDED.rating_sum_squares, " +
+                    "rater_count = EXCLUDED.rater_count, " +
+                    "updated_at = EXCLUDED.updated_at")
+    int upsertDailyRollups(
+            @Param("teamId") UUID teamId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+
+    /**
+     * Rebuild the coarser rollups of a team by merging its daily rollups.
+     * Sums and counts add up; distinct raters do not, so they are counted from the ratings of each period.
+     *
+     * @param teamId            The team's ID
+     * @param aggregationPeriod The granularity to rebuild, e.g. {@code MONTHLY}
+     * @param unit              Matching {@code date_trunc} unit, e.g. {@code month}
+     * @param length            Matching interval, e.g. {@code 1 month}
+     * @param fromDate          First day of the first period to rebuild
+     * @param toDate            Last day of the last period to rebuild
+     * @return Number of upserted rows
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "INSERT INTO team_stats_rollup (id, team_id, category, aggregation_period, period_start, " +
+                    "rating_sum, rating_count, rating_sum_squares, rater_count, updated_at) " +
+                    "SELECT gen_random_uuid(), b.team_id, b.category, :aggregationPeriod, b.period_start, " +
+                    "b.rating_sum, b.rating_count, b.rating_sum_squares, " +
+                    "(SELECT COUNT(DISTINCT er.employee_id) " +
+                    "   FROM engagement_ratings er " +
+                    "   JOIN employees e ON er.employee_id = e.id " +
+                    "   WHERE e.team_id = b.team_id " +
+                    "   AND er.category = b.category " +
+                    "   AND er.rating_date >= b.period_start " +
+                    "   AND er.rating_date < b.period_start + CAST(:length AS interval)), " +
+                    "CURRENT_TIMESTAMP " +
+                    "FROM (" +
+                    "  SELECT d.team_id, d.category, CAST(date_trunc(:unit, d.period_start) AS date) AS period_start, " +
+                    "         SUM(d.rating_sum) AS rating_sum, SUM(d.rating_count) AS rating_count, " +
+                    "         SUM(d.rating_sum_squares) AS rating_sum_squares " +
+                    "  FROM team_stats_rollup d " +
+                    "  WHERE d.team_id = :teamId " +
+                    "  AND d.aggregation_period = 'DAILY' " +
+                    "  AND d.period_start BETWEEN :fromDate AND :toDate " +
+                    "  GROUP BY d.team_id, d.category, 3" +
+                    ") b " +
+                    "ON CONFLICT (team_id, aggregation_period, period_start, category) DO UPDATE SET " +
+                    "rating_sum = EXCLUDED.rating_sum, " +
+                    "rating_count = EXCLUDED.rating_count, " +
+                    "rating_sum_squares = EXCLUDED.rating_sum_squares, " +
+                    "rater_count = EXCLUDED.rater_count, " +
+                    "updated_at = EXCLUDED.updated_at")
+    int mergeRollups(
+            @Param("teamId") UUID teamId,
+            @Param("aggregationPeriod") String aggregationPeriod,
+            @Param("unit") String unit,
+            @Param("length") String length,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+
+    /**
+     * Add one new rating to the rollup of its category and period.
+     * The rater is counted once more only if they have no other rating in the category within the period, which the
+     * (employee, category, rating date) index answers without reading the team's other ratings.
+     *
+     * @param teamId            The team's ID
+     * @param category          The rating's category
+     * @param aggregationPeriod The granularity, e.g. {@code MONTHLY}
+     * @param periodStart       First day of the period containing the rating
+     * @param periodEnd         Last day of that period
+     * @param rating            The rating
+     * @param ratingSquare      The rating squared
+     * @param employeeId        The rater's ID
+     * @param ratingId          The rating's ID, already flushed
+     * @return Number of upserted rows
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "INSERT INTO team_stats_rollup (id, team_id, category, aggregation_period, period_start, " +
+                    "rating_sum, rating_count, rating_sum_squares, rater_count, updated_at) " +
+                    "VALUES (gen_random_uuid(), :teamId, :category, :aggregationPeriod, :periodStart, " +
+                    ":rating, 1, :ratingSquare, 1, CURRENT_TIMESTAMP) " +
+                    "ON CONFLICT (team_id, aggregation_period, period_start, category) DO UPDATE SET " +
+                    "rating_sum = team_stats_rollup.rating_sum + EXCLUDED.rating_sum, " +
+                    "rating_count = team_stats_rollup.rating_count + 1, " +
+                    "rating_sum_squares = team_stats_rollup.rating_sum_squares + EXCLUDED.rating_sum_squares, " +
+                    "rater_count = team_stats_rollup.rater_count + CASE WHEN EXISTS (" +
+                    "  SELECT 1 FROM engagement_ratings er " +
+                    "  WHERE er.employee_id = :employeeId " +
+                    "  AND er.category = :category " +
+                    "  AND er.rating_date BETWEEN :periodStart AND :periodEnd " +
+                    "  AND er.id <> :ratingId) THEN 0 ELSE 1 END, " +
+                    "updated_at = EXCLUDED.updated_at")
+    int addRating(
+            @Param("teamId") UUID teamId,
+            @Param("category") String category,
+            @Param("aggregationPeriod") String aggregationPeriod,
+            @Param("periodStart") LocalDate periodStart,
+            @Param("periodEnd") LocalDate periodEnd,
+            @Param("rating") int rating,
+            @Param("ratingSquare") long ratingSquare,
+            @Param("employeeId") UUID employeeId,
+            @Param("ratingId") UUID ratingId);
+
+    /**
+     * Delete the daily rollups of a team left without any rating, after the ratings moved to another team or
+     * were deleted
+     *
+     * @param teamId   The team's ID
+     * @param fromDate First day (inclusive)
+     * @param toDate   Last day (inclusive)
+     * @return Number of deleted rows
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "DELETE FROM team_stats_rollup r " +
+                    "WHERE r.team_id = :teamId " +
+                    "AND r.aggregation_period = 'DAILY' " +
+                    "AND r.period_start BETWEEN :fromDate AND :toDate " +
+                    "AND NOT EXISTS (" +
+                    "  SELECT 1 FROM engagement_ratings er " +
+                    "  JOIN employees e ON er.employee_id = e.id " +
+                    "  WHERE e.team_id = r.team_id " +
+                    "  AND er.category = r.category " +
+                    "  AND er.rating_date = r.period_start)")
+    int deleteEmptyDailyRollups(
+            @Param("teamId") UUID teamId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+
+    /**
+     * Delete the coarser rollups of a team whose period no longer has any daily rollup
+     *
+     * @param teamId            The team's ID
+     * @param aggregationPeriod The granularity to clean up, e.g. {@code MONTHLY}
+     * @param length            Matching interval, e.g. {@code 1 month}
+     * @param fromDate          First day of the first period to clean up
+     * @param toDate            Last day of the last period to clean up
+     * @return Number of deleted rows
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "DELETE FROM team_stats_rollup r " +
+                    "WHERE r.team_id = :teamId " +
+                    "AND r.aggregation_period = :aggregationPeriod " +
+                    "AND r.period_start BETWEEN :fromDate AND :toDate " +
+                    "AND NOT EXISTS (" +
+                    "  SELECT 1 FROM team_stats_rollup d " +
+                    "  WHERE d.team_id = r.team_id " +
+                    "  AND d.category = r.category " +
+                    "  AND d.aggregation_period = 'DAILY' " +
+                    "  AND d.period_start >= r.period_start " +
+                    "  AND d.period_start < r.period_start + CAST(:length AS interval))")
+    int deleteEmptyRollups(
+            @Param("teamId") UUID teamId,
+            @Param("aggregationPeriod") String aggregationPeriod,
+            @Param("length") String length,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+}
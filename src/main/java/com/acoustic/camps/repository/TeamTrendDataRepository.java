@@ -1,5 +1,6 @@
 package com.acoustic.camps.repository;
 
+import com.acoustic.camps.codegen.types.AggregationPeriod;
 import com.acoustic.camps.codegen.types.CampsCategory;
 import com.acoustic.camps.model.TeamModel;
 import com.acoustic.camps.model.TeamTrendDataModel;
@@ -51,6 +52,41 @@ public interface TeamTrendDataRepository extends JpaRepository<TeamTrendDataMode
     Optional<TeamTrendDataModel> findTopByTeamAndCategoryOrderByRecordDateDesc(
             TeamModel team, CampsCategory category);
 
+    /**
+     * Load the weekly averages of a team over the comparison and rolling-average lookback of a week
+     *
+     * @param teamId   The team's ID
+     * @param fromDate Start date (inclusive)
+     * @param toDate   End date (inclusive)
+     * @return Team ID, category, record date, average rating and series statistics rows ordered by record date ascending
+     */
+    @Query("SELECT t.team.id, t.category, t.recordDate, t.averageRating, t.seriesStatistics " +
+            "FROM TeamTrendDataModel t " +
+            "WHERE t.team.id = :teamId " +
+            "AND t.aggregationPeriod = com.acoustic.camps.codegen.types.AggregationPeriod.WEEKLY " +
+            "AND t.recordDate BETWEEN :fromDate AND :toDate " +
+            "ORDER BY t.recordDate ASC, t.createdAt ASC")
+    List<Object[]> findHistoryAverages(
+            @Param("teamId") UUID teamId,
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate);
+
+    /**
+     * Load the weekly averages of every team within a date range, used to seed the comparison window of a backfill
+     *
+     * @param fromDate Start date (inclusive)
+     * @param toDate   End date (inclusive)
+     * @return Team ID, category, record date, average rating and series statistics rows ordered by record date ascending
+     */
+    @Query("SELECT t.team.id, t.category, t.recordDate, t.averageRating, t.seriesStatistics " +
+            "FROM TeamTrendDataModel t " +
+            "WHERE t.recordDate BETWEEN :fromDate AND :toDate " +
+            "AND t.aggregationPeriod = com.acoustic.camps.codegen.types.AggregationPeriod.WEEKLY " +
+            "ORDER BY t.recordDate ASC, t.createdAt ASC")
+    List<Object[]> findAveragesByRecordDateBetween(
+            @Param("fromDate") OffsetDateTime fromDate,
+            @Param("toDate") OffsetDateTime toDate);
+
     /**
      * Find weekly trend data for a team
      *
@@ -88,4 +124,60 @@ public interface TeamTrendDataRepository extends JpaRepository<TeamTrendDataMode
             @Param("category") CampsCategory category,
             @Param("fromDate") OffsetDateTime fromDate,
             @Param("toDate") OffsetDateTime toDate);
-}
\ No newline at end of file
+
+    /**
+     * Find the trend row of a team, category and aggregation period within a week
+     *
+     * @param teamId            The team's ID
+     * @param category          The CAMPS category
+     * @param aggregationPeriod The aggregation period
+     * @param fromDate          Start of the week (inclusive)
+     * @param toDate            End of the week (inclusive)
+     * @return The most recently created trend row for that week, if any
+     */
+    Optional<TeamTrendDataModel> findTopByTeamIdAndCategoryAndAggregationPeriodAndRecordDateBetweenOrderByCreatedAtDesc(
+            UUID teamId, CampsCategory category, AggregationPeriod aggregationPeriod,
+            OffsetDateTime fromDate, OffsetDateTime toDate);
+
+    /**
+     * Find the trend rows of a team, category and aggregation period from a date onwards
+     *
+     * @param teamId            The team's ID
+     * @param category          The CAMPS category
+     * @param aggregationPeriod The aggregation period
+     * @param fromDate          Start date (inclusive)
+     * @return List of trend data ordered by date ascending
+     */
+    List<TeamTrendDataModel> findByTeamIdAndCategoryAndAggregationPeriodAndRecordDateGreaterThanEqualOrderByRecordDateAsc(
+            UUID teamId, CampsCategory category, AggregationPeriod aggregationPeriod, OffsetDateTime fromDate);
+
+    /**
+     * Find the trend rows of a team and aggregation period in every category from a date onwards
+     *
+     * @param teamId            The team's ID
+     * @param aggregationPeriod The aggregation period
+     * @param fromDate          Start date (inclusive)
+     * @return List of trend data ordered by date ascending
+     */
+    List<TeamTrendDataModel> findByTeamIdAndAggregationPeriodAndRecordDateGreaterThanEqualOrderByRecordDateAsc(
+            UUID teamId, AggregationPeriod aggregationPeriod, OffsetDateTime fromDate);
+
+    /**
+     * Find when trends were last calculated for a team, served by the (team_id, created_at) index
+     *
+     * @param teamId The team's ID
+     * @return Creation time of the team's newest trend row, or empty if none exists
+     */
+    @Query("SELECT MAX(t.createdAt) FROM TeamTrendDataModel t WHERE t.team.id = :teamId")
+    Optional<OffsetDateTime> findLastCreatedAtByTeamId(@Param("teamId") UUID teamId);
+
+    /**
+     * Find when trends were last calculated for every team in one query.
+     * Each correlated MAX is answered from the (team_id, created_at) index instead of scanning the table.
+     *
+     * @return List of team ID and last calculation time rows; the time is null for teams without trend data
+     */
+    @Query("SELECT tm.id, (SELECT MAX(t.createdAt) FROM TeamTrendDataModel t WHERE t.team = tm) " +
+            "FROM TeamModel tm")
+    List<Object[]> findLastCreatedAtPerTeam();
+}
@@ -12,7 +12,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -38,6 +42,24 @@ public class ActionItemService {
         return mapper.toActionItemList(actionItemRepository.findByEmployeeOrderByCreatedDateDesc(employeeId));
     }
 
+    /**
+     * Get the action items of several employees with a single query
+     *
+     * @param employeeIds The employees' IDs
+     * @return Action items grouped by employee ID, with an empty list for employees without any
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, List<ActionItem>> getActionItemsByEmployeeIds(Collection<UUID> employeeIds) {
+        Map<UUID, List<ActionItem>> result = new HashMap<>();
+        employeeIds.forEach(id -> result.put(id, new ArrayList<>()));
+
+        for (ActionItemModel item : actionItemRepository.findByEmployeeIdsOrderByCreatedDateDesc(employeeIds)) {
+            result.get(item.getEmployee().getId()).add(mapper.toActionItem(item));
+        }
+
+        return result;
+    }
+
     @Transactional(readOnly = true)
     public List<ActionItem> getActionItemsByStatus(ActionStatus status) {
         return mapper.toActionItemList(actionItemRepository.findByStatusOrderByDueDateAsc(status));
@@ -1,8 +1,8 @@
 package com.acoustic.camps.service;
 
+import com.acoustic.camps.codegen.types.AggregationPeriod;
 import com.acoustic.camps.codegen.types.CampsCategory;
 import com.acoustic.camps.codegen.types.CategoryAverage;
-import com.acoustic.camps.codegen.types.StatisticalContext;
 import com.acoustic.camps.codegen.types.Team;
 import com.acoustic.camps.codegen.types.TeamStats;
 import com.acoustic.camps.codegen.types.TrendData;
@@ -10,23 +10,28 @@ import com.acoustic.camps.mapper.EmployeeTrendDataMapper;
 import com.acoustic.camps.mapper.TeamTrendDataMapper;
 import com.acoustic.camps.model.EmployeeModel;
 import com.acoustic.camps.model.EmployeeTrendDataModel;
-import com.acoustic.camps.model.EngagementRatingModel;
 import com.acoustic.camps.model.TeamModel;
 import com.acoustic.camps.model.TeamStatsModel;
+import com.acoustic.camps.model.TeamStatsRollupModel;
 import com.acoustic.camps.model.TeamTrendDataModel;
+import com.acoustic.camps.repository.CurrentRatingRepository;
 import com.acoustic.camps.repository.EmployeeRepository;
 import com.acoustic.camps.repository.EmployeeTrendDataRepository;
 import com.acoustic.camps.repository.EngagementRatingRepository;
 import com.acoustic.camps.repository.TeamRepository;
 import com.acoustic.camps.repository.TeamStatsRepository;
+import com.acoustic.camps.repository.TeamStatsRollupRepository;
 import com.acoustic.camps.repository.TeamTrendDataRepository;
+import com.acoustic.camps.service.improvement.CategoryImprovement;
+import com.acoustic.camps.service.improvement.TopImprovements;
+import com.acoustic.camps.service.stats.RatingStatistics;
+import com.acoustic.camps.service.stats.RollupPeriod;
+import com.acoustic.camps.service.trend.TrendDataWriter;
 import com.acoustic.camps.util.time.ComparisonPeriod;
-import com.acoustic.camps.util.time.DateInterval;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.Timestamp;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
@@ -34,8 +39,8 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static com.acoustic.camps.util.time.ComparisonPeriod.calculatePreviousPeriod;
 
@@ -47,12 +52,15 @@ import static com.acoustic.camps.util.time.ComparisonPeriod.calculatePreviousPer
 public class AnalyticsService {
 
     private final EngagementRatingRepository ratingRepository;
+    private final CurrentRatingRepository currentRatingRepository;
     private final EmployeeRepository employeeRepository;
     private final TeamStatsRepository teamStatsRepository;
+    private final TeamStatsRollupRepository rollupRepository;
     private final TeamTrendDataRepository teamTrendDataRepository;
     private final EmployeeTrendDataRepository employeeTrendDataRepository;
     private final TeamRepository teamRepository;
     private final TeamTrendDataMapper teamTrendDataMapper;
+    private final TrendDataWriter trendDataWriter;
     private final EmployeeTrendDataMapper employeeTrendDataMapper;
 
     @Transactional(readOnly = true)
@@ -60,9 +68,19 @@ public class AnalyticsService {
         OffsetDateTime targetDate = (date != null) ? date : OffsetDateTime.now();
         OffsetDateTime previousDate = calculatePreviousPeriod(targetDate, ComparisonPeriod.WEEK);
 
-        // Get all category averages
-        List<Object[]> categoryAverages = ratingRepository.calculateAllCategoryAveragesWithPrevious(teamId, targetDate, previousDate);
+        // Current averages come from the current ratings projection, historical ones from the rating history
+        List<Object[]> categoryAverages = (date == null)
+                ? currentRatingRepository.calculateTeamAveragesWithPrevious(teamId, previousDate)
+                : ratingRepository.calculateAllCategoryAveragesWithPrevious(teamId, targetDate, previousDate);
 
+        return toCategoryAverages(categoryAverages);
+    }
+
+    /**
+     * Map category, current average, previous average, rating count, sum and sum of squares rows to one
+     * CategoryAverage per category, with zero averages for categories missing from the rows
+     */
+    static List<CategoryAverage> toCategoryAverages(List<Object[]> categoryAverages) {
         // Process results
         Map<CampsCategory, CategoryAverage> averagesByCategory = new EnumMap<>(CampsCategory.class);
 
@@ -71,7 +89,7 @@ public class AnalyticsService {
             CategoryAverage avg = new CategoryAverage();
             avg.setCategory(category);
             avg.setAverageRating(0.0);
-            avg.setStatisticalContext(createBasicStatisticalContext(0));
+            avg.setStatisticalContext(RatingStatistics.contextOf(0, 0, null));
             averagesByCategory.put(category, avg);
         }
 
@@ -80,14 +98,16 @@ public class AnalyticsService {
             CampsCategory category = CampsCategory.valueOf((String) row[0]);
             double currentAvg = row[1] != null ? ((Number) row[1]).doubleValue() : 0.0;
             Double previousAvg = row[2] != null ? ((Number) row[2]).doubleValue() : null;
-            Integer sampleSize = row.length > 3 && row[3] != null ? ((Number) row[3]).intValue() : 1;
+            long count = ((Number) row[3]).longValue();
+            double sum = ((Number) row[4]).doubleValue();
+            double sumSquares = ((Number) row[5]).doubleValue();
 
             CategoryAverage avg = averagesByCategory.get(category);
             avg.setAverageRating(currentAvg);
             avg.setPreviousAverageRating(previousAvg);
             avg.setChange(previousAvg != null ? currentAvg - previousAvg : null);
             avg.setWeekOverWeekChange(previousAvg != null ? currentAvg - previousAvg : null);
-            avg.setStatisticalContext(createBasicStatisticalContext(sampleSize));
+            avg.setStatisticalContext(RatingStatistics.contextOf(count, sum, sumSquares));
         }
 
         return new ArrayList<>(averagesByCategory.values());
@@ -97,14 +117,16 @@ public class AnalyticsService {
      * Get team averages for a specific date
      *
      * @param teamId Team ID
-     * @param date   Date for which to calculate averages
+     * @param date   Date for which to calculate averages, or null for the current averages
      * @return Map of CampsCategory to average rating
      */
     @Transactional(readOnly = true)
     public Map<CampsCategory, Double> getTeamAverages(UUID teamId, OffsetDateTime date) {
         Map<CampsCategory, Double> averages = new EnumMap<>(CampsCategory.class);
 
-        List<Object[]> results = ratingRepository.calculateTeamAveragesByCategory(teamId, date);
+        List<Object[]> results = (date == null)
+                ? currentRatingRepository.calculateTeamAveragesByCategory(teamId)
+                : ratingRepository.calculateTeamAveragesByCategory(teamId, date);
 
         // Initialize all categories to 0.0
         for (CampsCategory category : CampsCategory.values()) {
@@ -125,40 +147,46 @@ public class AnalyticsService {
     }
 
     /**
-     * Get team statistics for a specific date range
+     * Get team statistics for a specific date range from the pre-aggregated rollups,
+     * one row per category and period whatever the length of the range.
+     * The average covers every rating given in the period and the employee count is the number of distinct raters,
+     * rather than the latest rating of each employee as in the team stats snapshots.
      *
-     * @param teamId   Team ID
-     * @param fromDate Start date (inclusive)
-     * @param toDate   End date (inclusive)
-     * @return List of TeamStats objects
+     * @param teamId            Team ID
+     * @param fromDate          Start date (inclusive); the period containing it is included
+     * @param toDate            End date (inclusive)
+     * @param aggregationPeriod Period of each row, or null to pick one from the length of the range
+     * @return List of TeamStats objects ordered by period and category
      */
     @Transactional(readOnly = true)
-    public List<TeamStats> getTeamStatsByDateRange(UUID teamId, OffsetDateTime fromDate, OffsetDateTime toDate) {
-        List<TeamStats> result = new ArrayList<>();
+    public List<TeamStats> getTeamStatsByDateRange(UUID teamId, OffsetDateTime fromDate, OffsetDateTime toDate,
+                                                   AggregationPeriod aggregationPeriod) {
         TeamModel team = getTeamModel(teamId);
+        RollupPeriod period = aggregationPeriod != null
+                ? RollupPeriod.of(aggregationPeriod)
+                : RollupPeriod.forRange(fromDate.toLocalDate(), toDate.toLocalDate());
 
-        // Determine the appropriate interval based on the date range
-        DateInterval interval = DateInterval.determineInterval(fromDate, toDate);
-
-        // Get aggregated stats from the database
-        List<Object[]> statsData = ratingRepository.calculateTeamStatsByInterval(teamId, fromDate, toDate, interval.name());
-
-        // Map the results to TeamStats objects
-        for (Object[] row : statsData) {
-            OffsetDateTime date = ((Timestamp) row[0]).toLocalDateTime().atOffset(ZoneOffset.UTC);
-            CampsCategory category = CampsCategory.valueOf((String) row[1]);
-            double averageRating = ((Number) row[2]).doubleValue();
-            Integer employeeCount = ((Number) row[3]).intValue();
+        List<TeamStatsRollupModel> rollups = rollupRepository
+                .findByTeamIdAndAggregationPeriodAndPeriodStartBetweenOrderByPeriodStartAscCategoryAsc(
+                        teamId, period.aggregationPeriod(), period.start(fromDate.toLocalDate()), toDate.toLocalDate());
 
+        Team teamDto = new Team();
+        teamDto.setId(team.getId().toString());
+        teamDto.setName(team.getName());
 
+        List<TeamStats> result = new ArrayList<>(rollups.size());
+        for (TeamStatsRollupModel rollup : rollups) {
             TeamStats stats = new TeamStats();
-            stats.setTeam(new Team());
-            stats.getTeam().setId(team.getId().toString());
-            stats.getTeam().setName(team.getName());
-            stats.setRecordDate(date);
-            stats.setCategory(category);
-            stats.setAverageRating(averageRating);
-            stats.setEmployeeCount(employeeCount);
+            stats.setId(rollup.getId().toString());
+            stats.setTeam(teamDto);
+            stats.setRecordDate(rollup.getPeriodStart().atStartOfDay().atOffset(ZoneOffset.UTC));
+            stats.setAggregationPeriod(period.aggregationPeriod());
+            stats.setCategory(rollup.getCategory());
+            stats.setAverageRating(rollup.getAverageRating());
+            stats.setEmployeeCount(rollup.getRaterCount());
+            stats.setStatisticalContext(RatingStatistics.contextOf(
+                    rollup.getRatingCount(), rollup.getRatingSum(), rollup.getRatingSumSquares().doubleValue()));
+            stats.setCreatedAt(rollup.getUpdatedAt());
 
             result.add(stats);
         }
@@ -174,14 +202,22 @@ public class AnalyticsService {
      */
     @Transactional(readOnly = true)
     public OffsetDateTime getLastTrendCalculationDate(UUID teamId) {
-        TeamModel team = getTeamModel(teamId);
-
-        // Check in the team trend data repository
-        Optional<TeamTrendDataModel> latestTrendData = teamTrendDataRepository.findAll().stream()
-                .filter(trend -> trend.getTeam().getId().equals(teamId))
-                .max((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()));
+        getTeamModel(teamId);
+        return teamTrendDataRepository.findLastCreatedAtByTeamId(teamId).orElse(null);
+    }
 
-        return latestTrendData.map(TeamTrendDataModel::getCreatedAt).orElse(null);
+    /**
+     * Get the most recent trend calculation date of every team
+     *
+     * @return Map of team ID to its most recent calculation date, null for teams never calculated
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, OffsetDateTime> getLastTrendCalculationDates() {
+        Map<UUID, OffsetDateTime> result = new HashMap<>();
+        for (Object[] row : teamTrendDataRepository.findLastCreatedAtPerTeam()) {
+            result.put((UUID) row[0], (OffsetDateTime) row[1]);
+        }
+        return result;
     }
 
     @Transactional(readOnly = true)
@@ -214,21 +250,25 @@ public class AnalyticsService {
     }
 
     /**
-     * Helper method to generate trend data for a team
+     * Helper method to generate the monthly trend row of a team and category.
+     * The row is upserted, so running the calculation again on the same day overwrites it.
+     *
+     * @return true if a trend row was written, false if the team has no stats for the period
      */
-    public void generateTeamTrendData(TeamModel team, CampsCategory category,
+    @Transactional
+    public boolean generateTeamTrendData(TeamModel team, CampsCategory category,
                                       OffsetDateTime currentMonth, OffsetDateTime previousMonth,
                                       OffsetDateTime previousQuarter, OffsetDateTime previousYear) {
-        // Get current month average
-        Double currentAvg = teamStatsRepository
+        // Get current month stats; their totals carry the statistical context of the trend row
+        TeamStatsModel current = teamStatsRepository
                 .findTopByTeamAndCategoryAndRecordDateLessThanEqualOrderByRecordDateDesc(
                         team, category, currentMonth.plusMonths(1).minusDays(1))
-                .map(TeamStatsModel::getAverageRating)
                 .orElse(null);
 
-        if (currentAvg == null) {
-            return; // No data for this month
+        if (current == null) {
+            return false; // No data for this month
         }
+        Double currentAvg = current.getAverageRating();
 
         // Get previous period averages
         Double prevMonthAvg = teamStatsRepository
@@ -262,15 +302,21 @@ public class AnalyticsService {
                 .team(team)
                 .recordDate(currentMonth)
                 .category(category)
+                .aggregationPeriod(AggregationPeriod.MONTHLY)
                 .averageRating(currentAvg)
                 .previousAverageRating(prevMonthAvg)
                 .weekOverWeekChange(calculateChange(currentAvg, prevWeekAvg))
                 .monthOverMonthChange(calculateChange(currentAvg, prevMonthAvg))
                 .quarterOverQuarterChange(calculateChange(currentAvg, prevQuarterAvg))
                 .yearOverYearChange(calculateChange(currentAvg, prevYearAvg))
+                .employeeCount(current.getEmployeeCount())
+                .dataPoints(current.getRatingCount())
+                .ratingSum(current.getRatingSum())
+                .ratingCount(current.getRatingCount())
                 .build();
 
-        teamTrendDataRepository.save(trendDataModel);
+        trendDataWriter.writeTeamTrends(List.of(trendDataModel));
+        return true;
     }
 
     /**
@@ -284,87 +330,24 @@ public class AnalyticsService {
     }
 
     /**
-     * Gets the most improved category for each employee within a date range
+     * Gets a page of employees ranked by their most improved category within a date range
      *
      * @param fromDate Start date for analysis
      * @param toDate   End date for analysis
-     * @return Map of employee IDs to Maps containing improvement details
+     * @param offset   Number of top ranked employees to skip
+     * @param limit    Maximum number of employees to return
+     * @return Improvements ordered from the largest down, at most one per employee
      */
     @Transactional(readOnly = true)
-    public Map<UUID, Map<String, Object>> getMostImprovedCategories(OffsetDateTime fromDate, OffsetDateTime toDate) {
-        Map<UUID, Map<String, Object>> results = new HashMap<>();
-        List<EmployeeModel> employeeModels = employeeRepository.findAll();
-
-        for (EmployeeModel employeeModel : employeeModels) {
-            Map<CampsCategory, Integer> improvements = new EnumMap<>(CampsCategory.class);
-
-            // Calculate improvement for each category
-            for (CampsCategory category : CampsCategory.values()) {
-                // Get rating at the start of range
-                Optional<EngagementRatingModel> startRatingOpt = ratingRepository
-                        .findTopByEmployeeIdAndCategoryAndRatingDateLessThanEqualOrderByRatingDateDesc(
-                                employeeModel.getId(), category, fromDate);
-
-                // Get rating at the end of range
-                Optional<EngagementRatingModel> endRatingOpt = ratingRepository
-                        .findTopByEmployeeIdAndCategoryAndRatingDateLessThanEqualOrderByRatingDateDesc(
-                                employeeModel.getId(), category, toDate);
-
-                // Calculate improvement if both ratings exist
-                if (startRatingOpt.isPresent() && endRatingOpt.isPresent()) {
-                    EngagementRatingModel startRating = startRatingOpt.get();
-                    EngagementRatingModel endRating = endRatingOpt.get();
-
-                    // Only consider ratings within the range
-                    if (!startRating.getRatingDate().equals(endRating.getRatingDate())) {
-                        int improvement = endRating.getRating() - startRating.getRating();
-                        improvements.put(category, improvement);
-                    }
-                }
-            }
-
-            // Find the most improved category
-            if (!improvements.isEmpty()) {
-                Map.Entry<CampsCategory, Integer> mostImproved = improvements.entrySet().stream()
-                        .max(Map.Entry.comparingByValue())
-                        .orElse(null);
-
-                if (mostImproved != null && mostImproved.getValue() > 0) {
-                    Map<String, Object> improvementDetails = new HashMap<>();
-                    improvementDetails.put("employeeName", employeeModel.getName());
-                    improvementDetails.put("team", employeeModel.getTeam());
-                    improvementDetails.put("category", mostImproved.getKey());
-                    improvementDetails.put("improvement", mostImproved.getValue());
-                    improvementDetails.put("fromDate", fromDate);
-                    improvementDetails.put("toDate", toDate);
-
-                    results.put(employeeModel.getId(), improvementDetails);
-                }
-            }
+    public List<CategoryImprovement> getMostImprovedCategories(OffsetDateTime fromDate, OffsetDateTime toDate,
+                                                               int offset, int limit) {
+        try (Stream<Object[]> rows = ratingRepository.streamMostImprovedCategoryPerEmployee(fromDate, toDate)) {
+            return TopImprovements.select(rows.map(CategoryImprovement::fromRow).iterator(), offset, limit);
         }
-
-        return results;
     }
 
     private TeamModel getTeamModel(UUID teamId) {
         return teamRepository.findById(teamId)
                 .orElseThrow(() -> new IllegalArgumentException("Team not found"));
     }
-
-    /**
-     * Creates a basic StatisticalContext for category averages
-     */
-    private StatisticalContext createBasicStatisticalContext(Integer sampleSize) {
-        StatisticalContext context = new StatisticalContext();
-        context.setSampleSize(sampleSize != null ? sampleSize : 0);
-        context.setIsStatisticallySignificant(sampleSize != null && sampleSize > 1);
-        
-        // Set basic defaults for optional fields
-        context.setStandardDeviation(null);
-        context.setVariance(null);
-        context.setConfidenceInterval(null);
-        context.setSignificanceLevel(sampleSize != null && sampleSize > 1 ? 0.05 : null);
-        
-        return context;
-    }
 }
\ No newline at end of file
@@ -1,21 +1,29 @@
 package com.acoustic.camps.service;
 
-import com.acoustic.camps.codegen.types.CampsCategory;
 import com.acoustic.camps.codegen.types.Employee;
 import com.acoustic.camps.codegen.types.EngagementRating;
 import com.acoustic.camps.mapper.EmployeeMapper;
 import com.acoustic.camps.mapper.EngagementRatingMapper;
 import com.acoustic.camps.model.EmployeeModel;
+import com.acoustic.camps.model.EngagementRatingModel;
 import com.acoustic.camps.model.TeamModel;
+import com.acoustic.camps.repository.CurrentRatingRepository;
 import com.acoustic.camps.repository.EmployeeRepository;
 import com.acoustic.camps.repository.EngagementRatingRepository;
 import com.acoustic.camps.repository.TeamRepository;
+import com.acoustic.camps.service.cache.TeamAveragesCache;
+import com.acoustic.camps.service.stats.TeamStatsRollupUpdater;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Arrays;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -28,7 +36,10 @@ public class EmployeeService {
 
     private final EmployeeRepository employeeRepository;
     private final EngagementRatingRepository ratingRepository;
+    private final CurrentRatingRepository currentRatingRepository;
     private final TeamRepository teamRepository;
+    private final TeamAveragesCache teamAveragesCache;
+    private final TeamStatsRollupUpdater rollupUpdater;
     private final EmployeeMapper mapper;
     private final EngagementRatingMapper ratingMapper;
 
@@ -62,38 +73,119 @@ public class EmployeeService {
     public Employee updateEmployee(UUID id, EmployeeModel updatedEmployeeModel) {
         return employeeRepository.findById(id)
                 .map(employee -> {
+                    UUID previousTeamId = employee.getTeam() != null ? employee.getTeam().getId() : null;
                     employee.setName(updatedEmployeeModel.getName());
                     employee.setPosition(updatedEmployeeModel.getPosition());
                     employee.setTeam(updatedEmployeeModel.getTeam());
                     employee.setDepartment(updatedEmployeeModel.getDepartment());
                     employee.setStartDate(updatedEmployeeModel.getStartDate());
                     employee.setManager(updatedEmployeeModel.getManager());
-                    return mapper.toEmployee(employeeRepository.save(employee));
+                    UUID teamId = employee.getTeam() != null ? employee.getTeam().getId() : null;
+                    boolean teamChanged = !Objects.equals(previousTeamId, teamId);
+                    if (teamChanged) {
+                        currentRatingRepository.updateTeamForEmployee(id, teamId);
+                        teamAveragesCache.invalidateTeam(previousTeamId);
+                        teamAveragesCache.invalidateTeam(teamId);
+                    }
+
+                    EmployeeModel saved = employeeRepository.saveAndFlush(employee);
+                    if (teamChanged) {
+                        // The rollups group ratings by the employee's team, so both teams' totals moved
+                        ratingDates(id).ifPresent(dates -> refreshRollups(dates, previousTeamId, teamId));
+                    }
+                    return mapper.toEmployee(saved);
                 })
                 .orElseThrow(() -> new IllegalArgumentException("Employee not found with id: " + id));
     }
 
     @Transactional
     public void deleteEmployee(UUID id) {
+        UUID teamId = employeeRepository.findById(id)
+                .map(EmployeeModel::getTeam)
+                .map(TeamModel::getId)
+                .orElse(null);
+        // The ratings go with the employee, so their dates are read first
+        Optional<RatingDates> dates = ratingDates(id);
+
+        teamAveragesCache.invalidateTeam(teamId);
         employeeRepository.deleteById(id);
+        employeeRepository.flush();
+        dates.ifPresent(range -> refreshRollups(range, teamId));
     }
 
     @Transactional(readOnly = true)
     public List<EngagementRating> getCurrentRatings(UUID employeeId) {
-        // Get the most recent rating for each category
-        return ratingMapper.toEngagementRatingList(Arrays.stream(CampsCategory.values())
-                .map(category -> ratingRepository.findTopByEmployeeIdAndCategoryOrderByRatingDateDesc(employeeId, category))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .toList());
+        // Get the most recent rating for each category from the current ratings projection
+        return ratingMapper.toEngagementRatingList(ratingRepository.findCurrentRatingsByEmployeeId(employeeId));
     }
 
     public List<Employee> getDirectReports(UUID managerId) {
         return mapper.toEmployeeList(employeeRepository.findByManagerId(managerId));
     }
 
+    /**
+     * Get the current ratings of several employees with a single query
+     *
+     * @param employeeIds The employees' IDs
+     * @return Current ratings grouped by employee ID, with an empty list for employees without any
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, List<EngagementRating>> getCurrentRatingsByEmployeeIds(Collection<UUID> employeeIds) {
+        Map<UUID, List<EngagementRating>> result = new HashMap<>();
+        employeeIds.forEach(id -> result.put(id, new ArrayList<>()));
+
+        for (EngagementRatingModel rating : ratingRepository.findCurrentRatingsByEmployeeIds(employeeIds)) {
+            result.get(rating.getEmployee().getId()).add(ratingMapper.toEmployeeRating(rating));
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the direct reports of several managers with a single query
+     *
+     * @param managerIds The managers' IDs
+     * @return Direct reports grouped by manager ID, with an empty list for managers without any
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, List<Employee>> getDirectReportsByManagerIds(Collection<UUID> managerIds) {
+        Map<UUID, List<Employee>> result = new HashMap<>();
+        managerIds.forEach(id -> result.put(id, new ArrayList<>()));
+
+        for (EmployeeModel report : employeeRepository.findByManagerIdIn(managerIds)) {
+            result.get(report.getManager().getId()).add(mapper.toEmployee(report));
+        }
+
+        return result;
+    }
+
     private TeamModel getTeamModel(UUID teamId) {
         return teamRepository.findById(teamId)
                 .orElseThrow(() -> new IllegalArgumentException("Team not found with id: " + teamId));
     }
-}
\ No newline at end of file
+
+    /**
+     * The dates of an employee's earliest and latest rating
+     */
+    private record RatingDates(LocalDate first, LocalDate last) {
+    }
+
+    private Optional<RatingDates> ratingDates(UUID employeeId) {
+        return ratingRepository.findFirstByEmployeeIdOrderByRatingDateAsc(employeeId)
+                .map(first -> new RatingDates(
+                        first.getRatingDate().toLocalDate(),
+                        ratingRepository.findFirstByEmployeeIdOrderByRatingDateDesc(employeeId).orElse(first)
+                                .getRatingDate().toLocalDate()));
+    }
+
+    /**
+     * Rebuild the stats rollups of teams over the dates of an employee's ratings; null stands for no team
+     */
+    private void refreshRollups(RatingDates dates, UUID... teamIds) {
+        for (UUID teamId : teamIds) {
+            if (teamId != null) {
+                rollupUpdater.refresh(teamId, dates.first(), dates.last());
+            }
+        }
+    }
+}
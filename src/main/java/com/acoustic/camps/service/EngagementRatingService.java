@@ -2,20 +2,24 @@ package com.acoustic.camps.service;
 
 import com.acoustic.camps.codegen.types.CampsCategory;
 import com.acoustic.camps.codegen.types.EngagementRating;
+import com.acoustic.camps.codegen.types.PageInfo;
+import com.acoustic.camps.codegen.types.RatingConnection;
+import com.acoustic.camps.codegen.types.RatingEdge;
 import com.acoustic.camps.mapper.EngagementRatingMapper;
 import com.acoustic.camps.model.EmployeeModel;
 import com.acoustic.camps.model.EngagementRatingModel;
-import com.acoustic.camps.model.TeamModel;
-import com.acoustic.camps.model.TeamStatsModel;
+import com.acoustic.camps.repository.CurrentRatingRepository;
 import com.acoustic.camps.repository.EmployeeRepository;
 import com.acoustic.camps.repository.EngagementRatingRepository;
-import com.acoustic.camps.repository.TeamStatsRepository;
+import com.acoustic.camps.service.cache.TeamAveragesCache;
+import com.acoustic.camps.service.rating.RatingCursor;
+import com.acoustic.camps.service.trend.IncrementalTrendUpdater;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,9 +30,18 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class EngagementRatingService {
 
+    static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * Most ratings returned for a date range without paging
+     */
+    static final int MAX_RANGE_SIZE = 5000;
+
     private final EngagementRatingRepository ratingRepository;
     private final EmployeeRepository employeeRepository;
-    private final TeamStatsRepository teamStatsRepository;
+    private final CurrentRatingRepository currentRatingRepository;
+    private final IncrementalTrendUpdater incrementalTrendUpdater;
+    private final TeamAveragesCache teamAveragesCache;
     private final EngagementRatingMapper mapper;
 
     @Transactional(readOnly = true)
@@ -41,9 +54,68 @@ public class EngagementRatingService {
         return mapper.toEngagementRatingList(ratingRepository.findByEmployeeIdAndCategoryOrderByRatingDateDesc(employeeId, category));
     }
 
+    /**
+     * Get every rating within a date range, newest first.
+     * At most one rating more than the cap is read, so a range too large for one list fails without being loaded.
+     *
+     * @param fromDate Start date (inclusive)
+     * @param toDate   End date (inclusive)
+     * @return The ratings, at most {@value #MAX_RANGE_SIZE}
+     * @throws IllegalArgumentException if the range holds more than {@value #MAX_RANGE_SIZE} ratings
+     */
     @Transactional(readOnly = true)
     public List<EngagementRating> getRatingsByDateRange(OffsetDateTime fromDate, OffsetDateTime toDate) {
-        return mapper.toEngagementRatingList(ratingRepository.findByRatingDateBetweenOrderByRatingDateDesc(fromDate, toDate));
+        List<EngagementRatingModel> ratings = ratingRepository.findPageByRatingDateBetween(
+                fromDate, toDate, Limit.of(MAX_RANGE_SIZE + 1));
+        if (ratings.size() > MAX_RANGE_SIZE) {
+            throw new IllegalArgumentException("The date range holds more than " + MAX_RANGE_SIZE
+                    + " ratings, page through it with ratingsConnection");
+        }
+        return mapper.toEngagementRatingList(ratings);
+    }
+
+    /**
+     * Get one page of the ratings within a date range, newest first
+     *
+     * @param fromDate Start date (inclusive)
+     * @param toDate   End date (inclusive)
+     * @param first    Maximum number of ratings in the page, at most {@value #MAX_PAGE_SIZE}
+     * @param after    Cursor of the last rating of the previous page, or null for the first page
+     * @return The page with its cursors
+     */
+    @Transactional(readOnly = true)
+    public RatingConnection getRatingsPage(OffsetDateTime fromDate, OffsetDateTime toDate, int first, String after) {
+        if (first < 1 || first > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("first must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Read one extra rating to learn whether another page follows
+        Limit limit = Limit.of(first + 1);
+        List<EngagementRatingModel> ratings;
+        if (after == null) {
+            ratings = ratingRepository.findPageByRatingDateBetween(fromDate, toDate, limit);
+        } else {
+            RatingCursor cursor = RatingCursor.decode(after);
+            ratings = ratingRepository.findPageByRatingDateBetweenAfter(
+                    fromDate, toDate, cursor.ratingDate(), cursor.id(), limit);
+        }
+
+        boolean hasNextPage = ratings.size() > first;
+        List<RatingEdge> edges = ratings.stream()
+                .limit(first)
+                .map(rating -> RatingEdge.newBuilder()
+                        .cursor(RatingCursor.of(rating).encode())
+                        .node(mapper.toEmployeeRating(rating))
+                        .build())
+                .toList();
+
+        return RatingConnection.newBuilder()
+                .edges(edges)
+                .pageInfo(PageInfo.newBuilder()
+                        .hasNextPage(hasNextPage)
+                        .endCursor(edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor())
+                        .build())
+                .build();
     }
 
     @Transactional
@@ -54,51 +126,33 @@ public class EngagementRatingService {
         // Ensure we're creating a new record
         newRating.setId(null);
 
-        // Save the new rating
-        EngagementRatingModel savedRating = ratingRepository.save(newRating);
+        // Save the new rating, flushed so the incremental update queries can see it
+        EngagementRatingModel savedRating = ratingRepository.saveAndFlush(newRating);
+
+        // Fold the rating into the current ratings projection, its week's trend rows and the team's daily stats
+        updateCurrentRating(savedRating);
+        incrementalTrendUpdater.applyRating(savedRating);
 
         return mapper.toEmployeeRating(savedRating);
     }
 
     /**
-     * Updates the team statistics for a given category and date
+     * Make a saved rating the employee's current one for its category, unless a later rating already is,
+     * and drop the cached team averages it affects
      */
-    private void updateTeamStats(TeamModel team, CampsCategory category, OffsetDateTime date) {
-        if (team == null) {
-            return;
-        }
-
-        // Get all employees in the team
-        List<EmployeeModel> teamEmployeeModels = employeeRepository.findByTeam(team);
-
-        // Get current ratings for all employees
-        List<EngagementRatingModel> currentRatings = new ArrayList<>();
-        for (EmployeeModel employeeModel : teamEmployeeModels) {
-            ratingRepository.findTopByEmployeeIdAndCategoryAndRatingDateLessThanEqualOrderByRatingDateDesc(
-                            employeeModel.getId(), category, date)
-                    .ifPresent(currentRatings::add);
-        }
-
-        // Calculate average
-        double averageRating = currentRatings.stream()
-                .mapToInt(EngagementRatingModel::getRating)
-                .average()
-                .orElse(0.0);
-
-        // Get previous stats
-        TeamStatsModel previousStats = (TeamStatsModel) teamStatsRepository.findTopByTeamAndCategoryAndRecordDateLessThanOrderByRecordDateDesc(
-                team, category, date).orElse(null);
-
-        // Create new stats
-        TeamStatsModel stats = TeamStatsModel.builder()
-                .team(team)
-                .category(category)
-                .recordDate(date)
-                .averageRating(averageRating)
-                .previousAverageRating(previousStats != null ? previousStats.getAverageRating() : null)
-                .employeeCount(currentRatings.size())
-                .build();
-
-        teamStatsRepository.save(stats);
+    private void updateCurrentRating(EngagementRatingModel rating) {
+        EmployeeModel employee = employeeRepository.findById(rating.getEmployee().getId())
+                .orElseThrow(() -> new IllegalArgumentException("Employee not found with ID: " + rating.getEmployee().getId()));
+
+        UUID teamId = employee.getTeam() != null ? employee.getTeam().getId() : null;
+        currentRatingRepository.upsert(
+                employee.getId(),
+                rating.getCategory().name(),
+                rating.getId(),
+                rating.getRating(),
+                rating.getRatingDate(),
+                teamId);
+
+        teamAveragesCache.invalidateFrom(teamId, rating.getRatingDate());
     }
 }
@@ -0,0 +1,162 @@
+package com.acoustic.camps.service;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.codegen.types.SignificantChange;
+import com.acoustic.camps.codegen.types.TimePeriod;
+import com.acoustic.camps.model.TeamModel;
+import com.acoustic.camps.repository.EngagementRatingRepository;
+import com.acoustic.camps.repository.TeamRepository;
+import com.acoustic.camps.service.significance.CategorySamples;
+import com.acoustic.camps.service.significance.SignificantChangeEvaluator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Service for detecting statistically significant changes in team ratings.
+ * Each rater's latest rating in the period is compared with their latest rating before it; the ratings of a batch
+ * of teams are loaded with one query and tested per category in memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SignificantChangeService {
+
+    private final EngagementRatingRepository engagementRatingRepository;
+    private final TeamRepository teamRepository;
+
+    @Qualifier("analyticsWorkerExecutor")
+    private final Executor workerExecutor;
+
+    @Value("${analytics.significance.teams-per-task:50}")
+    private int teamsPerTask;
+
+    /**
+     * The statistically significant changes of one team
+     *
+     * @param team    The team
+     * @param changes The team's statistically significant changes
+     */
+    public record TeamChanges(TeamModel team, List<SignificantChange> changes) {
+    }
+
+    /**
+     * Test every category of a team for a change over a time period
+     *
+     * @param teamId            The team's ID
+     * @param timePeriod        The period compared with the ratings before it
+     * @param significanceLevel Largest p-value reported as statistically significant
+     * @return One change per category with enough ratings to test, significant or not
+     */
+    public List<SignificantChange> findSignificantChanges(UUID teamId, TimePeriod timePeriod,
+                                                          double significanceLevel) {
+        if (!teamRepository.existsById(teamId)) {
+            throw new IllegalArgumentException("Team not found with id: " + teamId);
+        }
+
+        OffsetDateTime toDate = OffsetDateTime.now();
+        OffsetDateTime fromDate = periodStart(timePeriod, toDate);
+        Map<CampsCategory, CategorySamples> samples = loadSamples(List.of(teamId), fromDate, toDate)
+                .getOrDefault(teamId, Map.of());
+        return SignificantChangeEvaluator.evaluate(samples, significanceLevel);
+    }
+
+    /**
+     * Test every category of every team for a change over a time period.
+     * Teams are split into batches that are loaded and tested in parallel on the worker executor.
+     *
+     * @param timePeriod        The period compared with the ratings before it
+     * @param significanceLevel Largest p-value reported as statistically significant
+     * @return The teams with at least one statistically significant change, in team name order
+     */
+    public List<TeamChanges> findSignificantChangesForAllTeams(TimePeriod timePeriod, double significanceLevel) {
+        List<TeamModel> teams = teamRepository.findAll();
+        OffsetDateTime toDate = OffsetDateTime.now();
+        OffsetDateTime fromDate = periodStart(timePeriod, toDate);
+
+        List<CompletableFuture<List<TeamChanges>>> tasks = new ArrayList<>();
+        for (int start = 0; start < teams.size(); start += teamsPerTask) {
+            List<TeamModel> batch = teams.subList(start, Math.min(start + teamsPerTask, teams.size()));
+            tasks.add(CompletableFuture.supplyAsync(
+                    () -> evaluateBatch(batch, fromDate, toDate, significanceLevel), workerExecutor));
+        }
+
+        List<TeamChanges> result = new ArrayList<>();
+        for (CompletableFuture<List<TeamChanges>> task : tasks) {
+            result.addAll(task.join());
+        }
+        result.sort(Comparator.comparing(changes -> changes.team().getName(), String.CASE_INSENSITIVE_ORDER));
+
+        log.debug("Found significant changes for {} of {} teams in {} tasks", result.size(), teams.size(), tasks.size());
+        return result;
+    }
+
+    private List<TeamChanges> evaluateBatch(List<TeamModel> teams, OffsetDateTime fromDate, OffsetDateTime toDate,
+                                            double significanceLevel) {
+        Map<UUID, Map<CampsCategory, CategorySamples>> samplesByTeam =
+                loadSamples(teams.stream().map(TeamModel::getId).toList(), fromDate, toDate);
+
+        List<TeamChanges> result = new ArrayList<>();
+        for (TeamModel team : teams) {
+            Map<CampsCategory, CategorySamples> samples = samplesByTeam.get(team.getId());
+            if (samples == null) {
+                continue;
+            }
+
+            List<SignificantChange> changes = SignificantChangeEvaluator.evaluate(samples, significanceLevel).stream()
+                    .filter(SignificantChange::getIsStatisticallySignificant)
+                    .toList();
+            if (!changes.isEmpty()) {
+                result.add(new TeamChanges(team, changes));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Load the current and previous rating of every rater in the teams, grouped by team and category
+     */
+    private Map<UUID, Map<CampsCategory, CategorySamples>> loadSamples(List<UUID> teamIds, OffsetDateTime fromDate,
+                                                                        OffsetDateTime toDate) {
+        Map<UUID, Map<CampsCategory, CategorySamples>> result = new HashMap<>();
+        List<Object[]> rows = engagementRatingRepository.findCurrentAndPreviousRatingsForTeams(teamIds, fromDate, toDate);
+
+        for (Object[] row : rows) {
+            UUID teamId = (UUID) row[0];
+            CampsCategory category = CampsCategory.valueOf((String) row[1]);
+            Integer current = row[3] != null ? ((Number) row[3]).intValue() : null;
+            Integer previous = row[4] != null ? ((Number) row[4]).intValue() : null;
+
+            result.computeIfAbsent(teamId, id -> new EnumMap<>(CampsCategory.class))
+                    .computeIfAbsent(category, c -> new CategorySamples())
+                    .add(current, previous);
+        }
+        return result;
+    }
+
+    private static OffsetDateTime periodStart(TimePeriod timePeriod, OffsetDateTime endDate) {
+        return switch (timePeriod) {
+            case LAST_WEEK -> endDate.minusWeeks(1);
+            case LAST_2_WEEKS -> endDate.minusWeeks(2);
+            case LAST_4_WEEKS -> endDate.minusWeeks(4);
+            case LAST_30_DAYS -> endDate.minusDays(30);
+            case LAST_90_DAYS -> endDate.minusDays(90);
+            case LAST_6_MONTHS -> endDate.minusMonths(6);
+            case LAST_YEAR -> endDate.minusYears(1);
+            default -> throw new IllegalArgumentException("Unsupported time period: " + timePeriod);
+        };
+    }
+}
@@ -0,0 +1,218 @@
+package com.acoustic.camps.service;
+
+import com.acoustic.camps.codegen.types.CalculationJobType;
+import com.acoustic.camps.metrics.TrendJobMetrics;
+import com.acoustic.camps.model.AnalyticsProcessingPartitionModel;
+import com.acoustic.camps.model.enums.ProcessingJobType;
+import com.acoustic.camps.model.enums.ProcessingStatus;
+import com.acoustic.camps.model.enums.SnapshotType;
+import com.acoustic.camps.repository.AnalyticsProcessingLogRepository;
+import com.acoustic.camps.repository.AnalyticsProcessingPartitionRepository;
+import com.acoustic.camps.service.job.CalculationJobRegistry;
+import com.acoustic.camps.service.job.CalculationJobRegistry.RegisteredJob;
+import com.acoustic.camps.service.job.ClusterJobLock;
+import com.acoustic.camps.service.trend.TrendBackfillPass;
+import com.acoustic.camps.service.trend.TrendBackfillPass.WrittenWeeks;
+import com.acoustic.camps.service.trend.TrendSeriesRefresher;
+import com.acoustic.camps.service.trend.TrendWeek;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Service for backfilling weekly trends over an arbitrary date range.
+ * <p>
+ * Only weeks that neither the weekly job nor an earlier backfill completed are written. Each is a checkpoint
+ * partition of the backfill job, committed together with its rows, so an interrupted backfill is resumed with
+ * {@link #resumeBackfill(UUID)} and picks up at the first unfinished week. Once the weeks are written, the later
+ * weeks of every series they belong to are derived again by the {@link TrendSeriesRefresher}, as their comparisons,
+ * rolling averages and series statistics were computed without the filled weeks.
+ * <p>
+ * A backfill is prepared and run while holding a {@link ClusterJobLock}, so only one instance backfills at a time
+ * and a job is only resumed once no instance is still running it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendBackfillService {
+
+    private static final String LOCK_NAME = "camps.trend-backfill";
+
+    private final AnalyticsProcessingLogRepository processingLogRepository;
+    private final AnalyticsProcessingPartitionRepository partitionRepository;
+    private final CalculationJobRegistry jobRegistry;
+    private final ClusterJobLock jobLock;
+    private final TrendBackfillPass backfillPass;
+    private final TrendSeriesRefresher seriesRefresher;
+    private final TrendJobMetrics metrics;
+
+    @Qualifier("analyticsTaskExecutor")
+    private final Executor jobExecutor;
+
+    /**
+     * Admin API to compute every complete week in a range that has not been calculated yet
+     *
+     * @param fromDate Start of the range; the week containing it is the first one considered
+     * @param toDate   End of the range; clamped to the last complete week
+     * @return The registered job, running in the background
+     * @throws IllegalArgumentException if the range is invalid, every week in it is complete, or a backfill is
+     *                                  running or was interrupted
+     */
+    public RegisteredJob startBackfill(OffsetDateTime fromDate, OffsetDateTime toDate) {
+        if (fromDate == null || toDate == null) {
+            throw new IllegalArgumentException("Backfill range requires both a start and an end date");
+        }
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("Backfill start date must not be after its end date");
+        }
+
+        TrendWeek first = TrendWeek.containing(fromDate.toLocalDate(), fromDate.getOffset());
+        TrendWeek lastComplete = TrendWeek.containing(LocalDate.now().minusWeeks(1), fromDate.getOffset());
+        TrendWeek requestedLast = TrendWeek.containing(toDate.toLocalDate(), fromDate.getOffset());
+        TrendWeek last = requestedLast.start().isAfter(lastComplete.start()) ? lastComplete : requestedLast;
+        if (first.start().isAfter(last.start())) {
+            throw new IllegalArgumentException("Backfill range contains no complete week");
+        }
+
+        return runLocked(() -> {
+            // Nobody else holds the lock, so a backfill still marked running was interrupted
+            if (jobRegistry.isRunning(ProcessingJobType.BACKFILL_TRENDS)) {
+                throw new IllegalArgumentException("A backfill was interrupted; resume it first");
+            }
+
+            List<TrendWeek> missing = findMissingWeeks(first, last);
+            if (missing.isEmpty()) {
+                throw new IllegalArgumentException("Every week between " + first.startDate() + " and "
+                        + last.endDate() + " has already been calculated");
+            }
+
+            log.info("Starting weekly trend backfill of {} weeks between {} and {}",
+                    missing.size(), first.startDate(), last.endDate());
+            return jobRegistry.registerWeeks(ProcessingJobType.BACKFILL_TRENDS, SnapshotType.WEEKLY,
+                    first.start(), last.end(), missing);
+        });
+    }
+
+    /**
+     * Admin API to resume an interrupted or partly failed backfill from its first unfinished week
+     *
+     * @param jobId The backfill job's ID
+     * @return The job, running the unfinished weeks in the background
+     * @throws IllegalArgumentException if the job is not a backfill, or a backfill is still running
+     */
+    public RegisteredJob resumeBackfill(UUID jobId) {
+        if (jobId == null) {
+            throw new IllegalArgumentException("Job ID cannot be null");
+        }
+
+        CalculationJobType type = jobRegistry.getJob(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Calculation job not found: " + jobId))
+                .getType();
+        if (type != CalculationJobType.BACKFILL_TRENDS) {
+            throw new IllegalArgumentException("Calculation job " + jobId + " is not a backfill");
+        }
+
+        return runLocked(() -> {
+            // Holding the lock means no instance is running a backfill, so partitions left running are dead
+            List<AnalyticsProcessingPartitionModel> unfinished = jobRegistry.reopenUnfinishedPartitions(jobId);
+            log.info("Resuming weekly trend backfill {} with {} unfinished weeks", jobId, unfinished.size());
+            return new RegisteredJob(jobId, unfinished);
+        });
+    }
+
+    /**
+     * Prepare the job and run it on the job executor, both under the backfill lock
+     *
+     * @param prepare Registers or reopens the job
+     * @return The prepared job, running in the background
+     * @throws IllegalArgumentException if another backfill holds the lock, or as thrown by prepare
+     */
+    private RegisteredJob runLocked(Supplier<RegisteredJob> prepare) {
+        return jobLock.startExclusively(LOCK_NAME, jobExecutor, prepare, job -> {
+            try {
+                runJob(job);
+            } catch (RuntimeException e) {
+                log.error("Error during weekly trend backfill {}: {}", job.id(), e.getMessage(), e);
+                jobRegistry.fail(job.id(), e.getMessage());
+            }
+        }).orElseThrow(() -> new IllegalArgumentException("Another backfill is running"));
+    }
+
+    private void runJob(RegisteredJob job) {
+        Timer.Sample sample = metrics.jobStarted();
+        boolean success = false;
+        try {
+            if (!job.partitions().isEmpty()) {
+                refreshLaterWeeks(backfillPass.run(job.partitions()));
+            }
+
+            success = jobRegistry.finish(job.id());
+            log.info("Weekly trend backfill {} completed. Success: {}", job.id(), success);
+        } finally {
+            metrics.jobFinished(sample, TrendJobMetrics.JOB_BACKFILL, success);
+        }
+    }
+
+    /**
+     * Derive the weeks after the written ones again, one team partition at a time once the backfill's read has ended.
+     * A failed team is logged and left as it was; the written weeks themselves stay valid.
+     */
+    private void refreshLaterWeeks(WrittenWeeks written) {
+        if (written.first() == null) {
+            return;
+        }
+
+        int rows = 0;
+        int failed = 0;
+        for (Map.Entry<UUID, Set<UUID>> team : written.employeesByTeam().entrySet()) {
+            try {
+                rows += seriesRefresher.refreshPartition(team.getKey(), team.getValue(), written.first());
+            } catch (RuntimeException e) {
+                failed++;
+                log.error("Error deriving the weeks after the backfill for team {}: {}",
+                        team.getKey(), e.getMessage(), e);
+            }
+        }
+        log.info("Derived {} weekly trend rows again from {} for {} teams ({} failed)",
+                rows, written.first().startDate(), written.employeesByTeam().size(), failed);
+    }
+
+    /**
+     * The weeks between first and last that no weekly job run and no backfill checkpoint has completed.
+     * Trend rows alone do not make a week complete: a backdated rating writes rows for only its own team and employee.
+     */
+    private List<TrendWeek> findMissingWeeks(TrendWeek first, TrendWeek last) {
+        ZoneOffset offset = first.start().getOffset();
+        Set<LocalDate> completed = new HashSet<>();
+        for (OffsetDateTime start : processingLogRepository.findStartDates(ProcessingJobType.WEEKLY_TRENDS,
+                ProcessingStatus.COMPLETED, first.start(), last.start())) {
+            completed.add(start.withOffsetSameInstant(offset).toLocalDate());
+        }
+        for (OffsetDateTime start : partitionRepository.findPeriodStarts(ProcessingJobType.BACKFILL_TRENDS,
+                ProcessingStatus.COMPLETED, first.start(), last.start())) {
+            completed.add(start.withOffsetSameInstant(offset).toLocalDate());
+        }
+
+        List<TrendWeek> missing = new ArrayList<>();
+        for (TrendWeek week = first; !week.start().isAfter(last.start()); week = week.next()) {
+            if (!completed.contains(week.startDate())) {
+                missing.add(week);
+            }
+        }
+        return missing;
+    }
+}
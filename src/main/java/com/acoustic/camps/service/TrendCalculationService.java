@@ -1,250 +1,174 @@
 package com.acoustic.camps.service;
 
 import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.metrics.TrendJobMetrics;
+import com.acoustic.camps.model.AnalyticsProcessingPartitionModel;
 import com.acoustic.camps.model.TeamModel;
+import com.acoustic.camps.model.enums.ProcessingJobType;
+import com.acoustic.camps.model.enums.SnapshotType;
 import com.acoustic.camps.repository.TeamRepository;
+import com.acoustic.camps.service.job.CalculationJobRegistry;
+import com.acoustic.camps.service.job.CalculationJobRegistry.RegisteredJob;
+import com.acoustic.camps.service.job.ClusterJobLock;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
- * Service for managing trend data calculations
+ * Service for managing trend data calculations.
+ * Each run is registered with the {@link CalculationJobRegistry} before it starts, so callers get a job ID
+ * to follow its progress; latency is published through {@link TrendJobMetrics}.
+ * Runs are registered and executed under a {@link ClusterJobLock}, so only one runs at a time across instances.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TrendCalculationService {
 
+    private static final String LOCK_NAME = "camps.team-trends";
+
     private final AnalyticsService analyticsService;
     private final TeamRepository teamRepository;
-    
-    // Progress tracking for long-running calculations
-    private final AtomicInteger calculationProgress = new AtomicInteger(0);
-    private volatile int totalCalculations = 0;
-    private volatile boolean calculationInProgress = false;
+    private final CalculationJobRegistry jobRegistry;
+    private final ClusterJobLock jobLock;
+    private final TrendJobMetrics metrics;
+
+    @Qualifier("analyticsTaskExecutor")
+    private final Executor jobExecutor;
+
+    @Qualifier("analyticsWorkerExecutor")
+    private final Executor workerExecutor;
 
     /**
      * Admin API to trigger calculation for a specific team regardless of time since last calculation
      *
      * @param teamId The team's ID
-     * @return CompletableFuture that completes when calculation is done
+     * @return The registered job, running in the background
+     * @throws IllegalArgumentException if the team does not exist or another calculation is running
      */
-    @Async
-    public CompletableFuture<Boolean> calculateTeamTrendsAsync(UUID teamId) {
-        log.info("Starting async trend calculation for team ID: {}", teamId);
+    public RegisteredJob startTeamTrends(UUID teamId) {
+        if (teamId == null) {
+            throw new IllegalArgumentException("Team ID cannot be null");
+        }
 
-        try {
-            // Validate input
-            if (teamId == null) {
-                throw new IllegalArgumentException("Team ID cannot be null");
-            }
-            
-            TeamModel team = teamRepository.findById(teamId)
-                    .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
-
-            // Set up progress tracking
-            calculationInProgress = true;
-            totalCalculations = CampsCategory.values().length;
-            calculationProgress.set(0);
-            
-            log.info("Starting trend calculation for team: {} ({})", team.getName(), teamId);
-
-            OffsetDateTime now = OffsetDateTime.now();
-
-            // Calculate and save trend data for each category with progress tracking
-            for (CampsCategory category : CampsCategory.values()) {
-                try {
-                    analyticsService.generateTeamTrendData(
-                            team,
-                            category,
-                            now,
-                            now.minusMonths(1),
-                            now.minusMonths(3),
-                            now.minusYears(1)
-                    );
-                    
-                    // Update progress
-                    int progress = calculationProgress.incrementAndGet();
-                    log.debug("Progress: {}/{} categories completed for team {}", 
-                            progress, totalCalculations, team.getName());
-                    
-                } catch (Exception e) {
-                    log.error("Error calculating trend for team {} category {}: {}", 
-                            team.getName(), category, e.getMessage(), e);
-                    // Continue with other categories
-                }
-            }
+        TeamModel team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
 
-            calculationInProgress = false;
-            log.info("Async trend calculation completed for team ID: {}", teamId);
-            return CompletableFuture.completedFuture(true);
-        } catch (Exception e) {
-            calculationInProgress = false;
-            log.error("Error during async trend calculation for team {}: {}", teamId, e.getMessage(), e);
-            return CompletableFuture.completedFuture(false);
-        }
+        log.info("Starting trend calculation for team: {} ({})", team.getName(), teamId);
+        return start(List.of(team), TrendJobMetrics.JOB_TEAM);
     }
 
     /**
      * Admin API to trigger calculation for all teams regardless of time since last calculation
      *
-     * @return CompletableFuture that completes when all calculations are done
+     * @return The registered job, running in the background
+     * @throws IllegalArgumentException if another calculation is running
      */
-    @Async
-    public CompletableFuture<Boolean> calculateAllTeamTrendsAsync() {
-        log.info("Starting async trend calculation for all teams");
+    public RegisteredJob startAllTeamTrends() {
+        List<TeamModel> teams = teamRepository.findAll();
+        if (teams.isEmpty()) {
+            log.warn("No teams found for trend calculation");
+        }
+
+        log.info("Starting trend calculation for {} teams", teams.size());
+        return start(teams, TrendJobMetrics.JOB_ALL_TEAMS);
+    }
+
+    /**
+     * Register a job with one partition per team and run it on the job executor, both under the cluster lock
+     */
+    private RegisteredJob start(List<TeamModel> teams, String jobName) {
+        OffsetDateTime now = OffsetDateTime.now();
+
+        return jobLock.startExclusively(LOCK_NAME, jobExecutor,
+                () -> jobRegistry.register(ProcessingJobType.TEAM_TRENDS, SnapshotType.MONTHLY, now, now,
+                        teams.stream().map(TeamModel::getId).toList()),
+                job -> {
+                    try {
+                        runJob(job, teams, jobName, now);
+                    } catch (RuntimeException e) {
+                        log.error("Error during trend calculation job {}: {}", job.id(), e.getMessage(), e);
+                        jobRegistry.fail(job.id(), e.getMessage());
+                    }
+                })
+                .orElseThrow(() -> new IllegalArgumentException("Another trend calculation is running"));
+    }
 
+    private void runJob(RegisteredJob job, List<TeamModel> teams, String jobName, OffsetDateTime now) {
+        Timer.Sample sample = metrics.jobStarted();
+        boolean success = false;
         try {
-            List<TeamModel> teams = teamRepository.findAll();
-            
-            if (teams.isEmpty()) {
-                log.warn("No teams found for trend calculation");
-                return CompletableFuture.completedFuture(true);
-            }
+            Map<UUID, TeamModel> teamsById = teams.stream()
+                    .collect(Collectors.toMap(TeamModel::getId, Function.identity()));
 
-            // Set up progress tracking
-            calculationInProgress = true;
-            totalCalculations = teams.size() * CampsCategory.values().length;
-            calculationProgress.set(0);
-            
-            log.info("Calculating trends for {} teams", teams.size());
-
-            // Process teams in batches to avoid overwhelming the system
-            final int batchSize = 5;
-            boolean overallSuccess = true;
-            
-            for (int i = 0; i < teams.size(); i += batchSize) {
-                int endIndex = Math.min(i + batchSize, teams.size());
-                List<TeamModel> batch = teams.subList(i, endIndex);
-                
-                log.debug("Processing batch {}/{}: teams {} to {}", 
-                        (i / batchSize) + 1, 
-                        (teams.size() + batchSize - 1) / batchSize,
-                        i + 1, 
-                        endIndex);
-                
-                // Process batch with parallel streams for better performance
-                boolean batchSuccess = batch.parallelStream()
-                        .allMatch(team -> {
-                            try {
-                                return calculateTeamTrendsSync(team);
-                            } catch (Exception e) {
-                                log.error("Error calculating trends for team {}: {}", 
-                                        team.getName(), e.getMessage(), e);
-                                return false;
-                            }
-                        });
-                
-                if (!batchSuccess) {
-                    overallSuccess = false;
-                }
-                
-                // Small delay between batches to prevent system overload
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.warn("Interrupted during batch processing");
-                    break;
-                }
-            }
+            // One task per team; the worker executor bounds how many run against the database at once
+            CompletableFuture<?>[] tasks = job.partitions().stream()
+                    .map(partition -> CompletableFuture.runAsync(
+                            () -> runPartition(partition, teamsById.get(partition.getTeamId()), jobName, now),
+                            workerExecutor))
+                    .toArray(CompletableFuture[]::new);
 
-            calculationInProgress = false;
-            log.info("Async trend calculation completed for all teams. Success: {}", overallSuccess);
-            return CompletableFuture.completedFuture(overallSuccess);
-        } catch (Exception e) {
-            calculationInProgress = false;
-            log.error("Error initiating trend calculations for all teams: {}", e.getMessage(), e);
-            return CompletableFuture.completedFuture(false);
+            CompletableFuture.allOf(tasks).join();
+
+            success = jobRegistry.finish(job.id());
+            log.info("Trend calculation job {} completed. Success: {}", job.id(), success);
+        } finally {
+            metrics.jobFinished(sample, jobName, success);
         }
     }
-    
+
     /**
-     * Synchronous helper method for calculating team trends
-     * Used internally by the async batch processing
+     * Calculate the trends of one team partition.
+     * A failing category is logged and counted but does not stop the remaining categories;
+     * the partition fails if any category failed.
      */
-    private boolean calculateTeamTrendsSync(TeamModel team) {
-        try {
-            OffsetDateTime now = OffsetDateTime.now();
-            
-            for (CampsCategory category : CampsCategory.values()) {
-                try {
-                    analyticsService.generateTeamTrendData(
-                            team,
-                            category,
-                            now,
-                            now.minusMonths(1),
-                            now.minusMonths(3),
-                            now.minusYears(1)
-                    );
-                    
-                    // Update progress
-                    int progress = calculationProgress.incrementAndGet();
-                    if (progress % 10 == 0) { // Log every 10th completion to avoid spam
-                        log.debug("Progress: {}/{} calculations completed", 
-                                progress, totalCalculations);
-                    }
-                    
-                } catch (Exception e) {
-                    log.error("Error calculating trend for team {} category {}: {}", 
-                            team.getName(), category, e.getMessage(), e);
-                    // Continue with other categories
+    private void runPartition(AnalyticsProcessingPartitionModel partition, TeamModel team,
+                              String jobName, OffsetDateTime now) {
+        partition = jobRegistry.partitionStarted(partition);
+
+        Timer.Sample teamSample = metrics.startSample();
+        int written = 0;
+        int failedCategories = 0;
+        for (CampsCategory category : CampsCategory.values()) {
+            Timer.Sample categorySample = metrics.startSample();
+            try {
+                if (analyticsService.generateTeamTrendData(
+                        team,
+                        category,
+                        now,
+                        now.minusMonths(1),
+                        now.minusMonths(3),
+                        now.minusYears(1)
+                )) {
+                    written++;
                 }
+                metrics.categoryCalculated(categorySample, jobName, category, true);
+            } catch (Exception e) {
+                metrics.categoryCalculated(categorySample, jobName, category, false);
+                failedCategories++;
+                log.error("Error calculating trend for team {} category {}: {}",
+                        team.getName(), category, e.getMessage(), e);
+                // Continue with other categories
             }
-            
-            return true;
-        } catch (Exception e) {
-            log.error("Error calculating trends for team {}: {}", team.getName(), e.getMessage(), e);
-            return false;
-        }
-    }
-    
-    /**
-     * Get the current calculation progress
-     * 
-     * @return Progress information including percentage complete
-     */
-    public CalculationProgress getCalculationProgress() {
-        return new CalculationProgress(
-                calculationInProgress,
-                calculationProgress.get(),
-                totalCalculations,
-                totalCalculations > 0 ? (double) calculationProgress.get() / totalCalculations * 100 : 0
-        );
-    }
-    
-    /**
-     * Progress information for trend calculations
-     */
-    public static class CalculationProgress {
-        private final boolean inProgress;
-        private final int completed;
-        private final int total;
-        private final double percentComplete;
-        
-        public CalculationProgress(boolean inProgress, int completed, int total, double percentComplete) {
-            this.inProgress = inProgress;
-            this.completed = completed;
-            this.total = total;
-            this.percentComplete = percentComplete;
         }
-        
-        public boolean isInProgress() { return inProgress; }
-        public int getCompleted() { return completed; }
-        public int getTotal() { return total; }
-        public double getPercentComplete() { return percentComplete; }
-        
-        @Override
-        public String toString() {
-            return String.format("CalculationProgress{inProgress=%s, completed=%d, total=%d, percentComplete=%.1f%%}", 
-                    inProgress, completed, total, percentComplete);
+        metrics.rowsWritten(jobName, written);
+        metrics.teamCalculated(teamSample, jobName, failedCategories == 0);
+        if (failedCategories == 0) {
+            jobRegistry.partitionCompleted(partition, written);
+        } else {
+            jobRegistry.partitionFailed(partition, failedCategories + " of "
+                    + CampsCategory.values().length + " categories failed");
         }
     }
-}
\ No newline at end of file
+}
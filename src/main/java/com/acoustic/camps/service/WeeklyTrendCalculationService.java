@@ -1,52 +1,53 @@
 package com.acoustic.camps.service;
 
-import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.metrics.TrendJobMetrics;
 import com.acoustic.camps.model.AnalyticsProcessingLogModel;
-import com.acoustic.camps.model.EmployeeModel;
-import com.acoustic.camps.model.EmployeeTrendDataModel;
-import com.acoustic.camps.model.EngagementRatingModel;
-import com.acoustic.camps.model.TeamModel;
-import com.acoustic.camps.model.TeamTrendDataModel;
+import com.acoustic.camps.model.AnalyticsProcessingPartitionModel;
+import com.acoustic.camps.model.enums.ProcessingJobType;
 import com.acoustic.camps.model.enums.ProcessingStatus;
 import com.acoustic.camps.model.enums.SnapshotType;
 import com.acoustic.camps.repository.AnalyticsProcessingLogRepository;
-import com.acoustic.camps.repository.EmployeeRepository;
-import com.acoustic.camps.repository.EmployeeTrendDataRepository;
-import com.acoustic.camps.repository.EngagementRatingRepository;
 import com.acoustic.camps.repository.TeamRepository;
-import com.acoustic.camps.repository.TeamTrendDataRepository;
+import com.acoustic.camps.service.job.CalculationJobRegistry;
+import com.acoustic.camps.service.job.ClusterJobLock;
+import com.acoustic.camps.service.trend.TrendWeek;
+import com.acoustic.camps.service.trend.WeeklyTrendPartitionProcessor;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.DayOfWeek;
 import java.time.OffsetDateTime;
-import java.time.temporal.TemporalAdjusters;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
 
 /**
- * Service for calculating weekly trend data
+ * Service for calculating weekly trend data.
+ * A week is only ever calculated by one application instance at a time, guarded by a {@link ClusterJobLock}.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WeeklyTrendCalculationService {
 
-    private final EmployeeRepository employeeRepository;
+    private static final String LOCK_NAME = "camps.weekly-trends";
+
     private final TeamRepository teamRepository;
-    private final EngagementRatingRepository ratingRepository;
-    private final TeamTrendDataRepository teamTrendDataRepository;
-    private final EmployeeTrendDataRepository employeeTrendDataRepository;
     private final AnalyticsProcessingLogRepository processingLogRepository;
+    private final WeeklyTrendPartitionProcessor partitionProcessor;
+    private final CalculationJobRegistry jobRegistry;
+    private final ClusterJobLock jobLock;
+    private final TrendJobMetrics metrics;
+
+    @Qualifier("analyticsWorkerExecutor")
+    private final Executor partitionExecutor;
 
     /**
      * Validates that the date range is valid for trend calculation
@@ -70,32 +71,6 @@ public class WeeklyTrendCalculationService {
         }
     }
 
-    /**
-     * Validates that the team exists and is not null
-     */
-    private void validateTeam(TeamModel team) {
-        if (team == null) {
-            throw new IllegalArgumentException("Team cannot be null");
-        }
-        
-        if (team.getId() == null) {
-            throw new IllegalArgumentException("Team ID cannot be null");
-        }
-    }
-
-    /**
-     * Validates that the employee exists and is not null
-     */
-    private void validateEmployee(EmployeeModel employee) {
-        if (employee == null) {
-            throw new IllegalArgumentException("Employee cannot be null");
-        }
-        
-        if (employee.getId() == null) {
-            throw new IllegalArgumentException("Employee ID cannot be null");
-        }
-    }
-
     /**
      * Weekly scheduled task to calculate trend data for all teams and employees
      * Runs at 1 AM every Monday
@@ -103,63 +78,30 @@ public class WeeklyTrendCalculationService {
     @Scheduled(cron = "0 0 1 * * MON")
     public void calculateWeeklyTrends() {
         log.info("Starting scheduled weekly trend calculation");
-        OffsetDateTime endDate = OffsetDateTime.now()
-                .with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY))
-                .withHour(23).withMinute(59).withSecond(59);
-
-        // Get the beginning of the week (previous Monday)
-        OffsetDateTime startDate = endDate.minusDays(6)
-                .withHour(0).withMinute(0).withSecond(0);
-
-        calculateWeeklyTrendsForPeriod(startDate, endDate);
+        TrendWeek week = previousWeek();
+        calculateWeeklyTrendsForPeriod(week.start(), week.end());
     }
 
     /**
-     * Method called at application startup to check and calculate trends if needed
+     * Method called at application startup to check and calculate trends if needed.
+     * Runs in the background so the application reports ready without waiting for it.
+     *
+     * @return Whether the last complete week has been calculated successfully
      */
-    public void checkAndCalculateOnStartup() {
+    @Async("analyticsTaskExecutor")
+    public CompletableFuture<Boolean> checkAndCalculateOnStartup() {
         log.info("Checking trend data on application startup");
-        checkWeeklyTrendCalculation();
+        TrendWeek week = previousWeek();
+        return CompletableFuture.completedFuture(calculateWeeklyTrendsForPeriod(week.start(), week.end()));
     }
 
-    private void checkWeeklyTrendCalculation() {
-        log.info("Checking if weekly trend calculation is needed");
-
-        // Get the end of the previous week
-        OffsetDateTime now = OffsetDateTime.now();
-        OffsetDateTime previousSunday = now.with(java.time.DayOfWeek.SUNDAY);
-        if (previousSunday.isAfter(now)) {
-            previousSunday = previousSunday.minusWeeks(1);
-        }
-        previousSunday = previousSunday.withHour(23).withMinute(59).withSecond(59);
-
-        // Get the start of the week (last Monday)
-        OffsetDateTime previousMonday = previousSunday.minusDays(6)
-                .withHour(0).withMinute(0).withSecond(0);
-
-        calculateWeeklyTrendsForPeriod(previousMonday, previousSunday);
-
-    }
-
-    @Async
+    @Async("analyticsTaskExecutor")
     public CompletableFuture<Boolean> calculateWeeklyTrendsAsync() {
         log.info("Starting async weekly trend calculation");
 
         try {
-            // Get the end of the previous week (last Sunday)
-            OffsetDateTime now = OffsetDateTime.now();
-            OffsetDateTime previousSunday = now.with(java.time.DayOfWeek.SUNDAY);
-            if (previousSunday.isAfter(now)) {
-                previousSunday = previousSunday.minusWeeks(1);
-            }
-            previousSunday = previousSunday.withHour(23).withMinute(59).withSecond(59);
-
-            // Get the start of the week (last Monday)
-            OffsetDateTime previousMonday = previousSunday.minusDays(6)
-                    .withHour(0).withMinute(0).withSecond(0);
-
-            boolean success = calculateWeeklyTrendsForPeriod(
-                    previousMonday, previousSunday);
+            TrendWeek week = previousWeek();
+            boolean success = calculateWeeklyTrendsForPeriod(week.start(), week.end());
 
             return CompletableFuture.completedFuture(success);
         } catch (Exception e) {
@@ -169,287 +111,165 @@ public class WeeklyTrendCalculationService {
     }
 
     /**
-     * Calculate weekly trends for a specific period
+     * The last complete week. Its boundaries are exact to the second, so every run for the week
+     * finds the processing log of the previous ones.
+     */
+    private static TrendWeek previousWeek() {
+        OffsetDateTime now = OffsetDateTime.now();
+        return TrendWeek.containing(now.toLocalDate().minusWeeks(1), now.getOffset());
+    }
+
+    /**
+     * Calculate weekly trends for a specific period.
+     * The work is split into one partition per team, each running in its own transaction on the
+     * analytics worker executor, so a failing team only fails its own partition and can be retried on its own.
+     * If another instance is calculating weekly trends this call returns at once without waiting for it.
      *
      * @param startDate Start of the week
      * @param endDate   End of the week
-     * @return true if successful, false otherwise
+     * @return true if successful, false if it failed or another instance is calculating
      */
-    @Transactional
     public boolean calculateWeeklyTrendsForPeriod(OffsetDateTime startDate, OffsetDateTime endDate) {
+        return jobLock.runExclusively(LOCK_NAME, () -> {
+            Timer.Sample job = metrics.jobStarted();
+            boolean success = false;
+            try {
+                success = processWeek(startDate, endDate);
+                return success;
+            } finally {
+                metrics.jobFinished(job, TrendJobMetrics.JOB_WEEKLY, success);
+            }
+        }).orElse(false);
+    }
+
+    private boolean processWeek(OffsetDateTime startDate, OffsetDateTime endDate) {
         try {
             validateDateRange(startDate, endDate);
         } catch (IllegalArgumentException e) {
             log.error("Invalid date range for trend calculation: {}", e.getMessage());
             return false;
         }
-        
+
         String weekIdentifier = startDate.toLocalDate() + " to " + endDate.toLocalDate();
         log.info("Calculating weekly trends for period: {}", weekIdentifier);
 
-        // Check if we've already processed this week
-        Optional<AnalyticsProcessingLogModel> existingLog = processingLogRepository
-                .findTopBySnapshotTypeAndStatusOrderByProcessingDateDesc(SnapshotType.WEEKLY, ProcessingStatus.COMPLETED);
+        // Check if we've already processed this exact week; a later week being done says nothing about this one
+        Optional<AnalyticsProcessingLogModel> previousRun = processingLogRepository
+                .findTopByJobTypeAndStartDateAndEndDateOrderByProcessingDateDesc(
+                        ProcessingJobType.WEEKLY_TRENDS, startDate, endDate);
 
-        if (existingLog.isPresent() && !existingLog.get().getEndDate().isBefore(endDate)) {
+        if (previousRun.isPresent() && previousRun.get().getStatus() == ProcessingStatus.COMPLETED) {
             log.info("Weekly trends already calculated for period ending on: {}", endDate);
             return true;
         }
 
-        // Create processing log entry
-        AnalyticsProcessingLogModel processingLog = AnalyticsProcessingLogModel.builder()
-                .snapshotType(SnapshotType.WEEKLY)
-                .processingDate(OffsetDateTime.now())
-                .startDate(startDate)
-                .endDate(endDate)
-                .status(ProcessingStatus.PENDING)
-                .build();
+        // Resume a previous partial run of the same week instead of recomputing every team
+        if (previousRun.isPresent()
+                && previousRun.get().getStatus() == ProcessingStatus.FAILED
+                && previousRun.get().getTotalPartitions() > 0) {
+            log.info("Retrying failed partitions of previous run {} for period: {}", previousRun.get().getId(), weekIdentifier);
+            return retryFailedPartitions(previousRun.get().getId());
+        }
 
-        try {
-            processingLogRepository.save(processingLog);
-            log.debug("Created processing log for weekly trends with ID: {}", processingLog.getId());
-        } catch (Exception e) {
-            log.error("Failed to create processing log for weekly trends: {}", e.getMessage(), e);
-            return false;
+        // Nobody else holds the lock, so a run still marked running was cut short by an instance going down
+        if (previousRun.isPresent() && previousRun.get().getStatus() == ProcessingStatus.RUNNING) {
+            log.warn("Previous run {} for period {} was interrupted, resuming its unfinished partitions",
+                    previousRun.get().getId(), weekIdentifier);
+            List<AnalyticsProcessingPartitionModel> unfinished = jobRegistry.reopenUnfinishedPartitions(previousRun.get().getId());
+            runPartitions(unfinished, startDate, endDate);
+            return finishProcessing(previousRun.get().getId(), weekIdentifier);
         }
 
+        CalculationJobRegistry.RegisteredJob job;
         try {
-            // Calculate team-level trends
-            List<TeamModel> teams = teamRepository.findAll();
-            for (TeamModel team : teams) {
-                calculateTeamWeeklyTrends(team, startDate, endDate);
-            }
-
-            // Calculate employee-level trends
-            List<EmployeeModel> employees = employeeRepository.findAll();
-            for (EmployeeModel employee : employees) {
-                calculateEmployeeWeeklyTrends(employee, startDate, endDate);
-            }
+            List<UUID> teamIds = new ArrayList<>(teamRepository.findAllIds());
+            teamIds.add(null);
 
-            // Update processing log
-            processingLog.setStatus(ProcessingStatus.COMPLETED);
-            processingLog.setCompletedAt(OffsetDateTime.now());
-            processingLogRepository.save(processingLog);
-            log.debug("Updated processing log to COMPLETED status");
-
-            log.info("Weekly trend calculation completed successfully for period: {}", weekIdentifier);
-            return true;
+            job = jobRegistry.register(ProcessingJobType.WEEKLY_TRENDS, SnapshotType.WEEKLY, startDate, endDate, teamIds);
+            log.debug("Created processing log for weekly trends with ID: {}", job.id());
         } catch (Exception e) {
-            log.error("Error calculating weekly trends for period {}: {}", weekIdentifier, e.getMessage(), e);
-
-            // Update processing log
-            processingLog.setStatus(ProcessingStatus.FAILED);
-            processingLog.setErrorMessage(e.getMessage());
-            try {
-                processingLogRepository.save(processingLog);
-            } catch (Exception e1) {
-                log.error("Failed to update processing log for weekly trends: {}", e1.getMessage(), e1);
-            }
-
+            log.error("Failed to create processing log for weekly trends: {}", e.getMessage(), e);
             return false;
         }
+
+        runPartitions(job.partitions(), startDate, endDate);
+        return finishProcessing(job.id(), weekIdentifier);
     }
 
     /**
-     * Calculate weekly trends for a specific team
+     * Re-run only the failed partitions of a weekly trend calculation; callers must hold the cluster lock
+     *
+     * @param processingLogId The processing log ID of the failed run
+     * @return true if every partition has now completed, false otherwise
      */
-    private void calculateTeamWeeklyTrends(TeamModel team, OffsetDateTime startDate, OffsetDateTime endDate) {
-        try {
-            validateTeam(team);
-            validateDateRange(startDate, endDate);
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid parameters for team trend calculation: {}", e.getMessage());
-            return;
+    private boolean retryFailedPartitions(UUID processingLogId) {
+        Optional<AnalyticsProcessingLogModel> processingLog = processingLogRepository.findById(processingLogId);
+        if (processingLog.isEmpty()) {
+            log.warn("Processing log not found: {}", processingLogId);
+            return false;
         }
-        
-        log.debug("Calculating weekly trends for team: {}", team.getName());
 
-        // Calculate for each CAMPS category
-        for (CampsCategory category : CampsCategory.values()) {
-            // Get ratings for all employees in this team for this week
-            List<EngagementRatingModel> weeklyRatings = getTeamWeeklyRatings(team, category, startDate, endDate);
+        AnalyticsProcessingLogModel logEntry = processingLog.get();
+        String weekIdentifier = logEntry.getStartDate().toLocalDate() + " to " + logEntry.getEndDate().toLocalDate();
 
-            if (weeklyRatings.isEmpty()) {
-                log.debug("No ratings found for team {} in category {} for week ending {}",
-                        team.getName(), category, endDate);
-                continue;
-            }
+        List<AnalyticsProcessingPartitionModel> failed = jobRegistry.reopenFailedPartitions(processingLogId);
 
-            // Calculate average rating
-            double averageRating = weeklyRatings.stream()
-                    .mapToInt(EngagementRatingModel::getRating)
-                    .average()
-                    .orElse(0);
-
-            // Get previous period data for comparison
-            OffsetDateTime previousWeekEnd = startDate.minusDays(1);
-            OffsetDateTime previousWeekStart = previousWeekEnd.minusDays(6);
-
-            Optional<TeamTrendDataModel> previousWeekData = teamTrendDataRepository
-                    .findByTeamAndCategoryAndRecordDateBetweenOrderByRecordDateAsc(
-                            team, category, previousWeekStart, previousWeekEnd)
-                    .stream()
-                    .reduce((first, second) -> second); // Get the last (most recent) record
-
-            // Get previous month data - look for data from approximately 4 weeks ago
-            OffsetDateTime previousMonthEnd = endDate.minusWeeks(4);
-            OffsetDateTime previousMonthStart = previousMonthEnd.minusDays(6);
-            Optional<TeamTrendDataModel> previousMonthData = teamTrendDataRepository
-                    .findByTeamAndCategoryAndRecordDateBetweenOrderByRecordDateAsc(
-                            team, category, previousMonthStart, previousMonthEnd)
-                    .stream()
-                    .reduce((first, second) -> second);
-
-            // Get previous quarter data - look for data from approximately 13 weeks ago
-            OffsetDateTime previousQuarterEnd = endDate.minusWeeks(13);
-            OffsetDateTime previousQuarterStart = previousQuarterEnd.minusDays(6);
-            Optional<TeamTrendDataModel> previousQuarterData = teamTrendDataRepository
-                    .findByTeamAndCategoryAndRecordDateBetweenOrderByRecordDateAsc(
-                            team, category, previousQuarterStart, previousQuarterEnd)
-                    .stream()
-                    .reduce((first, second) -> second);
-
-            // Calculate changes
-            Double previousWeekAvg = previousWeekData.map(TeamTrendDataModel::getAverageRating).orElse(null);
-            Double weekOverWeekChange = previousWeekAvg != null ? averageRating - previousWeekAvg : null;
-
-            Double previousMonthAvg = previousMonthData.map(TeamTrendDataModel::getAverageRating).orElse(null);
-            Double monthOverMonthChange = previousMonthAvg != null ? averageRating - previousMonthAvg : null;
-
-            Double previousQuarterAvg = previousQuarterData.map(TeamTrendDataModel::getAverageRating).orElse(null);
-            Double quarterOverQuarterChange = previousQuarterAvg != null ? averageRating - previousQuarterAvg : null;
-
-            // Save trend data
-            TeamTrendDataModel trendData = TeamTrendDataModel.builder()
-                    .team(team)
-                    .recordDate(endDate)
-                    .category(category)
-                    .averageRating(averageRating)
-                    .previousAverageRating(previousWeekAvg)
-                    .weekOverWeekChange(weekOverWeekChange)
-                    .monthOverMonthChange(monthOverMonthChange)
-                    .quarterOverQuarterChange(quarterOverQuarterChange)
-                    .employeeCount(weeklyRatings.stream()
-                            .map(rating -> rating.getEmployee().getId())
-                            .collect(Collectors.toSet())
-                            .size())
-                    .dataPoints(weeklyRatings.size())
-                    .build();
-
-            teamTrendDataRepository.save(trendData);
-
-            log.debug("Saved weekly trend data for team {} in category {}: avg={}",
-                    team.getName(), category, averageRating);
+        if (failed.isEmpty()) {
+            log.info("No failed partitions to retry for period: {}", weekIdentifier);
+            return finishProcessing(processingLogId, weekIdentifier);
         }
+
+        log.info("Retrying {} failed partitions for period: {}", failed.size(), weekIdentifier);
+
+        runPartitions(failed, logEntry.getStartDate(), logEntry.getEndDate());
+        return finishProcessing(processingLogId, weekIdentifier);
+    }
+
+    /**
+     * Submit the partitions to the worker executor and wait for all of them to finish
+     */
+    private void runPartitions(List<AnalyticsProcessingPartitionModel> partitions,
+                               OffsetDateTime startDate, OffsetDateTime endDate) {
+        CompletableFuture<?>[] futures = partitions.stream()
+                .map(partition -> CompletableFuture.runAsync(
+                        () -> runPartition(partition, startDate, endDate), partitionExecutor))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(futures).join();
     }
 
     /**
-     * Calculate weekly trends for a specific employee
+     * Process a single partition and record its outcome on both the partition and the processing log
      */
-    private void calculateEmployeeWeeklyTrends(EmployeeModel employee, OffsetDateTime startDate, OffsetDateTime endDate) {
+    private void runPartition(AnalyticsProcessingPartitionModel partition,
+                              OffsetDateTime startDate, OffsetDateTime endDate) {
+        partition = jobRegistry.partitionStarted(partition);
+
+        Timer.Sample sample = metrics.startSample();
         try {
-            validateEmployee(employee);
-            validateDateRange(startDate, endDate);
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid parameters for employee trend calculation: {}", e.getMessage());
-            return;
-        }
-        
-        log.debug("Calculating weekly trends for employee: {}", employee.getName());
-
-        // Calculate for each CAMPS category
-        for (CampsCategory category : CampsCategory.values()) {
-            // Get the most recent rating for this employee in this category within this week
-            Optional<EngagementRatingModel> latestRating = ratingRepository
-                    .findByEmployeeIdAndCategoryAndRatingDateBetweenOrderByRatingDateDesc(
-                            employee.getId(), category, startDate, endDate)
-                    .stream()
-                    .findFirst();
-
-            if (latestRating.isEmpty()) {
-                log.debug("No ratings found for employee {} in category {} for week ending {}",
-                        employee.getName(), category, endDate);
-                continue;
-            }
+            int written = partitionProcessor.process(partition.getTeamId(), startDate, endDate);
+            metrics.teamCalculated(sample, TrendJobMetrics.JOB_WEEKLY, true);
+            metrics.rowsWritten(TrendJobMetrics.JOB_WEEKLY, written);
+
+            jobRegistry.partitionCompleted(partition, written);
+        } catch (Exception e) {
+            metrics.teamCalculated(sample, TrendJobMetrics.JOB_WEEKLY, false);
+            log.error("Error calculating weekly trends for team {}: {}", partition.getTeamId(), e.getMessage(), e);
 
-            double rating = latestRating.get().getRating();
-
-            // Get previous period data for comparison
-            OffsetDateTime previousWeekEnd = startDate.minusDays(1);
-            OffsetDateTime previousWeekStart = previousWeekEnd.minusDays(6);
-
-            Optional<EmployeeTrendDataModel> previousWeekData = employeeTrendDataRepository
-                    .findByEmployeeAndCategoryAndRecordDateBetweenOrderByRecordDateAsc(
-                            employee, category, previousWeekStart, previousWeekEnd)
-                    .stream()
-                    .reduce((first, second) -> second); // Get the last (most recent) record
-
-            // Get previous month data - look for data from approximately 4 weeks ago
-            OffsetDateTime previousMonthEnd = endDate.minusWeeks(4);
-            OffsetDateTime previousMonthStart = previousMonthEnd.minusDays(6);
-            Optional<EmployeeTrendDataModel> previousMonthData = employeeTrendDataRepository
-                    .findByEmployeeAndCategoryAndRecordDateBetweenOrderByRecordDateAsc(
-                            employee, category, previousMonthStart, previousMonthEnd)
-                    .stream()
-                    .reduce((first, second) -> second);
-
-            // Get previous quarter data - look for data from approximately 13 weeks ago
-            OffsetDateTime previousQuarterEnd = endDate.minusWeeks(13);
-            OffsetDateTime previousQuarterStart = previousQuarterEnd.minusDays(6);
-            Optional<EmployeeTrendDataModel> previousQuarterData = employeeTrendDataRepository
-                    .findByEmployeeAndCategoryAndRecordDateBetweenOrderByRecordDateAsc(
-                            employee, category, previousQuarterStart, previousQuarterEnd)
-                    .stream()
-                    .reduce((first, second) -> second);
-
-            // Calculate changes
-            Double previousWeekRating = previousWeekData.map(EmployeeTrendDataModel::getRating).orElse(null);
-            Double weekOverWeekChange = previousWeekRating != null ? rating - previousWeekRating : null;
-
-            Double previousMonthRating = previousMonthData.map(EmployeeTrendDataModel::getRating).orElse(null);
-            Double monthOverMonthChange = previousMonthRating != null ? rating - previousMonthRating : null;
-
-            Double previousQuarterRating = previousQuarterData.map(EmployeeTrendDataModel::getRating).orElse(null);
-            Double quarterOverQuarterChange = previousQuarterRating != null ? rating - previousQuarterRating : null;
-
-            // Save trend data
-            EmployeeTrendDataModel trendData = EmployeeTrendDataModel.builder()
-                    .employee(employee)
-                    .team(employee.getTeam())
-                    .recordDate(endDate)
-                    .category(category)
-                    .rating(rating)
-                    .previousRating(previousWeekRating)
-                    .weekOverWeekChange(weekOverWeekChange)
-                    .monthOverMonthChange(monthOverMonthChange)
-                    .quarterOverQuarterChange(quarterOverQuarterChange)
-                    .build();
-
-            employeeTrendDataRepository.save(trendData);
-
-            log.debug("Saved weekly trend data for employee {} in category {}: rating={}",
-                    employee.getName(), category, rating);
+            jobRegistry.partitionFailed(partition, e.getMessage());
         }
     }
 
     /**
-     * Get all ratings for employees in a team for a specific category and time period
+     * Mark the processing log as completed or failed based on its partition counters
      */
-    private List<EngagementRatingModel> getTeamWeeklyRatings(
-            TeamModel team, CampsCategory category, OffsetDateTime startDate, OffsetDateTime endDate) {
-
-        List<EmployeeModel> teamEmployees = employeeRepository.findByTeam(team);
-        Map<UUID, EngagementRatingModel> latestRatings = new HashMap<>();
-
-        for (EmployeeModel employee : teamEmployees) {
-            ratingRepository
-                    .findByEmployeeIdAndCategoryAndRatingDateBetweenOrderByRatingDateDesc(
-                            employee.getId(), category, startDate, endDate)
-                    .stream()
-                    .findFirst()
-                    .ifPresent(rating -> latestRatings.put(employee.getId(), rating));
+    private boolean finishProcessing(UUID processingLogId, String weekIdentifier) {
+        boolean success = jobRegistry.finish(processingLogId);
+        if (success) {
+            log.info("Weekly trend calculation completed successfully for period: {}", weekIdentifier);
+        } else {
+            log.error("Weekly trend calculation for period {} finished with failed partitions", weekIdentifier);
         }
-
-        return latestRatings.values().stream().toList();
+        return success;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package com.acoustic.camps.service.cache;
+
+import com.acoustic.camps.codegen.types.CategoryAverage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cache of team averages keyed by team and day.
+ * Entries are dropped after the transaction that changed the underlying ratings commits, so a concurrent
+ * reader can never re-cache the state from before the change.
+ */
+@Component
+@Slf4j
+public class TeamAveragesCache {
+
+    private final Cache<Key, List<CategoryAverage>> cache;
+
+    public TeamAveragesCache(MeterRegistry meterRegistry,
+                             @Value("${analytics.cache.team-averages.max-size:1000}") long maxSize,
+                             @Value("${analytics.cache.team-averages.ttl:PT10M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "teamAverages");
+    }
+
+    /**
+     * Get the averages of a team for a day, computing them on a miss
+     *
+     * @param teamId The team's ID
+     * @param date   The requested date, or null for today
+     * @param loader Computes the averages on a miss
+     * @return The cached or freshly computed averages
+     */
+    public List<CategoryAverage> get(UUID teamId, OffsetDateTime date, Supplier<List<CategoryAverage>> loader) {
+        LocalDate day = date != null ? date.toLocalDate() : LocalDate.now();
+        return cache.get(new Key(teamId, day), key -> loader.get());
+    }
+
+    /**
+     * Drop the entries a rating can affect: every cached day of the team on or after the rating day
+     *
+     * @param teamId     The team's ID
+     * @param ratingDate The date of the added rating
+     */
+    public void invalidateFrom(UUID teamId, OffsetDateTime ratingDate) {
+        if (teamId == null) {
+            return;
+        }
+        LocalDate ratingDay = ratingDate.toLocalDate();
+        afterCommit(() -> cache.asMap().keySet()
+                .removeIf(key -> key.teamId().equals(teamId) && !key.day().isBefore(ratingDay)));
+    }
+
+    /**
+     * Drop every entry of a team, used when team membership changes
+     *
+     * @param teamId The team's ID
+     */
+    public void invalidateTeam(UUID teamId) {
+        if (teamId == null) {
+            return;
+        }
+        afterCommit(() -> cache.asMap().keySet().removeIf(key -> key.teamId().equals(teamId)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Key(UUID teamId, LocalDate day) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.acoustic.camps.service.improvement;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * The category an employee improved most in between two dates
+ *
+ * @param employeeId   The employee's ID
+ * @param employeeName The employee's name
+ * @param teamId       The employee's team, or null if the employee has no team
+ * @param category     The most improved CAMPS category
+ * @param startRating  The employee's rating in the category at the start date
+ * @param endRating    The employee's rating in the category at the end date
+ * @param improvement  The difference between the end and start ratings
+ */
+public record CategoryImprovement(UUID employeeId, String employeeName, UUID teamId, CampsCategory category,
+                                  int startRating, int endRating, int improvement) {
+
+    /**
+     * Ranks larger improvements first, then by employee ID so pages are stable between requests
+     */
+    public static final Comparator<CategoryImprovement> RANKING = Comparator
+            .comparingInt(CategoryImprovement::improvement).reversed()
+            .thenComparing(CategoryImprovement::employeeId);
+
+    /**
+     * Maps a row returned by {@code EngagementRatingRepository.streamMostImprovedCategoryPerEmployee}
+     */
+    public static CategoryImprovement fromRow(Object[] row) {
+        return new CategoryImprovement(
+                (UUID) row[0],
+                (String) row[1],
+                (UUID) row[2],
+                CampsCategory.valueOf((String) row[3]),
+                ((Number) row[4]).intValue(),
+                ((Number) row[5]).intValue(),
+                ((Number) row[6]).intValue());
+    }
+}
@@ -0,0 +1,47 @@
+package com.acoustic.camps.service.improvement;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Selects one page of the best ranked improvements from a stream of any length.
+ * Only the first {@code offset + limit} candidates are ever held, in a heap whose head is the worst of them,
+ * so memory stays bounded by the page rather than by the number of employees.
+ */
+public final class TopImprovements {
+
+    private TopImprovements() {
+    }
+
+    /**
+     * Select a page of improvements in {@link CategoryImprovement#RANKING} order
+     *
+     * @param improvements The improvements to rank, in any order
+     * @param offset       Number of top ranked improvements to skip
+     * @param limit        Maximum number of improvements to return
+     * @return The requested page, best first
+     */
+    public static List<CategoryImprovement> select(Iterator<CategoryImprovement> improvements, int offset, int limit) {
+        if (offset < 0 || limit < 1) {
+            throw new IllegalArgumentException("Offset must not be negative and limit must be positive");
+        }
+
+        int capacity = Math.addExact(offset, limit);
+        PriorityQueue<CategoryImprovement> heap = new PriorityQueue<>(CategoryImprovement.RANKING.reversed());
+        while (improvements.hasNext()) {
+            CategoryImprovement candidate = improvements.next();
+            if (heap.size() < capacity) {
+                heap.add(candidate);
+            } else if (CategoryImprovement.RANKING.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        List<CategoryImprovement> ranked = new ArrayList<>(heap);
+        ranked.sort(CategoryImprovement.RANKING);
+        return ranked.size() > offset ? ranked.subList(offset, ranked.size()) : List.of();
+    }
+}
@@ -0,0 +1,353 @@
+package com.acoustic.camps.service.job;
+
+import com.acoustic.camps.codegen.types.CalculationJob;
+import com.acoustic.camps.codegen.types.CalculationJobPartition;
+import com.acoustic.camps.codegen.types.CalculationJobStatus;
+import com.acoustic.camps.codegen.types.CalculationJobType;
+import com.acoustic.camps.model.AnalyticsProcessingLogModel;
+import com.acoustic.camps.model.AnalyticsProcessingPartitionModel;
+import com.acoustic.camps.model.enums.ProcessingJobType;
+import com.acoustic.camps.model.enums.ProcessingStatus;
+import com.acoustic.camps.model.enums.SnapshotType;
+import com.acoustic.camps.repository.AnalyticsProcessingLogRepository;
+import com.acoustic.camps.repository.AnalyticsProcessingPartitionRepository;
+import com.acoustic.camps.service.trend.TrendWeek;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Registry of analytics calculation jobs.
+ * Every run is persisted in analytics_processing_log with one partition per team, so its progress survives
+ * the request that started it and overlapping runs never share counters.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CalculationJobRegistry {
+
+    private final AnalyticsProcessingLogRepository processingLogRepository;
+    private final AnalyticsProcessingPartitionRepository partitionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${analytics.jobs.progress-poll-interval:PT2S}")
+    private Duration progressPollInterval;
+
+    /**
+     * A registered job and its pending partitions
+     *
+     * @param id         The job ID
+     * @param partitions One partition per team
+     */
+    public record RegisteredJob(UUID id, List<AnalyticsProcessingPartitionModel> partitions) {
+    }
+
+    /**
+     * Register a running job with one pending partition per team
+     *
+     * @param jobType      The kind of job
+     * @param snapshotType The kind of snapshot the job writes
+     * @param startDate    Start of the processed period
+     * @param endDate      End of the processed period
+     * @param teamIds      The teams to process; a null entry stands for employees without a team
+     * @return The registered job
+     */
+    @Transactional
+    public RegisteredJob register(ProcessingJobType jobType, SnapshotType snapshotType,
+                                  OffsetDateTime startDate, OffsetDateTime endDate, Collection<UUID> teamIds) {
+        return register(jobType, snapshotType, startDate, endDate, teamIds.stream()
+                .map(teamId -> AnalyticsProcessingPartitionModel.builder().teamId(teamId))
+                .toList());
+    }
+
+    /**
+     * Register a running job with one pending partition per week, used as checkpoints by backfills
+     *
+     * @param jobType      The kind of job
+     * @param snapshotType The kind of snapshot the job writes
+     * @param startDate    Start of the processed period
+     * @param endDate      End of the processed period
+     * @param weeks        The weeks to process
+     * @return The registered job
+     */
+    @Transactional
+    public RegisteredJob registerWeeks(ProcessingJobType jobType, SnapshotType snapshotType,
+                                       OffsetDateTime startDate, OffsetDateTime endDate, Collection<TrendWeek> weeks) {
+        return register(jobType, snapshotType, startDate, endDate, weeks.stream()
+                .map(week -> AnalyticsProcessingPartitionModel.builder()
+                        .periodStart(week.start())
+                        .periodEnd(week.end()))
+                .toList());
+    }
+
+    private RegisteredJob register(ProcessingJobType jobType, SnapshotType snapshotType,
+                                   OffsetDateTime startDate, OffsetDateTime endDate,
+                                   List<AnalyticsProcessingPartitionModel.AnalyticsProcessingPartitionModelBuilder> partitionBuilders) {
+        OffsetDateTime now = OffsetDateTime.now();
+        AnalyticsProcessingLogModel job = processingLogRepository.save(AnalyticsProcessingLogModel.builder()
+                .jobType(jobType)
+                .snapshotType(snapshotType)
+                .processingDate(now)
+                .startDate(startDate)
+                .endDate(endDate)
+                .status(ProcessingStatus.RUNNING)
+                .startedAt(now)
+                .totalPartitions(partitionBuilders.size())
+                .build());
+
+        List<AnalyticsProcessingPartitionModel> partitions = partitionRepository.saveAll(partitionBuilders.stream()
+                .map(builder -> builder
+                        .processingLogId(job.getId())
+                        .status(ProcessingStatus.PENDING)
+                        .build())
+                .toList());
+
+        log.debug("Registered {} job {} with {} partitions", jobType, job.getId(), partitions.size());
+        return new RegisteredJob(job.getId(), partitions);
+    }
+
+    /**
+     * Check whether a job of a kind is running
+     *
+     * @param jobType The kind of job
+     * @return true if a job of that kind has not completed or failed yet
+     */
+    public boolean isRunning(ProcessingJobType jobType) {
+        return processingLogRepository.existsByJobTypeAndStatus(jobType, ProcessingStatus.RUNNING);
+    }
+
+    /**
+     * Put a job back into the running state and return its failed partitions, so only those are retried
+     *
+     * @param jobId The job ID
+     * @return The failed partitions, now counted as pending again
+     */
+    @Transactional
+    public List<AnalyticsProcessingPartitionModel> reopenFailedPartitions(UUID jobId) {
+        List<AnalyticsProcessingPartitionModel> failed = partitionRepository
+                .findByProcessingLogIdAndStatus(jobId, ProcessingStatus.FAILED);
+        if (failed.isEmpty()) {
+            return failed;
+        }
+
+        processingLogRepository.resetFailedPartitions(jobId);
+        AnalyticsProcessingLogModel job = processingLogRepository.findById(jobId).orElseThrow();
+        job.setStatus(ProcessingStatus.RUNNING);
+        job.setErrorMessage(null);
+        job.setCompletedAt(null);
+        processingLogRepository.save(job);
+        return failed;
+    }
+
+    /**
+     * Put a job back into the running state and return every partition that has not completed,
+     * including those left running by a crash
+     *
+     * @param jobId The job ID
+     * @return The unfinished partitions, now counted as pending again
+     */
+    @Transactional
+    public List<AnalyticsProcessingPartitionModel> reopenUnfinishedPartitions(UUID jobId) {
+        AnalyticsProcessingLogModel job = processingLogRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Calculation job not found: " + jobId));
+
+        List<AnalyticsProcessingPartitionModel> unfinished = partitionRepository
+                .findByProcessingLogIdAndStatusNot(jobId, ProcessingStatus.COMPLETED);
+
+        job.setStatus(ProcessingStatus.RUNNING);
+        job.setFailedPartitions(0);
+        job.setErrorMessage(null);
+        job.setCompletedAt(null);
+        processingLogRepository.save(job);
+        return unfinished;
+    }
+
+    /**
+     * Mark a partition as running
+     *
+     * @param partition The partition
+     * @return The saved partition
+     */
+    public AnalyticsProcessingPartitionModel partitionStarted(AnalyticsProcessingPartitionModel partition) {
+        partition.setStatus(ProcessingStatus.RUNNING);
+        partition.setAttempts(partition.getAttempts() + 1);
+        partition.setStartedAt(OffsetDateTime.now());
+        partition.setErrorMessage(null);
+        return partitionRepository.save(partition);
+    }
+
+    /**
+     * Mark a partition as completed and add its rows to the job
+     *
+     * @param partition   The partition
+     * @param rowsWritten Number of rows the partition wrote
+     */
+    public void partitionCompleted(AnalyticsProcessingPartitionModel partition, int rowsWritten) {
+        partition.setStatus(ProcessingStatus.COMPLETED);
+        partition.setRowsWritten(rowsWritten);
+        partition.setCompletedAt(OffsetDateTime.now());
+        partitionRepository.save(partition);
+        processingLogRepository.incrementCompletedPartitions(partition.getProcessingLogId(), rowsWritten);
+    }
+
+    /**
+     * Mark a partition as failed. Errors while recording the failure are logged, not thrown,
+     * so they never hide the original failure.
+     *
+     * @param partition    The partition
+     * @param errorMessage Why the partition failed
+     */
+    public void partitionFailed(AnalyticsProcessingPartitionModel partition, String errorMessage) {
+        partition.setStatus(ProcessingStatus.FAILED);
+        partition.setErrorMessage(errorMessage);
+        try {
+            partitionRepository.save(partition);
+            processingLogRepository.incrementFailedPartitions(partition.getProcessingLogId());
+        } catch (Exception e) {
+            log.error("Failed to update partition {}: {}", partition.getId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Mark a job as completed or failed based on its partition counters
+     *
+     * @param jobId The job ID
+     * @return true if every partition completed, false otherwise
+     */
+    public boolean finish(UUID jobId) {
+        try {
+            // Re-read the job, the partition counters were updated in bulk by the workers
+            AnalyticsProcessingLogModel job = processingLogRepository.findById(jobId).orElseThrow();
+            boolean success = job.getFailedPartitions() == 0;
+
+            job.setStatus(success ? ProcessingStatus.COMPLETED : ProcessingStatus.FAILED);
+            job.setErrorMessage(success ? null
+                    : job.getFailedPartitions() + " of " + job.getTotalPartitions() + " partitions failed");
+            job.setCompletedAt(OffsetDateTime.now());
+            processingLogRepository.save(job);
+            return success;
+        } catch (Exception e) {
+            log.error("Failed to update calculation job {}: {}", jobId, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Mark a job as failed as a whole, for errors outside of its partitions
+     *
+     * @param jobId        The job ID
+     * @param errorMessage Why the job failed
+     */
+    public void fail(UUID jobId, String errorMessage) {
+        try {
+            AnalyticsProcessingLogModel job = processingLogRepository.findById(jobId).orElseThrow();
+            job.setStatus(ProcessingStatus.FAILED);
+            job.setErrorMessage(errorMessage);
+            job.setCompletedAt(OffsetDateTime.now());
+            processingLogRepository.save(job);
+        } catch (Exception e) {
+            log.error("Failed to mark calculation job {} as failed: {}", jobId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get the progress of a job
+     *
+     * @param jobId The job ID
+     * @return The job's progress, or empty if no such job exists
+     */
+    @Transactional(readOnly = true)
+    public Optional<CalculationJob> getJob(UUID jobId) {
+        return processingLogRepository.findById(jobId)
+                .map(job -> toCalculationJob(job, partitionRepository.findByProcessingLogId(jobId)));
+    }
+
+    /**
+     * Poll the progress of a job until it completes or fails
+     *
+     * @param jobId The job ID
+     * @return The job's progress, emitted every poll interval; errors if no such job exists
+     */
+    public Flux<CalculationJob> watch(UUID jobId) {
+        // getJob is called on this instance, not the proxy, so its @Transactional does not apply here
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        return Flux.interval(Duration.ZERO, progressPollInterval, Schedulers.boundedElastic())
+                .map(tick -> readOnlyTransaction.execute(status -> getJob(jobId))
+                        .orElseThrow(() -> new IllegalArgumentException("Calculation job not found: " + jobId)))
+                .takeUntil(job -> job.getStatus() == CalculationJobStatus.COMPLETED
+                        || job.getStatus() == CalculationJobStatus.FAILED);
+    }
+
+    private CalculationJob toCalculationJob(AnalyticsProcessingLogModel job,
+                                            List<AnalyticsProcessingPartitionModel> partitions) {
+        int total = job.getTotalPartitions();
+        int finished = job.getCompletedPartitions() + job.getFailedPartitions();
+        boolean running = job.getStatus() == ProcessingStatus.RUNNING;
+
+        double percentComplete = total > 0 ? finished * 100.0 / total : (running ? 0 : 100);
+
+        OffsetDateTime startedAt = job.getStartedAt() != null ? job.getStartedAt() : job.getCreatedAt();
+        Double rowsPerSecond = null;
+        OffsetDateTime estimatedCompletion = null;
+        if (startedAt != null) {
+            Duration elapsed = Duration.between(startedAt,
+                    job.getCompletedAt() != null ? job.getCompletedAt() : OffsetDateTime.now());
+            rowsPerSecond = job.getRowsWritten() / Math.max(elapsed.toMillis() / 1000.0, 0.001);
+
+            // Assume the remaining partitions take as long on average as the finished ones
+            if (running && finished > 0 && finished < total) {
+                estimatedCompletion = startedAt.plus(elapsed.multipliedBy(total).dividedBy(finished));
+            }
+        }
+
+        return CalculationJob.newBuilder()
+                .id(job.getId().toString())
+                .type(CalculationJobType.valueOf(job.getJobType().name()))
+                .status(CalculationJobStatus.valueOf(job.getStatus().name()))
+                .periodStart(job.getStartDate())
+                .periodEnd(job.getEndDate())
+                .totalPartitions(total)
+                .completedPartitions(job.getCompletedPartitions())
+                .failedPartitions(job.getFailedPartitions())
+                .percentComplete(percentComplete)
+                .rowsWritten(job.getRowsWritten())
+                .rowsPerSecond(rowsPerSecond)
+                .startedAt(startedAt)
+                .completedAt(job.getCompletedAt())
+                .estimatedCompletion(running ? estimatedCompletion : job.getCompletedAt())
+                .errorMessage(job.getErrorMessage())
+                .partitions(partitions.stream()
+                        .map(CalculationJobRegistry::toCalculationJobPartition)
+                        .toList())
+                .build();
+    }
+
+    private static CalculationJobPartition toCalculationJobPartition(AnalyticsProcessingPartitionModel partition) {
+        return CalculationJobPartition.newBuilder()
+                .teamId(partition.getTeamId() != null ? partition.getTeamId().toString() : null)
+                .periodStart(partition.getPeriodStart())
+                .periodEnd(partition.getPeriodEnd())
+                .status(CalculationJobStatus.valueOf(partition.getStatus().name()))
+                .rowsWritten(partition.getRowsWritten())
+                .attempts(partition.getAttempts())
+                .errorMessage(partition.getErrorMessage())
+                .startedAt(partition.getStartedAt())
+                .completedAt(partition.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.acoustic.camps.service.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs a job on at most one application instance at a time, using a PostgreSQL session advisory lock.
+ * <p>
+ * The lock is taken on a pool connection of its own, held for the whole job and released explicitly at the end.
+ * If the instance dies mid-job the database drops the session and the lock with it, so no stale lease is left
+ * behind for the next instance to wait out. Each running job therefore uses one connection beyond its workers, which
+ * {@code analytics.jobs.reserved-connections} keeps out of the worker tasks' share of the pool.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterJobLock {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Run a job unless another instance holds the same lock; never waits for the lock
+     *
+     * @param lockName Name of the lock, shared by every instance running the job
+     * @param job      The job
+     * @param <T>      The job's result type
+     * @return The job's result, or empty if another instance holds the lock or the job returned null
+     */
+    public <T> Optional<T> runExclusively(String lockName, Supplier<T> job) {
+        long key = lockName.hashCode();
+
+        return jdbcTemplate.execute((ConnectionCallback<Optional<T>>) connection -> {
+            if (!call(connection, "SELECT pg_try_advisory_lock(?)", key)) {
+                log.info("Lock {} is held by another instance, skipping", lockName);
+                return Optional.empty();
+            }
+
+            log.debug("Acquired lock {}", lockName);
+            try {
+                return Optional.ofNullable(job.get());
+            } finally {
+                if (!call(connection, "SELECT pg_advisory_unlock(?)", key)) {
+                    log.warn("Lock {} was no longer held when its job finished", lockName);
+                }
+            }
+        });
+    }
+
+    /**
+     * Prepare a job and run it in the background, holding the lock from the start of one to the end of the other.
+     * The lock is taken on the executor and the caller only waits until the job is prepared, so it can hand out
+     * the job's ID at once while no other instance can start or take over the job until it has finished.
+     *
+     * @param lockName Name of the lock, shared by every instance running the job
+     * @param executor Executor to prepare and run the job on
+     * @param prepare  Prepares the job, for instance by registering it; its exceptions are rethrown to the caller
+     * @param run      Runs the prepared job; must handle its own failures
+     * @param <T>      The prepared job's type
+     * @return The prepared job, or empty if another instance holds the lock
+     */
+    public <T> Optional<T> startExclusively(String lockName, Executor executor, Supplier<T> prepare, Consumer<T> run) {
+        CompletableFuture<Optional<T>> prepared = new CompletableFuture<>();
+
+        CompletableFuture.runAsync(() -> {
+            Optional<Boolean> ran = runExclusively(lockName, () -> {
+                T job;
+                try {
+                    job = prepare.get();
+                } catch (RuntimeException e) {
+                    prepared.completeExceptionally(e);
+                    return false;
+                }
+
+                prepared.complete(Optional.of(job));
+                run.accept(job);
+                return true;
+            });
+
+            if (ran.isEmpty()) {
+                prepared.complete(Optional.empty());
+            }
+        }, executor).exceptionally(e -> {
+            if (!prepared.completeExceptionally(e)) {
+                log.error("Job under lock {} failed: {}", lockName, e.getMessage(), e);
+            }
+            return null;
+        });
+
+        try {
+            return prepared.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean call(Connection connection, String sql, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, key);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
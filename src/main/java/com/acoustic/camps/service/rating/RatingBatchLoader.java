@@ -0,0 +1,201 @@
+package com.acoustic.camps.service.rating;
+
+import com.acoustic.camps.codegen.types.EngagementRatingInput;
+import com.acoustic.camps.repository.CurrentRatingRepository;
+import com.acoustic.camps.repository.EmployeeRepository;
+import com.acoustic.camps.service.cache.TeamAveragesCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Validates and inserts a batch of ratings in one transaction.
+ * Employees are checked with one query per chunk, ratings are sent as JDBC batches and the current ratings
+ * projection is recomputed once for all affected employees, instead of doing each of these per rating.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingBatchLoader {
+
+    private static final String INSERT_RATING =
+            "INSERT INTO engagement_ratings (id, employee_id, rating_date, category, rating, notes) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int MIN_RATING = 1;
+    private static final int MAX_RATING = 10;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    // Keeps IN lists well below the PostgreSQL bind parameter limit
+    private static final int LOOKUP_CHUNK_SIZE = 10_000;
+
+    private final EmployeeRepository employeeRepository;
+    private final CurrentRatingRepository currentRatingRepository;
+    private final TeamAveragesCache teamAveragesCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${analytics.ratings.import-batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * The weeks, dates and employees an import touched for one team
+     *
+     * @param weekStarts   Mondays of the weeks that received ratings, as stored rating dates without an offset
+     * @param earliestDate The earliest imported rating date
+     * @param latestDate   The latest imported rating date
+     * @param employeeIds  The employees who received ratings
+     */
+    public record AffectedTeam(SortedSet<LocalDate> weekStarts, OffsetDateTime earliestDate, OffsetDateTime latestDate,
+                               Set<UUID> employeeIds) {
+    }
+
+    /**
+     * Outcome of a loaded batch
+     *
+     * @param count Number of inserted ratings
+     * @param teams Affected teams by ID; the null key stands for employees without a team
+     */
+    public record LoadedBatch(int count, Map<UUID, AffectedTeam> teams) {
+    }
+
+    /**
+     * Validate and insert a batch of ratings. Nothing is inserted if any rating is invalid.
+     *
+     * @param inputs The ratings to add
+     * @return The number of inserted ratings and the teams they affect
+     * @throws IllegalArgumentException if any rating is invalid or refers to an unknown employee
+     */
+    @Transactional
+    public LoadedBatch load(List<EngagementRatingInput> inputs) {
+        List<String> errors = new ArrayList<>();
+        List<UUID> employeeIds = new ArrayList<>(inputs.size());
+
+        for (int i = 0; i < inputs.size(); i++) {
+            EngagementRatingInput input = inputs.get(i);
+            employeeIds.add(parseEmployeeId(input.getEmployeeId()));
+            validate(i, input, employeeIds.get(i), errors);
+        }
+
+        Map<UUID, UUID> teamByEmployee = findTeams(new HashSet<>(employeeIds));
+        for (int i = 0; i < inputs.size(); i++) {
+            UUID employeeId = employeeIds.get(i);
+            if (employeeId != null && !teamByEmployee.containsKey(employeeId)) {
+                errors.add("Rating " + i + ": employee not found with ID: " + employeeId);
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(errors.size() + " invalid ratings: "
+                    + String.join("; ", errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS))));
+        }
+
+        List<Integer> indexes = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            indexes.add(i);
+        }
+        jdbcTemplate.batchUpdate(INSERT_RATING, indexes, batchSize, (ps, i) -> {
+            EngagementRatingInput input = inputs.get(i);
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, employeeIds.get(i));
+            ps.setObject(3, input.getRatingDate().toLocalDate());
+            ps.setString(4, input.getCategory().name());
+            ps.setInt(5, input.getRating());
+            ps.setString(6, input.getNotes());
+        });
+
+        List<UUID> distinctEmployees = new ArrayList<>(teamByEmployee.keySet());
+        for (int from = 0; from < distinctEmployees.size(); from += LOOKUP_CHUNK_SIZE) {
+            currentRatingRepository.refreshForEmployees(
+                    distinctEmployees.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinctEmployees.size())));
+        }
+
+        Map<UUID, AffectedTeam> teams = affectedTeams(inputs, employeeIds, teamByEmployee);
+        teams.forEach((teamId, team) -> teamAveragesCache.invalidateFrom(teamId, team.earliestDate()));
+
+        log.info("Loaded {} ratings for {} employees across {} teams",
+                inputs.size(), distinctEmployees.size(), teams.size());
+        return new LoadedBatch(inputs.size(), teams);
+    }
+
+    private static UUID parseEmployeeId(String employeeId) {
+        try {
+            return employeeId != null ? UUID.fromString(employeeId) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void validate(int index, EngagementRatingInput input, UUID employeeId, List<String> errors) {
+        if (employeeId == null) {
+            errors.add("Rating " + index + ": invalid employee ID: " + input.getEmployeeId());
+        }
+        if (input.getRatingDate() == null) {
+            errors.add("Rating " + index + ": rating date is required");
+        }
+        if (input.getCategory() == null) {
+            errors.add("Rating " + index + ": category is required");
+        }
+        if (input.getRating() == null || input.getRating() < MIN_RATING || input.getRating() > MAX_RATING) {
+            errors.add("Rating " + index + ": rating must be between " + MIN_RATING + " and " + MAX_RATING);
+        }
+    }
+
+    /**
+     * Map each existing employee to its team; unknown employees are absent from the result
+     */
+    private Map<UUID, UUID> findTeams(Set<UUID> employeeIds) {
+        employeeIds.remove(null);
+        List<UUID> ids = new ArrayList<>(employeeIds);
+        Map<UUID, UUID> teamByEmployee = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size()));
+            for (Object[] row : employeeRepository.findTeamIdsByIds(chunk)) {
+                teamByEmployee.put((UUID) row[0], (UUID) row[1]);
+            }
+        }
+        return teamByEmployee;
+    }
+
+    private static Map<UUID, AffectedTeam> affectedTeams(List<EngagementRatingInput> inputs, List<UUID> employeeIds,
+                                                         Map<UUID, UUID> teamByEmployee) {
+        Map<UUID, SortedSet<LocalDate>> weekStarts = new HashMap<>();
+        Map<UUID, Set<UUID>> employees = new HashMap<>();
+        Map<UUID, OffsetDateTime> earliest = new HashMap<>();
+        Map<UUID, OffsetDateTime> latest = new HashMap<>();
+
+        for (int i = 0; i < inputs.size(); i++) {
+            UUID teamId = teamByEmployee.get(employeeIds.get(i));
+            OffsetDateTime ratingDate = inputs.get(i).getRatingDate();
+
+            // Keyed on the stored date, so the same week sent with two offsets is one week
+            weekStarts.computeIfAbsent(teamId, id -> new TreeSet<>()).add(ratingDate.toLocalDate()
+                    .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+            employees.computeIfAbsent(teamId, id -> new HashSet<>()).add(employeeIds.get(i));
+            earliest.merge(teamId, ratingDate, (a, b) -> a.isBefore(b) ? a : b);
+            latest.merge(teamId, ratingDate, (a, b) -> a.isAfter(b) ? a : b);
+        }
+
+        Map<UUID, AffectedTeam> teams = new HashMap<>();
+        weekStarts.forEach((teamId, weeks) -> teams.put(teamId,
+                new AffectedTeam(weeks, earliest.get(teamId), latest.get(teamId), employees.get(teamId))));
+        return teams;
+    }
+}
@@ -0,0 +1,117 @@
+package com.acoustic.camps.service.rating;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.codegen.types.EngagementRatingInput;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads ratings from CSV with the header {@value #HEADER}.
+ * Rating dates may be ISO dates or ISO date-times; notes may be quoted and contain commas or doubled quotes,
+ * but not line breaks.
+ */
+public final class RatingCsvReader {
+
+    static final String HEADER = "employeeId,category,rating,ratingDate,notes";
+
+    private RatingCsvReader() {
+    }
+
+    /**
+     * Parse all ratings of a CSV file, stopping as soon as it holds more than the allowed number of ratings
+     *
+     * @param input   The CSV content, UTF-8 encoded
+     * @param maxRows Most ratings the file may hold; blank lines are not counted
+     * @return The parsed ratings, in file order
+     * @throws IllegalArgumentException if the header or a line is malformed, or the file holds too many ratings
+     */
+    public static List<EngagementRatingInput> read(InputStream input, int maxRows) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null || !HEADER.equals(header.replace("\uFEFF", "").strip())) {
+            throw new IllegalArgumentException("Expected CSV header: " + HEADER);
+        }
+
+        List<EngagementRatingInput> ratings = new ArrayList<>();
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (ratings.size() == maxRows) {
+                throw new IllegalArgumentException("The file holds more than " + maxRows + " ratings");
+            }
+            try {
+                ratings.add(parse(splitLine(line)));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return ratings;
+    }
+
+    private static EngagementRatingInput parse(List<String> fields) {
+        if (fields.size() < 4 || fields.size() > 5) {
+            throw new IllegalArgumentException("expected 4 or 5 fields but found " + fields.size());
+        }
+
+        return EngagementRatingInput.newBuilder()
+                .employeeId(fields.get(0))
+                .category(CampsCategory.valueOf(fields.get(1).toUpperCase()))
+                .rating(Integer.parseInt(fields.get(2)))
+                .ratingDate(parseDate(fields.get(3)))
+                .notes(fields.size() == 5 && !fields.get(4).isEmpty() ? fields.get(4) : null)
+                .build();
+    }
+
+    private static OffsetDateTime parseDate(String value) {
+        return value.length() == 10
+                ? LocalDate.parse(value).atStartOfDay().atOffset(ZoneOffset.UTC)
+                : OffsetDateTime.parse(value);
+    }
+
+    private static List<String> splitLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+}
@@ -0,0 +1,58 @@
+package com.acoustic.camps.service.rating;
+
+import com.acoustic.camps.model.EngagementRatingModel;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of a rating in the (rating date, id) order used to page through ratings.
+ * Clients only ever see it as an opaque string.
+ *
+ * @param ratingDate The rating's date
+ * @param id         The rating's ID
+ */
+public record RatingCursor(OffsetDateTime ratingDate, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * The cursor pointing at a rating
+     */
+    public static RatingCursor of(EngagementRatingModel rating) {
+        return new RatingCursor(rating.getRatingDate(), rating.getId());
+    }
+
+    /**
+     * Parse a cursor previously returned by {@link #encode()}
+     *
+     * @param cursor The opaque cursor string
+     * @return The decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static RatingCursor decode(String cursor) {
+        if (cursor == null) {
+            throw new IllegalArgumentException("Invalid cursor: null");
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            return new RatingCursor(
+                    OffsetDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Encode the cursor as an opaque, URL safe string
+     */
+    public String encode() {
+        String value = ratingDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
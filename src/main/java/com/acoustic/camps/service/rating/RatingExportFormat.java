@@ -0,0 +1,18 @@
+package com.acoustic.camps.service.rating;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+/**
+ * Output formats of the rating export
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RatingExportFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+}
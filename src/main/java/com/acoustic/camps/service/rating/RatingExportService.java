@@ -0,0 +1,107 @@
+package com.acoustic.camps.service.rating;
+
+import com.acoustic.camps.model.EngagementRatingModel;
+import com.acoustic.camps.repository.EngagementRatingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes ratings of a date range to an output stream as they are read from the database.
+ * Each rating is detached once written, so memory use does not depend on the size of the range.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatingExportService {
+
+    private static final String CSV_HEADER = "id,employeeId,category,rating,ratingDate,notes,createdAt";
+
+    private final EngagementRatingRepository ratingRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Export all ratings within a date range, oldest first
+     *
+     * @param fromDate Start date (inclusive)
+     * @param toDate   End date (inclusive)
+     * @param format   Output format
+     * @param output   Stream to write to; left open
+     * @return Number of exported ratings
+     */
+    @Transactional(readOnly = true)
+    public long exportRatings(OffsetDateTime fromDate, OffsetDateTime toDate, RatingExportFormat format,
+                              OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long count = 0;
+
+        if (format == RatingExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<EngagementRatingModel> ratings = ratingRepository.streamByRatingDateBetween(fromDate, toDate)) {
+            Iterator<EngagementRatingModel> iterator = ratings.iterator();
+            while (iterator.hasNext()) {
+                EngagementRatingModel rating = iterator.next();
+                writer.write(format == RatingExportFormat.CSV ? toCsv(rating) : toJson(rating));
+                writer.write('\n');
+                entityManager.detach(rating);
+                count++;
+            }
+        }
+
+        writer.flush();
+        log.debug("Exported {} ratings between {} and {} as {}", count, fromDate, toDate, format);
+        return count;
+    }
+
+    private String toJson(EngagementRatingModel rating) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", rating.getId());
+        row.put("employeeId", rating.getEmployee().getId());
+        row.put("category", rating.getCategory());
+        row.put("rating", rating.getRating());
+        row.put("ratingDate", rating.getRatingDate());
+        row.put("notes", rating.getNotes());
+        row.put("createdAt", rating.getCreatedAt());
+        return objectMapper.writeValueAsString(row);
+    }
+
+    private static String toCsv(EngagementRatingModel rating) {
+        return String.join(",",
+                rating.getId().toString(),
+                rating.getEmployee().getId().toString(),
+                rating.getCategory().name(),
+                rating.getRating().toString(),
+                String.valueOf(rating.getRatingDate()),
+                csvField(rating.getNotes()),
+                rating.getCreatedAt() != null ? rating.getCreatedAt().toString() : "");
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,137 @@
+package com.acoustic.camps.service.rating;
+
+import com.acoustic.camps.codegen.types.EngagementRatingInput;
+import com.acoustic.camps.codegen.types.RatingImportResult;
+import com.acoustic.camps.service.rating.RatingBatchLoader.AffectedTeam;
+import com.acoustic.camps.service.rating.RatingBatchLoader.LoadedBatch;
+import com.acoustic.camps.service.stats.TeamStatsRollupUpdater;
+import com.acoustic.camps.service.trend.IncrementalTrendUpdater;
+import com.acoustic.camps.service.trend.TrendSeriesRefresher;
+import com.acoustic.camps.service.trend.TrendWeek;
+import com.acoustic.camps.service.trend.WeeklyTrendPartitionProcessor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk rating ingestion for survey imports.
+ * Ratings are loaded in a single transaction; once committed, the trends and stats of each affected team are
+ * refreshed once, rather than once per rating as {@code addRating} does.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatingImportService {
+
+    private final RatingBatchLoader batchLoader;
+    private final WeeklyTrendPartitionProcessor partitionProcessor;
+    private final IncrementalTrendUpdater incrementalTrendUpdater;
+    private final TrendSeriesRefresher seriesRefresher;
+    private final TeamStatsRollupUpdater rollupUpdater;
+
+    @Qualifier("analyticsWorkerExecutor")
+    private final Executor refreshExecutor;
+
+    @Value("${analytics.ratings.import-max-rows:100000}")
+    private int importMaxRows;
+
+    /**
+     * Add a batch of ratings
+     *
+     * @param inputs The ratings to add
+     * @return The number of imported ratings and refreshed teams
+     * @throws IllegalArgumentException if any rating is invalid or there are more ratings than one import may load;
+     *                                  nothing is imported in that case
+     */
+    public RatingImportResult importRatings(List<EngagementRatingInput> inputs) {
+        if (inputs == null || inputs.isEmpty()) {
+            return RatingImportResult.newBuilder()
+                    .importedCount(0)
+                    .affectedTeams(0)
+                    .build();
+        }
+        if (inputs.size() > importMaxRows) {
+            throw new IllegalArgumentException("An import may hold at most " + importMaxRows + " ratings");
+        }
+
+        long start = System.currentTimeMillis();
+        LoadedBatch batch = batchLoader.load(inputs);
+        int failed = refreshTeams(batch);
+
+        log.info("Imported {} ratings in {} ms, refreshed {} teams ({} failed)",
+                batch.count(), System.currentTimeMillis() - start, batch.teams().size(), failed);
+
+        return RatingImportResult.newBuilder()
+                .importedCount(batch.count())
+                .affectedTeams(batch.teams().size())
+                .build();
+    }
+
+    /**
+     * Add all ratings of a CSV file
+     *
+     * @param csv The CSV content, see {@link RatingCsvReader}
+     * @return The number of imported ratings and refreshed teams
+     * @throws IllegalArgumentException if the file is malformed or holds more ratings than one import may load
+     */
+    public RatingImportResult importCsv(InputStream csv) throws IOException {
+        return importRatings(RatingCsvReader.read(csv, importMaxRows));
+    }
+
+    /**
+     * Rebuild the affected weeks, the later weeks of their series, the newest daily stats and the stats rollups of
+     * each team, teams in parallel.
+     * A failed refresh does not undo the import and is only logged; the weekly job will not repair it, as it only
+     * calculates the last complete week, so the team's trends stay stale until a later import or rating covers the
+     * same weeks.
+     *
+     * @return Number of teams whose refresh failed
+     */
+    private int refreshTeams(LoadedBatch batch) {
+        AtomicInteger failed = new AtomicInteger();
+
+        CompletableFuture<?>[] futures = batch.teams().entrySet().stream()
+                .map(entry -> CompletableFuture.runAsync(() -> {
+                    try {
+                        refreshTeam(entry.getKey(), entry.getValue());
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        log.error("Error refreshing trends for team {} after import: {}", entry.getKey(), e.getMessage(), e);
+                    }
+                }, refreshExecutor))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(futures).join();
+        return failed.get();
+    }
+
+    private void refreshTeam(UUID teamId, AffectedTeam team) {
+        // Week boundaries in the server's offset, as the weekly job stamps its rows
+        ZoneOffset offset = OffsetDateTime.now().getOffset();
+        for (LocalDate weekStart : team.weekStarts()) {
+            TrendWeek week = TrendWeek.containing(weekStart, offset);
+            partitionProcessor.process(teamId, week.start(), week.end());
+        }
+        // A backdated week changes the comparisons and series statistics of every later week
+        seriesRefresher.refreshPartition(teamId, team.employeeIds(),
+                TrendWeek.containing(team.weekStarts().first(), offset));
+
+        if (teamId != null) {
+            incrementalTrendUpdater.refreshTeamStats(teamId, team.latestDate());
+            rollupUpdater.refresh(teamId, team.earliestDate().toLocalDate(), team.latestDate().toLocalDate());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.acoustic.camps.service.significance;
+
+import java.util.Arrays;
+
+/**
+ * Current and previous ratings of one (team, category), kept in primitive arrays for the significance tests
+ */
+public class CategorySamples {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] current = new int[INITIAL_CAPACITY];
+    private int[] previous = new int[INITIAL_CAPACITY];
+    private int[] differences = new int[INITIAL_CAPACITY];
+    private int currentCount;
+    private int previousCount;
+    private int pairCount;
+
+    /**
+     * Add one rater's ratings
+     *
+     * @param currentRating  Latest rating within the period, or null if the rater did not rate in it
+     * @param previousRating Latest rating before the period, or null if the rater had none
+     */
+    public void add(Integer currentRating, Integer previousRating) {
+        if (currentRating != null) {
+            current = ensureCapacity(current, currentCount);
+            current[currentCount++] = currentRating;
+        }
+        if (previousRating != null) {
+            previous = ensureCapacity(previous, previousCount);
+            previous[previousCount++] = previousRating;
+        }
+        if (currentRating != null && previousRating != null) {
+            differences = ensureCapacity(differences, pairCount);
+            differences[pairCount++] = currentRating - previousRating;
+        }
+    }
+
+    int[] current() {
+        return current;
+    }
+
+    int[] previous() {
+        return previous;
+    }
+
+    int[] differences() {
+        return differences;
+    }
+
+    int currentCount() {
+        return currentCount;
+    }
+
+    int previousCount() {
+        return previousCount;
+    }
+
+    int pairCount() {
+        return pairCount;
+    }
+
+    private static int[] ensureCapacity(int[] values, int size) {
+        return size < values.length ? values : Arrays.copyOf(values, values.length * 2);
+    }
+}
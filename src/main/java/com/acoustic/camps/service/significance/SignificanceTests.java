@@ -0,0 +1,196 @@
+package com.acoustic.camps.service.significance;
+
+/**
+ * Two-sample and paired Student t-tests over primitive rating arrays, with two-sided p-values from the
+ * regularized incomplete beta function
+ */
+public final class SignificanceTests {
+
+    private static final double[] LANCZOS = {
+            0.99999999999980993, 676.5203681218851, -1259.1392167224028, 771.32342877765313,
+            -176.61502916214059, 12.507343278686905, -0.13857109526572012, 9.9843695780195716e-6,
+            1.5056327351493116e-7
+    };
+
+    private static final int MAX_ITERATIONS = 200;
+    private static final double EPSILON = 1e-12;
+    private static final double TINY = 1e-300;
+
+    private SignificanceTests() {
+    }
+
+    /**
+     * Result of a test
+     *
+     * @param currentMean  Mean of the current ratings
+     * @param previousMean Mean of the previous ratings the current ones were compared with
+     * @param pValue       Two-sided p-value of the difference
+     */
+    public record TestResult(double currentMean, double previousMean, double pValue) {
+
+        public double difference() {
+            return currentMean - previousMean;
+        }
+    }
+
+    /**
+     * Welch's unequal-variance t-test of current against previous ratings
+     *
+     * @param current       Current ratings
+     * @param currentCount  Number of current ratings used, at least 2
+     * @param previous      Previous ratings
+     * @param previousCount Number of previous ratings used, at least 2
+     * @return The means and the p-value of their difference
+     * @throws IllegalArgumentException if either side has fewer than two ratings
+     */
+    public static TestResult welch(int[] current, int currentCount, int[] previous, int previousCount) {
+        if (currentCount < 2 || previousCount < 2) {
+            throw new IllegalArgumentException("Welch's t-test needs at least two ratings on each side");
+        }
+
+        double currentMean = mean(current, currentCount);
+        double previousMean = mean(previous, previousCount);
+        double currentError = variance(current, currentCount, currentMean) / currentCount;
+        double previousError = variance(previous, previousCount, previousMean) / previousCount;
+        double standardError = Math.sqrt(currentError + previousError);
+
+        if (standardError == 0) {
+            return new TestResult(currentMean, previousMean, currentMean == previousMean ? 1.0 : 0.0);
+        }
+
+        double t = (currentMean - previousMean) / standardError;
+        double degreesOfFreedom = welchDegreesOfFreedom(currentError, currentCount, previousError, previousCount);
+        return new TestResult(currentMean, previousMean, twoSidedPValue(t, degreesOfFreedom));
+    }
+
+    /**
+     * Welch-Satterthwaite degrees of freedom
+     *
+     * @param currentError  Squared standard error of the current mean
+     * @param currentCount  Number of current ratings
+     * @param previousError Squared standard error of the previous mean
+     * @param previousCount Number of previous ratings
+     * @return The degrees of freedom, need not be whole
+     */
+    static double welchDegreesOfFreedom(double currentError, int currentCount, double previousError, int previousCount) {
+        return (currentError + previousError) * (currentError + previousError)
+                / (currentError * currentError / (currentCount - 1) + previousError * previousError / (previousCount - 1));
+    }
+
+    /**
+     * Paired t-test of the rating differences of raters who rated in both periods
+     *
+     * @param current     Current ratings of the paired raters; only their mean is used
+     * @param count       Number of current ratings and of pairs, at least 2
+     * @param differences Current minus previous rating per rater
+     * @return The current mean, the paired raters' previous mean and the p-value of the mean difference
+     * @throws IllegalArgumentException if there are fewer than two pairs
+     */
+    public static TestResult paired(int[] current, int count, int[] differences) {
+        if (count < 2) {
+            throw new IllegalArgumentException("The paired t-test needs at least two pairs");
+        }
+
+        double currentMean = mean(current, count);
+        double meanDifference = mean(differences, count);
+        double standardError = Math.sqrt(variance(differences, count, meanDifference) / count);
+
+        if (standardError == 0) {
+            return new TestResult(currentMean, currentMean - meanDifference, meanDifference == 0 ? 1.0 : 0.0);
+        }
+
+        double t = meanDifference / standardError;
+        return new TestResult(currentMean, currentMean - meanDifference, twoSidedPValue(t, count - 1));
+    }
+
+    /**
+     * @param t                The t statistic
+     * @param degreesOfFreedom Degrees of freedom, need not be whole
+     * @return The probability of a t at least as extreme in either direction
+     */
+    static double twoSidedPValue(double t, double degreesOfFreedom) {
+        return regularizedIncompleteBeta(degreesOfFreedom / 2, 0.5, degreesOfFreedom / (degreesOfFreedom + t * t));
+    }
+
+    static double regularizedIncompleteBeta(double a, double b, double x) {
+        if (x <= 0) {
+            return 0;
+        } else if (x >= 1) {
+            return 1;
+        }
+
+        double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log(1 - x));
+        // The continued fraction converges fastest below the mean; use the symmetry relation above it
+        if (x < (a + 1) / (a + b + 2)) {
+            return front * betaContinuedFraction(a, b, x) / a;
+        }
+        return 1 - front * betaContinuedFraction(b, a, 1 - x) / b;
+    }
+
+    /**
+     * Continued fraction of the incomplete beta function, evaluated with the modified Lentz method
+     */
+    private static double betaContinuedFraction(double a, double b, double x) {
+        double c = 1;
+        double d = nonZero(1 - (a + b) * x / (a + 1));
+        d = 1 / d;
+        double h = d;
+
+        for (int m = 1; m <= MAX_ITERATIONS; m++) {
+            int m2 = 2 * m;
+            double even = m * (b - m) * x / ((a - 1 + m2) * (a + m2));
+            d = 1 / nonZero(1 + even * d);
+            c = nonZero(1 + even / c);
+            h *= d * c;
+
+            double odd = -(a + m) * (a + b + m) * x / ((a + m2) * (a + 1 + m2));
+            d = 1 / nonZero(1 + odd * d);
+            c = nonZero(1 + odd / c);
+            double delta = d * c;
+            h *= delta;
+
+            if (Math.abs(delta - 1) < EPSILON) {
+                break;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Lanczos approximation of the log gamma function
+     */
+    static double logGamma(double x) {
+        if (x < 0.5) {
+            return Math.log(Math.PI / Math.sin(Math.PI * x)) - logGamma(1 - x);
+        }
+
+        x -= 1;
+        double sum = LANCZOS[0];
+        for (int i = 1; i < LANCZOS.length; i++) {
+            sum += LANCZOS[i] / (x + i);
+        }
+        double t = x + 7.5;
+        return 0.5 * Math.log(2 * Math.PI) + (x + 0.5) * Math.log(t) - t + Math.log(sum);
+    }
+
+    private static double nonZero(double value) {
+        return Math.abs(value) < TINY ? TINY : value;
+    }
+
+    private static double mean(int[] values, int count) {
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+        return (double) sum / count;
+    }
+
+    private static double variance(int[] values, int count, double mean) {
+        double sumSquares = 0;
+        for (int i = 0; i < count; i++) {
+            double deviation = values[i] - mean;
+            sumSquares += deviation * deviation;
+        }
+        return sumSquares / (count - 1);
+    }
+}
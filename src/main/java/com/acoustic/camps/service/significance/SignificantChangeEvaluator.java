@@ -0,0 +1,93 @@
+package com.acoustic.camps.service.significance;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.codegen.types.ChangeType;
+import com.acoustic.camps.codegen.types.SignificantChange;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests whether a team's category ratings changed between two periods.
+ * <p>
+ * When every rater in the current period also rated before it, the change is tested with a paired t-test on
+ * each rater's own difference, which removes the spread between raters. Otherwise the two sets of ratings are
+ * compared with Welch's t-test, which does not assume equal variances or sizes.
+ */
+public final class SignificantChangeEvaluator {
+
+    /**
+     * Change in mean rating, in rating points, from which a significant change is reported as major
+     */
+    static final double SIGNIFICANT_MAGNITUDE = 1.0;
+
+    private static final int MIN_PAIRS = 3;
+    private static final int MIN_SAMPLES = 2;
+
+    private SignificantChangeEvaluator() {
+    }
+
+    /**
+     * Evaluate every category of one team
+     *
+     * @param samples           The team's samples per category
+     * @param significanceLevel Largest p-value reported as statistically significant
+     * @return One change per category with enough ratings to test, in category order
+     */
+    public static List<SignificantChange> evaluate(Map<CampsCategory, CategorySamples> samples,
+                                                   double significanceLevel) {
+        List<SignificantChange> changes = new ArrayList<>();
+        for (Map.Entry<CampsCategory, CategorySamples> entry : new EnumMap<>(samples).entrySet()) {
+            SignificanceTests.TestResult result = test(entry.getValue());
+            if (result != null) {
+                changes.add(toSignificantChange(entry.getKey(), result, significanceLevel));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * @return The result of the most suitable test, or null if there are too few ratings for either
+     */
+    static SignificanceTests.TestResult test(CategorySamples samples) {
+        int pairs = samples.pairCount();
+        if (pairs >= MIN_PAIRS && pairs == samples.currentCount()) {
+            return SignificanceTests.paired(samples.current(), pairs, samples.differences());
+        } else if (samples.currentCount() >= MIN_SAMPLES && samples.previousCount() >= MIN_SAMPLES) {
+            return SignificanceTests.welch(samples.current(), samples.currentCount(),
+                    samples.previous(), samples.previousCount());
+        }
+        return null;
+    }
+
+    private static SignificantChange toSignificantChange(CampsCategory category, SignificanceTests.TestResult result,
+                                                         double significanceLevel) {
+        double magnitude = result.difference();
+        boolean significant = result.pValue() < significanceLevel;
+
+        return SignificantChange.newBuilder()
+                .category(category)
+                .changeType(changeType(magnitude, significant))
+                .changeMagnitude(magnitude)
+                .previousValue(result.previousMean())
+                .currentValue(result.currentMean())
+                .isStatisticallySignificant(significant)
+                .confidenceLevel(1 - result.pValue())
+                .build();
+    }
+
+    static ChangeType changeType(double magnitude, boolean significant) {
+        if (!significant || magnitude == 0) {
+            return ChangeType.STABLE;
+        } else if (magnitude >= SIGNIFICANT_MAGNITUDE) {
+            return ChangeType.SIGNIFICANT_IMPROVEMENT;
+        } else if (magnitude > 0) {
+            return ChangeType.MODERATE_IMPROVEMENT;
+        } else if (magnitude > -SIGNIFICANT_MAGNITUDE) {
+            return ChangeType.MODERATE_DECLINE;
+        }
+        return ChangeType.SIGNIFICANT_DECLINE;
+    }
+}
@@ -0,0 +1,73 @@
+package com.acoustic.camps.service.stats;
+
+import com.acoustic.camps.codegen.types.StatisticalContext;
+
+/**
+ * Derives the statistical context of a set of ratings from its count, sum and sum of squares.
+ * The three totals add up across rows, so every aggregation query and rollup can carry them at no extra cost
+ * and the context never needs a second pass over the ratings.
+ */
+public final class RatingStatistics {
+
+    /**
+     * Significance level of the confidence interval
+     */
+    public static final double SIGNIFICANCE_LEVEL = 0.05;
+
+    private static final double Z_975 = 1.959963984540054;
+
+    /**
+     * Two-sided 95% Student t critical values for 1 to 30 degrees of freedom
+     */
+    private static final double[] T_975 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    private RatingStatistics() {
+    }
+
+    /**
+     * Build the statistical context of a set of ratings
+     *
+     * @param count      Number of ratings
+     * @param sum        Sum of the ratings
+     * @param sumSquares Sum of the squared ratings, or null if unknown, which leaves the spread empty
+     * @return The context, with the sample variance, its standard deviation and the half-width of the 95%
+     * confidence interval of the mean when there are at least two ratings
+     */
+    public static StatisticalContext contextOf(long count, double sum, Double sumSquares) {
+        StatisticalContext context = new StatisticalContext();
+        context.setSampleSize((int) count);
+        context.setIsStatisticallySignificant(count > 1);
+        context.setSignificanceLevel(count > 1 ? SIGNIFICANCE_LEVEL : null);
+
+        if (count > 1 && sumSquares != null) {
+            // Rounding can take a constant sample slightly below zero
+            double variance = Math.max(0.0, (sumSquares - sum * sum / count) / (count - 1));
+            double standardDeviation = Math.sqrt(variance);
+
+            context.setVariance(variance);
+            context.setStandardDeviation(standardDeviation);
+            context.setConfidenceInterval(tCritical95(count - 1) * standardDeviation / Math.sqrt(count));
+        }
+        return context;
+    }
+
+    /**
+     * @param degreesOfFreedom Degrees of freedom, at least 1
+     * @return The two-sided 95% critical value of Student's t distribution
+     */
+    static double tCritical95(long degreesOfFreedom) {
+        if (degreesOfFreedom <= T_975.length) {
+            return T_975[(int) degreesOfFreedom - 1];
+        }
+        // Cornish-Fisher expansion around the normal quantile, within 0.001 beyond 30 degrees of freedom
+        double z = Z_975;
+        double z3 = z * z * z;
+        double z5 = z3 * z * z;
+        return z + (z3 + z) / (4.0 * degreesOfFreedom)
+                + (5 * z5 + 16 * z3 + 3 * z) / (96.0 * degreesOfFreedom * degreesOfFreedom);
+    }
+}
@@ -0,0 +1,104 @@
+package com.acoustic.camps.service.stats;
+
+import com.acoustic.camps.codegen.types.AggregationPeriod;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Granularities of the team stats rollups, with their period boundaries.
+ * Boundaries match PostgreSQL {@code date_trunc}, weeks starting on Monday.
+ */
+public enum RollupPeriod {
+    DAILY(AggregationPeriod.DAILY, "day", "1 day"),
+    WEEKLY(AggregationPeriod.WEEKLY, "week", "1 week"),
+    MONTHLY(AggregationPeriod.MONTHLY, "month", "1 month"),
+    QUARTERLY(AggregationPeriod.QUARTERLY, "quarter", "3 months"),
+    YEARLY(AggregationPeriod.YEARLY, "year", "1 year");
+
+    private final AggregationPeriod aggregationPeriod;
+    private final String unit;
+    private final String length;
+
+    RollupPeriod(AggregationPeriod aggregationPeriod, String unit, String length) {
+        this.aggregationPeriod = aggregationPeriod;
+        this.unit = unit;
+        this.length = length;
+    }
+
+    /**
+     * @param aggregationPeriod The GraphQL aggregation period
+     * @return The matching rollup granularity
+     */
+    public static RollupPeriod of(AggregationPeriod aggregationPeriod) {
+        return valueOf(aggregationPeriod.name());
+    }
+
+    /**
+     * Pick the granularity that keeps a range at roughly a hundred periods or fewer
+     *
+     * @param fromDate Start of the range
+     * @param toDate   End of the range
+     * @return The granularity to read the range at
+     */
+    public static RollupPeriod forRange(LocalDate fromDate, LocalDate toDate) {
+        long days = toDate.toEpochDay() - fromDate.toEpochDay();
+        if (days <= 92) {
+            return DAILY;
+        } else if (days <= 730) {
+            return WEEKLY;
+        } else if (days <= 3650) {
+            return MONTHLY;
+        }
+        return QUARTERLY;
+    }
+
+    public AggregationPeriod aggregationPeriod() {
+        return aggregationPeriod;
+    }
+
+    /**
+     * @return The PostgreSQL {@code date_trunc} unit
+     */
+    public String unit() {
+        return unit;
+    }
+
+    /**
+     * @return The period length as a PostgreSQL interval
+     */
+    public String length() {
+        return length;
+    }
+
+    /**
+     * @param date Any day of the period
+     * @return The first day of the period
+     */
+    public LocalDate start(LocalDate date) {
+        return switch (this) {
+            case DAILY -> date;
+            case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHLY -> date.withDayOfMonth(1);
+            case QUARTERLY -> date.with(IsoFields.DAY_OF_QUARTER, 1);
+            case YEARLY -> date.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * @param date Any day of the period
+     * @return The last day of the period
+     */
+    public LocalDate end(LocalDate date) {
+        LocalDate start = start(date);
+        return switch (this) {
+            case DAILY -> start;
+            case WEEKLY -> start.plusWeeks(1).minusDays(1);
+            case MONTHLY -> start.plusMonths(1).minusDays(1);
+            case QUARTERLY -> start.plusMonths(3).minusDays(1);
+            case YEARLY -> start.plusYears(1).minusDays(1);
+        };
+    }
+}
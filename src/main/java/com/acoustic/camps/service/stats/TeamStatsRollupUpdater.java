@@ -0,0 +1,88 @@
+package com.acoustic.camps.service.stats;
+
+import com.acoustic.camps.model.EngagementRatingModel;
+import com.acoustic.camps.repository.TeamStatsRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Keeps the team stats rollups in step with the ratings.
+ * A single new rating is added to the rollups of its category in place, one upsert per granularity.
+ * Larger changes are rebuilt: the daily rollups of the changed days are rebuilt from the ratings, then every coarser period containing
+ * one of those days is rebuilt by merging its daily rollups, so a change costs a few days of ratings and at most
+ * a year of daily rows instead of a rescan of the team's history. Rollups left without ratings, because the ratings
+ * were deleted or moved to another team with their employee, are deleted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TeamStatsRollupUpdater {
+
+    private final TeamStatsRollupRepository rollupRepository;
+
+    /**
+     * Add a rating that has just been saved and flushed to the rollups of its team
+     *
+     * @param teamId The team's ID
+     * @param rating The new rating
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(UUID teamId, EngagementRatingModel rating) {
+        LocalDate day = rating.getRatingDate().toLocalDate();
+        int value = rating.getRating();
+        for (RollupPeriod period : RollupPeriod.values()) {
+            rollupRepository.addRating(
+                    teamId,
+                    rating.getCategory().name(),
+                    period.aggregationPeriod().name(),
+                    period.start(day),
+                    period.end(day),
+                    value,
+                    (long) value * value,
+                    rating.getEmployee().getId(),
+                    rating.getId());
+        }
+    }
+
+    /**
+     * Rebuild the rollups of a team affected by ratings dated within a range
+     *
+     * @param teamId   The team's ID
+     * @param fromDate Earliest changed rating date
+     * @param toDate   Latest changed rating date
+     */
+    @Transactional
+    public void refresh(UUID teamId, LocalDate fromDate, LocalDate toDate) {
+        int daily = rollupRepository.upsertDailyRollups(teamId, fromDate, toDate);
+        int deleted = rollupRepository.deleteEmptyDailyRollups(teamId, fromDate, toDate);
+
+        int merged = 0;
+        for (RollupPeriod period : RollupPeriod.values()) {
+            if (period == RollupPeriod.DAILY) {
+                continue;
+            }
+            merged += rollupRepository.mergeRollups(
+                    teamId,
+                    period.aggregationPeriod().name(),
+                    period.unit(),
+                    period.length(),
+                    period.start(fromDate),
+                    period.end(toDate));
+            deleted += rollupRepository.deleteEmptyRollups(
+                    teamId,
+                    period.aggregationPeriod().name(),
+                    period.length(),
+                    period.start(fromDate),
+                    period.end(toDate));
+        }
+
+        log.debug("Refreshed {} daily and {} merged rollups and deleted {} empty ones for team {} between {} and {}",
+                daily, merged, deleted, teamId, fromDate, toDate);
+    }
+}
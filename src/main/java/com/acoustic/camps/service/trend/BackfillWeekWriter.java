@@ -0,0 +1,72 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.model.AnalyticsProcessingPartitionModel;
+import com.acoustic.camps.repository.EmployeeRepository;
+import com.acoustic.camps.repository.TeamRepository;
+import com.acoustic.camps.service.job.CalculationJobRegistry;
+import com.acoustic.camps.service.trend.WeeklyTrendAggregator.WeeklyTrendResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Writes one week of a backfill for the whole organisation.
+ * The week's rows and its completed checkpoint commit in the same transaction, so a crash leaves every week
+ * either fully written and checkpointed or untouched.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BackfillWeekWriter {
+
+    private final EmployeeRepository employeeRepository;
+    private final TeamRepository teamRepository;
+    private final TrendDataWriter trendDataWriter;
+    private final CalculationJobRegistry jobRegistry;
+
+    private final WeeklyTrendAggregator aggregator = new WeeklyTrendAggregator();
+
+    /**
+     * Compute and persist the trends of one week, overwriting any rows written for it since the backfill started
+     *
+     * @param partition The week's checkpoint partition
+     * @param week      The week
+     * @param ratings   Latest rating per (employee, category) within the week
+     * @param history   Prior-period trend values for comparisons
+     * @return The rows written
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public WeeklyTrendResult write(AnalyticsProcessingPartitionModel partition, TrendWeek week,
+                                   List<LatestRating> ratings, TrendHistory history) {
+        partition = jobRegistry.partitionStarted(partition);
+
+        WeeklyTrendResult result = aggregator.aggregate(
+                ratings,
+                history,
+                week.end(),
+                teamRepository::getReferenceById,
+                employeeRepository::getReferenceById);
+
+        int written = trendDataWriter.writeTeamTrends(result.teamTrends())
+                + trendDataWriter.writeEmployeeTrends(result.employeeTrends());
+
+        jobRegistry.partitionCompleted(partition, written);
+        log.debug("Backfilled {} trend rows for week ending {}", written, week.endDate());
+        return result;
+    }
+
+    /**
+     * Record a failed week in its own transaction, the backfill's streaming transaction being read-only
+     *
+     * @param partition    The week's checkpoint partition
+     * @param errorMessage Why the week failed
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markFailed(AnalyticsProcessingPartitionModel partition, String errorMessage) {
+        jobRegistry.partitionFailed(partition, errorMessage);
+    }
+}
@@ -0,0 +1,56 @@
+package com.acoustic.camps.service.trend;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Prior weeks that a weekly trend row is compared against
+ */
+public enum ComparisonWindow {
+    PREVIOUS_WEEK,
+    PREVIOUS_MONTH,
+    PREVIOUS_QUARTER;
+
+    /**
+     * Start of this window for the week being calculated
+     *
+     * @param weekStart Start of the week being calculated
+     * @param weekEnd   End of the week being calculated
+     * @return The first instant of the comparison window
+     */
+    public OffsetDateTime from(OffsetDateTime weekStart, OffsetDateTime weekEnd) {
+        return to(weekStart, weekEnd).minusDays(6);
+    }
+
+    /**
+     * End of this window for the week being calculated
+     *
+     * @param weekStart Start of the week being calculated
+     * @param weekEnd   End of the week being calculated
+     * @return The last instant of the comparison window
+     */
+    public OffsetDateTime to(OffsetDateTime weekStart, OffsetDateTime weekEnd) {
+        return switch (this) {
+            case PREVIOUS_WEEK -> weekStart.minusDays(1);
+            case PREVIOUS_MONTH -> weekEnd.minusWeeks(4);
+            case PREVIOUS_QUARTER -> weekEnd.minusWeeks(13);
+        };
+    }
+
+    /**
+     * Finds the comparison window a stored trend record falls into
+     *
+     * @param recordDate Record date of the stored trend row
+     * @param weekStart  Start of the week being calculated
+     * @param weekEnd    End of the week being calculated
+     * @return The matching window, or null if the record is outside every window
+     */
+    public static ComparisonWindow containing(OffsetDateTime recordDate, OffsetDateTime weekStart, OffsetDateTime weekEnd) {
+        for (ComparisonWindow window : values()) {
+            if (!recordDate.isBefore(window.from(weekStart, weekEnd))
+                    && !recordDate.isAfter(window.to(weekStart, weekEnd))) {
+                return window;
+            }
+        }
+        return null;
+    }
+}
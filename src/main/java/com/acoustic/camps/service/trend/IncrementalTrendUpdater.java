@@ -0,0 +1,244 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.codegen.types.AggregationPeriod;
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.model.EmployeeModel;
+import com.acoustic.camps.model.EmployeeTrendDataModel;
+import com.acoustic.camps.model.EngagementRatingModel;
+import com.acoustic.camps.model.TeamStatsModel;
+import com.acoustic.camps.model.TeamTrendDataModel;
+import com.acoustic.camps.repository.EmployeeRepository;
+import com.acoustic.camps.repository.EmployeeTrendDataRepository;
+import com.acoustic.camps.repository.EngagementRatingRepository;
+import com.acoustic.camps.repository.TeamRepository;
+import com.acoustic.camps.repository.TeamStatsRepository;
+import com.acoustic.camps.repository.TeamTrendDataRepository;
+import com.acoustic.camps.service.stats.TeamStatsRollupUpdater;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.UUID;
+
+/**
+ * Applies a single new rating to the trend rows of its week, the team's daily stats and its stats rollups.
+ * Team rows keep the sum and count of the latest rating per employee, so every update is a constant-time
+ * delta instead of a recompute over the whole team. The comparisons, rolling averages and series statistics of the
+ * changed rows, and of every later row of their series, are then derived again by the {@link TrendSeriesRefresher},
+ * as a backdated rating changes a week the weekly job will not recalculate. The weekly job still rebuilds the last
+ * week's stats from scratch, which corrects anything the deltas could not see (for example ratings backdated past
+ * the newest stats day).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IncrementalTrendUpdater {
+
+    private final EmployeeRepository employeeRepository;
+    private final TeamRepository teamRepository;
+    private final EngagementRatingRepository ratingRepository;
+    private final TeamTrendDataRepository teamTrendDataRepository;
+    private final EmployeeTrendDataRepository employeeTrendDataRepository;
+    private final TeamStatsRepository teamStatsRepository;
+    private final TrendPartitionLock partitionLock;
+    private final TrendSeriesRefresher seriesRefresher;
+    private final TeamStatsRollupUpdater rollupUpdater;
+
+    /**
+     * Apply a rating that has just been saved and flushed
+     *
+     * @param rating The new rating
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyRating(EngagementRatingModel rating) {
+        UUID employeeId = rating.getEmployee().getId();
+        EmployeeModel employee = employeeRepository.findById(employeeId)
+                .orElseThrow(() -> new IllegalArgumentException("Employee not found with ID: " + employeeId));
+        UUID teamId = employee.getTeam() != null ? employee.getTeam().getId() : null;
+
+        // Serialise updates that touch the same rows; the weekly job takes the same partition lock
+        partitionLock.lock(teamId);
+
+        OffsetDateTime weekStart = rating.getRatingDate()
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                .truncatedTo(ChronoUnit.DAYS);
+        OffsetDateTime weekEnd = weekStart.plusDays(6).withHour(23).withMinute(59).withSecond(59);
+
+        EmployeeTrendDataModel employeeTrend = employeeTrendDataRepository
+                .findTopByEmployeeIdAndCategoryAndAggregationPeriodAndRecordDateBetweenOrderByCreatedAtDesc(
+                        employeeId, rating.getCategory(), AggregationPeriod.WEEKLY, weekStart, weekEnd)
+                .orElse(null);
+
+        if (employeeTrend != null && isOlderThan(rating, employeeTrend.getLatestRatingDate())) {
+            log.debug("Rating {} is older than the one already counted for week ending {}", rating.getId(), weekEnd);
+        } else {
+            Double replaced = employeeTrend != null ? employeeTrend.getRating() : null;
+            applyEmployeeTrend(employee, teamId, employeeTrend, rating, weekEnd);
+            if (teamId != null) {
+                applyTeamTrend(teamId, rating, replaced, weekStart, weekEnd);
+            }
+        }
+
+        if (teamId != null) {
+            applyTeamStats(teamId, rating);
+            rollupUpdater.add(teamId, rating);
+        }
+    }
+
+    /**
+     * Recompute a team's newest daily stats from the ratings, for changes too large to apply rating by rating
+     * such as bulk imports. Imported days older than the newest stats day are folded into that day.
+     *
+     * @param teamId           The team's ID
+     * @param latestRatingDate The date of the newest changed rating
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void refreshTeamStats(UUID teamId, OffsetDateTime latestRatingDate) {
+        partitionLock.lock(teamId);
+
+        for (CampsCategory category : CampsCategory.values()) {
+            TeamStatsModel latest = teamStatsRepository.findTopByTeamIdAndCategoryOrderByRecordDateDesc(teamId, category)
+                    .orElse(null);
+
+            OffsetDateTime day = latestRatingDate.truncatedTo(ChronoUnit.DAYS);
+            if (latest != null && latest.getRecordDate().isAfter(day)) {
+                day = latest.getRecordDate();
+            }
+
+            Object[] totals = ratingRepository.sumLatestRatingsForTeam(teamId, category.name(), day).get(0);
+            long sum = ((Number) totals[0]).longValue();
+            int count = ((Number) totals[1]).intValue();
+            if (count == 0) {
+                continue;
+            }
+
+            if (latest != null && latest.getRecordDate().toLocalDate().isEqual(day.toLocalDate())) {
+                saveTeamStats(latest, sum, count);
+            } else {
+                saveTeamStats(TeamStatsModel.builder()
+                        .team(teamRepository.getReferenceById(teamId))
+                        .category(category)
+                        .recordDate(day)
+                        .previousAverageRating(latest != null ? latest.getAverageRating() : null)
+                        .build(), sum, count);
+            }
+        }
+    }
+
+    private void applyEmployeeTrend(EmployeeModel employee, UUID teamId, EmployeeTrendDataModel trend,
+                                    EngagementRatingModel rating, OffsetDateTime weekEnd) {
+        if (trend == null) {
+            trend = EmployeeTrendDataModel.builder()
+                    .employee(employee)
+                    .team(teamId != null ? teamRepository.getReferenceById(teamId) : null)
+                    .recordDate(weekEnd)
+                    .category(rating.getCategory())
+                    .build();
+        }
+
+        trend.setRating((double) rating.getRating());
+        trend.setLatestRatingDate(rating.getRatingDate());
+        trend = employeeTrendDataRepository.save(trend);
+        seriesRefresher.refreshEmployeeSeries(employee.getId(), trend);
+    }
+
+    private void applyTeamTrend(UUID teamId, EngagementRatingModel rating, Double replaced,
+                                OffsetDateTime weekStart, OffsetDateTime weekEnd) {
+        CampsCategory category = rating.getCategory();
+        TeamTrendDataModel trend = teamTrendDataRepository
+                .findTopByTeamIdAndCategoryAndAggregationPeriodAndRecordDateBetweenOrderByCreatedAtDesc(
+                        teamId, category, AggregationPeriod.WEEKLY, weekStart, weekEnd)
+                .orElse(null);
+
+        if (trend == null) {
+            trend = TeamTrendDataModel.builder()
+                    .team(teamRepository.getReferenceById(teamId))
+                    .recordDate(weekEnd)
+                    .category(category)
+                    .ratingSum((long) rating.getRating())
+                    .ratingCount(1)
+                    .ratingSumSquares((long) rating.getRating() * rating.getRating())
+                    .build();
+        } else {
+            long replacedRating = replaced != null ? Math.round(replaced) : 0;
+            trend.setRatingSum(trend.getRatingSum() + rating.getRating() - replacedRating);
+            trend.setRatingCount(trend.getRatingCount() + (replaced == null ? 1 : 0));
+            if (trend.getRatingSumSquares() != null) {
+                trend.setRatingSumSquares(trend.getRatingSumSquares()
+                        + (long) rating.getRating() * rating.getRating() - replacedRating * replacedRating);
+            }
+        }
+
+        int count = trend.getRatingCount();
+        trend.setEmployeeCount(count);
+        trend.setDataPoints(count);
+        trend.setAverageRating((double) trend.getRatingSum() / count);
+        trend = teamTrendDataRepository.save(trend);
+        seriesRefresher.refreshTeamSeries(teamId, trend);
+    }
+
+    private void applyTeamStats(UUID teamId, EngagementRatingModel rating) {
+        CampsCategory category = rating.getCategory();
+        OffsetDateTime day = rating.getRatingDate().truncatedTo(ChronoUnit.DAYS);
+        TeamStatsModel latest = teamStatsRepository.findTopByTeamIdAndCategoryOrderByRecordDateDesc(teamId, category)
+                .orElse(null);
+
+        if (latest == null) {
+            // First stats row for this team and category: seed it from the ratings, which include the new one
+            Object[] totals = ratingRepository.sumLatestRatingsForTeam(teamId, category.name(), day).get(0);
+            saveTeamStats(TeamStatsModel.builder()
+                    .team(teamRepository.getReferenceById(teamId))
+                    .category(category)
+                    .recordDate(day)
+                    .build(), ((Number) totals[0]).longValue(), ((Number) totals[1]).intValue());
+            return;
+        }
+
+        LocalDate latestDay = latest.getRecordDate().toLocalDate();
+        if (day.toLocalDate().isBefore(latestDay)) {
+            log.debug("Rating {} predates the latest team stats for team {}, leaving stats unchanged", rating.getId(), teamId);
+            return;
+        }
+
+        Integer replaced = ratingRepository
+                .findTopByEmployeeIdAndCategoryAndRatingDateLessThanEqualAndIdNotOrderByRatingDateDescCreatedAtDesc(
+                        rating.getEmployee().getId(), category, rating.getRatingDate(), rating.getId())
+                .map(EngagementRatingModel::getRating)
+                .orElse(null);
+
+        long sum = latest.getRatingSum() + rating.getRating() - (replaced != null ? replaced : 0);
+        int count = latest.getRatingCount() + (replaced == null ? 1 : 0);
+
+        if (day.toLocalDate().isEqual(latestDay)) {
+            saveTeamStats(latest, sum, count);
+        } else {
+            // Carry the previous day forward into a new daily bucket
+            saveTeamStats(TeamStatsModel.builder()
+                    .team(teamRepository.getReferenceById(teamId))
+                    .category(category)
+                    .recordDate(day)
+                    .previousAverageRating(latest.getAverageRating())
+                    .build(), sum, count);
+        }
+    }
+
+    private void saveTeamStats(TeamStatsModel stats, long sum, int count) {
+        stats.setRatingSum(sum);
+        stats.setRatingCount(count);
+        stats.setEmployeeCount(count);
+        stats.setAverageRating(count > 0 ? (double) sum / count : 0.0);
+        teamStatsRepository.save(stats);
+    }
+
+    private static boolean isOlderThan(EngagementRatingModel rating, OffsetDateTime latestRatingDate) {
+        return latestRatingDate != null
+                && rating.getRatingDate().toLocalDate().isBefore(latestRatingDate.toLocalDate());
+    }
+}
@@ -0,0 +1,31 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * The most recent rating an employee received in a category during the week being calculated
+ *
+ * @param employeeId The rated employee
+ * @param teamId     The employee's team, or null if the employee has no team
+ * @param category   The CAMPS category
+ * @param rating     The rating value
+ * @param ratingDate The day the rating was given
+ */
+public record LatestRating(UUID employeeId, UUID teamId, CampsCategory category, int rating, LocalDate ratingDate) {
+
+    /**
+     * Maps a row returned by the {@code EngagementRatingRepository.findLatestRatingsPerEmployeeAndCategory*} queries
+     */
+    public static LatestRating fromRow(Object[] row) {
+        return new LatestRating(
+                (UUID) row[0],
+                (UUID) row[1],
+                CampsCategory.valueOf((String) row[2]),
+                ((Number) row[3]).intValue(),
+                row[4] instanceof Date date ? date.toLocalDate() : (LocalDate) row[4]);
+    }
+}
@@ -0,0 +1,161 @@
+package com.acoustic.camps.service.trend;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Ring buffer of the last 26 weekly values of one (team or employee, category), with running sums for the
+ * 4, 12 and 26 week windows.
+ * <p>
+ * Moving to the next week subtracts the one value leaving each window, so every step and every average is O(1)
+ * no matter how long the buffer has been fed. Weeks without a value are left out of the averages rather than
+ * counted as zero. Not thread safe.
+ */
+public class RollingAverageBuffer {
+
+    private static final int FOUR_WEEKS = 0;
+    private static final int TWELVE_WEEKS = 1;
+    private static final int SIX_MONTHS = 2;
+
+    /**
+     * Window lengths in weeks, indexed by the constants above
+     */
+    private static final int[] WINDOWS = {4, 12, 26};
+    private static final int CAPACITY = 26;
+
+    private final double[] values = new double[CAPACITY];
+    private final boolean[] present = new boolean[CAPACITY];
+    private final double[] sums = new double[WINDOWS.length];
+    private final int[] counts = new int[WINDOWS.length];
+
+    private long latestWeek = Long.MIN_VALUE;
+
+    /**
+     * Record the value of a week, replacing any value already recorded for it.
+     * Weeks should arrive in order; a week older than the buffer's reach is ignored.
+     *
+     * @param recordDate Any day of the week
+     * @param value      The week's value
+     */
+    public void put(LocalDate recordDate, double value) {
+        long week = weekIndex(recordDate);
+        if (latestWeek == Long.MIN_VALUE || week > latestWeek) {
+            advanceTo(week);
+        } else if (week <= latestWeek - CAPACITY) {
+            return;
+        }
+
+        int slot = slot(week);
+        for (int i = 0; i < WINDOWS.length; i++) {
+            if (week > latestWeek - WINDOWS[i]) {
+                if (present[slot]) {
+                    sums[i] -= values[slot];
+                } else {
+                    counts[i]++;
+                }
+                sums[i] += value;
+            }
+        }
+        values[slot] = value;
+        present[slot] = true;
+    }
+
+    /**
+     * @return Average of the last 4 weeks up to the latest recorded week, or null if none had a value
+     */
+    public Double fourWeekAverage() {
+        return average(FOUR_WEEKS);
+    }
+
+    /**
+     * @return Average of the last 12 weeks up to the latest recorded week, or null if none had a value
+     */
+    public Double twelveWeekAverage() {
+        return average(TWELVE_WEEKS);
+    }
+
+    /**
+     * @return Average of the last 26 weeks up to the latest recorded week, or null if none had a value
+     */
+    public Double sixMonthAverage() {
+        return average(SIX_MONTHS);
+    }
+
+    /**
+     * Correlation of the buffered values with themselves a number of weeks earlier, over the pairs present.
+     * Reads the whole buffer, so it costs 26 steps rather than one.
+     *
+     * @param lag        Weeks between the paired values, less than 26
+     * @param minPairs   Fewest pairs to compute the correlation from
+     * @return The Pearson correlation, or null if there are too few pairs or either side is constant
+     */
+    public Double lagCorrelation(int lag, int minPairs) {
+        int pairs = 0;
+        double sumX = 0, sumY = 0, sumXx = 0, sumYy = 0, sumXy = 0;
+
+        for (long week = latestWeek - CAPACITY + 1 + lag; week <= latestWeek; week++) {
+            int current = slot(week);
+            int earlier = slot(week - lag);
+            if (!present[current] || !present[earlier]) {
+                continue;
+            }
+            double x = values[earlier];
+            double y = values[current];
+            pairs++;
+            sumX += x;
+            sumY += y;
+            sumXx += x * x;
+            sumYy += y * y;
+            sumXy += x * y;
+        }
+
+        if (pairs < minPairs) {
+            return null;
+        }
+        double covariance = pairs * sumXy - sumX * sumY;
+        double varianceX = pairs * sumXx - sumX * sumX;
+        double varianceY = pairs * sumYy - sumY * sumY;
+        if (varianceX <= 1e-9 || varianceY <= 1e-9) {
+            return null;
+        }
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+
+    private Double average(int window) {
+        return counts[window] > 0 ? sums[window] / counts[window] : null;
+    }
+
+    private void advanceTo(long week) {
+        if (latestWeek == Long.MIN_VALUE || week - latestWeek >= CAPACITY) {
+            Arrays.fill(present, false);
+            Arrays.fill(sums, 0);
+            Arrays.fill(counts, 0);
+            latestWeek = week;
+            return;
+        }
+
+        for (long next = latestWeek + 1; next <= week; next++) {
+            for (int i = 0; i < WINDOWS.length; i++) {
+                int leaving = slot(next - WINDOWS[i]);
+                if (present[leaving]) {
+                    sums[i] -= values[leaving];
+                    counts[i]--;
+                }
+            }
+            // The slot of the new week held the value 26 weeks back, which just left the widest window
+            present[slot(next)] = false;
+        }
+        latestWeek = week;
+    }
+
+    private static int slot(long week) {
+        return (int) Math.floorMod(week, CAPACITY);
+    }
+
+    /**
+     * Monday-based week number since the epoch, 1970-01-01 being a Thursday
+     */
+    private static long weekIndex(LocalDate date) {
+        return Math.floorDiv(date.toEpochDay() + 3, 7);
+    }
+}
@@ -0,0 +1,104 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.model.EmployeeTrendDataModel;
+import com.acoustic.camps.model.TeamTrendDataModel;
+import com.acoustic.camps.model.TrendSeriesStatistics;
+import com.acoustic.camps.service.trend.WeeklyTrendAggregator.WeeklyTrendResult;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Trend values of the last quarter kept in memory while a backfill walks forward week by week.
+ * Each computed week is added once and expires after the quarter window, so comparisons for the next week
+ * are built without going back to the database. The series state (rolling averages and streaming statistics) lives
+ * as long as the window and is shared with every history it builds, each week moving it forward by one step.
+ */
+public class RollingTrendWindow {
+
+    /**
+     * Oldest week a comparison can reach, see {@link ComparisonWindow#PREVIOUS_QUARTER}, plus one week of slack
+     */
+    private static final int RETAINED_WEEKS = 14;
+
+    private final NavigableMap<OffsetDateTime, List<Value>> valuesByRecordDate = new TreeMap<>();
+    private final Map<TrendHistory.SeriesKey, TrendSeries> teamSeries = new HashMap<>();
+    private final Map<TrendHistory.SeriesKey, TrendSeries> employeeSeries = new HashMap<>();
+
+    /**
+     * Add a stored team average, in record date order; the rolling averages need at least the last 25 weeks
+     */
+    public void addTeamAverage(UUID teamId, CampsCategory category, OffsetDateTime recordDate, Double averageRating,
+                               TrendSeriesStatistics statistics) {
+        add(recordDate, new Value(true, teamId, category, averageRating));
+        teamSeries.computeIfAbsent(new TrendHistory.SeriesKey(teamId, category), key -> new TrendSeries())
+                .addStoredWeek(recordDate.toLocalDate(), averageRating, statistics);
+    }
+
+    /**
+     * Add a stored employee rating, in record date order
+     */
+    public void addEmployeeRating(UUID employeeId, CampsCategory category, OffsetDateTime recordDate, Double rating,
+                                  TrendSeriesStatistics statistics) {
+        add(recordDate, new Value(false, employeeId, category, rating));
+        employeeSeries.computeIfAbsent(new TrendHistory.SeriesKey(employeeId, category), key -> new TrendSeries())
+                .addStoredWeek(recordDate.toLocalDate(), rating, statistics);
+    }
+
+    /**
+     * Add the rows computed for a week, making their statistics the base of the next week's
+     *
+     * @param result The week's trend rows
+     */
+    public void addWeek(WeeklyTrendResult result) {
+        for (TeamTrendDataModel trend : result.teamTrends()) {
+            addTeamAverage(trend.getTeam().getId(), trend.getCategory(), trend.getRecordDate(), trend.getAverageRating(),
+                    trend.getSeriesStatistics());
+        }
+        for (EmployeeTrendDataModel trend : result.employeeTrends()) {
+            addEmployeeRating(trend.getEmployee().getId(), trend.getCategory(), trend.getRecordDate(), trend.getRating(),
+                    trend.getSeriesStatistics());
+        }
+    }
+
+    /**
+     * Build the comparison history of a week and drop the values no later week can reach
+     *
+     * @param week The week about to be calculated
+     * @return The prior-period values the week is compared against
+     */
+    public TrendHistory historyFor(TrendWeek week) {
+        valuesByRecordDate.headMap(week.start().minusWeeks(RETAINED_WEEKS)).clear();
+
+        TrendHistory history = new TrendHistory(teamSeries, employeeSeries);
+        for (Map.Entry<OffsetDateTime, List<Value>> entry : valuesByRecordDate.headMap(week.start()).entrySet()) {
+            ComparisonWindow window = ComparisonWindow.containing(entry.getKey(), week.start(), week.end());
+            if (window == null) {
+                continue;
+            }
+
+            for (Value value : entry.getValue()) {
+                if (value.team()) {
+                    history.putTeamAverage(value.id(), value.category(), window, value.value());
+                } else {
+                    history.putEmployeeRating(value.id(), value.category(), window, value.value());
+                }
+            }
+        }
+        return history;
+    }
+
+    private void add(OffsetDateTime recordDate, Value value) {
+        valuesByRecordDate.computeIfAbsent(recordDate, date -> new ArrayList<>()).add(value);
+    }
+
+    private record Value(boolean team, UUID id, CampsCategory category, Double value) {
+    }
+}
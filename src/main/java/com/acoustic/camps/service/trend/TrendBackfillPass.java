@@ -0,0 +1,162 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.metrics.TrendJobMetrics;
+import com.acoustic.camps.model.AnalyticsProcessingPartitionModel;
+import com.acoustic.camps.model.EmployeeTrendDataModel;
+import com.acoustic.camps.model.TeamTrendDataModel;
+import com.acoustic.camps.model.TrendSeriesStatistics;
+import com.acoustic.camps.repository.EmployeeRepository;
+import com.acoustic.camps.repository.EmployeeTrendDataRepository;
+import com.acoustic.camps.repository.EngagementRatingRepository;
+import com.acoustic.camps.repository.TeamRepository;
+import com.acoustic.camps.repository.TeamTrendDataRepository;
+import com.acoustic.camps.service.trend.WeeklyTrendAggregator.WeeklyTrendResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds weekly trends over an arbitrary range in one chronological pass over the ratings.
+ * <p>
+ * Every week from the first to the last pending one is computed in memory, so comparisons always come from the
+ * {@link RollingTrendWindow} instead of a query per week; only the pending weeks are written, each through
+ * {@link BackfillWeekWriter} in its own transaction. The series the written weeks belong to are returned, as their
+ * later stored rows were derived without those weeks.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendBackfillPass {
+
+    private final EngagementRatingRepository ratingRepository;
+    private final TeamTrendDataRepository teamTrendDataRepository;
+    private final EmployeeTrendDataRepository employeeTrendDataRepository;
+    private final TeamRepository teamRepository;
+    private final EmployeeRepository employeeRepository;
+    private final BackfillWeekWriter weekWriter;
+    private final TrendJobMetrics metrics;
+
+    private final WeeklyTrendAggregator aggregator = new WeeklyTrendAggregator();
+
+    /**
+     * The series a pass wrote weeks of
+     *
+     * @param first           The earliest written week, or null if no week was written
+     * @param employeesByTeam Employees with a written row by team; the null key stands for employees without a team
+     */
+    public record WrittenWeeks(TrendWeek first, Map<UUID, Set<UUID>> employeesByTeam) {
+    }
+
+    /**
+     * Compute and write the weeks of the given checkpoint partitions
+     *
+     * @param pending The week partitions that still have to be written
+     * @return The series whose later weeks have to be derived again
+     */
+    @Transactional(readOnly = true)
+    public WrittenWeeks run(List<AnalyticsProcessingPartitionModel> pending) {
+        TreeMap<LocalDate, AnalyticsProcessingPartitionModel> pendingByWeek = new TreeMap<>();
+        for (AnalyticsProcessingPartitionModel partition : pending) {
+            pendingByWeek.put(partition.getPeriodStart().toLocalDate(), partition);
+        }
+
+        OffsetDateTime firstStart = pendingByWeek.firstEntry().getValue().getPeriodStart();
+        TrendWeek first = TrendWeek.containing(firstStart.toLocalDate(), firstStart.getOffset());
+        TrendWeek last = TrendWeek.containing(pendingByWeek.lastKey(), firstStart.getOffset());
+        log.info("Backfilling {} weeks between {} and {}", pendingByWeek.size(), first.startDate(), last.endDate());
+
+        RollingTrendWindow window = seedWindow(first);
+        TrendWeek firstWritten = null;
+        Map<UUID, Set<UUID>> employeesByTeam = new HashMap<>();
+
+        try (Stream<Object[]> rows = ratingRepository.streamRatingsInChronologicalOrder(first.start(), last.end())) {
+            Iterator<LatestRating> ratings = rows.map(LatestRating::fromRow).iterator();
+            LatestRating next = ratings.hasNext() ? ratings.next() : null;
+
+            for (TrendWeek week = first; !week.startDate().isAfter(last.startDate()); week = week.next()) {
+                // Ratings arrive in date order, so the last one seen per key is the week's latest
+                Map<RatingKey, LatestRating> latest = new HashMap<>();
+                while (next != null && !next.ratingDate().isAfter(week.endDate())) {
+                    latest.put(new RatingKey(next.employeeId(), next.category()), next);
+                    next = ratings.hasNext() ? ratings.next() : null;
+                }
+
+                List<LatestRating> weekRatings = List.copyOf(latest.values());
+                TrendHistory history = window.historyFor(week);
+                AnalyticsProcessingPartitionModel partition = pendingByWeek.get(week.startDate());
+
+                WeeklyTrendResult result = partition != null
+                        ? writeWeek(partition, week, weekRatings, history)
+                        : null;
+                if (result != null) {
+                    firstWritten = firstWritten != null ? firstWritten : week;
+                    collectSeries(result, employeesByTeam);
+                } else {
+                    result = aggregator.aggregate(weekRatings, history, week.end(),
+                            teamRepository::getReferenceById, employeeRepository::getReferenceById);
+                }
+                window.addWeek(result);
+            }
+        }
+        return new WrittenWeeks(firstWritten, employeesByTeam);
+    }
+
+    private static void collectSeries(WeeklyTrendResult result, Map<UUID, Set<UUID>> employeesByTeam) {
+        for (TeamTrendDataModel trend : result.teamTrends()) {
+            employeesByTeam.computeIfAbsent(trend.getTeam().getId(), id -> new HashSet<>());
+        }
+        for (EmployeeTrendDataModel trend : result.employeeTrends()) {
+            UUID teamId = trend.getTeam() != null ? trend.getTeam().getId() : null;
+            employeesByTeam.computeIfAbsent(teamId, id -> new HashSet<>()).add(trend.getEmployee().getId());
+        }
+    }
+
+    private WeeklyTrendResult writeWeek(AnalyticsProcessingPartitionModel partition, TrendWeek week,
+                                        List<LatestRating> ratings, TrendHistory history) {
+        try {
+            WeeklyTrendResult result = weekWriter.write(partition, week, ratings, history);
+            metrics.rowsWritten(TrendJobMetrics.JOB_BACKFILL, result.teamTrends().size() + result.employeeTrends().size());
+            return result;
+        } catch (Exception e) {
+            log.error("Error backfilling weekly trends for week ending {}: {}", week.endDate(), e.getMessage(), e);
+            weekWriter.markFailed(partition, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Load the stored trend rows a quarter back from the first week, the furthest any comparison reaches
+     */
+    private RollingTrendWindow seedWindow(TrendWeek first) {
+        RollingTrendWindow window = new RollingTrendWindow();
+        OffsetDateTime from = first.start().minusWeeks(TrendHistoryLoader.LOOKBACK_WEEKS);
+        OffsetDateTime to = first.start().minusSeconds(1);
+
+        for (Object[] row : teamTrendDataRepository.findAveragesByRecordDateBetween(from, to)) {
+            window.addTeamAverage((UUID) row[0], (CampsCategory) row[1], (OffsetDateTime) row[2], (Double) row[3],
+                    (TrendSeriesStatistics) row[4]);
+        }
+        for (Object[] row : employeeTrendDataRepository.findRatingsByRecordDateBetween(from, to)) {
+            window.addEmployeeRating((UUID) row[0], (CampsCategory) row[1], (OffsetDateTime) row[2], (Double) row[3],
+                    (TrendSeriesStatistics) row[4]);
+        }
+        return window;
+    }
+
+    private record RatingKey(UUID employeeId, CampsCategory category) {
+    }
+}
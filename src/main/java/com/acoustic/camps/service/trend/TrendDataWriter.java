@@ -0,0 +1,201 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.model.EmployeeTrendDataModel;
+import com.acoustic.camps.model.TeamTrendDataModel;
+import com.acoustic.camps.model.TrendSeriesStatistics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Bulk writer for trend rows.
+ * <p>
+ * Rows are upserted on their (team or employee, category, record date, aggregation period) key and sent as JDBC
+ * batches of {@code batchSize} statements, so recalculating a period overwrites its rows in place instead of
+ * adding duplicates. The JDBC statements join the caller's transaction; the entities passed in are not attached
+ * to the persistence context and keep a null ID.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendDataWriter {
+
+    private static final String SERIES_COLUMNS =
+            "series_count, series_mean, series_m2, ewma, ewm_variance, slope_weight, slope_sum_x, slope_sum_xx, " +
+                    "slope_sum_y, slope_sum_xy, volatility_score, stability_rating, trend_direction, " +
+                    "seasonality_detected";
+
+    private static final String SERIES_PARAMETERS = "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?";
+
+    private static final String SERIES_UPDATES =
+            "series_count = EXCLUDED.series_count, " +
+                    "series_mean = EXCLUDED.series_mean, " +
+                    "series_m2 = EXCLUDED.series_m2, " +
+                    "ewma = EXCLUDED.ewma, " +
+                    "ewm_variance = EXCLUDED.ewm_variance, " +
+                    "slope_weight = EXCLUDED.slope_weight, " +
+                    "slope_sum_x = EXCLUDED.slope_sum_x, " +
+                    "slope_sum_xx = EXCLUDED.slope_sum_xx, " +
+                    "slope_sum_y = EXCLUDED.slope_sum_y, " +
+                    "slope_sum_xy = EXCLUDED.slope_sum_xy, " +
+                    "volatility_score = EXCLUDED.volatility_score, " +
+                    "stability_rating = EXCLUDED.stability_rating, " +
+                    "trend_direction = EXCLUDED.trend_direction, " +
+                    "seasonality_detected = EXCLUDED.seasonality_detected, ";
+
+    private static final String UPSERT_TEAM_TREND =
+            "INSERT INTO team_trend_data (id, team_id, record_date, category, aggregation_period, average_rating, " +
+                    "previous_average_rating, week_over_week_change, month_over_month_change, " +
+                    "quarter_over_quarter_change, year_over_year_change, four_week_average, twelve_week_average, " +
+                    "six_month_average, " + SERIES_COLUMNS + ", employee_count, data_points, rating_sum, rating_count, " +
+                    "rating_sum_squares, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, " + SERIES_PARAMETERS + ", ?, ?, ?, ?, ?, " +
+                    "CURRENT_TIMESTAMP) " +
+                    "ON CONFLICT (team_id, category, record_date, aggregation_period) DO UPDATE SET " +
+                    "average_rating = EXCLUDED.average_rating, " +
+                    "previous_average_rating = EXCLUDED.previous_average_rating, " +
+                    "week_over_week_change = EXCLUDED.week_over_week_change, " +
+                    "month_over_month_change = EXCLUDED.month_over_month_change, " +
+                    "quarter_over_quarter_change = EXCLUDED.quarter_over_quarter_change, " +
+                    "year_over_year_change = EXCLUDED.year_over_year_change, " +
+                    "four_week_average = EXCLUDED.four_week_average, " +
+                    "twelve_week_average = EXCLUDED.twelve_week_average, " +
+                    "six_month_average = EXCLUDED.six_month_average, " +
+                    SERIES_UPDATES +
+                    "employee_count = EXCLUDED.employee_count, " +
+                    "data_points = EXCLUDED.data_points, " +
+                    "rating_sum = EXCLUDED.rating_sum, " +
+                    "rating_count = EXCLUDED.rating_count, " +
+                    "rating_sum_squares = EXCLUDED.rating_sum_squares, " +
+                    "created_at = EXCLUDED.created_at";
+
+    private static final String UPSERT_EMPLOYEE_TREND =
+            "INSERT INTO employee_trend_data (id, employee_id, team_id, record_date, category, aggregation_period, " +
+                    "rating, previous_rating, week_over_week_change, month_over_month_change, " +
+                    "quarter_over_quarter_change, year_over_year_change, four_week_average, twelve_week_average, " +
+                    "six_month_average, " + SERIES_COLUMNS + ", latest_rating_date, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, " + SERIES_PARAMETERS + ", ?, " +
+                    "CURRENT_TIMESTAMP) " +
+                    "ON CONFLICT (employee_id, category, record_date, aggregation_period) DO UPDATE SET " +
+                    "team_id = EXCLUDED.team_id, " +
+                    "rating = EXCLUDED.rating, " +
+                    "previous_rating = EXCLUDED.previous_rating, " +
+                    "week_over_week_change = EXCLUDED.week_over_week_change, " +
+                    "month_over_month_change = EXCLUDED.month_over_month_change, " +
+                    "quarter_over_quarter_change = EXCLUDED.quarter_over_quarter_change, " +
+                    "year_over_year_change = EXCLUDED.year_over_year_change, " +
+                    "four_week_average = EXCLUDED.four_week_average, " +
+                    "twelve_week_average = EXCLUDED.twelve_week_average, " +
+                    "six_month_average = EXCLUDED.six_month_average, " +
+                    SERIES_UPDATES +
+                    "latest_rating_date = EXCLUDED.latest_rating_date, " +
+                    "created_at = EXCLUDED.created_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${analytics.trends.write-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Insert or overwrite team trend rows
+     *
+     * @param rows The team trends to write
+     * @return Number of rows written
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int writeTeamTrends(Collection<TeamTrendDataModel> rows) {
+        jdbcTemplate.batchUpdate(UPSERT_TEAM_TREND, rows, batchSize, (ps, row) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, row.getTeam().getId());
+            ps.setObject(3, row.getRecordDate().toLocalDate());
+            ps.setString(4, row.getCategory().name());
+            ps.setString(5, row.getAggregationPeriod().name());
+            ps.setDouble(6, row.getAverageRating());
+            setDouble(ps, 7, row.getPreviousAverageRating());
+            setDouble(ps, 8, row.getWeekOverWeekChange());
+            setDouble(ps, 9, row.getMonthOverMonthChange());
+            setDouble(ps, 10, row.getQuarterOverQuarterChange());
+            setDouble(ps, 11, row.getYearOverYearChange());
+            setDouble(ps, 12, row.getFourWeekAverage());
+            setDouble(ps, 13, row.getTwelveWeekAverage());
+            setDouble(ps, 14, row.getSixMonthAverage());
+            setSeriesStatistics(ps, 15, row.getSeriesStatistics());
+            ps.setObject(29, row.getEmployeeCount(), Types.INTEGER);
+            ps.setObject(30, row.getDataPoints(), Types.INTEGER);
+            ps.setLong(31, row.getRatingSum());
+            ps.setInt(32, row.getRatingCount());
+            ps.setObject(33, row.getRatingSumSquares(), Types.BIGINT);
+        });
+        log.debug("Upserted {} team trend rows", rows.size());
+        return rows.size();
+    }
+
+    /**
+     * Insert or overwrite employee trend rows
+     *
+     * @param rows The employee trends to write
+     * @return Number of rows written
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int writeEmployeeTrends(Collection<EmployeeTrendDataModel> rows) {
+        jdbcTemplate.batchUpdate(UPSERT_EMPLOYEE_TREND, rows, batchSize, (ps, row) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, row.getEmployee().getId());
+            ps.setObject(3, row.getTeam() != null ? row.getTeam().getId() : null, Types.OTHER);
+            ps.setObject(4, row.getRecordDate().toLocalDate());
+            ps.setString(5, row.getCategory().name());
+            ps.setString(6, row.getAggregationPeriod().name());
+            ps.setDouble(7, row.getRating());
+            setDouble(ps, 8, row.getPreviousRating());
+            setDouble(ps, 9, row.getWeekOverWeekChange());
+            setDouble(ps, 10, row.getMonthOverMonthChange());
+            setDouble(ps, 11, row.getQuarterOverQuarterChange());
+            setDouble(ps, 12, row.getYearOverYearChange());
+            setDouble(ps, 13, row.getFourWeekAverage());
+            setDouble(ps, 14, row.getTwelveWeekAverage());
+            setDouble(ps, 15, row.getSixMonthAverage());
+            setSeriesStatistics(ps, 16, row.getSeriesStatistics());
+            OffsetDateTime latestRatingDate = row.getLatestRatingDate();
+            ps.setObject(30, latestRatingDate != null ? latestRatingDate.toLocalDate() : null, Types.DATE);
+        });
+        log.debug("Upserted {} employee trend rows", rows.size());
+        return rows.size();
+    }
+
+    /**
+     * Bind the 14 series statistics parameters starting at an index, all null if the row has none
+     */
+    private static void setSeriesStatistics(PreparedStatement ps, int index, TrendSeriesStatistics statistics)
+            throws SQLException {
+        TrendSeriesStatistics values = statistics != null ? statistics : new TrendSeriesStatistics();
+        ps.setObject(index, values.getCount(), Types.INTEGER);
+        setDouble(ps, index + 1, values.getMean());
+        setDouble(ps, index + 2, values.getM2());
+        setDouble(ps, index + 3, values.getEwma());
+        setDouble(ps, index + 4, values.getEwmVariance());
+        setDouble(ps, index + 5, values.getSlopeWeight());
+        setDouble(ps, index + 6, values.getSlopeSumX());
+        setDouble(ps, index + 7, values.getSlopeSumXx());
+        setDouble(ps, index + 8, values.getSlopeSumY());
+        setDouble(ps, index + 9, values.getSlopeSumXy());
+        setDouble(ps, index + 10, values.getVolatilityScore());
+        ps.setString(index + 11, values.getStabilityRating() != null ? values.getStabilityRating().name() : null);
+        ps.setString(index + 12, values.getTrendDirection() != null ? values.getTrendDirection().name() : null);
+        ps.setObject(index + 13, values.getSeasonalityDetected(), Types.BOOLEAN);
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        ps.setObject(index, value, Types.DOUBLE);
+    }
+}
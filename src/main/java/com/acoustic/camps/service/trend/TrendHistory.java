@@ -0,0 +1,80 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory index of the prior-period trend values used for week, month and quarter comparisons,
+ * and of the running state of each series (rolling averages and streaming statistics).
+ * Loaded once per weekly run so the calculation never goes back to the database per team or employee.
+ */
+public class TrendHistory {
+
+    private final Map<HistoryKey, Double> teamAverages = new HashMap<>();
+    private final Map<HistoryKey, Double> employeeRatings = new HashMap<>();
+    private final Map<SeriesKey, TrendSeries> teamSeries;
+    private final Map<SeriesKey, TrendSeries> employeeSeries;
+
+    public TrendHistory() {
+        this(new HashMap<>(), new HashMap<>());
+    }
+
+    /**
+     * Create a history sharing series state that outlives it, as a backfill walking forward does
+     */
+    TrendHistory(Map<SeriesKey, TrendSeries> teamSeries, Map<SeriesKey, TrendSeries> employeeSeries) {
+        this.teamSeries = teamSeries;
+        this.employeeSeries = employeeSeries;
+    }
+
+    /**
+     * Record a team average for a comparison window. Later calls win, so rows should be added in record date order.
+     */
+    public void putTeamAverage(UUID teamId, CampsCategory category, ComparisonWindow window, Double averageRating) {
+        teamAverages.put(new HistoryKey(teamId, category, window), averageRating);
+    }
+
+    /**
+     * Record an employee rating for a comparison window. Later calls win, so rows should be added in record date order.
+     */
+    public void putEmployeeRating(UUID employeeId, CampsCategory category, ComparisonWindow window, Double rating) {
+        employeeRatings.put(new HistoryKey(employeeId, category, window), rating);
+    }
+
+    /**
+     * @return The team average for the window, or null if the team had no trend row then
+     */
+    public Double teamAverage(UUID teamId, CampsCategory category, ComparisonWindow window) {
+        return teamAverages.get(new HistoryKey(teamId, category, window));
+    }
+
+    /**
+     * @return The employee rating for the window, or null if the employee had no trend row then
+     */
+    public Double employeeRating(UUID employeeId, CampsCategory category, ComparisonWindow window) {
+        return employeeRatings.get(new HistoryKey(employeeId, category, window));
+    }
+
+    /**
+     * @return The series state of a team and category, created empty on first use
+     */
+    public TrendSeries teamSeries(UUID teamId, CampsCategory category) {
+        return teamSeries.computeIfAbsent(new SeriesKey(teamId, category), key -> new TrendSeries());
+    }
+
+    /**
+     * @return The series state of an employee and category, created empty on first use
+     */
+    public TrendSeries employeeSeries(UUID employeeId, CampsCategory category) {
+        return employeeSeries.computeIfAbsent(new SeriesKey(employeeId, category), key -> new TrendSeries());
+    }
+
+    record SeriesKey(UUID id, CampsCategory category) {
+    }
+
+    private record HistoryKey(UUID id, CampsCategory category, ComparisonWindow window) {
+    }
+}
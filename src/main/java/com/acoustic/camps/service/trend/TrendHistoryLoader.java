@@ -0,0 +1,84 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.model.TrendSeriesStatistics;
+import com.acoustic.camps.repository.EmployeeTrendDataRepository;
+import com.acoustic.camps.repository.TeamTrendDataRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Loads the previous week, month and quarter trend rows a week is compared against,
+ * and the previous 25 weeks its rolling averages and series statistics are built from
+ */
+@Component
+@RequiredArgsConstructor
+public class TrendHistoryLoader {
+
+    /**
+     * Weeks before the calculated one that the six month average covers; the quarter comparison lies within them
+     */
+    static final int LOOKBACK_WEEKS = 25;
+
+    private final TeamTrendDataRepository teamTrendDataRepository;
+    private final EmployeeTrendDataRepository employeeTrendDataRepository;
+
+    /**
+     * Load the history of a team and a set of employees with one query each
+     *
+     * @param teamId      The team's ID, or null to skip team history
+     * @param employeeIds The employees' IDs, may be empty
+     * @param startDate   Start of the week being calculated
+     * @param endDate     End of the week being calculated
+     * @return The comparison history and series state
+     */
+    public TrendHistory load(UUID teamId, Collection<UUID> employeeIds,
+                             OffsetDateTime startDate, OffsetDateTime endDate) {
+        TrendHistory history = new TrendHistory();
+        OffsetDateTime fromDate = startDate.minusWeeks(LOOKBACK_WEEKS);
+        OffsetDateTime toDate = startDate.minusSeconds(1);
+
+        if (teamId != null) {
+            List<Object[]> teamRows = teamTrendDataRepository.findHistoryAverages(teamId, fromDate, toDate);
+
+            for (Object[] row : teamRows) {
+                UUID id = (UUID) row[0];
+                CampsCategory category = (CampsCategory) row[1];
+                OffsetDateTime recordDate = (OffsetDateTime) row[2];
+                Double averageRating = (Double) row[3];
+
+                ComparisonWindow window = ComparisonWindow.containing(recordDate, startDate, endDate);
+                if (window != null) {
+                    history.putTeamAverage(id, category, window, averageRating);
+                }
+                history.teamSeries(id, category)
+                        .addStoredWeek(recordDate.toLocalDate(), averageRating, (TrendSeriesStatistics) row[4]);
+            }
+        }
+
+        if (!employeeIds.isEmpty()) {
+            List<Object[]> employeeRows = employeeTrendDataRepository.findHistoryRatings(employeeIds, fromDate, toDate);
+
+            for (Object[] row : employeeRows) {
+                UUID id = (UUID) row[0];
+                CampsCategory category = (CampsCategory) row[1];
+                OffsetDateTime recordDate = (OffsetDateTime) row[2];
+                Double rating = (Double) row[3];
+
+                ComparisonWindow window = ComparisonWindow.containing(recordDate, startDate, endDate);
+                if (window != null) {
+                    history.putEmployeeRating(id, category, window, rating);
+                }
+                history.employeeSeries(id, category)
+                        .addStoredWeek(recordDate.toLocalDate(), rating, (TrendSeriesStatistics) row[4]);
+            }
+        }
+
+        return history;
+    }
+}
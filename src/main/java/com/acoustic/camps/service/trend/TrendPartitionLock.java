@@ -0,0 +1,41 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.repository.TeamRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Serialises the writers of one weekly trend partition, so an incremental update and the weekly job never interleave
+ * on the same rows. A team is locked through its row; employees without a team share a transaction-scoped advisory
+ * lock, as there is no row standing for them all. Both locks are released when the caller's transaction ends.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrendPartitionLock {
+
+    private static final long TEAMLESS_LOCK_KEY = "camps.teamless-trends".hashCode();
+
+    private final TeamRepository teamRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Lock a partition until the current transaction ends, waiting for any other holder
+     *
+     * @param teamId The team's ID, or null for employees without a team
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(UUID teamId) {
+        if (teamId != null) {
+            teamRepository.findByIdForUpdate(teamId);
+        } else {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", (RowCallbackHandler) result -> {
+            }, TEAMLESS_LOCK_KEY);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.model.TrendSeriesStatistics;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Running state of one (team or employee, category) weekly series: the recent values behind its rolling averages
+ * and the streaming statistics of its latest stored week
+ */
+@Getter
+public class TrendSeries {
+
+    private final RollingAverageBuffer rolling = new RollingAverageBuffer();
+
+    /**
+     * Statistics of the latest stored week before the one being calculated, or null for a new series
+     */
+    @Setter
+    private TrendSeriesStatistics statistics;
+
+    /**
+     * Record a stored week, in record date order
+     *
+     * @param recordDate The week's record date
+     * @param value      The week's value
+     * @param statistics The week's statistics; null keeps the previous ones, as rows written before the
+     *                   statistics existed carry none
+     */
+    public void addStoredWeek(LocalDate recordDate, Double value, TrendSeriesStatistics statistics) {
+        rolling.put(recordDate, value);
+        if (statistics != null) {
+            this.statistics = statistics;
+        }
+    }
+}
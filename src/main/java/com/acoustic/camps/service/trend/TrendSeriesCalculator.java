@@ -0,0 +1,160 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.codegen.types.StabilityRating;
+import com.acoustic.camps.codegen.types.TrendDirection;
+import com.acoustic.camps.model.TrendSeriesStatistics;
+
+/**
+ * Advances the streaming statistics of a weekly series by one value.
+ * <p>
+ * Every statistic is a single-pass update of the previous week's state, so a new week costs O(1) per series:
+ * <ul>
+ *     <li>Welford's running mean and variance over the whole series</li>
+ *     <li>an exponentially weighted mean and variance for recent volatility</li>
+ *     <li>exponentially weighted least-squares sums for the recent slope, re-centred on the newest week each step</li>
+ * </ul>
+ * Steps count stored weeks, so a series with a gap treats the weeks either side as adjacent.
+ */
+public final class TrendSeriesCalculator {
+
+    /**
+     * EWMA smoothing factor, roughly a six week memory
+     */
+    static final double EWMA_ALPHA = 0.3;
+
+    /**
+     * Per-week decay of the slope sums, roughly a ten week memory
+     */
+    static final double SLOPE_DECAY = 0.9;
+
+    /**
+     * Below this many weeks the exponentially weighted variance is too young, so Welford's is used instead
+     */
+    private static final int WARM_UP_WEEKS = 4;
+
+    /**
+     * Standard deviation, in rating points, at which the volatility score reaches 1
+     */
+    private static final double VOLATILITY_SATURATION = 2.0;
+
+    /**
+     * Slopes, in rating points per week, separating stable, moving and strongly moving series
+     */
+    private static final double STABLE_SLOPE = 0.05;
+    private static final double STRONG_SLOPE = 0.2;
+
+    /**
+     * A quarterly cycle shows as a correlation with the value 13 weeks earlier
+     */
+    private static final int SEASONAL_LAG = 13;
+    private static final int SEASONAL_MIN_PAIRS = 8;
+    private static final double SEASONAL_CORRELATION = 0.5;
+
+    private TrendSeriesCalculator() {
+    }
+
+    /**
+     * Compute the statistics of a series after one more week
+     *
+     * @param previous The statistics of the previous stored week, or null to start a new series
+     * @param value    The new week's value
+     * @param rolling  The series' rolling buffer, already holding the new value; used for seasonality
+     * @return The new week's statistics; the previous ones are left untouched
+     */
+    public static TrendSeriesStatistics advance(TrendSeriesStatistics previous, double value,
+                                                RollingAverageBuffer rolling) {
+        boolean first = previous == null || previous.getCount() == null || previous.getCount() == 0;
+
+        int count;
+        double mean, m2, ewma, ewmVariance, weight, sumX, sumXx, sumY, sumXy;
+        if (first) {
+            count = 1;
+            mean = value;
+            m2 = 0;
+            ewma = value;
+            ewmVariance = 0;
+            weight = 1;
+            sumX = 0;
+            sumXx = 0;
+            sumY = value;
+            sumXy = 0;
+        } else {
+            // Welford
+            count = previous.getCount() + 1;
+            double delta = value - previous.getMean();
+            mean = previous.getMean() + delta / count;
+            m2 = previous.getM2() + delta * (value - mean);
+
+            // Exponentially weighted mean and variance
+            double diff = value - previous.getEwma();
+            double increment = EWMA_ALPHA * diff;
+            ewma = previous.getEwma() + increment;
+            ewmVariance = (1 - EWMA_ALPHA) * (previous.getEwmVariance() + diff * increment);
+
+            // Shift every earlier week one step back along x, decay it, then add the new week at x = 0
+            double oldWeight = previous.getSlopeWeight();
+            double oldX = previous.getSlopeSumX();
+            double oldY = previous.getSlopeSumY();
+            weight = SLOPE_DECAY * oldWeight + 1;
+            sumX = SLOPE_DECAY * (oldX - oldWeight);
+            sumXx = SLOPE_DECAY * (previous.getSlopeSumXx() - 2 * oldX + oldWeight);
+            sumY = SLOPE_DECAY * oldY + value;
+            sumXy = SLOPE_DECAY * (previous.getSlopeSumXy() - oldY);
+        }
+
+        double variance = count < WARM_UP_WEEKS
+                ? (count > 1 ? m2 / (count - 1) : 0)
+                : ewmVariance;
+        double volatilityScore = Math.min(1.0, Math.sqrt(variance) / VOLATILITY_SATURATION);
+
+        double denominator = weight * sumXx - sumX * sumX;
+        double slope = count >= 3 && denominator > 1e-9
+                ? (weight * sumXy - sumX * sumY) / denominator
+                : 0;
+
+        Double seasonalCorrelation = rolling != null ? rolling.lagCorrelation(SEASONAL_LAG, SEASONAL_MIN_PAIRS) : null;
+
+        return TrendSeriesStatistics.builder()
+                .count(count)
+                .mean(mean)
+                .m2(m2)
+                .ewma(ewma)
+                .ewmVariance(ewmVariance)
+                .slopeWeight(weight)
+                .slopeSumX(sumX)
+                .slopeSumXx(sumXx)
+                .slopeSumY(sumY)
+                .slopeSumXy(sumXy)
+                .volatilityScore(volatilityScore)
+                .stabilityRating(stabilityRating(volatilityScore))
+                .trendDirection(trendDirection(slope))
+                .seasonalityDetected(seasonalCorrelation != null && seasonalCorrelation >= SEASONAL_CORRELATION)
+                .build();
+    }
+
+    static StabilityRating stabilityRating(double volatilityScore) {
+        if (volatilityScore < 0.1) {
+            return StabilityRating.VERY_STABLE;
+        } else if (volatilityScore < 0.25) {
+            return StabilityRating.STABLE;
+        } else if (volatilityScore < 0.5) {
+            return StabilityRating.MODERATE;
+        } else if (volatilityScore < 0.75) {
+            return StabilityRating.VOLATILE;
+        }
+        return StabilityRating.VERY_VOLATILE;
+    }
+
+    static TrendDirection trendDirection(double slope) {
+        if (slope >= STRONG_SLOPE) {
+            return TrendDirection.STRONGLY_INCREASING;
+        } else if (slope >= STABLE_SLOPE) {
+            return TrendDirection.INCREASING;
+        } else if (slope > -STABLE_SLOPE) {
+            return TrendDirection.STABLE;
+        } else if (slope > -STRONG_SLOPE) {
+            return TrendDirection.DECREASING;
+        }
+        return TrendDirection.STRONGLY_DECREASING;
+    }
+}
@@ -0,0 +1,192 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.codegen.types.AggregationPeriod;
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.model.EmployeeTrendDataModel;
+import com.acoustic.camps.model.TeamTrendDataModel;
+import com.acoustic.camps.repository.EmployeeTrendDataRepository;
+import com.acoustic.camps.repository.TeamTrendDataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Re-derives the comparisons, rolling averages and series statistics of stored weekly trend rows after the value
+ * of one week changed outside the weekly job.
+ * <p>
+ * Each of those fields is built from the rows before it, so a changed week leaves every later row of its series
+ * stale, and the weekly job only ever recalculates the last complete week. A week's value only depends on the
+ * ratings within it, so the later rows keep their values; the series is walked forward from the changed week through
+ * a {@link RollingTrendWindow} seeded with the rows before it, and each row is derived again as the weekly job would.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendSeriesRefresher {
+
+    // Keeps IN lists well below the PostgreSQL bind parameter limit
+    private static final int EMPLOYEE_CHUNK_SIZE = 1000;
+
+    private final TeamTrendDataRepository teamTrendDataRepository;
+    private final EmployeeTrendDataRepository employeeTrendDataRepository;
+    private final TrendPartitionLock partitionLock;
+
+    /**
+     * Re-derive a saved team row and every later row of its series
+     *
+     * @param teamId  The team's ID
+     * @param changed The row whose average changed, already saved
+     * @return Number of rows re-derived
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int refreshTeamSeries(UUID teamId, TeamTrendDataModel changed) {
+        CampsCategory category = changed.getCategory();
+        LocalDate changedDate = changed.getRecordDate().toLocalDate();
+        List<TeamTrendDataModel> rows = teamTrendDataRepository
+                .findByTeamIdAndCategoryAndAggregationPeriodAndRecordDateGreaterThanEqualOrderByRecordDateAsc(
+                        teamId, category, AggregationPeriod.WEEKLY, lookbackStart(changed.getRecordDate()));
+
+        List<TeamTrendDataModel> refreshed = deriveTeamSeries(teamId, rows, changedDate);
+        teamTrendDataRepository.saveAll(refreshed);
+        log.debug("Re-derived {} weekly trend rows of team {} in {} from {}", refreshed.size(), teamId, category, changedDate);
+        return refreshed.size();
+    }
+
+    /**
+     * Re-derive a saved employee row and every later row of its series
+     *
+     * @param employeeId The employee's ID
+     * @param changed    The row whose rating changed, already saved
+     * @return Number of rows re-derived
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int refreshEmployeeSeries(UUID employeeId, EmployeeTrendDataModel changed) {
+        CampsCategory category = changed.getCategory();
+        LocalDate changedDate = changed.getRecordDate().toLocalDate();
+        List<EmployeeTrendDataModel> rows = employeeTrendDataRepository
+                .findByEmployeeIdAndCategoryAndAggregationPeriodAndRecordDateGreaterThanEqualOrderByRecordDateAsc(
+                        employeeId, category, AggregationPeriod.WEEKLY, lookbackStart(changed.getRecordDate()));
+
+        List<EmployeeTrendDataModel> refreshed = deriveEmployeeSeries(employeeId, rows, changedDate);
+        employeeTrendDataRepository.saveAll(refreshed);
+        log.debug("Re-derived {} weekly trend rows of employee {} in {} from {}",
+                refreshed.size(), employeeId, category, changedDate);
+        return refreshed.size();
+    }
+
+    /**
+     * Re-derive every weekly row of a partition from a week onwards, after several of its weeks were written at once
+     * by an import or a backfill. Each series is loaded with one query per team and chunk of employees.
+     *
+     * @param teamId      The team's ID, or null for employees without a team
+     * @param employeeIds The employees whose weeks were written; the series of the others did not change
+     * @param week        The earliest written week
+     * @return Number of rows re-derived
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int refreshPartition(UUID teamId, Collection<UUID> employeeIds, TrendWeek week) {
+        partitionLock.lock(teamId);
+        LocalDate changedDate = week.endDate();
+        OffsetDateTime lookbackStart = week.start().minusWeeks(TrendHistoryLoader.LOOKBACK_WEEKS);
+
+        int refreshed = 0;
+        if (teamId != null) {
+            Map<CampsCategory, List<TeamTrendDataModel>> seriesByCategory = new EnumMap<>(CampsCategory.class);
+            for (TeamTrendDataModel row : teamTrendDataRepository
+                    .findByTeamIdAndAggregationPeriodAndRecordDateGreaterThanEqualOrderByRecordDateAsc(
+                            teamId, AggregationPeriod.WEEKLY, lookbackStart)) {
+                seriesByCategory.computeIfAbsent(row.getCategory(), category -> new ArrayList<>()).add(row);
+            }
+            for (List<TeamTrendDataModel> series : seriesByCategory.values()) {
+                List<TeamTrendDataModel> rows = deriveTeamSeries(teamId, series, changedDate);
+                teamTrendDataRepository.saveAll(rows);
+                refreshed += rows.size();
+            }
+        }
+
+        List<UUID> ids = new ArrayList<>(employeeIds);
+        for (int from = 0; from < ids.size(); from += EMPLOYEE_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + EMPLOYEE_CHUNK_SIZE, ids.size()));
+            Map<TrendHistory.SeriesKey, List<EmployeeTrendDataModel>> seriesByKey = new HashMap<>();
+            for (EmployeeTrendDataModel row : employeeTrendDataRepository
+                    .findByEmployeeIdInAndAggregationPeriodAndRecordDateGreaterThanEqualOrderByRecordDateAsc(
+                            chunk, AggregationPeriod.WEEKLY, lookbackStart)) {
+                seriesByKey.computeIfAbsent(new TrendHistory.SeriesKey(row.getEmployee().getId(), row.getCategory()),
+                        key -> new ArrayList<>()).add(row);
+            }
+            for (Map.Entry<TrendHistory.SeriesKey, List<EmployeeTrendDataModel>> series : seriesByKey.entrySet()) {
+                List<EmployeeTrendDataModel> rows = deriveEmployeeSeries(series.getKey().id(), series.getValue(),
+                        changedDate);
+                employeeTrendDataRepository.saveAll(rows);
+                refreshed += rows.size();
+            }
+        }
+
+        log.debug("Re-derived {} weekly trend rows of team {} from {}", refreshed, teamId, changedDate);
+        return refreshed;
+    }
+
+    /**
+     * Walk one team series in record date order, deriving the rows from the changed date onwards
+     *
+     * @return The re-derived rows
+     */
+    private static List<TeamTrendDataModel> deriveTeamSeries(UUID teamId, List<TeamTrendDataModel> rows,
+                                                             LocalDate changedDate) {
+        RollingTrendWindow window = new RollingTrendWindow();
+        List<TeamTrendDataModel> refreshed = new ArrayList<>();
+        for (TeamTrendDataModel row : rows) {
+            OffsetDateTime recordDate = row.getRecordDate();
+            if (!recordDate.toLocalDate().isBefore(changedDate)) {
+                TrendWeek week = TrendWeek.containing(recordDate.toLocalDate(), recordDate.getOffset());
+                WeeklyTrendAggregator.deriveTeamTrend(row, teamId, window.historyFor(week));
+                refreshed.add(row);
+            }
+            window.addTeamAverage(teamId, row.getCategory(), recordDate, row.getAverageRating(),
+                    row.getSeriesStatistics());
+        }
+        return refreshed;
+    }
+
+    /**
+     * Walk one employee series in record date order, deriving the rows from the changed date onwards
+     *
+     * @return The re-derived rows
+     */
+    private static List<EmployeeTrendDataModel> deriveEmployeeSeries(UUID employeeId, List<EmployeeTrendDataModel> rows,
+                                                                     LocalDate changedDate) {
+        RollingTrendWindow window = new RollingTrendWindow();
+        List<EmployeeTrendDataModel> refreshed = new ArrayList<>();
+        for (EmployeeTrendDataModel row : rows) {
+            OffsetDateTime recordDate = row.getRecordDate();
+            if (!recordDate.toLocalDate().isBefore(changedDate)) {
+                TrendWeek week = TrendWeek.containing(recordDate.toLocalDate(), recordDate.getOffset());
+                WeeklyTrendAggregator.deriveEmployeeTrend(row, employeeId, window.historyFor(week));
+                refreshed.add(row);
+            }
+            window.addEmployeeRating(employeeId, row.getCategory(), recordDate, row.getRating(),
+                    row.getSeriesStatistics());
+        }
+        return refreshed;
+    }
+
+    /**
+     * The earliest record date the changed week's history reaches, as loaded by {@link TrendHistoryLoader}
+     */
+    private static OffsetDateTime lookbackStart(OffsetDateTime recordDate) {
+        return TrendWeek.containing(recordDate.toLocalDate(), recordDate.getOffset()).start()
+                .minusWeeks(TrendHistoryLoader.LOOKBACK_WEEKS);
+    }
+}
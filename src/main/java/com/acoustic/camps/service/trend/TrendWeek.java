@@ -0,0 +1,53 @@
+package com.acoustic.camps.service.trend;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * A calculation week, from Monday at midnight to the last second of Sunday.
+ * Weekly trend rows are stamped with the week's end.
+ *
+ * @param start First instant of the week
+ * @param end   Last second of the week
+ */
+public record TrendWeek(OffsetDateTime start, OffsetDateTime end) {
+
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59);
+
+    /**
+     * @param date   Any day of the week
+     * @param offset Offset of the week's boundaries
+     * @return The week containing the date
+     */
+    public static TrendWeek containing(LocalDate date, ZoneOffset offset) {
+        LocalDate monday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return new TrendWeek(
+                monday.atStartOfDay().atOffset(offset),
+                monday.plusDays(6).atTime(END_OF_DAY).atOffset(offset));
+    }
+
+    /**
+     * @return The following week
+     */
+    public TrendWeek next() {
+        return new TrendWeek(start.plusWeeks(1), end.plusWeeks(1));
+    }
+
+    /**
+     * @return The Monday of the week
+     */
+    public LocalDate startDate() {
+        return start.toLocalDate();
+    }
+
+    /**
+     * @return The Sunday of the week
+     */
+    public LocalDate endDate() {
+        return end.toLocalDate();
+    }
+}
@@ -0,0 +1,188 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.model.EmployeeModel;
+import com.acoustic.camps.model.EmployeeTrendDataModel;
+import com.acoustic.camps.model.TeamModel;
+import com.acoustic.camps.model.TeamTrendDataModel;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Computes team and employee weekly trend rows in memory from the latest rating per (employee, category).
+ * <p>
+ * Performs no I/O, so a whole week for the organisation is a single pass over the ratings.
+ * The supplied {@link TrendHistory} is updated in place: each row's value is put into its series' rolling buffer
+ * before the averages are read. Series statistics are advanced from the previous stored week's without changing
+ * the history's copy.
+ */
+public class WeeklyTrendAggregator {
+
+    private static final int CATEGORY_COUNT = CampsCategory.values().length;
+
+    /**
+     * Build the trend rows for one week
+     *
+     * @param ratings      Latest rating per (employee, category) within the week
+     * @param history      Prior-period trend values; its rolling buffers receive this week's values
+     * @param recordDate   Record date to stamp on every row (end of the week)
+     * @param teamRef      Resolves a team ID to a (possibly lazy) team reference
+     * @param employeeRef  Resolves an employee ID to a (possibly lazy) employee reference
+     * @return The team and employee trend rows for the week
+     */
+    public WeeklyTrendResult aggregate(List<LatestRating> ratings,
+                                       TrendHistory history,
+                                       OffsetDateTime recordDate,
+                                       Function<UUID, TeamModel> teamRef,
+                                       Function<UUID, EmployeeModel> employeeRef) {
+
+        // Per team: [sum, count, sum of squares] for each category ordinal
+        Map<UUID, long[]> teamTotals = new LinkedHashMap<>();
+        List<EmployeeTrendDataModel> employeeTrends = new ArrayList<>(ratings.size());
+
+        for (LatestRating latest : ratings) {
+            if (latest.teamId() != null) {
+                long[] totals = teamTotals.computeIfAbsent(latest.teamId(), id -> new long[CATEGORY_COUNT * 3]);
+                int slot = latest.category().ordinal() * 3;
+                totals[slot] += latest.rating();
+                totals[slot + 1]++;
+                totals[slot + 2] += (long) latest.rating() * latest.rating();
+            }
+
+            employeeTrends.add(buildEmployeeTrend(latest, history, recordDate, teamRef, employeeRef));
+        }
+
+        List<TeamTrendDataModel> teamTrends = new ArrayList<>(teamTotals.size() * CATEGORY_COUNT);
+        CampsCategory[] categories = CampsCategory.values();
+
+        for (Map.Entry<UUID, long[]> entry : teamTotals.entrySet()) {
+            long[] totals = entry.getValue();
+            for (CampsCategory category : categories) {
+                int slot = category.ordinal() * 3;
+                int count = (int) totals[slot + 1];
+                if (count == 0) {
+                    continue;
+                }
+
+                teamTrends.add(buildTeamTrend(entry.getKey(), category, totals[slot], count, totals[slot + 2],
+                        history, recordDate, teamRef));
+            }
+        }
+
+        return new WeeklyTrendResult(teamTrends, employeeTrends);
+    }
+
+    private TeamTrendDataModel buildTeamTrend(UUID teamId, CampsCategory category, long sum, int count, long sumSquares,
+                                              TrendHistory history, OffsetDateTime recordDate,
+                                              Function<UUID, TeamModel> teamRef) {
+        TeamTrendDataModel trend = TeamTrendDataModel.builder()
+                .team(teamRef.apply(teamId))
+                .recordDate(recordDate)
+                .category(category)
+                .averageRating((double) sum / count)
+                .employeeCount(count)
+                .dataPoints(count)
+                .ratingSum(sum)
+                .ratingCount(count)
+                .ratingSumSquares(sumSquares)
+                .build();
+        deriveTeamTrend(trend, teamId, history);
+        return trend;
+    }
+
+    private EmployeeTrendDataModel buildEmployeeTrend(LatestRating latest, TrendHistory history,
+                                                      OffsetDateTime recordDate,
+                                                      Function<UUID, TeamModel> teamRef,
+                                                      Function<UUID, EmployeeModel> employeeRef) {
+        EmployeeTrendDataModel trend = EmployeeTrendDataModel.builder()
+                .employee(employeeRef.apply(latest.employeeId()))
+                .team(latest.teamId() != null ? teamRef.apply(latest.teamId()) : null)
+                .recordDate(recordDate)
+                .category(latest.category())
+                .rating((double) latest.rating())
+                .latestRatingDate(latest.ratingDate() != null
+                        ? latest.ratingDate().atStartOfDay().atOffset(recordDate.getOffset())
+                        : null)
+                .build();
+        deriveEmployeeTrend(trend, latest.employeeId(), history);
+        return trend;
+    }
+
+    /**
+     * Set the comparisons, rolling averages and series statistics of a team row from the history before its week,
+     * recording its average in the series' rolling buffer
+     *
+     * @param trend   The row, with its average and record date set
+     * @param teamId  The team's ID
+     * @param history Prior-period trend values of the row's week
+     */
+    static void deriveTeamTrend(TeamTrendDataModel trend, UUID teamId, TrendHistory history) {
+        CampsCategory category = trend.getCategory();
+        double averageRating = trend.getAverageRating();
+        Double previousWeekAvg = history.teamAverage(teamId, category, ComparisonWindow.PREVIOUS_WEEK);
+        Double previousMonthAvg = history.teamAverage(teamId, category, ComparisonWindow.PREVIOUS_MONTH);
+        Double previousQuarterAvg = history.teamAverage(teamId, category, ComparisonWindow.PREVIOUS_QUARTER);
+        TrendSeries series = history.teamSeries(teamId, category);
+        RollingAverageBuffer rolling = series.getRolling();
+        rolling.put(trend.getRecordDate().toLocalDate(), averageRating);
+
+        trend.setPreviousAverageRating(previousWeekAvg);
+        trend.setWeekOverWeekChange(change(averageRating, previousWeekAvg));
+        trend.setMonthOverMonthChange(change(averageRating, previousMonthAvg));
+        trend.setQuarterOverQuarterChange(change(averageRating, previousQuarterAvg));
+        trend.setFourWeekAverage(rolling.fourWeekAverage());
+        trend.setTwelveWeekAverage(rolling.twelveWeekAverage());
+        trend.setSixMonthAverage(rolling.sixMonthAverage());
+        trend.setSeriesStatistics(TrendSeriesCalculator.advance(series.getStatistics(), averageRating, rolling));
+    }
+
+    /**
+     * Set the comparisons, rolling averages and series statistics of an employee row from the history before its
+     * week, recording its rating in the series' rolling buffer
+     *
+     * @param trend      The row, with its rating and record date set
+     * @param employeeId The employee's ID
+     * @param history    Prior-period trend values of the row's week
+     */
+    static void deriveEmployeeTrend(EmployeeTrendDataModel trend, UUID employeeId, TrendHistory history) {
+        CampsCategory category = trend.getCategory();
+        double rating = trend.getRating();
+        Double previousWeekRating = history.employeeRating(employeeId, category, ComparisonWindow.PREVIOUS_WEEK);
+        Double previousMonthRating = history.employeeRating(employeeId, category, ComparisonWindow.PREVIOUS_MONTH);
+        Double previousQuarterRating = history.employeeRating(employeeId, category, ComparisonWindow.PREVIOUS_QUARTER);
+        TrendSeries series = history.employeeSeries(employeeId, category);
+        RollingAverageBuffer rolling = series.getRolling();
+        rolling.put(trend.getRecordDate().toLocalDate(), rating);
+
+        trend.setPreviousRating(previousWeekRating);
+        trend.setWeekOverWeekChange(change(rating, previousWeekRating));
+        trend.setMonthOverMonthChange(change(rating, previousMonthRating));
+        trend.setQuarterOverQuarterChange(change(rating, previousQuarterRating));
+        trend.setFourWeekAverage(rolling.fourWeekAverage());
+        trend.setTwelveWeekAverage(rolling.twelveWeekAverage());
+        trend.setSixMonthAverage(rolling.sixMonthAverage());
+        trend.setSeriesStatistics(TrendSeriesCalculator.advance(series.getStatistics(), rating, rolling));
+    }
+
+    /**
+     * Helper method to calculate change between the current value and a previous one
+     */
+    static Double change(double current, Double previous) {
+        return previous != null ? current - previous : null;
+    }
+
+    /**
+     * Trend rows produced for one week
+     *
+     * @param teamTrends     One row per (team, category) with at least one rating
+     * @param employeeTrends One row per (employee, category) with a rating
+     */
+    public record WeeklyTrendResult(List<TeamTrendDataModel> teamTrends, List<EmployeeTrendDataModel> employeeTrends) {
+    }
+}
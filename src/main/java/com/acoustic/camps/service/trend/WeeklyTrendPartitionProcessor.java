@@ -0,0 +1,83 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.repository.EmployeeRepository;
+import com.acoustic.camps.repository.EngagementRatingRepository;
+import com.acoustic.camps.repository.TeamRepository;
+import com.acoustic.camps.service.trend.WeeklyTrendAggregator.WeeklyTrendResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Computes and writes the weekly trends of a single team partition.
+ * Each partition runs in its own transaction so a failing team never rolls back the work of the others.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WeeklyTrendPartitionProcessor {
+
+    private final EmployeeRepository employeeRepository;
+    private final TeamRepository teamRepository;
+    private final EngagementRatingRepository ratingRepository;
+    private final TrendHistoryLoader historyLoader;
+    private final TrendDataWriter trendDataWriter;
+    private final TrendPartitionLock partitionLock;
+
+    private final WeeklyTrendAggregator aggregator = new WeeklyTrendAggregator();
+
+    /**
+     * Compute and persist weekly trends for one team, overwriting any rows the incremental
+     * updates or an earlier run already wrote for that week
+     *
+     * @param teamId    The team's ID, or null for employees without a team
+     * @param startDate Start of the week
+     * @param endDate   End of the week
+     * @return Number of trend rows written
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int process(UUID teamId, OffsetDateTime startDate, OffsetDateTime endDate) {
+        // Hold the same lock as incremental updates so a rating added mid-run is not lost
+        partitionLock.lock(teamId);
+
+        List<Object[]> rows = teamId != null
+                ? ratingRepository.findLatestRatingsPerEmployeeAndCategoryForTeam(teamId, startDate, endDate)
+                : ratingRepository.findLatestRatingsPerEmployeeAndCategoryWithoutTeam(startDate, endDate);
+
+        List<LatestRating> latestRatings = rows.stream()
+                .map(LatestRating::fromRow)
+                .toList();
+
+        if (latestRatings.isEmpty()) {
+            log.debug("No ratings for team {} in week ending {}", teamId, endDate);
+            return 0;
+        }
+
+        Set<UUID> employeeIds = latestRatings.stream()
+                .map(LatestRating::employeeId)
+                .collect(Collectors.toSet());
+
+        TrendHistory history = historyLoader.load(teamId, employeeIds, startDate, endDate);
+
+        WeeklyTrendResult result = aggregator.aggregate(
+                latestRatings,
+                history,
+                endDate,
+                teamRepository::getReferenceById,
+                employeeRepository::getReferenceById);
+
+        int written = trendDataWriter.writeTeamTrends(result.teamTrends())
+                + trendDataWriter.writeEmployeeTrends(result.employeeTrends());
+        log.debug("Saved {} weekly trend rows for team {} ({} team, {} employee)",
+                written, teamId, result.teamTrends().size(), result.employeeTrends().size());
+        return written;
+    }
+}
@@ -0,0 +1,14 @@
+-- Backfill jobs checkpoint one partition per week instead of one per team
+alter table analytics_processing_partition
+    add column if not exists period_start timestamp;
+
+alter table analytics_processing_partition
+    add column if not exists period_end timestamp;
+
+alter table analytics_processing_log
+    drop constraint if exists analytics_processing_log_job_type_check;
+
+alter table analytics_processing_log
+    add constraint analytics_processing_log_job_type_check
+        check ((job_type)::text = ANY
+               ((ARRAY ['WEEKLY_TRENDS'::character varying, 'TEAM_TRENDS'::character varying, 'BACKFILL_TRENDS'::character varying])::text[]));
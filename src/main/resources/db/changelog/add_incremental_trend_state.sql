@@ -0,0 +1,45 @@
+-- Recreate team_stats, it is now maintained incrementally as ratings are added
+create table if not exists team_stats
+(
+    id                      uuid                                not null primary key,
+    team_id                 uuid                                not null,
+    record_date             date                                not null,
+    category                varchar(20)                         not null,
+    average_rating          numeric(4, 2)                       not null,
+    previous_average_rating numeric(4, 2),
+    employee_count          integer,
+    rating_sum              bigint    default 0                 not null,
+    rating_count            integer   default 0                 not null,
+    created_at              timestamp default CURRENT_TIMESTAMP not null
+);
+
+alter table team_stats
+    owner to camps;
+
+create index if not exists idx_team_stats_team_category_date
+    on team_stats (team_id, category, record_date);
+
+alter table team_stats
+    add constraint fk_team_stats_team
+        foreign key (team_id) references teams
+            on delete cascade;
+
+alter table team_stats
+    add constraint team_stats_category_check
+        check ((category)::text = ANY
+               ((ARRAY ['CERTAINTY'::character varying, 'AUTONOMY'::character varying, 'MEANING'::character varying, 'PROGRESS'::character varying, 'SOCIAL_INCLUSION'::character varying])::text[]));
+
+-- Keep the sum and count behind each weekly team average so single ratings can be applied as deltas
+alter table team_trend_data
+    add column if not exists rating_sum bigint default 0 not null;
+
+alter table team_trend_data
+    add column if not exists rating_count integer default 0 not null;
+
+update team_trend_data
+set rating_count = coalesce(employee_count, 0),
+    rating_sum   = round(average_rating * coalesce(employee_count, 0));
+
+-- Date of the rating each employee row reflects; unknown for rows written before this change
+alter table employee_trend_data
+    add column if not exists latest_rating_date date;
@@ -0,0 +1,14 @@
+-- Track every analytics job run, not only weekly snapshots, with enough detail to report progress
+alter table analytics_processing_log
+    add column if not exists job_type varchar(30) default 'WEEKLY_TRENDS' not null;
+
+alter table analytics_processing_log
+    add column if not exists rows_written integer default 0 not null;
+
+alter table analytics_processing_log
+    add column if not exists started_at timestamp;
+
+alter table analytics_processing_log
+    add constraint analytics_processing_log_job_type_check
+        check ((job_type)::text = ANY
+               ((ARRAY ['WEEKLY_TRENDS'::character varying, 'TEAM_TRENDS'::character varying])::text[]));
@@ -0,0 +1,6 @@
+-- Keyset pagination and exports over a date range seek and scan on (rating_date, id)
+create index if not exists idx_ratings_date_id
+    on engagement_ratings (rating_date, id);
+
+-- Superseded by the index above, which has the same leading column
+drop index if exists idx_ratings_date;
@@ -0,0 +1,6 @@
+-- Covering index for "latest rating per employee and category" lookups, served by index-only scans
+create index if not exists idx_ratings_employee_category_date
+    on engagement_ratings (employee_id, category, rating_date desc) include (rating);
+
+-- Superseded by the index above, which has the same leading columns
+drop index if exists idx_ratings_employee_category;
@@ -0,0 +1,3 @@
+-- Serves "last trend calculation per team" lookups with a backward index scan instead of a table scan
+create index if not exists idx_team_trend_data_team_created_at
+    on team_trend_data (team_id, created_at desc);
@@ -0,0 +1,4 @@
+-- Sum of the squared ratings behind each weekly team average, so its spread comes with the row.
+-- Rows written before this change have no ratings to rebuild it from and keep it empty.
+alter table team_trend_data
+    add column if not exists rating_sum_squares bigint;
@@ -0,0 +1,10 @@
+-- Rolling averages of the weekly values over the last 4, 12 and 26 weeks, written by the weekly calculation
+alter table team_trend_data
+    add column if not exists four_week_average   numeric(4, 2),
+    add column if not exists twelve_week_average numeric(4, 2),
+    add column if not exists six_month_average   numeric(4, 2);
+
+alter table employee_trend_data
+    add column if not exists four_week_average   numeric(4, 2),
+    add column if not exists twelve_week_average numeric(4, 2),
+    add column if not exists six_month_average   numeric(4, 2);
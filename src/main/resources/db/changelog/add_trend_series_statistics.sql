@@ -0,0 +1,49 @@
+-- Streaming statistics of each weekly series, carried from one week's row to the next,
+-- and the volatility indicators derived from them
+alter table team_trend_data
+    add column if not exists series_count         integer,
+    add column if not exists series_mean          double precision,
+    add column if not exists series_m2            double precision,
+    add column if not exists ewma                 double precision,
+    add column if not exists ewm_variance         double precision,
+    add column if not exists slope_weight         double precision,
+    add column if not exists slope_sum_x          double precision,
+    add column if not exists slope_sum_xx         double precision,
+    add column if not exists slope_sum_y          double precision,
+    add column if not exists slope_sum_xy         double precision,
+    add column if not exists volatility_score     numeric(4, 3),
+    add column if not exists stability_rating     varchar(20),
+    add column if not exists trend_direction      varchar(20),
+    add column if not exists seasonality_detected boolean;
+
+alter table employee_trend_data
+    add column if not exists series_count         integer,
+    add column if not exists series_mean          double precision,
+    add column if not exists series_m2            double precision,
+    add column if not exists ewma                 double precision,
+    add column if not exists ewm_variance         double precision,
+    add column if not exists slope_weight         double precision,
+    add column if not exists slope_sum_x          double precision,
+    add column if not exists slope_sum_xx         double precision,
+    add column if not exists slope_sum_y          double precision,
+    add column if not exists slope_sum_xy         double precision,
+    add column if not exists volatility_score     numeric(4, 3),
+    add column if not exists stability_rating     varchar(20),
+    add column if not exists trend_direction      varchar(20),
+    add column if not exists seasonality_detected boolean;
+
+alter table team_trend_data
+    add constraint team_trend_data_stability_rating_check
+        check ((stability_rating)::text = ANY
+               ((ARRAY ['VERY_STABLE'::character varying, 'STABLE'::character varying, 'MODERATE'::character varying, 'VOLATILE'::character varying, 'VERY_VOLATILE'::character varying])::text[])),
+    add constraint team_trend_data_trend_direction_check
+        check ((trend_direction)::text = ANY
+               ((ARRAY ['STRONGLY_INCREASING'::character varying, 'INCREASING'::character varying, 'STABLE'::character varying, 'DECREASING'::character varying, 'STRONGLY_DECREASING'::character varying])::text[]));
+
+alter table employee_trend_data
+    add constraint employee_trend_data_stability_rating_check
+        check ((stability_rating)::text = ANY
+               ((ARRAY ['VERY_STABLE'::character varying, 'STABLE'::character varying, 'MODERATE'::character varying, 'VOLATILE'::character varying, 'VERY_VOLATILE'::character varying])::text[])),
+    add constraint employee_trend_data_trend_direction_check
+        check ((trend_direction)::text = ANY
+               ((ARRAY ['STRONGLY_INCREASING'::character varying, 'INCREASING'::character varying, 'STABLE'::character varying, 'DECREASING'::character varying, 'STRONGLY_DECREASING'::character varying])::text[]));
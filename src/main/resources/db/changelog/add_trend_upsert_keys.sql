@@ -0,0 +1,53 @@
+-- Tell weekly rows apart from the monthly rows the team recalculation writes
+alter table team_trend_data
+    add column if not exists aggregation_period varchar(20) default 'WEEKLY' not null;
+
+alter table employee_trend_data
+    add column if not exists aggregation_period varchar(20) default 'WEEKLY' not null;
+
+-- Only the monthly recalculation leaves the employee count empty
+update team_trend_data
+set aggregation_period = 'MONTHLY'
+where employee_count is null;
+
+alter table team_trend_data
+    add constraint team_trend_data_aggregation_period_check
+        check ((aggregation_period)::text = ANY
+               ((ARRAY ['DAILY'::character varying, 'WEEKLY'::character varying, 'MONTHLY'::character varying, 'QUARTERLY'::character varying, 'YEARLY'::character varying])::text[]));
+
+alter table employee_trend_data
+    add constraint employee_trend_data_aggregation_period_check
+        check ((aggregation_period)::text = ANY
+               ((ARRAY ['DAILY'::character varying, 'WEEKLY'::character varying, 'MONTHLY'::character varying, 'QUARTERLY'::character varying, 'YEARLY'::character varying])::text[]));
+
+-- Keep only the newest of any rows repeated runs wrote for the same period
+delete
+from team_trend_data
+where id in (select id
+             from (select id,
+                          row_number() over (partition by team_id, category, record_date, aggregation_period
+                              order by created_at desc, id) as duplicate
+                   from team_trend_data) ranked
+             where duplicate > 1);
+
+delete
+from employee_trend_data
+where id in (select id
+             from (select id,
+                          row_number() over (partition by employee_id, category, record_date, aggregation_period
+                              order by created_at desc, id) as duplicate
+                   from employee_trend_data) ranked
+             where duplicate > 1);
+
+-- Conflict targets of the trend upserts; they also serve the (id, category, record_date) lookups
+alter table team_trend_data
+    add constraint uk_team_trend_data_period
+        unique (team_id, category, record_date, aggregation_period);
+
+alter table employee_trend_data
+    add constraint uk_employee_trend_data_period
+        unique (employee_id, category, record_date, aggregation_period);
+
+drop index if exists idx_team_trend_data_team_category_date;
+
+drop index if exists idx_employee_trend_data_employee_category_date;
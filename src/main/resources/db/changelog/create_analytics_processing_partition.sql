@@ -0,0 +1,53 @@
+-- Track progress of partitioned analytics jobs
+alter table analytics_processing_log
+    add column if not exists total_partitions integer default 0 not null;
+
+alter table analytics_processing_log
+    add column if not exists completed_partitions integer default 0 not null;
+
+alter table analytics_processing_log
+    add column if not exists failed_partitions integer default 0 not null;
+
+alter table analytics_processing_log
+    drop constraint if exists analytics_processing_log_status_check;
+
+alter table analytics_processing_log
+    add constraint analytics_processing_log_status_check
+        check ((status)::text = ANY
+               ((ARRAY ['PENDING'::character varying, 'RUNNING'::character varying, 'COMPLETED'::character varying, 'FAILED'::character varying])::text[]));
+
+-- One row per team partition of a processing job; team_id is null for employees without a team
+create table if not exists analytics_processing_partition
+(
+    id                uuid                                not null primary key,
+    processing_log_id uuid                                not null,
+    team_id           uuid,
+    status            varchar(20)                         not null, -- PENDING, RUNNING, COMPLETED, FAILED
+    rows_written      integer   default 0                 not null,
+    attempts          integer   default 0                 not null,
+    error_message     text,
+    started_at        timestamp,
+    completed_at      timestamp,
+    created_at        timestamp default CURRENT_TIMESTAMP not null
+);
+
+alter table analytics_processing_partition
+    owner to camps;
+
+create index if not exists idx_analytics_processing_partition_log_status
+    on analytics_processing_partition (processing_log_id, status);
+
+alter table analytics_processing_partition
+    add constraint fk_analytics_processing_partition_log
+        foreign key (processing_log_id) references analytics_processing_log
+            on delete cascade;
+
+alter table analytics_processing_partition
+    add constraint fk_analytics_processing_partition_team
+        foreign key (team_id) references teams
+            on delete cascade;
+
+alter table analytics_processing_partition
+    add constraint analytics_processing_partition_status_check
+        check ((status)::text = ANY
+               ((ARRAY ['PENDING'::character varying, 'RUNNING'::character varying, 'COMPLETED'::character varying, 'FAILED'::character varying])::text[]));
@@ -0,0 +1,47 @@
+-- Latest rating per employee and category, maintained on every rating insert
+create table if not exists current_ratings
+(
+    employee_id uuid                                not null,
+    category    varchar(20)                         not null,
+    rating_id   uuid                                not null,
+    rating      integer                             not null,
+    rating_date date                                not null,
+    team_id     uuid,
+    updated_at  timestamp default CURRENT_TIMESTAMP not null,
+    primary key (employee_id, category)
+);
+
+alter table current_ratings
+    owner to camps;
+
+create index if not exists idx_current_ratings_team_category
+    on current_ratings (team_id, category) include (rating);
+
+alter table current_ratings
+    add constraint fk_current_ratings_employee
+        foreign key (employee_id) references employees
+            on delete cascade;
+
+alter table current_ratings
+    add constraint fk_current_ratings_rating
+        foreign key (rating_id) references engagement_ratings
+            on delete cascade;
+
+alter table current_ratings
+    add constraint fk_current_ratings_team
+        foreign key (team_id) references teams
+            on delete set null;
+
+alter table current_ratings
+    add constraint current_ratings_category_check
+        check ((category)::text = ANY
+               ((ARRAY ['CERTAINTY'::character varying, 'AUTONOMY'::character varying, 'MEANING'::character varying, 'PROGRESS'::character varying, 'SOCIAL_INCLUSION'::character varying])::text[]));
+
+-- Backfill from the existing rating history
+insert into current_ratings (employee_id, category, rating_id, rating, rating_date, team_id)
+select distinct on (er.employee_id, er.category)
+       er.employee_id, er.category, er.id, er.rating, er.rating_date, emp.team_id
+from engagement_ratings er
+         join employees emp on er.employee_id = emp.id
+order by er.employee_id, er.category, er.rating_date desc, er.created_at desc
+on conflict (employee_id, category) do nothing;
@@ -0,0 +1,53 @@
+-- Per team and category rating totals at every granularity. Daily rows are built from the ratings,
+-- coarser rows by merging the daily ones, so any date range is answered from a few pre-aggregated rows
+create table if not exists team_stats_rollup
+(
+    id                 uuid                                not null primary key,
+    team_id            uuid                                not null,
+    category           varchar(20)                         not null,
+    aggregation_period varchar(20)                         not null,
+    period_start       date                                not null,
+    rating_sum         bigint    default 0                 not null,
+    rating_count       integer   default 0                 not null,
+    rating_sum_squares bigint    default 0                 not null,
+    rater_count        integer   default 0                 not null,
+    updated_at         timestamp default CURRENT_TIMESTAMP not null
+);
+
+alter table team_stats_rollup
+    owner to camps;
+
+alter table team_stats_rollup
+    add constraint uk_team_stats_rollup_period
+        unique (team_id, aggregation_period, period_start, category);
+
+alter table team_stats_rollup
+    add constraint fk_team_stats_rollup_team
+        foreign key (team_id) references teams
+            on delete cascade;
+
+alter table team_stats_rollup
+    add constraint team_stats_rollup_category_check
+        check ((category)::text = ANY
+               ((ARRAY ['CERTAINTY'::character varying, 'AUTONOMY'::character varying, 'MEANING'::character varying, 'PROGRESS'::character varying, 'SOCIAL_INCLUSION'::character varying])::text[]));
+
+alter table team_stats_rollup
+    add constraint team_stats_rollup_aggregation_period_check
+        check ((aggregation_period)::text = ANY
+               ((ARRAY ['DAILY'::character varying, 'WEEKLY'::character varying, 'MONTHLY'::character varying, 'QUARTERLY'::character varying, 'YEARLY'::character varying])::text[]));
+
+-- Seed every granularity from the existing ratings
+insert into team_stats_rollup (id, team_id, category, aggregation_period, period_start,
+                               rating_sum, rating_count, rating_sum_squares, rater_count)
+select gen_random_uuid(), e.team_id, er.category, p.aggregation_period,
+       cast(date_trunc(p.unit, er.rating_date) as date),
+       sum(er.rating), count(*), sum(er.rating * er.rating), count(distinct er.employee_id)
+from engagement_ratings er
+         join employees e on er.employee_id = e.id
+         cross join (values ('DAILY', 'day'),
+                            ('WEEKLY', 'week'),
+                            ('MONTHLY', 'month'),
+                            ('QUARTERLY', 'quarter'),
+                            ('YEARLY', 'year')) as p (aggregation_period, unit)
+where e.team_id is not null
+group by e.team_id, er.category, p.aggregation_period, cast(date_trunc(p.unit, er.rating_date) as date);
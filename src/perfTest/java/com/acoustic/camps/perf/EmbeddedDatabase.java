@@ -0,0 +1,65 @@
+package com.acoustic.camps.perf;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A PostgreSQL server launched from the embedded binaries, with the application schema applied
+ * through the same Liquibase changelog the application runs on startup
+ */
+final class EmbeddedDatabase implements AutoCloseable {
+
+    private static final String CHANGELOG = "classpath:/db/changelog/db.changelog-master.yaml";
+
+    private final EmbeddedPostgres postgres;
+
+    private EmbeddedDatabase(EmbeddedPostgres postgres) {
+        this.postgres = postgres;
+    }
+
+    /**
+     * Start a fresh server and migrate it to the current schema
+     */
+    static EmbeddedDatabase start() throws IOException, SQLException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                .setServerConfig("shared_buffers", "256MB")
+                .setServerConfig("work_mem", "16MB")
+                .setServerConfig("max_wal_size", "4GB")
+                .start();
+        EmbeddedDatabase database = new EmbeddedDatabase(postgres);
+
+        try (Connection connection = database.dataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            // The changelogs hand every table to the application role
+            statement.execute("CREATE ROLE camps");
+        }
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(database.dataSource());
+        liquibase.setChangeLog(CHANGELOG);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        try {
+            liquibase.afterPropertiesSet();
+        } catch (Exception e) {
+            database.close();
+            throw new IllegalStateException("Could not apply the Liquibase changelog", e);
+        }
+        return database;
+    }
+
+    DataSource dataSource() {
+        return postgres.getPostgresDatabase();
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+}
@@ -0,0 +1,86 @@
+package com.acoustic.camps.perf;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A native query read straight from its repository annotation, so the harness always measures the SQL the
+ * application runs. Named parameters are rewritten to JDBC placeholders, skipping quoted literals and casts.
+ *
+ * @param name       Repository and method name
+ * @param sql        The SQL with JDBC placeholders
+ * @param parameters Parameter name for each placeholder, in order
+ */
+record NativeQuery(String name, String sql, List<String> parameters) {
+
+    /**
+     * Collect the read-only native queries of a repository, sorted by name
+     */
+    static List<NativeQuery> of(Class<?> repository) {
+        return Arrays.stream(repository.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(Query.class))
+                .filter(method -> method.getAnnotation(Query.class).nativeQuery())
+                .filter(method -> !method.isAnnotationPresent(Modifying.class))
+                .map(method -> parse(repository.getSimpleName() + "." + method.getName(), queryOf(method)))
+                .sorted((a, b) -> a.name().compareTo(b.name()))
+                .toList();
+    }
+
+    private static String queryOf(Method method) {
+        return method.getAnnotation(Query.class).value();
+    }
+
+    static NativeQuery parse(String name, String sql) {
+        StringBuilder jdbcSql = new StringBuilder(sql.length());
+        List<String> parameters = new ArrayList<>();
+        boolean quoted = false;
+
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            boolean namedParameter = !quoted && c == ':'
+                    && i + 1 < sql.length() && Character.isJavaIdentifierStart(sql.charAt(i + 1))
+                    && (i == 0 || sql.charAt(i - 1) != ':');
+
+            if (c == '\'') {
+                quoted = !quoted;
+                jdbcSql.append(c);
+            } else if (namedParameter) {
+                int end = i + 1;
+                while (end < sql.length() && Character.isJavaIdentifierPart(sql.charAt(end))) {
+                    end++;
+                }
+                parameters.add(sql.substring(i + 1, end));
+                jdbcSql.append('?');
+                i = end - 1;
+            } else {
+                jdbcSql.append(c);
+            }
+        }
+        return new NativeQuery(name, jdbcSql.toString(), List.copyOf(parameters));
+    }
+
+    /**
+     * Prepare the query, or its EXPLAIN with the given prefix, with parameters bound by name
+     */
+    PreparedStatement prepare(Connection connection, String prefix, Map<String, Object> values) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(prefix + sql);
+        for (int i = 0; i < parameters.size(); i++) {
+            String parameter = parameters.get(i);
+            if (!values.containsKey(parameter)) {
+                statement.close();
+                throw new IllegalArgumentException(name + " needs a value for :" + parameter);
+            }
+            statement.setObject(i + 1, values.get(parameter));
+        }
+        return statement;
+    }
+}
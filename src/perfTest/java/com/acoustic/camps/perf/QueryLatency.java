@@ -0,0 +1,37 @@
+package com.acoustic.camps.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Arrays;
+
+/**
+ * Measured latencies and plan of one query
+ *
+ * @param query      Repository and method name
+ * @param iterations Number of measured executions
+ * @param rows       Rows returned by the last execution
+ * @param p50Millis  Median latency
+ * @param p95Millis  95th percentile latency
+ * @param p99Millis  99th percentile latency
+ * @param maxMillis  Slowest execution
+ * @param plan       Output of EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)
+ */
+record QueryLatency(String query, int iterations, long rows,
+                    double p50Millis, double p95Millis, double p99Millis, double maxMillis, JsonNode plan) {
+
+    static QueryLatency of(String query, long rows, long[] nanos, JsonNode plan) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return new QueryLatency(query, sorted.length, rows,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                sorted[sorted.length - 1] / 1_000_000.0, plan);
+    }
+
+    /**
+     * Nearest-rank percentile in milliseconds
+     */
+    private static double percentile(long[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+}
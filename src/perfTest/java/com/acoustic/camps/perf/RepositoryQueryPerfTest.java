@@ -0,0 +1,194 @@
+package com.acoustic.camps.perf;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.repository.CurrentRatingRepository;
+import com.acoustic.camps.repository.EngagementRatingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the native analytics queries at organisation scale and writes their latencies and plans to
+ * {@code build/reports/perf/repository-queries.json}.
+ * <p>
+ * The default scale is 10,000 employees in teams of 10 with three years of weekly ratings in every category.
+ * Override it with the {@code perf.employees}, {@code perf.teamSize}, {@code perf.weeks}, {@code perf.iterations}
+ * and {@code perf.orgWideIterations} system properties.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPerfTest {
+
+    private static final int EMPLOYEES = Integer.getInteger("perf.employees", 10_000);
+    private static final int TEAM_SIZE = Integer.getInteger("perf.teamSize", 10);
+    private static final int WEEKS = Integer.getInteger("perf.weeks", 156);
+    private static final int WARMUP = Integer.getInteger("perf.warmup", 3);
+    private static final int ITERATIONS = Integer.getInteger("perf.iterations", 50);
+    private static final int ORG_WIDE_ITERATIONS = Integer.getInteger("perf.orgWideIterations", 5);
+    private static final long SEED = Long.getLong("perf.seed", 42L);
+
+    // Queries that scan the whole organisation rather than one team, measured fewer times
+    private static final Set<String> ORG_WIDE = Set.of(
+            "EngagementRatingRepository.streamMostImprovedCategoryPerEmployee");
+
+    private final Random random = new Random(SEED);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private EmbeddedDatabase database;
+    private SyntheticOrgGenerator generator;
+    private long ratingCount;
+    private long seedMillis;
+
+    @BeforeAll
+    void seed() throws Exception {
+        database = EmbeddedDatabase.start();
+        generator = new SyntheticOrgGenerator(EMPLOYEES, TEAM_SIZE, WEEKS, LocalDate.of(2025, 6, 23), SEED);
+
+        long start = System.currentTimeMillis();
+        ratingCount = generator.generate(database.dataSource());
+        seedMillis = System.currentTimeMillis() - start;
+        System.out.printf("Seeded %d employees and %d ratings in %d ms%n", EMPLOYEES, ratingCount, seedMillis);
+    }
+
+    @AfterAll
+    void stop() throws Exception {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Test
+    void measureNativeAnalyticsQueries() throws Exception {
+        List<NativeQuery> queries = new ArrayList<>();
+        queries.addAll(NativeQuery.of(EngagementRatingRepository.class));
+        queries.addAll(NativeQuery.of(CurrentRatingRepository.class));
+
+        List<QueryLatency> results = new ArrayList<>();
+        try (Connection connection = database.dataSource().getConnection()) {
+            for (NativeQuery query : queries) {
+                QueryLatency latency = measure(connection, query);
+                results.add(latency);
+                System.out.printf("%-75s p50 %9.2f ms  p99 %9.2f ms  rows %d%n",
+                        latency.query(), latency.p50Millis(), latency.p99Millis(), latency.rows());
+            }
+        }
+
+        writeReport(results);
+        assertThat(results).isNotEmpty().allSatisfy(result -> assertThat(result.plan()).isNotNull());
+    }
+
+    private QueryLatency measure(Connection connection, NativeQuery query) throws Exception {
+        int iterations = ORG_WIDE.contains(query.name()) ? ORG_WIDE_ITERATIONS : ITERATIONS;
+
+        for (int i = 0; i < WARMUP; i++) {
+            execute(connection, query, parameters(query));
+        }
+
+        long[] nanos = new long[iterations];
+        long rows = 0;
+        for (int i = 0; i < iterations; i++) {
+            Map<String, Object> parameters = parameters(query);
+            long start = System.nanoTime();
+            rows = execute(connection, query, parameters);
+            nanos[i] = System.nanoTime() - start;
+        }
+
+        try (PreparedStatement explain = query.prepare(connection, "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) ", parameters(query));
+             ResultSet plan = explain.executeQuery()) {
+            plan.next();
+            return QueryLatency.of(query.name(), rows, nanos, objectMapper.readTree(plan.getString(1)));
+        }
+    }
+
+    private static long execute(Connection connection, NativeQuery query, Map<String, Object> parameters) throws Exception {
+        try (PreparedStatement statement = query.prepare(connection, "", parameters);
+             ResultSet resultSet = statement.executeQuery()) {
+            long rows = 0;
+            while (resultSet.next()) {
+                rows++;
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Parameters for one execution: a random team, employee and category, and a recent week ending on the last
+     * generated week, widened for the queries that are meant to span longer ranges
+     */
+    private Map<String, Object> parameters(NativeQuery query) {
+        OffsetDateTime toDate = generator.lastWeek()
+                .minusWeeks(random.nextInt(Math.min(WEEKS, 12)))
+                .plusDays(6)
+                .atStartOfDay()
+                .atOffset(ZoneOffset.UTC);
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("teamId", generator.teamIds().get(random.nextInt(generator.teamIds().size())));
+        parameters.put("employeeId", generator.employeeIds().get(random.nextInt(generator.employeeIds().size())));
+        parameters.put("category", CampsCategory.values()[random.nextInt(CampsCategory.values().length)].name());
+        parameters.put("toDate", toDate);
+        parameters.put("fromDate", toDate.minusDays(6));
+        parameters.put("asOfDate", toDate);
+        parameters.put("currentDate", toDate);
+        parameters.put("previousDate", toDate.minusWeeks(1));
+
+        switch (query.name()) {
+            case "EngagementRatingRepository.streamMostImprovedCategoryPerEmployee" ->
+                    parameters.put("fromDate", toDate.minusYears(1));
+            case "EngagementRatingRepository.findCurrentAndPreviousRatingsForTeams" -> {
+                // A single team binds to the IN list placeholder; the service sends a few dozen at a time
+                parameters.put("teamIds", parameters.get("teamId"));
+                parameters.put("fromDate", toDate.minusWeeks(4));
+            }
+            default -> {
+            }
+        }
+        return parameters;
+    }
+
+    private void writeReport(List<QueryLatency> results) throws Exception {
+        Map<String, Object> scale = new LinkedHashMap<>();
+        scale.put("employees", EMPLOYEES);
+        scale.put("teamSize", TEAM_SIZE);
+        scale.put("weeks", WEEKS);
+        scale.put("ratings", ratingCount);
+        scale.put("seedMillis", seedMillis);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", OffsetDateTime.now());
+        report.put("scale", scale);
+        report.put("iterations", ITERATIONS);
+        report.put("orgWideIterations", ORG_WIDE_ITERATIONS);
+        report.put("queries", results);
+
+        Path directory = Path.of(System.getProperty("perf.reportDir", "build/reports/perf"));
+        Files.createDirectories(directory);
+        Path file = directory.resolve("repository-queries.json");
+        objectMapper.writeValue(file.toFile(), report);
+        System.out.println("Wrote " + file.toAbsolutePath());
+    }
+}
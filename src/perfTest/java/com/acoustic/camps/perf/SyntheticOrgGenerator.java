@@ -0,0 +1,160 @@
+package com.acoustic.camps.perf;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeds a synthetic organisation: teams of a fixed size, each led by its first member, and one rating per
+ * employee, category and week over the whole history. Ratings drift by at most one point a week, like real
+ * survey answers. Data is loaded with COPY and derived tables are filled the way the migrations backfill them.
+ */
+final class SyntheticOrgGenerator {
+
+    private static final CampsCategory[] CATEGORIES = CampsCategory.values();
+    private static final int EMPLOYEES_PER_COPY = 200;
+
+    private final int employeeCount;
+    private final int teamSize;
+    private final int weeks;
+    private final LocalDate lastWeek;
+    private final Random random;
+
+    private final List<UUID> teamIds = new ArrayList<>();
+    private final List<UUID> employeeIds = new ArrayList<>();
+
+    SyntheticOrgGenerator(int employeeCount, int teamSize, int weeks, LocalDate lastWeek, long seed) {
+        this.employeeCount = employeeCount;
+        this.teamSize = teamSize;
+        this.weeks = weeks;
+        this.lastWeek = lastWeek;
+        this.random = new Random(seed);
+    }
+
+    List<UUID> teamIds() {
+        return teamIds;
+    }
+
+    List<UUID> employeeIds() {
+        return employeeIds;
+    }
+
+    LocalDate firstWeek() {
+        return lastWeek.minusWeeks(weeks - 1L);
+    }
+
+    LocalDate lastWeek() {
+        return lastWeek;
+    }
+
+    /**
+     * Generate and load the organisation
+     *
+     * @return Number of generated ratings
+     */
+    long generate(DataSource dataSource) throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            copy.copyIn("COPY teams (id, name) FROM STDIN WITH (FORMAT csv)", new StringReader(teams()));
+            copy.copyIn("COPY employees (id, name, position, department, start_date, manager_id, team_id) "
+                    + "FROM STDIN WITH (FORMAT csv)", new StringReader(employees()));
+
+            long ratings = 0;
+            for (int from = 0; from < employeeIds.size(); from += EMPLOYEES_PER_COPY) {
+                ratings += copy.copyIn("COPY engagement_ratings (id, employee_id, rating_date, category, rating, created_at) "
+                                + "FROM STDIN WITH (FORMAT csv)",
+                        new StringReader(ratings(from, Math.min(from + EMPLOYEES_PER_COPY, employeeIds.size()))));
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO current_ratings "
+                        + "(employee_id, category, rating_id, rating, rating_date, team_id, updated_at) "
+                        + "SELECT DISTINCT ON (er.employee_id, er.category) "
+                        + "       er.employee_id, er.category, er.id, er.rating, er.rating_date, e.team_id, CURRENT_TIMESTAMP "
+                        + "FROM engagement_ratings er JOIN employees e ON e.id = er.employee_id "
+                        + "ORDER BY er.employee_id, er.category, er.rating_date DESC, er.created_at DESC");
+                statement.execute("VACUUM ANALYZE");
+            }
+            return ratings;
+        }
+    }
+
+    private String teams() {
+        StringBuilder csv = new StringBuilder();
+        int teamCount = (employeeCount + teamSize - 1) / teamSize;
+        for (int t = 0; t < teamCount; t++) {
+            UUID id = uuid();
+            teamIds.add(id);
+            csv.append(id).append(",Team ").append(t).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private String employees() {
+        StringBuilder csv = new StringBuilder();
+        UUID manager = null;
+        for (int e = 0; e < employeeCount; e++) {
+            UUID id = uuid();
+            UUID teamId = teamIds.get(e / teamSize);
+            boolean lead = e % teamSize == 0;
+            employeeIds.add(id);
+
+            csv.append(id).append(",Employee ").append(e)
+                    .append(',').append(lead ? "Manager" : "Engineer")
+                    .append(",Department ").append(e / (teamSize * 10))
+                    .append(',').append(firstWeek().minusDays(random.nextInt(1000)))
+                    .append(',').append(lead ? "" : manager)
+                    .append(',').append(teamId)
+                    .append('\n');
+
+            if (lead) {
+                manager = id;
+            }
+        }
+        return csv.toString();
+    }
+
+    private String ratings(int fromEmployee, int toEmployee) {
+        StringBuilder csv = new StringBuilder();
+        LocalDate firstWeek = firstWeek();
+
+        for (int e = fromEmployee; e < toEmployee; e++) {
+            UUID employeeId = employeeIds.get(e);
+            int weekday = e % 5;
+
+            for (CampsCategory category : CATEGORIES) {
+                int rating = 3 + random.nextInt(6);
+                for (int w = 0; w < weeks; w++) {
+                    rating = Math.clamp(rating + random.nextInt(3) - 1, 1, 10);
+                    LocalDate day = firstWeek.plusWeeks(w).plusDays(weekday);
+
+                    csv.append(uuid())
+                            .append(',').append(employeeId)
+                            .append(',').append(day)
+                            .append(',').append(category.name())
+                            .append(',').append(rating)
+                            .append(',').append(day).append(" 09:00:00")
+                            .append('\n');
+                }
+            }
+        }
+        return csv.toString();
+    }
+
+    private UUID uuid() {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+}
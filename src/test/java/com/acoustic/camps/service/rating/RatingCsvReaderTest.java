@@ -0,0 +1,183 @@
+package com.acoustic.camps.service.rating;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.codegen.types.EngagementRatingInput;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RatingCsvReaderTest {
+
+    private static final String EMPLOYEE_ID = "3f2b8c1e-7d4a-4e59-9b0c-2a6f1d8e5c47";
+    private static final int MAX_ROWS = 10;
+
+    @Test
+    void readsAllFields() throws IOException {
+        List<EngagementRatingInput> ratings = read(RatingCsvReader.HEADER,
+                EMPLOYEE_ID + ",MEANING,7,2025-01-06,Settled in well");
+
+        assertThat(ratings).singleElement().satisfies(rating -> {
+            assertThat(rating.getEmployeeId()).isEqualTo(EMPLOYEE_ID);
+            assertThat(rating.getCategory()).isEqualTo(CampsCategory.MEANING);
+            assertThat(rating.getRating()).isEqualTo(7);
+            assertThat(rating.getRatingDate()).isEqualTo(OffsetDateTime.of(2025, 1, 6, 0, 0, 0, 0, ZoneOffset.UTC));
+            assertThat(rating.getNotes()).isEqualTo("Settled in well");
+        });
+    }
+
+    @Test
+    void readsQuotedNotesWithCommasAndDoubledQuotes() throws IOException {
+        List<EngagementRatingInput> ratings = read(RatingCsvReader.HEADER,
+                EMPLOYEE_ID + ",AUTONOMY,5,2025-01-06,\"Wants more say, \"\"soon\"\"\"");
+
+        assertThat(ratings).singleElement()
+                .extracting(EngagementRatingInput::getNotes)
+                .isEqualTo("Wants more say, \"soon\"");
+    }
+
+    @Test
+    void readsQuotedFieldsOtherThanNotes() throws IOException {
+        List<EngagementRatingInput> ratings = read(RatingCsvReader.HEADER,
+                "\"" + EMPLOYEE_ID + "\",\"CERTAINTY\",\"4\",\"2025-01-06\"");
+
+        assertThat(ratings).singleElement().satisfies(rating -> {
+            assertThat(rating.getEmployeeId()).isEqualTo(EMPLOYEE_ID);
+            assertThat(rating.getCategory()).isEqualTo(CampsCategory.CERTAINTY);
+            assertThat(rating.getRating()).isEqualTo(4);
+        });
+    }
+
+    @Test
+    void leavesNotesEmptyWhenMissingOrBlank() throws IOException {
+        List<EngagementRatingInput> ratings = read(RatingCsvReader.HEADER,
+                EMPLOYEE_ID + ",PROGRESS,6,2025-01-06",
+                EMPLOYEE_ID + ",PROGRESS,6,2025-01-06,",
+                EMPLOYEE_ID + ",PROGRESS,6,2025-01-06,\"\"");
+
+        assertThat(ratings).hasSize(3).extracting(EngagementRatingInput::getNotes).containsOnlyNulls();
+    }
+
+    @Test
+    void readsDatesAndDateTimes() throws IOException {
+        List<EngagementRatingInput> ratings = read(RatingCsvReader.HEADER,
+                EMPLOYEE_ID + ",MEANING,7,2025-01-06",
+                EMPLOYEE_ID + ",MEANING,7,2025-01-06T09:30:00+02:00",
+                EMPLOYEE_ID + ",MEANING,7,2025-01-06T09:30Z");
+
+        assertThat(ratings).extracting(EngagementRatingInput::getRatingDate).containsExactly(
+                OffsetDateTime.of(2025, 1, 6, 0, 0, 0, 0, ZoneOffset.UTC),
+                OffsetDateTime.of(2025, 1, 6, 9, 30, 0, 0, ZoneOffset.ofHours(2)),
+                OffsetDateTime.of(2025, 1, 6, 9, 30, 0, 0, ZoneOffset.UTC));
+    }
+
+    @Test
+    void acceptsLowerCaseCategoriesAndPaddedFields() throws IOException {
+        List<EngagementRatingInput> ratings = read(RatingCsvReader.HEADER,
+                EMPLOYEE_ID + ", social_inclusion , 8 ,2025-01-06");
+
+        assertThat(ratings).singleElement().satisfies(rating -> {
+            assertThat(rating.getCategory()).isEqualTo(CampsCategory.SOCIAL_INCLUSION);
+            assertThat(rating.getRating()).isEqualTo(8);
+        });
+    }
+
+    @Test
+    void skipsByteOrderMarkAndBlankLines() throws IOException {
+        List<EngagementRatingInput> ratings = read("\uFEFF" + RatingCsvReader.HEADER,
+                "",
+                EMPLOYEE_ID + ",MEANING,7,2025-01-06",
+                "   ",
+                EMPLOYEE_ID + ",MEANING,8,2025-01-13");
+
+        assertThat(ratings).extracting(EngagementRatingInput::getRating).containsExactly(7, 8);
+    }
+
+    @Test
+    void readsHeaderOnlyFileAsEmpty() throws IOException {
+        assertThat(read(RatingCsvReader.HEADER)).isEmpty();
+    }
+
+    @Test
+    void rejectsMissingOrUnexpectedHeader() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read())
+                .withMessageStartingWith("Expected CSV header");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read("employee,category,rating,date,notes"))
+                .withMessageStartingWith("Expected CSV header");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read(EMPLOYEE_ID + ",MEANING,7,2025-01-06"))
+                .withMessageStartingWith("Expected CSV header");
+    }
+
+    @Test
+    void rejectsWrongFieldCounts() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read(RatingCsvReader.HEADER, EMPLOYEE_ID + ",MEANING,7"))
+                .withMessage("Line 2: expected 4 or 5 fields but found 3");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read(RatingCsvReader.HEADER, EMPLOYEE_ID + ",MEANING,7,2025-01-06,notes,extra"))
+                .withMessage("Line 2: expected 4 or 5 fields but found 6");
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read(RatingCsvReader.HEADER, EMPLOYEE_ID + ",MEANING,7,2025-01-06,\"open, notes"))
+                .withMessage("Line 2: unterminated quoted field");
+    }
+
+    @Test
+    void reportsLineNumberOfMalformedValues() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read(RatingCsvReader.HEADER, "", EMPLOYEE_ID + ",HAPPINESS,7,2025-01-06"))
+                .withMessageStartingWith("Line 3: ");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read(RatingCsvReader.HEADER, EMPLOYEE_ID + ",MEANING,seven,2025-01-06"))
+                .withMessageStartingWith("Line 2: ");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read(RatingCsvReader.HEADER, EMPLOYEE_ID + ",MEANING,7,06/01/2025"))
+                .withMessageStartingWith("Line 2: ");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read(RatingCsvReader.HEADER, EMPLOYEE_ID + ",MEANING,7,2025-01-06T09:30"))
+                .withMessageStartingWith("Line 2: ");
+    }
+
+    @Test
+    void readsUpToMaxRows() throws IOException {
+        String[] lines = new String[MAX_ROWS + 2];
+        lines[0] = RatingCsvReader.HEADER;
+        for (int i = 1; i <= MAX_ROWS; i++) {
+            lines[i] = EMPLOYEE_ID + ",MEANING,7,2025-01-06";
+        }
+        lines[MAX_ROWS + 1] = "";
+
+        assertThat(read(lines)).hasSize(MAX_ROWS);
+    }
+
+    @Test
+    void rejectsMoreThanMaxRows() {
+        String[] lines = new String[MAX_ROWS + 2];
+        lines[0] = RatingCsvReader.HEADER;
+        for (int i = 1; i <= MAX_ROWS + 1; i++) {
+            lines[i] = EMPLOYEE_ID + ",MEANING,7,2025-01-06";
+        }
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read(lines))
+                .withMessage("The file holds more than " + MAX_ROWS + " ratings");
+    }
+
+    private static List<EngagementRatingInput> read(String... lines) throws IOException {
+        byte[] csv = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return RatingCsvReader.read(new ByteArrayInputStream(csv), MAX_ROWS);
+    }
+}
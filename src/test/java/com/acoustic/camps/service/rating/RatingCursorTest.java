@@ -0,0 +1,79 @@
+package com.acoustic.camps.service.rating;
+
+import com.acoustic.camps.model.EngagementRatingModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RatingCursorTest {
+
+    private static final UUID ID = UUID.fromString("3f2b8c1e-7d4a-4e59-9b0c-2a6f1d8e5c47");
+
+    @Test
+    void decodesWhatItEncodes() {
+        RatingCursor cursor = new RatingCursor(OffsetDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000,
+                ZoneOffset.ofHoursMinutes(-5, -30)), ID);
+
+        assertThat(RatingCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void decodesWholeMinuteDates() {
+        // OffsetDateTime.toString drops zero seconds, which parse must still accept
+        RatingCursor cursor = new RatingCursor(OffsetDateTime.of(2025, 1, 6, 0, 0, 0, 0, ZoneOffset.UTC), ID);
+
+        assertThat(RatingCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        for (int second = 0; second < 3; second++) {
+            String encoded = new RatingCursor(OffsetDateTime.of(2025, 1, 6, 12, 0, second, 0, ZoneOffset.UTC), ID)
+                    .encode();
+
+            assertThat(encoded).doesNotContain("=", "+", "/");
+        }
+    }
+
+    @Test
+    void pointsAtRating() {
+        OffsetDateTime ratingDate = OffsetDateTime.of(2025, 2, 3, 10, 15, 0, 0, ZoneOffset.UTC);
+        EngagementRatingModel rating = EngagementRatingModel.builder().id(ID).ratingDate(ratingDate).build();
+
+        assertThat(RatingCursor.of(rating)).isEqualTo(new RatingCursor(ratingDate, ID));
+    }
+
+    @ParameterizedTest
+    @MethodSource("malformedCursors")
+    void rejectsMalformedCursor(String cursor) {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> RatingCursor.decode(cursor))
+                .withMessageStartingWith("Invalid cursor");
+    }
+
+    static Stream<String> malformedCursors() {
+        return Stream.of(
+                null,
+                "",
+                "not base64!",
+                encode("2025-01-06T00:00Z"),
+                encode("2025-01-06T00:00Z|"),
+                encode("yesterday|" + ID),
+                encode("2025-01-06T00:00Z|not-a-uuid"),
+                encode("|" + ID));
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,150 @@
+package com.acoustic.camps.service.significance;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Reference values come from R. The samples are R's {@code sleep} data scaled by ten to whole ratings,
+ * which leaves every t statistic and p-value unchanged.
+ */
+class SignificanceTestsTest {
+
+    private static final int[] GROUP_1 = {7, -16, -2, -12, -1, 34, 37, 8, 0, 20};
+    private static final int[] GROUP_2 = {19, 8, 11, 1, -1, 44, 55, 16, 46, 34};
+
+    @Test
+    void matchesWelchTestOfR() {
+        // t.test(extra ~ group, data = sleep): t = -1.8608, df = 17.776, p-value = 0.07939
+        SignificanceTests.TestResult result = SignificanceTests.welch(GROUP_1, 10, GROUP_2, 10);
+
+        assertThat(result.currentMean()).isCloseTo(7.5, within(1e-12));
+        assertThat(result.previousMean()).isCloseTo(23.3, within(1e-12));
+        assertThat(result.difference()).isCloseTo(-15.8, within(1e-12));
+        assertThat(result.pValue()).isCloseTo(0.07939, within(1e-5));
+    }
+
+    @Test
+    void isSymmetricInItsSamples() {
+        double forward = SignificanceTests.welch(GROUP_1, 10, GROUP_2, 10).pValue();
+        double backward = SignificanceTests.welch(GROUP_2, 10, GROUP_1, 10).pValue();
+
+        assertThat(backward).isCloseTo(forward, within(1e-12));
+    }
+
+    @Test
+    void matchesWelchDegreesOfFreedomOfR() {
+        // Sample variances of the scaled groups are 320.0556 and 400.9
+        double degreesOfFreedom = SignificanceTests.welchDegreesOfFreedom(
+                32.00555555555556, 10, 40.09, 10);
+
+        assertThat(degreesOfFreedom).isCloseTo(17.776, within(1e-3));
+    }
+
+    @Test
+    void matchesPairedTestOfR() {
+        // t.test(extra ~ group, data = sleep, paired = TRUE): t = -4.0621, df = 9, p-value = 0.002833
+        int[] differences = new int[GROUP_1.length];
+        for (int i = 0; i < differences.length; i++) {
+            differences[i] = GROUP_1[i] - GROUP_2[i];
+        }
+
+        SignificanceTests.TestResult result = SignificanceTests.paired(GROUP_1, 10, differences);
+
+        assertThat(result.currentMean()).isCloseTo(7.5, within(1e-12));
+        assertThat(result.previousMean()).isCloseTo(23.3, within(1e-12));
+        assertThat(result.pValue()).isCloseTo(0.002833, within(1e-6));
+    }
+
+    @Test
+    void matchesWelchTestOfRWithZeroVarianceOnOneSide() {
+        // t.test(c(5, 5, 5), c(3, 4, 5, 6)): t = 0.7746, df = 3, p-value = 0.495
+        SignificanceTests.TestResult result = SignificanceTests.welch(new int[]{5, 5, 5}, 3, new int[]{3, 4, 5, 6}, 4);
+
+        assertThat(result.pValue()).isCloseTo(0.4950, within(1e-4));
+        assertThat(SignificanceTests.welchDegreesOfFreedom(0, 3, 5.0 / 3 / 4, 4)).isCloseTo(3.0, within(1e-12));
+    }
+
+    @Test
+    void matchesWelchTestOfRWithTwoRatingsEachSide() {
+        // t.test(c(4, 6), c(7, 9)): t = -2.1213, df = 2, p-value = 0.1679
+        SignificanceTests.TestResult result = SignificanceTests.welch(new int[]{4, 6}, 2, new int[]{7, 9}, 2);
+
+        assertThat(result.pValue()).isCloseTo(0.1679, within(1e-4));
+    }
+
+    @Test
+    void decidesConstantSamplesWithoutTest() {
+        assertThat(SignificanceTests.welch(new int[]{5, 5}, 2, new int[]{3, 3, 3}, 3).pValue()).isEqualTo(0.0);
+        assertThat(SignificanceTests.welch(new int[]{5, 5}, 2, new int[]{5, 5, 5}, 3).pValue()).isEqualTo(1.0);
+        assertThat(SignificanceTests.paired(new int[]{6, 7, 8}, 3, new int[]{1, 1, 1}).pValue()).isEqualTo(0.0);
+    }
+
+    @Test
+    void findsNoChangeBetweenIdenticalSamples() {
+        SignificanceTests.TestResult welch = SignificanceTests.welch(GROUP_1, 10, GROUP_1.clone(), 10);
+        SignificanceTests.TestResult paired = SignificanceTests.paired(GROUP_1, 10, new int[10]);
+
+        assertThat(welch.pValue()).isCloseTo(1.0, within(1e-12));
+        assertThat(welch.difference()).isEqualTo(0.0);
+        assertThat(paired.pValue()).isEqualTo(1.0);
+        assertThat(paired.difference()).isEqualTo(0.0);
+    }
+
+    @Test
+    void onlyReadsCountedRatings() {
+        int[] padded = {4, 6, 100, 100};
+
+        assertThat(SignificanceTests.welch(padded, 2, new int[]{7, 9, -100}, 2).pValue())
+                .isCloseTo(0.1679, within(1e-4));
+    }
+
+    @Test
+    void rejectsSingleRating() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> SignificanceTests.welch(new int[]{5}, 1, new int[]{3, 4}, 2));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> SignificanceTests.welch(new int[]{3, 4}, 2, new int[]{5}, 1));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> SignificanceTests.paired(new int[]{5}, 1, new int[]{1}));
+    }
+
+    @Test
+    void matchesClosedFormTailProbabilities() {
+        // One degree of freedom is the Cauchy distribution, two have a closed form too
+        assertThat(SignificanceTests.twoSidedPValue(1, 1)).isCloseTo(0.5, within(1e-12));
+        assertThat(SignificanceTests.twoSidedPValue(3, 2)).isCloseTo(1 - 3 / Math.sqrt(11), within(1e-12));
+        assertThat(SignificanceTests.twoSidedPValue(0, 5)).isEqualTo(1.0);
+    }
+
+    @Test
+    void matchesCriticalValuesOfR() {
+        // qt(0.975, 9) = 2.262157; qnorm(0.975) = 1.959964
+        assertThat(SignificanceTests.twoSidedPValue(2.262157, 9)).isCloseTo(0.05, within(1e-6));
+        assertThat(SignificanceTests.twoSidedPValue(-2.262157, 9)).isCloseTo(0.05, within(1e-6));
+        assertThat(SignificanceTests.twoSidedPValue(1.959964, 1e7)).isCloseTo(0.05, within(1e-6));
+    }
+
+    @Test
+    void matchesClosedFormIncompleteBeta() {
+        assertThat(SignificanceTests.regularizedIncompleteBeta(1, 1, 0.3)).isCloseTo(0.3, within(1e-12));
+        assertThat(SignificanceTests.regularizedIncompleteBeta(4.5, 4.5, 0.5)).isCloseTo(0.5, within(1e-12));
+        assertThat(SignificanceTests.regularizedIncompleteBeta(1, 3, 0.2)).isCloseTo(1 - Math.pow(0.8, 3), within(1e-12));
+        assertThat(SignificanceTests.regularizedIncompleteBeta(2.5, 1, 0.7)).isCloseTo(Math.pow(0.7, 2.5), within(1e-12));
+        // Above the mean the symmetry relation is used: I_0.9(2, 3) = 6 x^2 (1-x)^2 + 4 x^3 (1-x) + x^4
+        assertThat(SignificanceTests.regularizedIncompleteBeta(2, 3, 0.9)).isCloseTo(0.9963, within(1e-12));
+        assertThat(SignificanceTests.regularizedIncompleteBeta(2, 3, 0)).isEqualTo(0.0);
+        assertThat(SignificanceTests.regularizedIncompleteBeta(2, 3, 1)).isEqualTo(1.0);
+    }
+
+    @Test
+    void matchesKnownLogGamma() {
+        assertThat(SignificanceTests.logGamma(5)).isCloseTo(Math.log(24), within(1e-12));
+        assertThat(SignificanceTests.logGamma(0.5)).isCloseTo(Math.log(Math.sqrt(Math.PI)), within(1e-12));
+        // lgamma(0.25) and lgamma(100) in R
+        assertThat(SignificanceTests.logGamma(0.25)).isCloseTo(1.288022524698077, within(1e-12));
+        assertThat(SignificanceTests.logGamma(100)).isCloseTo(359.1342053695754, within(1e-9));
+    }
+}
@@ -0,0 +1,169 @@
+package com.acoustic.camps.service.significance;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.codegen.types.ChangeType;
+import com.acoustic.camps.codegen.types.SignificantChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Reference p-values are those of {@link SignificanceTestsTest}, from R's {@code sleep} data scaled by ten
+ */
+class SignificantChangeEvaluatorTest {
+
+    private static final int[] GROUP_1 = {7, -16, -2, -12, -1, 34, 37, 8, 0, 20};
+    private static final int[] GROUP_2 = {19, 8, 11, 1, -1, 44, 55, 16, 46, 34};
+
+    @Test
+    void pairsRatersWhoRatedInBothPeriods() {
+        CategorySamples samples = new CategorySamples();
+        for (int i = 0; i < GROUP_1.length; i++) {
+            samples.add(GROUP_1[i], GROUP_2[i]);
+        }
+
+        SignificantChange change = evaluateOne(samples, 0.05);
+
+        assertThat(change.getCurrentValue()).isCloseTo(7.5, within(1e-12));
+        assertThat(change.getPreviousValue()).isCloseTo(23.3, within(1e-12));
+        assertThat(change.getChangeMagnitude()).isCloseTo(-15.8, within(1e-12));
+        assertThat(change.getConfidenceLevel()).isCloseTo(1 - 0.002833, within(1e-6));
+        assertThat(change.getIsStatisticallySignificant()).isTrue();
+        assertThat(change.getChangeType()).isEqualTo(ChangeType.SIGNIFICANT_DECLINE);
+    }
+
+    @Test
+    void comparesUnpairedRatersWithWelchTest() {
+        CategorySamples samples = new CategorySamples();
+        for (int i = 0; i < GROUP_1.length; i++) {
+            samples.add(GROUP_1[i], null);
+            samples.add(null, GROUP_2[i]);
+        }
+
+        SignificantChange atFivePercent = evaluateOne(samples, 0.05);
+        SignificantChange atTenPercent = evaluateOne(samples, 0.10);
+
+        assertThat(atFivePercent.getConfidenceLevel()).isCloseTo(1 - 0.07939, within(1e-5));
+        assertThat(atFivePercent.getIsStatisticallySignificant()).isFalse();
+        assertThat(atFivePercent.getChangeType()).isEqualTo(ChangeType.STABLE);
+        assertThat(atTenPercent.getIsStatisticallySignificant()).isTrue();
+        assertThat(atTenPercent.getChangeType()).isEqualTo(ChangeType.SIGNIFICANT_DECLINE);
+    }
+
+    @Test
+    void usesWelchTestWhenSomeCurrentRatersHaveNoPreviousRating() {
+        CategorySamples samples = new CategorySamples();
+        for (int i = 0; i < GROUP_1.length; i++) {
+            samples.add(GROUP_1[i], GROUP_2[i]);
+        }
+        samples.add(GROUP_1[0], null);
+
+        SignificanceTests.TestResult result = SignificantChangeEvaluator.test(samples);
+        int[] current = new int[GROUP_1.length + 1];
+        System.arraycopy(GROUP_1, 0, current, 0, GROUP_1.length);
+        current[GROUP_1.length] = GROUP_1[0];
+
+        assertThat(result.pValue())
+                .isEqualTo(SignificanceTests.welch(current, current.length, GROUP_2, GROUP_2.length).pValue());
+    }
+
+    @Test
+    void findsNoChangeBetweenIdenticalRatings() {
+        CategorySamples samples = new CategorySamples();
+        for (int rating : GROUP_1) {
+            samples.add(rating, rating);
+        }
+
+        SignificantChange change = evaluateOne(samples, 0.05);
+
+        assertThat(change.getChangeMagnitude()).isEqualTo(0.0);
+        assertThat(change.getConfidenceLevel()).isEqualTo(0.0);
+        assertThat(change.getIsStatisticallySignificant()).isFalse();
+        assertThat(change.getChangeType()).isEqualTo(ChangeType.STABLE);
+    }
+
+    @Test
+    void reportsShiftOfConstantRatingsAsCertain() {
+        CategorySamples samples = new CategorySamples();
+        for (int i = 0; i < 3; i++) {
+            samples.add(7, 5);
+        }
+
+        SignificantChange change = evaluateOne(samples, 0.05);
+
+        assertThat(change.getConfidenceLevel()).isEqualTo(1.0);
+        assertThat(change.getChangeType()).isEqualTo(ChangeType.SIGNIFICANT_IMPROVEMENT);
+    }
+
+    @Test
+    void testsConstantSideAgainstVaryingSide() {
+        CategorySamples samples = new CategorySamples();
+        samples.add(5, null);
+        samples.add(5, null);
+        samples.add(5, null);
+        for (int rating : new int[]{3, 4, 5, 6}) {
+            samples.add(null, rating);
+        }
+
+        assertThat(evaluateOne(samples, 0.05).getConfidenceLevel()).isCloseTo(1 - 0.4950, within(1e-4));
+    }
+
+    @Test
+    void skipsCategoriesWithTooFewRatings() {
+        CategorySamples singleCurrent = new CategorySamples();
+        singleCurrent.add(5, 4);
+        singleCurrent.add(null, 6);
+        singleCurrent.add(null, 7);
+
+        CategorySamples singlePrevious = new CategorySamples();
+        singlePrevious.add(5, 4);
+        singlePrevious.add(6, null);
+        singlePrevious.add(7, null);
+
+        CategorySamples twoPairs = new CategorySamples();
+        twoPairs.add(5, 4);
+        twoPairs.add(6, 4);
+
+        CategorySamples enough = new CategorySamples();
+        enough.add(5, 4);
+        enough.add(6, 4);
+        enough.add(7, 5);
+
+        Map<CampsCategory, CategorySamples> samples = new HashMap<>();
+        samples.put(CampsCategory.CERTAINTY, singleCurrent);
+        samples.put(CampsCategory.AUTONOMY, singlePrevious);
+        samples.put(CampsCategory.MEANING, new CategorySamples());
+        samples.put(CampsCategory.PROGRESS, twoPairs);
+        samples.put(CampsCategory.SOCIAL_INCLUSION, enough);
+
+        List<SignificantChange> changes = SignificantChangeEvaluator.evaluate(samples, 0.05);
+
+        // Two pairs are too few to pair but enough for Welch's test; the result follows category order
+        assertThat(changes).extracting(SignificantChange::getCategory)
+                .containsExactly(CampsCategory.PROGRESS, CampsCategory.SOCIAL_INCLUSION);
+    }
+
+    @Test
+    void classifiesChangeByMagnitude() {
+        assertThat(SignificantChangeEvaluator.changeType(1.0, true)).isEqualTo(ChangeType.SIGNIFICANT_IMPROVEMENT);
+        assertThat(SignificantChangeEvaluator.changeType(0.4, true)).isEqualTo(ChangeType.MODERATE_IMPROVEMENT);
+        assertThat(SignificantChangeEvaluator.changeType(0.0, true)).isEqualTo(ChangeType.STABLE);
+        assertThat(SignificantChangeEvaluator.changeType(-0.4, true)).isEqualTo(ChangeType.MODERATE_DECLINE);
+        assertThat(SignificantChangeEvaluator.changeType(-1.0, true)).isEqualTo(ChangeType.SIGNIFICANT_DECLINE);
+        assertThat(SignificantChangeEvaluator.changeType(-3.0, false)).isEqualTo(ChangeType.STABLE);
+    }
+
+    private static SignificantChange evaluateOne(CategorySamples samples, double significanceLevel) {
+        List<SignificantChange> changes = SignificantChangeEvaluator.evaluate(
+                Map.of(CampsCategory.MEANING, samples), significanceLevel);
+
+        assertThat(changes).hasSize(1);
+        assertThat(changes.get(0).getCategory()).isEqualTo(CampsCategory.MEANING);
+        return changes.get(0);
+    }
+}
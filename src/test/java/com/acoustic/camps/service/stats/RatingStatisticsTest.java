@@ -0,0 +1,112 @@
+package com.acoustic.camps.service.stats;
+
+import com.acoustic.camps.codegen.types.StatisticalContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RatingStatisticsTest {
+
+    @Test
+    void derivesSampleVarianceFromTotals() {
+        // Ratings 3, 5, 7, 7, 8: mean 6, squared deviations 9 + 1 + 1 + 1 + 4
+        StatisticalContext context = RatingStatistics.contextOf(5, 30, 196.0);
+
+        assertThat(context.getSampleSize()).isEqualTo(5);
+        assertThat(context.getIsStatisticallySignificant()).isTrue();
+        assertThat(context.getSignificanceLevel()).isEqualTo(RatingStatistics.SIGNIFICANCE_LEVEL);
+        assertThat(context.getVariance()).isCloseTo(4.0, within(1e-12));
+        assertThat(context.getStandardDeviation()).isCloseTo(2.0, within(1e-12));
+        assertThat(context.getConfidenceInterval()).isCloseTo(2.776 * 2.0 / Math.sqrt(5), within(1e-12));
+    }
+
+    @Test
+    void leavesSpreadEmptyForSingleRating() {
+        StatisticalContext context = RatingStatistics.contextOf(1, 7, 49.0);
+
+        assertThat(context.getSampleSize()).isEqualTo(1);
+        assertThat(context.getIsStatisticallySignificant()).isFalse();
+        assertThat(context.getSignificanceLevel()).isNull();
+        assertThat(context.getVariance()).isNull();
+        assertThat(context.getStandardDeviation()).isNull();
+        assertThat(context.getConfidenceInterval()).isNull();
+    }
+
+    @Test
+    void leavesSpreadEmptyWithoutSumOfSquares() {
+        StatisticalContext context = RatingStatistics.contextOf(4, 20, null);
+
+        assertThat(context.getSampleSize()).isEqualTo(4);
+        assertThat(context.getIsStatisticallySignificant()).isTrue();
+        assertThat(context.getVariance()).isNull();
+        assertThat(context.getConfidenceInterval()).isNull();
+    }
+
+    @Test
+    void hasNoSpreadForConstantSample() {
+        StatisticalContext context = RatingStatistics.contextOf(3, 21, 147.0);
+
+        assertThat(context.getVariance()).isEqualTo(0.0);
+        assertThat(context.getStandardDeviation()).isEqualTo(0.0);
+        assertThat(context.getConfidenceInterval()).isEqualTo(0.0);
+    }
+
+    @Test
+    void clampsRoundingBelowZeroForConstantSample() {
+        // Five ratings of 6.1 leave the totals' variance a rounding error below zero
+        double sum = 0;
+        double sumSquares = 0;
+        for (int i = 0; i < 5; i++) {
+            sum += 6.1;
+            sumSquares += 6.1 * 6.1;
+        }
+        assertThat(sumSquares - sum * sum / 5).isNegative();
+
+        StatisticalContext context = RatingStatistics.contextOf(5, sum, sumSquares);
+
+        assertThat(context.getVariance()).isEqualTo(0.0);
+        assertThat(context.getStandardDeviation()).isEqualTo(0.0);
+        assertThat(context.getConfidenceInterval()).isEqualTo(0.0);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 12.706",
+            "2, 4.303",
+            "10, 2.228",
+            "29, 2.045",
+            "30, 2.042"
+    })
+    void readsCriticalValuesFromTableUpTo30DegreesOfFreedom(long degreesOfFreedom, double expected) {
+        assertThat(RatingStatistics.tCritical95(degreesOfFreedom)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "31, 2.039513",
+            "40, 2.021075",
+            "60, 2.000298",
+            "120, 1.979930",
+            "1000, 1.962339"
+    })
+    void expandsAroundNormalQuantileBeyond30DegreesOfFreedom(long degreesOfFreedom, double expected) {
+        assertThat(RatingStatistics.tCritical95(degreesOfFreedom)).isCloseTo(expected, within(0.001));
+    }
+
+    @Test
+    void switchesToExpansionWithoutJump() {
+        double table = RatingStatistics.tCritical95(30);
+        double expansion = RatingStatistics.tCritical95(31);
+
+        assertThat(expansion).isLessThan(table);
+        assertThat(table - expansion).isLessThan(0.005);
+    }
+
+    @Test
+    void approachesNormalQuantile() {
+        assertThat(RatingStatistics.tCritical95(1_000_000)).isCloseTo(1.959964, within(1e-5));
+    }
+}
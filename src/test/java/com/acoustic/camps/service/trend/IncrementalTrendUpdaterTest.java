@@ -0,0 +1,265 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.codegen.types.CampsCategory;
+import com.acoustic.camps.model.EmployeeModel;
+import com.acoustic.camps.model.EmployeeTrendDataModel;
+import com.acoustic.camps.model.EngagementRatingModel;
+import com.acoustic.camps.model.TeamModel;
+import com.acoustic.camps.model.TeamTrendDataModel;
+import com.acoustic.camps.repository.EmployeeRepository;
+import com.acoustic.camps.repository.EmployeeTrendDataRepository;
+import com.acoustic.camps.repository.EngagementRatingRepository;
+import com.acoustic.camps.repository.TeamRepository;
+import com.acoustic.camps.repository.TeamStatsRepository;
+import com.acoustic.camps.repository.TeamTrendDataRepository;
+import com.acoustic.camps.service.stats.TeamStatsRollupUpdater;
+import com.acoustic.camps.service.trend.WeeklyTrendAggregator.WeeklyTrendResult;
+import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Applies ratings one by one, in any order, through the incremental updater and the series refresher, and checks
+ * the stored rows against the weekly aggregator run over the same ratings week by week, as the weekly job and a
+ * backfill would. The repositories are in-memory fakes holding the saved rows.
+ */
+class IncrementalTrendUpdaterTest {
+
+    private static final LocalDate FIRST_MONDAY = LocalDate.of(2026, 1, 5);
+    private static final int WEEKS = 8;
+    private static final CampsCategory[] CATEGORIES = {CampsCategory.MEANING, CampsCategory.PROGRESS};
+
+    private static final Comparator<Double> CLOSE = Comparator.nullsFirst(
+            (a, b) -> Math.abs(a - b) < 1e-9 ? 0 : Double.compare(a, b));
+
+    private final TeamModel team = TeamModel.builder().id(UUID.randomUUID()).build();
+    private final Map<UUID, EmployeeModel> employees = new HashMap<>();
+    private final List<TeamTrendDataModel> teamRows = new ArrayList<>();
+    private final List<EmployeeTrendDataModel> employeeRows = new ArrayList<>();
+
+    private IncrementalTrendUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 4; i++) {
+            EmployeeModel employee = EmployeeModel.builder().id(UUID.randomUUID()).team(team).build();
+            employees.put(employee.getId(), employee);
+        }
+
+        EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+        when(employeeRepository.findById(any()))
+                .thenAnswer(call -> Optional.ofNullable(employees.get(call.getArgument(0))));
+
+        TeamRepository teamRepository = mock(TeamRepository.class);
+        when(teamRepository.getReferenceById(team.getId())).thenReturn(team);
+
+        // The team stats are not compared; seed them from an empty team
+        EngagementRatingRepository ratingRepository = mock(EngagementRatingRepository.class);
+        when(ratingRepository.sumLatestRatingsForTeam(any(), any(), any()))
+                .thenAnswer(call -> Collections.singletonList(new Object[]{0L, 0}));
+
+        TeamTrendDataRepository teamTrendDataRepository = mock(TeamTrendDataRepository.class);
+        when(teamTrendDataRepository.findTopByTeamIdAndCategoryAndAggregationPeriodAndRecordDateBetweenOrderByCreatedAtDesc(
+                any(), any(), any(), any(), any()))
+                .thenAnswer(call -> teamRows.stream()
+                        .filter(row -> row.getCategory() == call.getArgument(1))
+                        .filter(row -> isBetween(row.getRecordDate(), call.getArgument(3), call.getArgument(4)))
+                        .findFirst());
+        when(teamTrendDataRepository.findByTeamIdAndCategoryAndAggregationPeriodAndRecordDateGreaterThanEqualOrderByRecordDateAsc(
+                any(), any(), any(), any()))
+                .thenAnswer(call -> teamRows.stream()
+                        .filter(row -> row.getCategory() == call.getArgument(1))
+                        .filter(row -> !row.getRecordDate().isBefore(call.getArgument(3)))
+                        .sorted(Comparator.comparing(TeamTrendDataModel::getRecordDate))
+                        .toList());
+        when(teamTrendDataRepository.save(any(TeamTrendDataModel.class)))
+                .thenAnswer(call -> store(teamRows, call.getArgument(0)));
+
+        EmployeeTrendDataRepository employeeTrendDataRepository = mock(EmployeeTrendDataRepository.class);
+        when(employeeTrendDataRepository.findTopByEmployeeIdAndCategoryAndAggregationPeriodAndRecordDateBetweenOrderByCreatedAtDesc(
+                any(), any(), any(), any(), any()))
+                .thenAnswer(call -> employeeRows.stream()
+                        .filter(row -> row.getEmployee().getId().equals(call.getArgument(0)))
+                        .filter(row -> row.getCategory() == call.getArgument(1))
+                        .filter(row -> isBetween(row.getRecordDate(), call.getArgument(3), call.getArgument(4)))
+                        .findFirst());
+        when(employeeTrendDataRepository.findByEmployeeIdAndCategoryAndAggregationPeriodAndRecordDateGreaterThanEqualOrderByRecordDateAsc(
+                any(), any(), any(), any()))
+                .thenAnswer(call -> employeeRows.stream()
+                        .filter(row -> row.getEmployee().getId().equals(call.getArgument(0)))
+                        .filter(row -> row.getCategory() == call.getArgument(1))
+                        .filter(row -> !row.getRecordDate().isBefore(call.getArgument(3)))
+                        .sorted(Comparator.comparing(EmployeeTrendDataModel::getRecordDate))
+                        .toList());
+        when(employeeTrendDataRepository.save(any(EmployeeTrendDataModel.class)))
+                .thenAnswer(call -> store(employeeRows, call.getArgument(0)));
+
+        TrendPartitionLock partitionLock = mock(TrendPartitionLock.class);
+        updater = new IncrementalTrendUpdater(
+                employeeRepository,
+                teamRepository,
+                ratingRepository,
+                teamTrendDataRepository,
+                employeeTrendDataRepository,
+                mock(TeamStatsRepository.class),
+                partitionLock,
+                new TrendSeriesRefresher(teamTrendDataRepository, employeeTrendDataRepository, partitionLock),
+                mock(TeamStatsRollupUpdater.class));
+    }
+
+    @Test
+    void matchesFullRecomputeWhenRatingsArriveInDateOrder() {
+        List<EngagementRatingModel> ratings = generateRatings(new Random(7));
+        ratings.sort(Comparator.comparing(EngagementRatingModel::getRatingDate));
+
+        ratings.forEach(updater::applyRating);
+
+        assertMatchesFullRecompute(ratings);
+    }
+
+    @Test
+    void matchesFullRecomputeWhenRatingsAreBackdated() {
+        Random random = new Random(11);
+        List<EngagementRatingModel> ratings = generateRatings(random);
+        Collections.shuffle(ratings, random);
+
+        ratings.forEach(updater::applyRating);
+
+        assertMatchesFullRecompute(ratings);
+    }
+
+    @Test
+    void keepsNewerRatingOfTheWeekWhenAnOlderOneArrivesLater() {
+        EmployeeModel employee = employees.values().iterator().next();
+        EngagementRatingModel newer = rating(employee, CampsCategory.MEANING, FIRST_MONDAY.plusDays(4), 9);
+        EngagementRatingModel older = rating(employee, CampsCategory.MEANING, FIRST_MONDAY.plusDays(1), 3);
+
+        updater.applyRating(newer);
+        updater.applyRating(older);
+
+        assertThat(teamRows).singleElement().satisfies(row -> {
+            assertThat(row.getAverageRating()).isEqualTo(9.0);
+            assertThat(row.getRatingCount()).isEqualTo(1);
+        });
+        assertMatchesFullRecompute(List.of(newer, older));
+    }
+
+    /**
+     * Between zero and two ratings per employee, category and week, each on its own day
+     */
+    private List<EngagementRatingModel> generateRatings(Random random) {
+        List<EngagementRatingModel> ratings = new ArrayList<>();
+        for (EmployeeModel employee : employees.values()) {
+            for (CampsCategory category : CATEGORIES) {
+                for (int week = 0; week < WEEKS; week++) {
+                    List<Integer> days = new ArrayList<>(List.of(0, 1, 2, 3, 4, 5, 6));
+                    Collections.shuffle(days, random);
+                    int count = random.nextInt(3);
+                    for (int i = 0; i < count; i++) {
+                        LocalDate date = FIRST_MONDAY.plusWeeks(week).plusDays(days.get(i));
+                        ratings.add(rating(employee, category, date, 1 + random.nextInt(10)));
+                    }
+                }
+            }
+        }
+        return ratings;
+    }
+
+    private void assertMatchesFullRecompute(List<EngagementRatingModel> ratings) {
+        List<TeamTrendDataModel> expectedTeamRows = new ArrayList<>();
+        List<EmployeeTrendDataModel> expectedEmployeeRows = new ArrayList<>();
+        RollingTrendWindow window = new RollingTrendWindow();
+        WeeklyTrendAggregator aggregator = new WeeklyTrendAggregator();
+
+        TrendWeek week = TrendWeek.containing(FIRST_MONDAY, ZoneOffset.UTC);
+        for (int i = 0; i < WEEKS; i++, week = week.next()) {
+            WeeklyTrendResult result = aggregator.aggregate(latestRatings(ratings, week), window.historyFor(week),
+                    week.end(), id -> team, employees::get);
+            window.addWeek(result);
+            expectedTeamRows.addAll(result.teamTrends());
+            expectedEmployeeRows.addAll(result.employeeTrends());
+        }
+
+        Comparator<TeamTrendDataModel> teamOrder = Comparator
+                .comparing(TeamTrendDataModel::getCategory)
+                .thenComparing(TeamTrendDataModel::getRecordDate);
+        Comparator<EmployeeTrendDataModel> employeeOrder = Comparator
+                .comparing((EmployeeTrendDataModel row) -> row.getEmployee().getId())
+                .thenComparing(EmployeeTrendDataModel::getCategory)
+                .thenComparing(EmployeeTrendDataModel::getRecordDate);
+
+        assertThat(teamRows.stream().sorted(teamOrder).toList())
+                .usingRecursiveFieldByFieldElementComparator(comparingValuesIgnoring("team"))
+                .containsExactlyElementsOf(expectedTeamRows.stream().sorted(teamOrder).toList());
+        assertThat(employeeRows.stream().sorted(employeeOrder).toList())
+                .usingRecursiveFieldByFieldElementComparator(comparingValuesIgnoring("employee", "team"))
+                .containsExactlyElementsOf(expectedEmployeeRows.stream().sorted(employeeOrder).toList());
+    }
+
+    private static RecursiveComparisonConfiguration comparingValuesIgnoring(String... references) {
+        return RecursiveComparisonConfiguration.builder()
+                .withIgnoredFields(references)
+                .withComparatorForType(CLOSE, Double.class)
+                .build();
+    }
+
+    /**
+     * The latest rating of each employee and category within a week, as the weekly job's query returns them
+     */
+    private static List<LatestRating> latestRatings(List<EngagementRatingModel> ratings, TrendWeek week) {
+        Map<List<Object>, EngagementRatingModel> latest = new HashMap<>();
+        for (EngagementRatingModel rating : ratings) {
+            LocalDate date = rating.getRatingDate().toLocalDate();
+            if (date.isBefore(week.startDate()) || date.isAfter(week.endDate())) {
+                continue;
+            }
+            latest.merge(List.of(rating.getEmployee().getId(), rating.getCategory()), rating,
+                    (a, b) -> a.getRatingDate().isAfter(b.getRatingDate()) ? a : b);
+        }
+
+        return latest.values().stream()
+                .map(rating -> new LatestRating(rating.getEmployee().getId(), rating.getEmployee().getTeam().getId(),
+                        rating.getCategory(), rating.getRating(), rating.getRatingDate().toLocalDate()))
+                .toList();
+    }
+
+    private static EngagementRatingModel rating(EmployeeModel employee, CampsCategory category, LocalDate date,
+                                                int value) {
+        return EngagementRatingModel.builder()
+                .id(UUID.randomUUID())
+                .employee(employee)
+                .category(category)
+                .ratingDate(date.atStartOfDay().atOffset(ZoneOffset.UTC))
+                .rating(value)
+                .build();
+    }
+
+    private static boolean isBetween(OffsetDateTime date, OffsetDateTime from, OffsetDateTime to) {
+        return !date.isBefore(from) && !date.isAfter(to);
+    }
+
+    private static <T> T store(List<T> rows, T row) {
+        if (rows.stream().noneMatch(stored -> stored == row)) {
+            rows.add(row);
+        }
+        return row;
+    }
+}
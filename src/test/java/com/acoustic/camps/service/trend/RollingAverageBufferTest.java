@@ -0,0 +1,173 @@
+package com.acoustic.camps.service.trend;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RollingAverageBufferTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 1, 6);
+
+    @Test
+    void hasNoAveragesBeforeAnyValue() {
+        RollingAverageBuffer buffer = new RollingAverageBuffer();
+
+        assertThat(buffer.fourWeekAverage()).isNull();
+        assertThat(buffer.twelveWeekAverage()).isNull();
+        assertThat(buffer.sixMonthAverage()).isNull();
+    }
+
+    @Test
+    void leavesOneWeekGapOutOfAverages() {
+        RollingAverageBuffer buffer = new RollingAverageBuffer();
+        buffer.put(week(0), 4);
+        buffer.put(week(2), 8);
+
+        assertThat(buffer.fourWeekAverage()).isEqualTo(6.0);
+        assertThat(buffer.twelveWeekAverage()).isEqualTo(6.0);
+        assertThat(buffer.sixMonthAverage()).isEqualTo(6.0);
+    }
+
+    @Test
+    void dropsValuesAsTheyLeaveEachWindow() {
+        RollingAverageBuffer buffer = new RollingAverageBuffer();
+        buffer.put(week(0), 2);
+        buffer.put(week(10), 6);
+
+        // Week 0 is outside the 4 week window but inside the 12 week one
+        assertThat(buffer.fourWeekAverage()).isEqualTo(6.0);
+        assertThat(buffer.twelveWeekAverage()).isEqualTo(4.0);
+        assertThat(buffer.sixMonthAverage()).isEqualTo(4.0);
+
+        buffer.put(week(25), 10);
+        assertThat(buffer.fourWeekAverage()).isEqualTo(10.0);
+        assertThat(buffer.twelveWeekAverage()).isEqualTo(10.0);
+        assertThat(buffer.sixMonthAverage()).isEqualTo(6.0);
+
+        buffer.put(week(26), 10);
+        assertThat(buffer.sixMonthAverage()).isEqualTo(26.0 / 3);
+    }
+
+    @Test
+    void startsOverAfterGapLongerThanSixMonths() {
+        for (int gap : new int[]{26, 27, 40}) {
+            RollingAverageBuffer buffer = new RollingAverageBuffer();
+            for (int i = 0; i < 10; i++) {
+                buffer.put(week(i), 9);
+            }
+            buffer.put(week(9 + gap), 3);
+
+            assertThat(buffer.fourWeekAverage()).as("gap of %d weeks", gap).isEqualTo(3.0);
+            assertThat(buffer.twelveWeekAverage()).as("gap of %d weeks", gap).isEqualTo(3.0);
+            assertThat(buffer.sixMonthAverage()).as("gap of %d weeks", gap).isEqualTo(3.0);
+        }
+    }
+
+    @Test
+    void replacesValueOfWeekAlreadyPresent() {
+        RollingAverageBuffer buffer = new RollingAverageBuffer();
+        buffer.put(week(0), 2);
+        buffer.put(week(1), 4);
+        buffer.put(week(1).plusDays(6), 8);
+
+        assertThat(buffer.fourWeekAverage()).isEqualTo(5.0);
+
+        // An earlier week still inside every window
+        buffer.put(week(0).plusDays(3), 6);
+        assertThat(buffer.fourWeekAverage()).isEqualTo(7.0);
+        assertThat(buffer.twelveWeekAverage()).isEqualTo(7.0);
+        assertThat(buffer.sixMonthAverage()).isEqualTo(7.0);
+    }
+
+    @Test
+    void addsEarlierWeekOnlyToWindowsThatReachIt() {
+        RollingAverageBuffer buffer = new RollingAverageBuffer();
+        buffer.put(week(20), 10);
+        buffer.put(week(10), 4);
+
+        assertThat(buffer.fourWeekAverage()).isEqualTo(10.0);
+        assertThat(buffer.twelveWeekAverage()).isEqualTo(7.0);
+        assertThat(buffer.sixMonthAverage()).isEqualTo(7.0);
+
+        buffer.put(week(0), 1);
+        assertThat(buffer.twelveWeekAverage()).isEqualTo(7.0);
+        assertThat(buffer.sixMonthAverage()).isEqualTo(5.0);
+    }
+
+    @Test
+    void ignoresWeeksOutOfReach() {
+        RollingAverageBuffer buffer = new RollingAverageBuffer();
+        buffer.put(week(30), 5);
+        buffer.put(week(4), 100);
+        buffer.put(week(0), 100);
+
+        assertThat(buffer.fourWeekAverage()).isEqualTo(5.0);
+        assertThat(buffer.twelveWeekAverage()).isEqualTo(5.0);
+        assertThat(buffer.sixMonthAverage()).isEqualTo(5.0);
+
+        // The oldest week the buffer still holds
+        buffer.put(week(5), 1);
+        assertThat(buffer.sixMonthAverage()).isEqualTo(3.0);
+    }
+
+    @Test
+    void matchesNaiveRecomputation() {
+        Random random = new Random(42);
+        RollingAverageBuffer buffer = new RollingAverageBuffer();
+        Map<Integer, Double> naive = new TreeMap<>();
+        int latest = 0;
+        buffer.put(week(latest), 5);
+        naive.put(latest, 5.0);
+
+        for (int step = 0; step < 2_000; step++) {
+            int week;
+            double roll = random.nextDouble();
+            if (roll < 0.15) {
+                // Rewrite or fill in a week up to 30 back, which may be out of reach
+                week = latest - random.nextInt(31);
+            } else if (roll < 0.2) {
+                week = latest + 1 + random.nextInt(40);
+            } else {
+                week = latest + 1 + random.nextInt(3);
+            }
+            double value = 1 + random.nextInt(10);
+
+            buffer.put(week(week), value);
+            if (week > latest - 26) {
+                naive.put(week, value);
+                latest = Math.max(latest, week);
+            }
+
+            assertAverage(buffer.fourWeekAverage(), naive, latest, 4);
+            assertAverage(buffer.twelveWeekAverage(), naive, latest, 12);
+            assertAverage(buffer.sixMonthAverage(), naive, latest, 26);
+        }
+    }
+
+    private static void assertAverage(Double actual, Map<Integer, Double> naive, int latest, int window) {
+        double sum = 0;
+        int count = 0;
+        for (Map.Entry<Integer, Double> entry : naive.entrySet()) {
+            if (entry.getKey() > latest - window && entry.getKey() <= latest) {
+                sum += entry.getValue();
+                count++;
+            }
+        }
+
+        if (count == 0) {
+            assertThat(actual).isNull();
+        } else {
+            assertThat(actual).isCloseTo(sum / count, within(1e-9));
+        }
+    }
+
+    private static LocalDate week(int index) {
+        return MONDAY.plusWeeks(index);
+    }
+}
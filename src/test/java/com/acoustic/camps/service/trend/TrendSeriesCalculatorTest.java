@@ -0,0 +1,247 @@
+package com.acoustic.camps.service.trend;
+
+import com.acoustic.camps.codegen.types.StabilityRating;
+import com.acoustic.camps.codegen.types.TrendDirection;
+import com.acoustic.camps.model.TrendSeriesStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrendSeriesCalculatorTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    void startsNewSeries() {
+        TrendSeriesStatistics empty = TrendSeriesStatistics.builder().count(0).build();
+
+        for (TrendSeriesStatistics previous : new TrendSeriesStatistics[]{null, empty}) {
+            TrendSeriesStatistics statistics = TrendSeriesCalculator.advance(previous, 7, null);
+
+            assertThat(statistics.getCount()).isEqualTo(1);
+            assertThat(statistics.getMean()).isEqualTo(7.0);
+            assertThat(statistics.getM2()).isEqualTo(0.0);
+            assertThat(statistics.getEwma()).isEqualTo(7.0);
+            assertThat(statistics.getEwmVariance()).isEqualTo(0.0);
+            assertThat(statistics.getVolatilityScore()).isEqualTo(0.0);
+            assertThat(statistics.getStabilityRating()).isEqualTo(StabilityRating.VERY_STABLE);
+            assertThat(statistics.getTrendDirection()).isEqualTo(TrendDirection.STABLE);
+            assertThat(statistics.getSeasonalityDetected()).isFalse();
+        }
+    }
+
+    @Test
+    void leavesPreviousStatisticsUntouched() {
+        TrendSeriesStatistics previous = fold(4, 6, 5).get(2);
+        double mean = previous.getMean();
+        double slopeSumXy = previous.getSlopeSumXy();
+
+        TrendSeriesCalculator.advance(previous, 9, null);
+
+        assertThat(previous.getCount()).isEqualTo(3);
+        assertThat(previous.getMean()).isEqualTo(mean);
+        assertThat(previous.getSlopeSumXy()).isEqualTo(slopeSumXy);
+    }
+
+    @Test
+    void matchesBatchMeanAndVariance() {
+        double[] values = randomSeries(40);
+        List<TrendSeriesStatistics> steps = fold(values);
+
+        for (int n = 1; n <= values.length; n++) {
+            TrendSeriesStatistics statistics = steps.get(n - 1);
+            double mean = 0;
+            for (int i = 0; i < n; i++) {
+                mean += values[i] / n;
+            }
+            double squares = 0;
+            for (int i = 0; i < n; i++) {
+                squares += (values[i] - mean) * (values[i] - mean);
+            }
+
+            assertThat(statistics.getCount()).isEqualTo(n);
+            assertThat(statistics.getMean()).isCloseTo(mean, within(TOLERANCE));
+            assertThat(statistics.getM2()).isCloseTo(squares, within(TOLERANCE));
+        }
+    }
+
+    @Test
+    void matchesBatchExponentiallyWeightedMeanAndVariance() {
+        double[] values = randomSeries(40);
+        List<TrendSeriesStatistics> steps = fold(values);
+
+        for (int n = 1; n <= values.length; n++) {
+            // The first value carries the weight of everything before the series; the rest decay from the newest
+            double[] weights = new double[n];
+            weights[0] = Math.pow(1 - TrendSeriesCalculator.EWMA_ALPHA, n - 1);
+            for (int i = 1; i < n; i++) {
+                weights[i] = TrendSeriesCalculator.EWMA_ALPHA * Math.pow(1 - TrendSeriesCalculator.EWMA_ALPHA, n - 1 - i);
+            }
+            double mean = 0;
+            for (int i = 0; i < n; i++) {
+                mean += weights[i] * values[i];
+            }
+            double variance = 0;
+            for (int i = 0; i < n; i++) {
+                variance += weights[i] * (values[i] - mean) * (values[i] - mean);
+            }
+
+            assertThat(steps.get(n - 1).getEwma()).isCloseTo(mean, within(TOLERANCE));
+            assertThat(steps.get(n - 1).getEwmVariance()).isCloseTo(variance, within(TOLERANCE));
+        }
+    }
+
+    @Test
+    void matchesBatchWeightedLeastSquaresSlope() {
+        double[] values = randomSeries(40);
+        List<TrendSeriesStatistics> steps = fold(values);
+
+        for (int n = 3; n <= values.length; n++) {
+            double slope = batchSlope(values, n);
+
+            assertThat(slopeOf(steps.get(n - 1))).as("slope after %d weeks", n).isCloseTo(slope, within(TOLERANCE));
+            assertThat(steps.get(n - 1).getTrendDirection()).isEqualTo(TrendSeriesCalculator.trendDirection(slope));
+        }
+    }
+
+    @Test
+    void reportsNoDirectionBeforeThirdWeek() {
+        List<TrendSeriesStatistics> steps = fold(1, 10, 10);
+
+        assertThat(steps.get(1).getTrendDirection()).isEqualTo(TrendDirection.STABLE);
+        assertThat(steps.get(2).getTrendDirection()).isEqualTo(TrendDirection.STRONGLY_INCREASING);
+    }
+
+    @Test
+    void findsExactSlopeOfLinearSeries() {
+        double[] rising = new double[20];
+        double[] falling = new double[20];
+        for (int i = 0; i < rising.length; i++) {
+            rising[i] = 3 + 0.3 * i;
+            falling[i] = 8 - 0.1 * i;
+        }
+
+        TrendSeriesStatistics risingStatistics = last(fold(rising));
+        TrendSeriesStatistics fallingStatistics = last(fold(falling));
+
+        assertThat(slopeOf(risingStatistics)).isCloseTo(0.3, within(TOLERANCE));
+        assertThat(risingStatistics.getTrendDirection()).isEqualTo(TrendDirection.STRONGLY_INCREASING);
+        assertThat(slopeOf(fallingStatistics)).isCloseTo(-0.1, within(TOLERANCE));
+        assertThat(fallingStatistics.getTrendDirection()).isEqualTo(TrendDirection.DECREASING);
+    }
+
+    @Test
+    void usesSampleVarianceUntilWarmedUp() {
+        List<TrendSeriesStatistics> steps = fold(5, 6, 5, 6, 6);
+
+        for (int n = 2; n <= 3; n++) {
+            TrendSeriesStatistics statistics = steps.get(n - 1);
+            double sampleDeviation = Math.sqrt(statistics.getM2() / (n - 1));
+            assertThat(statistics.getVolatilityScore()).isCloseTo(sampleDeviation / 2, within(TOLERANCE));
+        }
+        for (int n = 4; n <= 5; n++) {
+            TrendSeriesStatistics statistics = steps.get(n - 1);
+            double ewmDeviation = Math.sqrt(statistics.getEwmVariance());
+            assertThat(statistics.getVolatilityScore()).isCloseTo(ewmDeviation / 2, within(TOLERANCE));
+            assertThat(ewmDeviation).isNotCloseTo(Math.sqrt(statistics.getM2() / (n - 1)), within(0.01));
+        }
+        assertThat(steps.get(1).getStabilityRating()).isEqualTo(StabilityRating.MODERATE);
+    }
+
+    @Test
+    void saturatesVolatilityScore() {
+        TrendSeriesStatistics statistics = last(fold(1, 10, 1, 10, 1, 10));
+
+        assertThat(statistics.getVolatilityScore()).isEqualTo(1.0);
+        assertThat(statistics.getStabilityRating()).isEqualTo(StabilityRating.VERY_VOLATILE);
+    }
+
+    @Test
+    void treatsWeeksEitherSideOfGapAsAdjacent() {
+        double[] values = {4, 5, 7, 6, 8};
+        int[] contiguousWeeks = {0, 1, 2, 3, 4};
+        int[] gappedWeeks = {0, 1, 5, 6, 10};
+
+        TrendSeriesStatistics contiguous = last(fold(values, contiguousWeeks));
+        TrendSeriesStatistics gapped = last(fold(values, gappedWeeks));
+
+        assertThat(gapped.getCount()).isEqualTo(values.length);
+        assertThat(gapped.getMean()).isEqualTo(contiguous.getMean());
+        assertThat(gapped.getEwma()).isEqualTo(contiguous.getEwma());
+        assertThat(gapped.getEwmVariance()).isEqualTo(contiguous.getEwmVariance());
+        assertThat(slopeOf(gapped)).isEqualTo(slopeOf(contiguous));
+        assertThat(slopeOf(gapped)).isCloseTo(batchSlope(values, values.length), within(TOLERANCE));
+    }
+
+    /**
+     * Weighted least-squares slope of the first n values, the newest at x = 0 with weight 1
+     */
+    private static double batchSlope(double[] values, int n) {
+        double weight = 0, meanX = 0, meanY = 0;
+        for (int i = 0; i < n; i++) {
+            double w = Math.pow(TrendSeriesCalculator.SLOPE_DECAY, n - 1 - i);
+            weight += w;
+            meanX += w * (i - (n - 1));
+            meanY += w * values[i];
+        }
+        meanX /= weight;
+        meanY /= weight;
+
+        double covariance = 0, varianceX = 0;
+        for (int i = 0; i < n; i++) {
+            double w = Math.pow(TrendSeriesCalculator.SLOPE_DECAY, n - 1 - i);
+            double dx = i - (n - 1) - meanX;
+            covariance += w * dx * (values[i] - meanY);
+            varianceX += w * dx * dx;
+        }
+        return covariance / varianceX;
+    }
+
+    private static double slopeOf(TrendSeriesStatistics statistics) {
+        double weight = statistics.getSlopeWeight();
+        double sumX = statistics.getSlopeSumX();
+        return (weight * statistics.getSlopeSumXy() - sumX * statistics.getSlopeSumY())
+                / (weight * statistics.getSlopeSumXx() - sumX * sumX);
+    }
+
+    private static List<TrendSeriesStatistics> fold(double... values) {
+        List<TrendSeriesStatistics> steps = new ArrayList<>();
+        TrendSeriesStatistics statistics = null;
+        for (double value : values) {
+            statistics = TrendSeriesCalculator.advance(statistics, value, null);
+            steps.add(statistics);
+        }
+        return steps;
+    }
+
+    private static List<TrendSeriesStatistics> fold(double[] values, int[] weeks) {
+        RollingAverageBuffer rolling = new RollingAverageBuffer();
+        List<TrendSeriesStatistics> steps = new ArrayList<>();
+        TrendSeriesStatistics statistics = null;
+        for (int i = 0; i < values.length; i++) {
+            rolling.put(LocalDate.of(2025, 1, 6).plusWeeks(weeks[i]), values[i]);
+            statistics = TrendSeriesCalculator.advance(statistics, values[i], rolling);
+            steps.add(statistics);
+        }
+        return steps;
+    }
+
+    private static TrendSeriesStatistics last(List<TrendSeriesStatistics> steps) {
+        return steps.get(steps.size() - 1);
+    }
+
+    private static double[] randomSeries(int length) {
+        Random random = new Random(7);
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = 1 + random.nextInt(10);
+        }
+        return values;
+    }
+}